@@ -0,0 +1,92 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.customerDTO.CustomerProfileResponseDTO;
+import com.fintara.dtos.loanRequestDTO.LoanRequestApprovalDTO;
+import com.fintara.models.CustomerDetails;
+import com.fintara.models.LoanRequest;
+import com.fintara.models.LoanStatus;
+import com.fintara.models.User;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Mapping entity -> DTO: mapper MapStruct dibandingkan dengan cara lama (ModelMapper, reflection)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final CustomerMapper customerMapper = Mappers.getMapper(CustomerMapper.class);
+    private final LoanRequestMapper loanRequestMapper = Mappers.getMapper(LoanRequestMapper.class);
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private CustomerDetails customerDetails;
+    private LoanRequest loanRequest;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder()
+                .id(new UUID(0, 1))
+                .name("Budi Santoso")
+                .email("budi@fintara.id")
+                .build();
+        customerDetails = CustomerDetails.builder()
+                .id(new UUID(0, 2))
+                .user(user)
+                .ttl(LocalDate.of(1990, 5, 17))
+                .alamat("Jl. Sudirman 1")
+                .noTelp("081234567890")
+                .nik("3174012345678901")
+                .namaIbuKandung("Siti")
+                .pekerjaan("Karyawan")
+                .gaji(new BigDecimal("12500000"))
+                .noRek("1234567890")
+                .statusRumah("Milik Sendiri")
+                .build();
+        loanRequest = LoanRequest.builder()
+                .id(new UUID(0, 3))
+                .customer(customerDetails)
+                .status(LoanStatus.builder().name("REVIEW").build())
+                .amount(new BigDecimal("5000000"))
+                .tenor(12)
+                .build();
+
+        // Type map ModelMapper dibuat di pemanggilan pertama; jangan ikut terukur
+        modelMapper.map(customerDetails, CustomerProfileResponseDTO.class);
+    }
+
+    @Benchmark
+    public CustomerProfileResponseDTO customerProfileMapStruct() {
+        return customerMapper.toProfileResponse(customerDetails);
+    }
+
+    @Benchmark
+    public CustomerProfileResponseDTO customerProfileModelMapper() {
+        CustomerProfileResponseDTO dto = modelMapper.map(customerDetails, CustomerProfileResponseDTO.class);
+        dto.setName(customerDetails.getUser().getName());
+        dto.setEmail(customerDetails.getUser().getEmail());
+        return dto;
+    }
+
+    @Benchmark
+    public LoanRequestApprovalDTO approvalQueueItemMapStruct() {
+        return loanRequestMapper.toApprovalQueueItem(loanRequest);
+    }
+}
@@ -0,0 +1,65 @@
+package com.fintara.services;
+
+import com.fintara.models.Branch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Pencarian cabang terdekat saat pengajuan pinjaman (tanpa query marketing per cabang)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BranchServiceBenchmark {
+
+    // Titik pengajuan: Monas, Jakarta
+    private static final double LATITUDE = -6.1754;
+    private static final double LONGITUDE = 106.8272;
+
+    @Param({"10", "100", "1000"})
+    public int branchCount;
+
+    private List<Branch> branches;
+
+    @Setup
+    public void setUp() {
+        // Seed tetap: koordinat cabang sama di setiap run, tersebar di wilayah Indonesia
+        Random random = new Random(42);
+        branches = new ArrayList<>(branchCount);
+        for (int i = 0; i < branchCount; i++) {
+            branches.add(Branch.builder()
+                    .id(new UUID(0, i))
+                    .name("Cabang " + i)
+                    .latitude(-11 + random.nextDouble() * 17)
+                    .longitude(95 + random.nextDouble() * 46)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public double haversineDistance() {
+        Branch branch = branches.get(0);
+        return BranchService.haversineDistance(LATITUDE, LONGITUDE, branch.getLatitude(), branch.getLongitude());
+    }
+
+    @Benchmark
+    public List<Branch> sortByDistance() {
+        return BranchService.sortByDistance(branches, LATITUDE, LONGITUDE);
+    }
+}
@@ -0,0 +1,72 @@
+package com.fintara.services;
+
+import com.fintara.dtos.loanRequestDTO.LoanPreviewResponseDTO;
+import com.fintara.models.LoanRequest;
+import com.fintara.models.Plafond;
+import com.fintara.models.RepaymentSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Perhitungan pinjaman: simulasi/preview, jadwal cicilan dan denda keterlambatan
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanCalculationBenchmark {
+
+    private static final LocalDate START_DATE = LocalDate.of(2025, 1, 15);
+
+    @Param({"5000000", "150000000"})
+    public String amount;
+
+    @Param({"6", "12", "24"})
+    public int tenor;
+
+    private BigDecimal principal;
+    private BigDecimal interestRate;
+    private BigDecimal feeRate;
+    private LoanRequest loanRequest;
+
+    @Setup
+    public void setUp() {
+        principal = new BigDecimal(amount);
+        interestRate = new BigDecimal("0.02");
+        feeRate = new BigDecimal("0.03");
+        loanRequest = LoanRequest.builder()
+                .amount(principal)
+                .tenor(tenor)
+                .plafond(Plafond.builder().name("Bronze").interestRate(interestRate).feeRate(feeRate).build())
+                .build();
+    }
+
+    @Benchmark
+    public LoanPreviewResponseDTO quote() {
+        return LoanRequestService.quote(principal, tenor, interestRate, feeRate);
+    }
+
+    @Benchmark
+    public List<RepaymentSchedule> buildSchedules() {
+        return RepaymentScheduleService.buildSchedules(loanRequest, START_DATE);
+    }
+
+    @Benchmark
+    public BigDecimal penalty() {
+        return RepaymentScheduleService.penalty(principal, 30);
+    }
+}
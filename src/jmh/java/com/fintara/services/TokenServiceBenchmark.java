@@ -0,0 +1,45 @@
+package com.fintara.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Hash SHA-256 token untuk blacklist (logout dan cek token)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    // Token reset password (UUID) dan JWT biasa
+    @Param({"36", "256"})
+    public int tokenLength;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(tokenLength);
+        for (int i = 0; i < tokenLength; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        token = builder.toString();
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return TokenService.hashToken(token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.fintara.utils;
+
+import com.fintara.models.Role;
+import com.fintara.models.User;
+import com.fintara.security.UserDetailsImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Pembuatan dan parsing JWT (HS256), dijalankan di setiap request yang membawa token
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        byte[] key = new byte[64];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) i;
+        }
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", Base64.getEncoder().encodeToString(key));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationHour", 24);
+
+        User user = User.builder()
+                .id(UUID.fromString("3f2b8c1e-5a6d-4e7f-8a9b-0c1d2e3f4a5b"))
+                .email("budi@fintara.id")
+                .role(Role.builder().name("CUSTOMER").build())
+                .build();
+        UserDetailsImpl principal = new UserDetailsImpl(user, user.getEmail(), user.getId(), "CUSTOMER", "secret", List.of());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+        token = jwtUtils.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtUtils.getUsername(token);
+    }
+}
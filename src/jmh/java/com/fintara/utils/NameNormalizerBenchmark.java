@@ -0,0 +1,39 @@
+package com.fintara.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NameNormalizerBenchmark {
+
+    // Satu kata dan nama cabang panjang (jalur split)
+    @Param({"jakarta", "  kantor CABANG jakarta selatan  "})
+    public String name;
+
+    private final NameNormalizer nameNormalizer = new NameNormalizer();
+
+    @Benchmark
+    public String normalizedName() {
+        return nameNormalizer.normalizedName(name);
+    }
+
+    @Benchmark
+    public String normalizeRoleName() {
+        return nameNormalizer.normalizeRoleName(name.trim());
+    }
+}
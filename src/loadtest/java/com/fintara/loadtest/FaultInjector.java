@@ -0,0 +1,62 @@
+package com.fintara.loadtest;
+
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latensi dan gangguan buatan untuk satu layanan luar yang dipalsukan.
+ *
+ * Konfigurasi per target ({@code smtp}, {@code fcm}, {@code storage}, {@code midtrans}, {@code google}):
+ * {@code loadtest.fake.<target>.latency-ms}, {@code .jitter-ms} dan {@code .error-rate} (0..1).
+ */
+public class FaultInjector {
+
+    private final String target;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+
+    public FaultInjector(String target, long latencyMs, long jitterMs, double errorRate) {
+        this.target = target;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+    }
+
+    public static FaultInjector of(Environment environment, String target) {
+        String prefix = "loadtest.fake." + target + ".";
+        return new FaultInjector(target,
+                environment.getProperty(prefix + "latency-ms", Long.class, 0L),
+                environment.getProperty(prefix + "jitter-ms", Long.class, 0L),
+                environment.getProperty(prefix + "error-rate", Double.class, 0.0));
+    }
+
+    /**
+     * Tunggu selama latensi yang dikonfigurasi (ditambah jitter acak).
+     *
+     * @return true jika panggilan ini harus disimulasikan gagal
+     */
+    public boolean delayAndShouldFail() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    public String failureMessage() {
+        return "gangguan " + target + " (fake)";
+    }
+
+    @Override
+    public String toString() {
+        return target + ": latensi " + latencyMs + "±" + jitterMs + " ms, error " + (errorRate * 100) + "%";
+    }
+}
@@ -0,0 +1,100 @@
+package com.fintara.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latensi dan error per endpoint selama satu run load test, diukur di sisi client (termasuk jaringan loopback).
+ * Persentil dihitung dengan Micrometer di registry terpisah, tidak tercampur dengan metrik aplikasi.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    // Urutan cetak mengikuti urutan endpoint pertama kali dipanggil
+    private final Map<String, Long> firstSeen = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Counter> scenarioFailures = new ConcurrentSkipListMap<>();
+    private final Counter completedLoans = registry.counter("loadtest.loans.completed");
+
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    public void start() {
+        startedAt = System.nanoTime();
+    }
+
+    public void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    public void record(String endpoint, long elapsedNanos, boolean success) {
+        firstSeen.computeIfAbsent(endpoint, ignored -> sequence.getAndIncrement());
+        timer(endpoint).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            registry.counter("loadtest.errors", "endpoint", endpoint).increment();
+        }
+    }
+
+    public void loanCompleted() {
+        completedLoans.increment();
+    }
+
+    // Skenario user berhenti di langkah ini (request gagal atau respons tidak sesuai)
+    public void scenarioFailed(String step) {
+        scenarioFailures.computeIfAbsent(step, key -> registry.counter("loadtest.scenario.failed", "step", key)).increment();
+    }
+
+    public void print(PrintStream out) {
+        double wallSeconds = Math.max(1, finishedAt - startedAt) / 1e9;
+
+        out.println();
+        out.printf("Load test selesai dalam %.1f detik, %d pinjaman selesai sampai pembayaran%n",
+                wallSeconds, (long) completedLoans.count());
+        out.printf("%-24s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "request", "error", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+
+        firstSeen.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .forEach(endpoint -> {
+                    HistogramSnapshot snapshot = timer(endpoint).takeSnapshot();
+                    double errors = registry.counter("loadtest.errors", "endpoint", endpoint).count();
+                    out.printf("%-24s %8d %7d %9.1f", endpoint, snapshot.count(), (long) errors, snapshot.count() / wallSeconds);
+                    for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                        out.printf(" %9.1f", percentile.value(TimeUnit.MILLISECONDS));
+                    }
+                    out.printf(" %9.1f%n", snapshot.max(TimeUnit.MILLISECONDS));
+                });
+
+        if (!scenarioFailures.isEmpty()) {
+            out.println();
+            out.println("Skenario berhenti per langkah:");
+            scenarioFailures.forEach((step, counter) -> out.printf("  %-22s %d%n", step, (long) counter.count()));
+        }
+    }
+
+    private Timer timer(String endpoint) {
+        return Timer.builder("loadtest.request")
+                .tag("endpoint", endpoint)
+                .publishPercentiles(PERCENTILES)
+                .percentilePrecision(3)
+                // Persentil mencakup seluruh run, bukan jendela waktu bergeser
+                .distributionStatisticExpiry(Duration.ofDays(1))
+                .distributionStatisticBufferLength(1)
+                .register(registry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.fintara.loadtest;
+
+import com.fintara.Main;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * Menjalankan aplikasi dengan profil {@code loadtest} beserta semua dependensinya di satu proses:
+ * H2 in-memory, Redis embedded, SMTP GreenMail dan fake layanan luar ({@link LoadTestFakesConfig}).
+ * Setelah aplikasi siap, {@link WorkloadGenerator} dijalankan terhadap port HTTP acak lalu laporannya dicetak.
+ *
+ * Jalankan dengan {@code ./mvnw -P loadtest test-compile exec:java}, lihat {@code src/loadtest/README.md}.
+ */
+public class LoadTestApplication {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        int redisPort = freePort();
+        int smtpPort = freePort();
+        System.setProperty("loadtest.redis.port", String.valueOf(redisPort));
+        System.setProperty("loadtest.smtp.port", String.valueOf(smtpPort));
+
+        RedisServer redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        GreenMail mailServer = new GreenMail(new ServerSetup(smtpPort, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        mailServer.start();
+        logger.info("✅ Redis embedded di port {}, SMTP GreenMail di port {}", redisPort, smtpPort);
+
+        try {
+            SpringApplication application = new SpringApplication(Main.class);
+            application.setAdditionalProfiles("loadtest");
+            // Konfigurasi loadtest harus menang atas environment variable milik developer (SPRING_DATASOURCE_URL, dst),
+            // tapi tetap bisa ditimpa dengan -D saat menjalankan
+            application.addInitializers(context -> {
+                try {
+                    context.getEnvironment().getPropertySources().addAfter(StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME,
+                            new ResourcePropertySource("loadtest", "classpath:application-loadtest.properties"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            try (ConfigurableApplicationContext context = application.run(args)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+                WorkloadGenerator generator = new WorkloadGenerator("http://127.0.0.1:" + port + contextPath,
+                        WorkloadGenerator.Settings.from(context.getEnvironment()), mailServer);
+                generator.run().print(System.out);
+            }
+        } finally {
+            mailServer.stop();
+            redisServer.stop();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
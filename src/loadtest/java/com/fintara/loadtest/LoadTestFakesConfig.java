@@ -0,0 +1,158 @@
+package com.fintara.loadtest;
+
+import com.fintara.metrics.Instrumentation;
+import com.fintara.push.InMemoryPushGateway;
+import com.fintara.push.PushGateway;
+import com.fintara.services.MidtransPaymentService;
+import com.fintara.storage.LocalStorageGateway;
+import com.fintara.storage.StorageGateway;
+import com.fintara.utils.GoogleTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Pengganti in-process untuk semua layanan luar saat load test. Setiap pengganti memakai {@link FaultInjector}
+ * sendiri sehingga latensi dan tingkat gangguan bisa diatur per layanan.
+ *
+ * FCM dan Cloudinary memakai fake yang sudah ada ({@code push.provider=fake}, {@code storage.provider=local})
+ * yang dibungkus dengan latensi dan gangguan. SMTP diarahkan ke GreenMail yang dijalankan {@link LoadTestApplication}.
+ * Midtrans dan verifikasi token Google diganti subclass yang tidak memanggil jaringan.
+ */
+@Configuration
+@Profile("loadtest")
+// JavaMailSender di sini membuat auto-config mail mundur, jadi MailProperties didaftarkan sendiri
+@EnableConfigurationProperties(MailProperties.class)
+public class LoadTestFakesConfig {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestFakesConfig.class);
+
+    private static final String GOOGLE_TOKEN_PREFIX = "loadtest|";
+
+    // ID token Google palsu yang diterima verifier load test: loadtest|<email>|<nama>
+    public static String googleIdToken(String email, String name) {
+        return GOOGLE_TOKEN_PREFIX + email + "|" + name;
+    }
+
+    @Bean
+    @Primary
+    public PushGateway faultInjectingPushGateway(InMemoryPushGateway delegate, Environment environment) {
+        FaultInjector faults = faults(environment, "fcm");
+        return messages -> {
+            if (faults.delayAndShouldFail()) {
+                // Seperti gangguan sementara FCM: semua pesan di batch boleh dikirim ulang
+                return Collections.nCopies(messages.size(),
+                        new PushGateway.SendResult(PushGateway.Outcome.RETRYABLE, faults.failureMessage()));
+            }
+            return delegate.sendEach(messages);
+        };
+    }
+
+    @Bean
+    @Primary
+    public StorageGateway faultInjectingStorageGateway(LocalStorageGateway delegate, Environment environment) {
+        FaultInjector faults = faults(environment, "storage");
+        return (file, folder) -> {
+            if (faults.delayAndShouldFail()) {
+                throw new IOException(faults.failureMessage());
+            }
+            return delegate.upload(file, folder);
+        };
+    }
+
+    // Menggantikan JavaMailSender bawaan Spring Boot; host & port menunjuk ke GreenMail
+    @Bean
+    public JavaMailSender faultInjectingMailSender(MailProperties mailProperties, Environment environment) {
+        FaultInjector faults = faults(environment, "smtp");
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+            @Override
+            protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                if (faults.delayAndShouldFail()) {
+                    // Koneksi putus di tengah batch: semua pesan dilaporkan gagal dan akan dicoba ulang
+                    Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+                    for (MimeMessage message : mimeMessages) {
+                        failedMessages.put(message, new MessagingException(faults.failureMessage()));
+                    }
+                    throw new MailSendException(faults.failureMessage(), null, failedMessages);
+                }
+                super.doSend(mimeMessages, originalMessages);
+            }
+        };
+        mailSender.setHost(mailProperties.getHost());
+        mailSender.setPort(mailProperties.getPort());
+        mailSender.setDefaultEncoding("UTF-8");
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(mailProperties.getProperties());
+        mailSender.setJavaMailProperties(javaMailProperties);
+        return mailSender;
+    }
+
+    @Bean
+    @Primary
+    public MidtransPaymentService fakeMidtransPaymentService(Environment environment) {
+        FaultInjector faults = faults(environment, "midtrans");
+        return new MidtransPaymentService() {
+            @Override
+            public String generateSnapToken(UUID repaymentScheduleId, long amount) {
+                if (faults.delayAndShouldFail()) {
+                    throw new IllegalStateException(faults.failureMessage());
+                }
+                return "loadtest-snap-" + repaymentScheduleId;
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public GoogleTokenVerifier fakeGoogleTokenVerifier(Instrumentation instrumentation, Environment environment) {
+        FaultInjector faults = faults(environment, "google");
+        return new GoogleTokenVerifier(instrumentation) {
+            @Override
+            public GoogleIdToken.Payload verify(String idTokenString) {
+                // Token tidak valid dan gangguan sama-sama berakhir null, seperti verifier aslinya
+                if (faults.delayAndShouldFail() || !idTokenString.startsWith(GOOGLE_TOKEN_PREFIX)) {
+                    return null;
+                }
+                String[] parts = idTokenString.substring(GOOGLE_TOKEN_PREFIX.length()).split("\\|", 2);
+                GoogleIdToken.Payload payload = new GoogleIdToken.Payload();
+                payload.setEmail(parts[0]);
+                payload.setEmailVerified(true);
+                payload.set("name", parts.length > 1 ? parts[1] : parts[0]);
+                return payload;
+            }
+        };
+    }
+
+    @Bean
+    public static SqlServerStatementShim sqlServerStatementShim(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                                                ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new SqlServerStatementShim(entityManagerFactory, transactionManager);
+    }
+
+    private static FaultInjector faults(Environment environment, String target) {
+        FaultInjector faults = FaultInjector.of(environment, target);
+        logger.info("Fake {}", faults);
+        return faults;
+    }
+}
@@ -0,0 +1,66 @@
+package com.fintara.loadtest;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Beberapa entity memakai {@code columnDefinition} khusus SQL Server. Sebelum skema H2 dibuat, tipe kolom itu
+ * diganti dengan padanannya di H2. Didaftarkan lewat {@code hibernate.integrator_provider} di profil loadtest.
+ */
+public class SqlServerColumnTypeShim implements IntegratorProvider {
+
+    private static final Map<String, String> H2_TYPES = Map.of(
+            "BINARY(16)", "UUID",
+            "NVARCHAR(MAX)", "CHARACTER VARYING(1000000)");
+
+    // Column.setSqlType menolak mengganti tipe yang sudah diisi dari columnDefinition, jadi field-nya diisi langsung
+    private static final Field SQL_TYPE_NAME;
+
+    static {
+        try {
+            SQL_TYPE_NAME = Column.class.getDeclaredField("sqlTypeName");
+            SQL_TYPE_NAME.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Versi Hibernate tidak didukung shim tipe kolom", e);
+        }
+    }
+
+    @Override
+    public List<Integrator> getIntegrators() {
+        return List.of(new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                for (Table table : metadata.collectTableMappings()) {
+                    for (Column column : table.getColumns()) {
+                        String h2Type = column.getSqlType() == null ? null : H2_TYPES.get(column.getSqlType().toUpperCase());
+                        if (h2Type != null) {
+                            replaceSqlType(column, h2Type);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        });
+    }
+
+    private static void replaceSqlType(Column column, String sqlType) {
+        try {
+            SQL_TYPE_NAME.set(column, sqlType);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
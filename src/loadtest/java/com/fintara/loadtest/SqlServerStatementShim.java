@@ -0,0 +1,83 @@
+package com.fintara.loadtest;
+
+import com.fintara.models.User;
+import com.fintara.models.UserDeviceToken;
+import com.fintara.repositories.UserDeviceTokenRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database load test adalah H2 (mode MSSQLServer). Statement native khusus SQL Server di
+ * {@link UserDeviceTokenRepository} tidak bisa dijalankan di H2, jadi diganti di sini:
+ * upsert token ({@code MERGE ... WITH (HOLDLOCK)}) menjadi update lalu insert lewat JPA, dan migrasi
+ * dari model satu device (T-SQL dinamis) dilewati karena skema load test selalu dibuat baru.
+ * Method repository lainnya diteruskan apa adanya.
+ */
+public class SqlServerStatementShim implements BeanPostProcessor {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    public SqlServerStatementShim(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                  ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof UserDeviceTokenRepository repository)) {
+            return bean;
+        }
+        return Proxy.newProxyInstance(UserDeviceTokenRepository.class.getClassLoader(),
+                new Class<?>[]{UserDeviceTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "upsert" -> upsert((UUID) args[0], (String) args[1], (String) args[2], (LocalDateTime) args[3]);
+                    case "migrateFromSingleDevice" -> null;
+                    default -> {
+                        try {
+                            yield method.invoke(repository, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private int upsert(UUID userId, String fcmToken, String deviceInfo, LocalDateTime lastLogin) {
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+        Integer result = new TransactionTemplate(transactionManager.getObject()).execute(status -> {
+            User user = entityManager.getReference(User.class, userId);
+            int updated = entityManager.createQuery("""
+                            UPDATE UserDeviceToken t SET t.user = :user, t.deviceInfo = :deviceInfo, t.lastLogin = :lastLogin
+                            WHERE t.fcmToken = :fcmToken
+                            """)
+                    .setParameter("user", user)
+                    .setParameter("deviceInfo", deviceInfo)
+                    .setParameter("lastLogin", lastLogin)
+                    .setParameter("fcmToken", fcmToken)
+                    .executeUpdate();
+            if (updated > 0) {
+                return updated;
+            }
+            UserDeviceToken token = new UserDeviceToken();
+            token.setUser(user);
+            token.setFcmToken(fcmToken);
+            token.setDeviceInfo(deviceInfo);
+            token.setLastLogin(lastLogin);
+            entityManager.persist(token);
+            return 1;
+        });
+        return result == null ? 0 : result;
+    }
+}
@@ -0,0 +1,415 @@
+package com.fintara.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.util.GreenMail;
+import com.midtrans.Midtrans;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Skenario load test per user virtual, dijalankan paralel di virtual thread:
+ * <ol>
+ *   <li>registrasi, verifikasi email (link diambil dari GreenMail), login; atau login Google</li>
+ *   <li>melengkapi profil dan upload KTP & selfie (syarat pengajuan)</li>
+ *   <li>per pinjaman: simulasi, pengajuan, review marketing, review BM, disburse back office,
+ *       lalu token Snap dan callback Midtrans untuk setiap cicilan</li>
+ * </ol>
+ * Review dilakukan oleh pegawai hasil seed {@code StartupConfig} di cabang yang ditugaskan.
+ * Skenario seorang user berhenti di langkah pertama yang gagal.
+ */
+public class WorkloadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadGenerator.class);
+
+    private static final String STAFF_PASSWORD = "test1234";
+    private static final String CUSTOMER_PASSWORD = "Loadtest#2024";
+    // Semua cabang hasil seed berada di titik ini
+    private static final double LATITUDE = -6.2088;
+    private static final double LONGITUDE = 106.8456;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+    private static final Pattern VERIFICATION_TOKEN = Pattern.compile("verify-email\\?token=([0-9a-fA-F-]{36})");
+
+    private record Staff(String nip, String role, String branch) {
+    }
+
+    private static final List<Staff> STAFF = List.of(
+            new Staff("MKT2024", "MARKETING", "Pusat"),
+            new Staff("MKT12024", "MARKETING", "Pusat"),
+            new Staff("BM2024", "BRANCH_MANAGER", "Pusat"),
+            new Staff("BO2024", "BACK_OFFICE", "Pusat"),
+            new Staff("MKT2025", "MARKETING", "Jakarta"),
+            new Staff("MKT12025", "MARKETING", "Jakarta"),
+            new Staff("BM2025", "BRANCH_MANAGER", "Jakarta"),
+            new Staff("BO2025", "BACK_OFFICE", "Jakarta"),
+            new Staff("MKT2026", "MARKETING", "Surabaya"),
+            new Staff("BM2026", "BRANCH_MANAGER", "Surabaya"),
+            new Staff("BO2026", "BACK_OFFICE", "Surabaya"),
+            new Staff("MKT2027", "MARKETING", "Jakarta Selatan"),
+            new Staff("BM2027", "BRANCH_MANAGER", "Jakarta Selatan"),
+            new Staff("BO2027", "BACK_OFFICE", "Jakarta Selatan"));
+
+    public record Settings(int users, int loansPerUser, double googleLoginRatio, Duration rampUp,
+                           BigDecimal amount, int tenor, Duration verificationTimeout) {
+
+        public static Settings from(Environment environment) {
+            return new Settings(
+                    environment.getProperty("loadtest.users", Integer.class, 20),
+                    environment.getProperty("loadtest.loans-per-user", Integer.class, 1),
+                    environment.getProperty("loadtest.google-login-ratio", Double.class, 0.3),
+                    Duration.ofSeconds(environment.getProperty("loadtest.ramp-up-seconds", Long.class, 10L)),
+                    environment.getProperty("loadtest.loan.amount", BigDecimal.class, new BigDecimal("500000")),
+                    environment.getProperty("loadtest.loan.tenor", Integer.class, 3),
+                    Duration.ofSeconds(environment.getProperty("loadtest.verification-timeout-seconds", Long.class, 60L)));
+        }
+    }
+
+    // Langkah skenario yang gagal; nama endpoint dipakai sebagai nama langkah di laporan
+    private static class StepFailedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final String step;
+
+        StepFailedException(String step, String message) {
+            super(step + ": " + message);
+            this.step = step;
+        }
+    }
+
+    private final String baseUrl;
+    private final Settings settings;
+    private final GreenMail mailServer;
+    private final LoadReport report = new LoadReport();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    // Email unik per run supaya run berulang terhadap database yang sama tidak bentrok
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, String> staffTokens = new ConcurrentHashMap<>();
+
+    public WorkloadGenerator(String baseUrl, Settings settings, GreenMail mailServer) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.mailServer = mailServer;
+    }
+
+    public LoadReport run() throws Exception {
+        logger.info("Load test dimulai: {}", settings);
+        for (Staff staff : STAFF) {
+            JsonNode login = call("login-pegawai", "POST", "/v1/auth/login-pegawai", null,
+                    Map.of("nip", staff.nip(), "password", STAFF_PASSWORD));
+            staffTokens.put(staff.nip(), login.path("data").path("jwt").path("token").asText());
+        }
+
+        report.start();
+        long rampUpStepNanos = settings.users() > 1 ? settings.rampUp().toNanos() / settings.users() : 0;
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.users(); i++) {
+                int index = i;
+                users.submit(() -> runUser(index, index * rampUpStepNanos));
+            }
+        }
+        report.finish();
+        return report;
+    }
+
+    private void runUser(int index, long startDelayNanos) {
+        try {
+            Thread.sleep(Duration.ofNanos(startDelayNanos));
+            String token = signIn(index);
+            completeProfile(index, token);
+            for (int loan = 0; loan < settings.loansPerUser(); loan++) {
+                runLoan(token);
+                report.loanCompleted();
+            }
+        } catch (StepFailedException e) {
+            logger.debug("User {} berhenti: {}", index, e.getMessage());
+            report.scenarioFailed(e.step);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("User {} berhenti karena error tak terduga", index, e);
+            report.scenarioFailed("unexpected");
+        }
+    }
+
+    private String signIn(int index) throws StepFailedException, InterruptedException {
+        String email = String.format("lt-%06d-%s@loadtest.fintara.id", index, runId);
+        String name = "Load Test " + index;
+        Map<String, Object> device = Map.of("fcmToken", "loadtest-fcm-" + runId + "-" + index, "deviceInfo", "loadtest");
+
+        // Sebagian user login Google, tersebar merata sesuai rasio
+        boolean google = Math.floor((index + 1) * settings.googleLoginRatio()) > Math.floor(index * settings.googleLoginRatio());
+        JsonNode login;
+        if (google) {
+            login = call("login-google", "POST", "/v1/auth/login-google",
+                    LoadTestFakesConfig.googleIdToken(email, name), device);
+        } else {
+            call("register", "POST", "/v1/auth/register/customer", null,
+                    Map.of("name", name, "email", email, "password", CUSTOMER_PASSWORD));
+            String verificationToken = awaitVerificationToken(email);
+            call("verify-email", "GET", "/v1/auth/verify-email?token=" + URLEncoder.encode(verificationToken, StandardCharsets.UTF_8), null, null);
+
+            Map<String, Object> body = new LinkedHashMap<>(device);
+            body.put("email", email);
+            body.put("password", CUSTOMER_PASSWORD);
+            login = call("login-customer", "POST", "/v1/auth/login-customer", null, body);
+        }
+        return login.path("data").path("jwt").path("token").asText();
+    }
+
+    private void completeProfile(int index, String token) throws StepFailedException, InterruptedException {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("jenisKelamin", index % 2 == 0 ? "LAKI_LAKI" : "PEREMPUAN");
+        profile.put("ttl", "1990-01-01");
+        profile.put("alamat", "Jl. Load Test No. " + index);
+        profile.put("noTelp", String.format("0812%08d", index));
+        profile.put("nik", String.format("3171%012d", index));
+        profile.put("namaIbuKandung", "Ibu Load Test");
+        profile.put("pekerjaan", "Karyawan");
+        profile.put("gaji", 10_000_000.0);
+        profile.put("noRek", String.format("%010d", index));
+        profile.put("statusRumah", "Milik Sendiri");
+        call("profile-update", "PUT", "/v1/profilecustomer/first-time_update", token, profile);
+
+        uploadDocument("upload-ktp", "/v1/profilecustomer/upload-ktp", token, index, 0);
+        uploadDocument("upload-selfie-ktp", "/v1/profilecustomer/upload-selfie-ktp", token, index, 1);
+    }
+
+    // Upload berjalan di background; tunggu job-nya selesai karena URL dokumen disyaratkan saat pengajuan
+    private void uploadDocument(String step, String path, String token, int index, int variant)
+            throws StepFailedException, InterruptedException {
+        JsonNode job = multipart(step, path, token, documentImage(index, variant));
+        String jobId = job.path("data").path("jobId").asText();
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(POLL_INTERVAL);
+            String status = call("upload-job-status", "GET", "/v1/profilecustomer/upload-jobs/" + jobId, token, null)
+                    .path("data").path("status").asText();
+            if ("SUCCESS".equals(status)) {
+                return;
+            }
+            if ("FAILED".equals(status)) {
+                throw new StepFailedException(step, "job upload " + jobId + " gagal");
+            }
+        }
+        throw new StepFailedException(step, "job upload " + jobId + " tidak selesai");
+    }
+
+    private void runLoan(String token) throws StepFailedException {
+        Map<String, Object> terms = Map.of("amount", settings.amount(), "tenor", settings.tenor());
+        call("loan-simulate", "POST", "/v1/loan-requests/loan-simulate", null, terms);
+
+        Map<String, Object> request = new LinkedHashMap<>(terms);
+        request.put("latitude", LATITUDE);
+        request.put("longitude", LONGITUDE);
+        JsonNode loan = call("loan-create", "POST", "/v1/loan-requests", token, request).path("data");
+        String loanRequestId = loan.path("loanRequestId").asText();
+        Staff marketing = staff(loan.path("marketingNip").asText());
+
+        call("review-marketing", "PUT", "/v1/loan-requests/review/" + loanRequestId,
+                staffToken(marketing.nip()), review("DIREKOMENDASIKAN_MARKETING"));
+        call("review-branch-manager", "PUT", "/v1/loan-requests/branch-manager/review/" + loanRequestId,
+                staffToken(colleague(marketing, "BRANCH_MANAGER").nip()), review("DISETUJUI_BM"));
+        call("disburse", "PUT", "/v1/loan-requests/back-office/disburse/" + loanRequestId,
+                staffToken(colleague(marketing, "BACK_OFFICE").nip()), review("DISBURSED"));
+
+        JsonNode schedules = call("repayment-schedule", "GET", "/v1/repayments/" + loanRequestId, null, null).path("data");
+        for (JsonNode schedule : schedules) {
+            String scheduleId = schedule.path("id").asText();
+            call("payment-token", "POST", "/v1/payments/generate-token", token, Map.of("repaymentScheduleId", scheduleId));
+            call("payment-callback", "POST", "/v1/payments/callback", null,
+                    settlementCallback(scheduleId, schedule.path("amountToPay").decimalValue()));
+        }
+    }
+
+    private String awaitVerificationToken(String email) throws StepFailedException, InterruptedException {
+        long deadline = System.nanoTime() + settings.verificationTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            for (MimeMessage message : mailServer.getReceivedMessagesForDomain(email)) {
+                Matcher matcher = VERIFICATION_TOKEN.matcher(text(message));
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new StepFailedException("verify-email", "email verifikasi untuk " + email + " tidak diterima");
+    }
+
+    private JsonNode call(String endpoint, String method, String path, String bearerToken, Object body) throws StepFailedException {
+        HttpRequest.BodyPublisher publisher;
+        try {
+            publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new StepFailedException(endpoint, e.getMessage());
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, publisher);
+        return send(endpoint, request, bearerToken);
+    }
+
+    private JsonNode multipart(String endpoint, String path, String bearerToken, byte[] image) throws StepFailedException {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"dokumen.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        return send(endpoint, request, bearerToken);
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request, String bearerToken) throws StepFailedException {
+        if (bearerToken != null) {
+            request.header("Authorization", "Bearer " + bearerToken);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            report.record(endpoint, System.nanoTime() - start, false);
+            throw new StepFailedException(endpoint, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StepFailedException(endpoint, "dibatalkan");
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        report.record(endpoint, System.nanoTime() - start, success);
+        if (!success) {
+            throw new StepFailedException(endpoint, "HTTP " + response.statusCode() + " " + response.body());
+        }
+
+        // Callback Midtrans membalas teks biasa, bukan ApiResponse
+        String content = response.body();
+        if (content == null || !content.startsWith("{")) {
+            return objectMapper.missingNode();
+        }
+        try {
+            return objectMapper.readTree(content);
+        } catch (IOException e) {
+            throw new StepFailedException(endpoint, "respons bukan JSON: " + e.getMessage());
+        }
+    }
+
+    private Staff staff(String nip) throws StepFailedException {
+        return STAFF.stream()
+                .filter(staff -> staff.nip().equals(nip))
+                .findFirst()
+                .orElseThrow(() -> new StepFailedException("loan-create", "marketing " + nip + " bukan pegawai seed"));
+    }
+
+    private Staff colleague(Staff marketing, String role) throws StepFailedException {
+        return STAFF.stream()
+                .filter(staff -> staff.branch().equals(marketing.branch()) && staff.role().equals(role))
+                .findFirst()
+                .orElseThrow(() -> new StepFailedException("loan-create", "tidak ada " + role + " di cabang " + marketing.branch()));
+    }
+
+    private String staffToken(String nip) {
+        return staffTokens.get(nip);
+    }
+
+    private static Map<String, Object> review(String status) {
+        return Map.of("status", status, "notes", "Load test", "notesIdentitas", "Sesuai",
+                "notesPlafond", "Sesuai", "notesSummary", "Load test");
+    }
+
+    // Notifikasi settlement dengan signature seperti yang dikirim Midtrans
+    private static Map<String, Object> settlementCallback(String orderId, BigDecimal amount) {
+        String grossAmount = amount.toPlainString();
+        String statusCode = "200";
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("order_id", orderId);
+        payload.put("transaction_status", "settlement");
+        payload.put("status_code", statusCode);
+        payload.put("gross_amount", grossAmount);
+        payload.put("signature_key", sha512(orderId + statusCode + grossAmount + Midtrans.serverKey));
+        return payload;
+    }
+
+    private static String sha512(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-512").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Gambar kecil yang berbeda per user dan jenis dokumen, supaya tidak terkena dedup hash konten
+    private static byte[] documentImage(int index, int variant) {
+        BufferedImage image = new BufferedImage(64, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(index * 2 + variant & 0xFFFFFF));
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String text(Part part) {
+        try {
+            Object content = part.getContent();
+            if (content instanceof String text) {
+                return text;
+            }
+            if (content instanceof Multipart multipart) {
+                StringBuilder text = new StringBuilder();
+                for (int i = 0; i < multipart.getCount(); i++) {
+                    text.append(text(multipart.getBodyPart(i)));
+                }
+                return text.toString();
+            }
+        } catch (Exception e) {
+            logger.warn("Gagal membaca isi email: {}", e.getMessage());
+        }
+        return "";
+    }
+}
@@ -0,0 +1,141 @@
+package com.fintara.analytics;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Snapshot portofolio pinjaman dalam bentuk kolom (satu array primitif per kolom).
+ * Branch, plafond, dan status disimpan sebagai kode integer lewat dictionary,
+ * nominal disimpan dalam sen (long) supaya agregasi tidak membuat objek BigDecimal.
+ *
+ * Kelas ini tidak thread-safe; sinkronisasi diatur oleh LoanPortfolioAnalyticsService.
+ */
+public class LoanPortfolioSnapshot {
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<UUID, Integer> rowIndex = new HashMap<>();
+    private final Dictionary branches = new Dictionary();
+    private final Dictionary plafonds = new Dictionary();
+    private final Dictionary statuses = new Dictionary();
+    private final LocalDateTime builtAt;
+
+    private int size;
+    private int[] branchCode = new int[INITIAL_CAPACITY];
+    private int[] plafondCode = new int[INITIAL_CAPACITY];
+    private int[] statusCode = new int[INITIAL_CAPACITY];
+    private int[] tenor = new int[INITIAL_CAPACITY];
+    private long[] principalCents = new long[INITIAL_CAPACITY];
+    private long[] outstandingCents = new long[INITIAL_CAPACITY];
+    private int[] disbursedMonth = new int[INITIAL_CAPACITY];      // tahun * 12 + (bulan - 1)
+    private int[] oldestUnpaidDueDay = new int[INITIAL_CAPACITY];  // epoch day cicilan tertua yang belum dibayar
+
+    public LoanPortfolioSnapshot(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+    }
+
+    /**
+     * Tambah atau perbarui satu loan. Aman dipanggil berulang untuk loan yang sama.
+     */
+    public void upsertLoan(UUID loanId, UUID branchId, String branchName, UUID plafondId, String plafondName,
+                           String status, long principal, int loanTenor, LocalDateTime disbursedAt) {
+        Integer existing = rowIndex.get(loanId);
+        int row;
+        if (existing == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowIndex.put(loanId, row);
+            outstandingCents[row] = 0;
+            oldestUnpaidDueDay[row] = NO_DATE;
+        } else {
+            row = existing;
+        }
+
+        branchCode[row] = branches.codeOf(branchId, branchName);
+        plafondCode[row] = plafonds.codeOf(plafondId, plafondName);
+        statusCode[row] = statuses.codeOf(status, status);
+        principalCents[row] = principal;
+        tenor[row] = Math.max(loanTenor, 1);
+        disbursedMonth[row] = disbursedAt != null ? monthIndex(disbursedAt.getYear(), disbursedAt.getMonthValue()) : NO_DATE;
+    }
+
+    /**
+     * Perbarui sisa pokok dan tanggal jatuh tempo tertua dari jadwal cicilan yang belum dibayar.
+     *
+     * @return false jika loan belum ada di snapshot
+     */
+    public boolean updateRepayment(UUID loanId, int unpaidInstallments, int oldestUnpaidDue) {
+        Integer row = rowIndex.get(loanId);
+        if (row == null) {
+            return false;
+        }
+        // Pokok dibagi rata per cicilan, sama seperti perhitungan jadwal cicilan
+        outstandingCents[row] = principalCents[row] * unpaidInstallments / tenor[row];
+        oldestUnpaidDueDay[row] = unpaidInstallments > 0 ? oldestUnpaidDue : NO_DATE;
+        return true;
+    }
+
+    public static int monthIndex(int year, int month) {
+        return year * 12 + (month - 1);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= branchCode.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, branchCode.length * 2);
+        branchCode = Arrays.copyOf(branchCode, newCapacity);
+        plafondCode = Arrays.copyOf(plafondCode, newCapacity);
+        statusCode = Arrays.copyOf(statusCode, newCapacity);
+        tenor = Arrays.copyOf(tenor, newCapacity);
+        principalCents = Arrays.copyOf(principalCents, newCapacity);
+        outstandingCents = Arrays.copyOf(outstandingCents, newCapacity);
+        disbursedMonth = Arrays.copyOf(disbursedMonth, newCapacity);
+        oldestUnpaidDueDay = Arrays.copyOf(oldestUnpaidDueDay, newCapacity);
+    }
+
+    public int size() { return size; }
+    public LocalDateTime getBuiltAt() { return builtAt; }
+    public Dictionary getBranches() { return branches; }
+    public Dictionary getPlafonds() { return plafonds; }
+    public Dictionary getStatuses() { return statuses; }
+
+    int[] branchCode() { return branchCode; }
+    int[] statusCode() { return statusCode; }
+    long[] principalCents() { return principalCents; }
+    long[] outstandingCents() { return outstandingCents; }
+    int[] disbursedMonth() { return disbursedMonth; }
+    int[] oldestUnpaidDueDay() { return oldestUnpaidDueDay; }
+
+    /**
+     * Pemetaan key (UUID / nama status) ke kode integer berurutan mulai dari 0.
+     */
+    public static final class Dictionary {
+        private final Map<Object, Integer> codes = new HashMap<>();
+        private final List<Object> keys = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+
+        int codeOf(Object key, String label) {
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = keys.size();
+                codes.put(key, code);
+                keys.add(key);
+                labels.add(label);
+            } else if (label != null && !label.equals(labels.get(code))) {
+                labels.set(code, label); // misalnya branch diganti nama
+            }
+            return code;
+        }
+
+        public int size() { return keys.size(); }
+        public Object keyOf(int code) { return keys.get(code); }
+        public String labelOf(int code) { return labels.get(code); }
+    }
+}
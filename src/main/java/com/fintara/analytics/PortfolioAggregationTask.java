@@ -0,0 +1,143 @@
+package com.fintara.analytics;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Agregasi paralel (fork-join) atas {@link LoanPortfolioSnapshot}.
+ * Setiap sub-task mengisi array hasil sendiri untuk rentang baris, lalu digabung saat join.
+ */
+public class PortfolioAggregationTask extends RecursiveTask<PortfolioAggregationTask.Result> {
+    private static final int THRESHOLD = 16_384;
+
+    public static final String[] DPD_BUCKETS = {"CURRENT", "DPD_1_30", "DPD_31_60", "DPD_61_90", "DPD_90_PLUS"};
+
+    private final LoanPortfolioSnapshot snapshot;
+    private final int from;
+    private final int to;
+    private final long today;
+    private final int firstMonth;
+    private final int monthCount;
+    private final boolean[] disbursedStatus;
+    private final boolean[] decidedStatus;
+    private final boolean[] rejectedStatus;
+
+    public PortfolioAggregationTask(LoanPortfolioSnapshot snapshot, int from, int to, long today,
+                                    int firstMonth, int monthCount,
+                                    boolean[] disbursedStatus, boolean[] decidedStatus, boolean[] rejectedStatus) {
+        this.snapshot = snapshot;
+        this.from = from;
+        this.to = to;
+        this.today = today;
+        this.firstMonth = firstMonth;
+        this.monthCount = monthCount;
+        this.disbursedStatus = disbursedStatus;
+        this.decidedStatus = decidedStatus;
+        this.rejectedStatus = rejectedStatus;
+    }
+
+    @Override
+    protected Result compute() {
+        if (to - from <= THRESHOLD) {
+            return computeDirectly();
+        }
+        int mid = (from + to) >>> 1;
+        PortfolioAggregationTask left = new PortfolioAggregationTask(snapshot, from, mid, today, firstMonth, monthCount,
+                disbursedStatus, decidedStatus, rejectedStatus);
+        PortfolioAggregationTask right = new PortfolioAggregationTask(snapshot, mid, to, today, firstMonth, monthCount,
+                disbursedStatus, decidedStatus, rejectedStatus);
+        left.fork();
+        Result rightResult = right.compute();
+        return left.join().merge(rightResult);
+    }
+
+    private Result computeDirectly() {
+        int[] branchCode = snapshot.branchCode();
+        int[] statusCode = snapshot.statusCode();
+        long[] principal = snapshot.principalCents();
+        long[] outstanding = snapshot.outstandingCents();
+        int[] disbursedMonth = snapshot.disbursedMonth();
+        int[] oldestDue = snapshot.oldestUnpaidDueDay();
+
+        Result result = new Result(snapshot.getBranches().size(), monthCount);
+        for (int i = from; i < to; i++) {
+            int branch = branchCode[i];
+            int status = statusCode[i];
+
+            if (decidedStatus[status]) {
+                result.decidedByBranch[branch]++;
+                if (rejectedStatus[status]) {
+                    result.rejectedByBranch[branch]++;
+                }
+            }
+
+            if (!disbursedStatus[status]) {
+                continue;
+            }
+
+            int month = disbursedMonth[i] - firstMonth;
+            if (disbursedMonth[i] != LoanPortfolioSnapshot.NO_DATE && month >= 0 && month < monthCount) {
+                result.disbursedCountByMonth[month]++;
+                result.disbursedCentsByMonth[month] += principal[i];
+            }
+
+            if (outstanding[i] > 0) {
+                result.activeLoansByBranch[branch]++;
+                result.outstandingCentsByBranch[branch] += outstanding[i];
+
+                int bucket = dpdBucket(oldestDue[i]);
+                result.dpdCount[bucket]++;
+                result.dpdOutstandingCents[bucket] += outstanding[i];
+            }
+        }
+        return result;
+    }
+
+    private int dpdBucket(int oldestUnpaidDue) {
+        if (oldestUnpaidDue == LoanPortfolioSnapshot.NO_DATE || today <= oldestUnpaidDue) {
+            return 0;
+        }
+        long dpd = today - oldestUnpaidDue;
+        if (dpd <= 30) return 1;
+        if (dpd <= 60) return 2;
+        if (dpd <= 90) return 3;
+        return 4;
+    }
+
+    public static final class Result {
+        public final long[] activeLoansByBranch;
+        public final long[] outstandingCentsByBranch;
+        public final long[] decidedByBranch;
+        public final long[] rejectedByBranch;
+        public final long[] disbursedCountByMonth;
+        public final long[] disbursedCentsByMonth;
+        public final long[] dpdCount = new long[DPD_BUCKETS.length];
+        public final long[] dpdOutstandingCents = new long[DPD_BUCKETS.length];
+
+        Result(int branchCount, int monthCount) {
+            activeLoansByBranch = new long[branchCount];
+            outstandingCentsByBranch = new long[branchCount];
+            decidedByBranch = new long[branchCount];
+            rejectedByBranch = new long[branchCount];
+            disbursedCountByMonth = new long[monthCount];
+            disbursedCentsByMonth = new long[monthCount];
+        }
+
+        Result merge(Result other) {
+            add(activeLoansByBranch, other.activeLoansByBranch);
+            add(outstandingCentsByBranch, other.outstandingCentsByBranch);
+            add(decidedByBranch, other.decidedByBranch);
+            add(rejectedByBranch, other.rejectedByBranch);
+            add(disbursedCountByMonth, other.disbursedCountByMonth);
+            add(disbursedCentsByMonth, other.disbursedCentsByMonth);
+            add(dpdCount, other.dpdCount);
+            add(dpdOutstandingCents, other.dpdOutstandingCents);
+            return this;
+        }
+
+        private static void add(long[] target, long[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.fintara.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor per jenis pekerjaan, masing-masing dengan jumlah thread dan antrian terbatas serta rejection policy sendiri,
+ * jadi lonjakan di satu jenis (misalnya email) tidak menghabiskan thread jenis lain.
+ *
+ * Konfigurasi: {@code executor.<nama>.threads}, {@code executor.<nama>.queue-capacity} dan, untuk pekerjaan I/O,
+ * {@code executor.<nama>.virtual}. Mode virtual hanya mengganti thread factory: batas concurrency dan antrian tetap
+ * sama, tapi thread yang menunggu jaringan tidak menahan thread OS, sehingga {@code threads} bisa dinaikkan dengan murah.
+ * Metrik {@code executor.*} (tag name) didaftarkan untuk setiap executor, plus {@code executor.rejected}.
+ *
+ * Scheduler {@code @Scheduled} dan executor {@code @Async} / MVC async dikonfigurasi lewat {@code spring.task.*}.
+ */
+@Configuration
+public class ExecutorConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public ExecutorConfig(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Upload ke storage (I/O): pool penuh -> request ditolak 503
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor uploadExecutor() {
+        return executor("upload", "storage-upload", 4, 16, new ThreadPoolExecutor.AbortPolicy(), true);
+    }
+
+    // Decode & encode gambar (CPU): pool penuh -> thread pemanggil ikut memproses
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor imageExecutor() {
+        return executor("image", "image-normalize", 2, 8, new ThreadPoolExecutor.CallerRunsPolicy(), false);
+    }
+
+    // Job upload dokumen di background (I/O): antrian penuh -> request ditolak 503
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor documentJobExecutor() {
+        return executor("document-job", "document-upload", 4, 100, new ThreadPoolExecutor.AbortPolicy(), true);
+    }
+
+    // Batch SMTP (I/O): poller tidak pernah mengirim lebih dari jumlah thread, antrian sekadar penyangga
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor emailExecutor() {
+        return executor("email", "email-sender", 2, 2, new ThreadPoolExecutor.CallerRunsPolicy(), true);
+    }
+
+    // Batch FCM (I/O)
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor pushExecutor() {
+        return executor("push", "push-sender", 2, 16, new ThreadPoolExecutor.CallerRunsPolicy(), true);
+    }
+
+    // Pekerjaan batch CPU (hash password import pegawai); default: semua core kecuali satu
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor batchExecutor() {
+        int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return executor("batch", "batch-worker", defaultThreads, defaultThreads * 4, new ThreadPoolExecutor.CallerRunsPolicy(), false);
+    }
+
+    // Executor @Async dan MVC async (StreamingResponseBody). Didefinisikan ulang karena auto-config Spring Boot
+    // mundur saat ada bean Executor lain; ukuran dan antrian tetap diatur lewat spring.task.execution.*
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    private ThreadPoolExecutor executor(String name, String threadPrefix, int defaultThreads, int defaultQueueCapacity,
+                                        RejectedExecutionHandler policy, boolean virtualAllowed) {
+        String prefix = "executor." + name + ".";
+        int threads = environment.getProperty(prefix + "threads", Integer.class, defaultThreads);
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity);
+        boolean virtual = virtualAllowed && environment.getProperty(prefix + "virtual", Boolean.class, false);
+
+        ThreadFactory threadFactory;
+        if (virtual) {
+            threadFactory = Thread.ofVirtual().name(threadPrefix + "-", 1).factory();
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, threadPrefix + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+
+        RejectedExecutionHandler countingPolicy = (runnable, executor) -> {
+            meterRegistry.counter("executor.rejected", "name", name).increment();
+            policy.rejectedExecution(runnable, executor);
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, countingPolicy);
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+
+        logger.info("Executor {}: {} thread{}, antrian {}", name, threads, virtual ? " virtual" : "", queueCapacity);
+        return executor;
+    }
+}
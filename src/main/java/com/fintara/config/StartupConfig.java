@@ -94,6 +94,10 @@ public class StartupConfig {
                 Map.of("name", "FEATURE_GET_ALL_CUSTOMER", "role", "SUPER_ADMIN", "category", "Customer"),
                 Map.of("name", "FEATURE_GET_CUSTOMER_BY_ID", "role", "SUPER_ADMIN", "category", "Customer"),
                 Map.of("name", "FEATURE_GET_PROFILE_CUSTOMER", "role", "CUSTOMER", "category", "Customer"),
+                Map.of("name", "FEATURE_SEARCH_CUSTOMER", "role", "SUPER_ADMIN", "category", "Customer"),
+                Map.of("name", "FEATURE_SEARCH_CUSTOMER", "role", "MARKETING", "category", "Customer"),
+                Map.of("name", "FEATURE_SEARCH_CUSTOMER", "role", "BRANCH_MANAGER", "category", "Customer"),
+                Map.of("name", "FEATURE_SEARCH_CUSTOMER", "role", "BACK_OFFICE", "category", "Customer"),
 
                 // ===== Dashboard ====
                 Map.of("name", "FEATURE_DASHBOARD", "role", "SUPER_ADMIN", "category", "Dashboard"),
@@ -165,7 +169,22 @@ public class StartupConfig {
                 Map.of("name", "FEATURE_GET_ALL_LOAN_STATUS", "role", "SUPER_ADMIN", "category", "Loan Status"),
                 Map.of("name", "FEATURE_ADD_LOAN_STATUS", "role", "SUPER_ADMIN", "category", "Loan Status"),
                 Map.of("name", "FEATURE_UPDATE_LOAN_STATUS", "role", "SUPER_ADMIN", "category", "Loan Status"),
-                Map.of("name", "FEATURE_DELETE_LOAN_STATUS", "role", "SUPER_ADMIN", "category", "Loan Status")
+                Map.of("name", "FEATURE_DELETE_LOAN_STATUS", "role", "SUPER_ADMIN", "category", "Loan Status"),
+
+                // ===== Payment =====
+                Map.of("name", "FEATURE_RECONCILE_SETTLEMENT", "role", "SUPER_ADMIN", "category", "Payment"),
+                Map.of("name", "FEATURE_RECONCILE_SETTLEMENT", "role", "BACK_OFFICE", "category", "Payment"),
+
+                // ===== Export =====
+                Map.of("name", "FEATURE_EXPORT_DATA", "role", "SUPER_ADMIN", "category", "Export"),
+                Map.of("name", "FEATURE_EXPORT_DATA", "role", "BACK_OFFICE", "category", "Export"),
+                Map.of("name", "FEATURE_EXPORT_DATA", "role", "BRANCH_MANAGER", "category", "Export"),
+
+                // ===== Analytics =====
+                Map.of("name", "FEATURE_PORTFOLIO_ANALYTICS", "role", "SUPER_ADMIN", "category", "Analytics"),
+
+                // ===== Email =====
+                Map.of("name", "FEATURE_MANAGE_EMAIL_OUTBOX", "role", "SUPER_ADMIN", "category", "Email")
         );
 
         for (Map<String, Object> map : featureRoles) {
@@ -352,6 +371,24 @@ public class StartupConfig {
         };
     }
 
+    @Bean
+    CommandLineRunner backfillCustomerRegistrationDate(CustomerDetailsRepository customerDetailsRepository) {
+        return args -> {
+            int updated = customerDetailsRepository.backfillCreatedAt();
+            if (updated > 0) {
+                logger.info("✅ Tanggal registrasi {} customer lama diisi", updated);
+            }
+        };
+    }
+
+    @Bean
+    CommandLineRunner migrateDeviceTokens(UserDeviceTokenRepository userDeviceTokenRepository) {
+        return args -> {
+            userDeviceTokenRepository.migrateFromSingleDevice();
+            logger.info("✅ Tabel user_device_tokens siap untuk multi-device");
+        };
+    }
+
     @Bean
     CommandLineRunner seedLoanStatuses(LoanStatusRepository loanStatusRepository) {
         return args -> {
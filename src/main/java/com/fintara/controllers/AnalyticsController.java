@@ -0,0 +1,26 @@
+package com.fintara.controllers;
+
+import com.fintara.dtos.analyticsDTO.PortfolioSummaryDTO;
+import com.fintara.responses.ApiResponse;
+import com.fintara.services.LoanPortfolioAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("v1/analytics")
+public class AnalyticsController {
+    @Autowired
+    private LoanPortfolioAnalyticsService loanPortfolioAnalyticsService;
+
+    @Secured("FEATURE_PORTFOLIO_ANALYTICS")
+    @GetMapping("/portfolio")
+    public ResponseEntity<ApiResponse<PortfolioSummaryDTO>> getPortfolioSummary(@RequestParam(defaultValue = "12") int months) {
+        PortfolioSummaryDTO summary = loanPortfolioAnalyticsService.getPortfolioSummary(months);
+        return ResponseEntity.ok(ApiResponse.success("Successfully fetch portfolio analytics", summary));
+    }
+}
@@ -2,7 +2,7 @@ package com.fintara.controllers;
 
 import com.fintara.dtos.CloudinaryUploadResponse;
 import com.fintara.responses.ApiResponse;
-import com.fintara.services.CloudinaryService;
+import com.fintara.services.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,12 +16,12 @@ import java.util.Map;
 public class CloudinaryController {
 
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private FileStorageService fileStorageService;
 
 //    @PostMapping("/upload")
 //    public ResponseEntity<ApiResponse<Map<String, String>>> uploadImage(@RequestParam("file") MultipartFile file) {
 //        try {
-//            String uploadResult = cloudinaryService.uploadFile(file);
+//            String uploadResult = fileStorageService.store(file, null);
 //            String url = (String) uploadResult.get("secure_url");
 //
 //            return ResponseEntity.ok(ApiResponse.success("Upload successful", Map.of("url", url)));
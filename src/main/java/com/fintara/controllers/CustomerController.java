@@ -1,14 +1,19 @@
 package com.fintara.controllers;
 
+import com.fintara.dtos.customerDTO.CustomerDirectoryPageDTO;
+import com.fintara.dtos.customerDTO.CustomerSearchResultDTO;
 import com.fintara.dtos.customerDTO.UserWithCustomerResponseDTO;
 import com.fintara.responses.ApiResponse;
+import com.fintara.services.CustomerSearchService;
 import com.fintara.services.CustomerService;
 import com.fintara.services.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,7 +24,12 @@ public class CustomerController {
 
     private final CustomerService customerService;
     private final UserService userService;
+    private final CustomerSearchService customerSearchService;
 
+    /**
+     * @deprecated memuat seluruh tabel customer; gunakan GET /v1/customer/directory
+     */
+    @Deprecated
     @Secured("FEATURE_GET_ALL_CUSTOMER")
     @GetMapping("/all")
     public ResponseEntity<ApiResponse<List<UserWithCustomerResponseDTO>>> getAllCustomer() {
@@ -27,6 +37,29 @@ public class CustomerController {
         return ResponseEntity.ok(ApiResponse.success("Berhasil mengambil semua data customer", customers));
     }
 
+    @Secured("FEATURE_GET_ALL_CUSTOMER")
+    @GetMapping("/directory")
+    public ResponseEntity<ApiResponse<CustomerDirectoryPageDTO>> getCustomerDirectory(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) UUID plafondId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        CustomerDirectoryPageDTO page = customerService.getCustomerDirectory(size, cursor, plafondId, registeredFrom, registeredTo, sort, direction);
+        return ResponseEntity.ok(ApiResponse.success("Berhasil mengambil direktori customer", page));
+    }
+
+    @Secured("FEATURE_SEARCH_CUSTOMER")
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CustomerSearchResultDTO>> searchCustomer(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        CustomerSearchResultDTO result = customerSearchService.search(q, limit);
+        return ResponseEntity.ok(ApiResponse.success("Berhasil mencari customer", result));
+    }
+
     @Secured("FEATURE_GET_CUSTOMER_BY_ID")
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UserWithCustomerResponseDTO>> getCustomerUserById(@PathVariable UUID id) {
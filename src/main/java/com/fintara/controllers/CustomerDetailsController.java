@@ -1,9 +1,16 @@
 package com.fintara.controllers;
 
 import com.fintara.dtos.customerDTO.CustomerUpdateProfileRequestDTO;
+import com.fintara.dtos.customerDTO.DirectUploadConfirmRequestDTO;
+import com.fintara.dtos.customerDTO.DirectUploadTicketDTO;
 import com.fintara.dtos.customerDTO.FirstTimeUpdateDTO;
+import com.fintara.dtos.customerDTO.UploadJobDTO;
+import com.fintara.enums.DocumentKind;
+import com.fintara.exceptions.CustomException;
 import com.fintara.responses.ApiResponse;
 import com.fintara.services.CustomerDetailsService;
+import com.fintara.services.DirectUploadService;
+import com.fintara.services.DocumentUploadJobService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,6 +22,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -23,6 +31,10 @@ public class CustomerDetailsController {
     private static final Logger logger = LoggerFactory.getLogger(CustomerDetailsController.class);
     @Autowired
     private CustomerDetailsService customerDetailsService;
+    @Autowired
+    private DocumentUploadJobService documentUploadJobService;
+    @Autowired
+    private DirectUploadService directUploadService;
 
     @Secured("FEATURE_UPDATE_CUSTOMER_PROFILE")
     @PutMapping("/first-time_update")
@@ -49,26 +61,38 @@ public class CustomerDetailsController {
         return ResponseEntity.ok(ApiResponse.success("Customer Profile has been updated successfully", result));
     }
 
+    // Upload dokumen berjalan di background: respons 202 berisi job ID, status dicek lewat /upload-jobs/{jobId}
     @PostMapping("/upload-ktp")
-    public ResponseEntity<ApiResponse<String>> uploadKtp(@RequestParam("file") MultipartFile file) {
-        try {
-            String uploadedUrl = customerDetailsService.uploadKtpPhoto(file);
-            return ResponseEntity.ok(ApiResponse.success("Upload berhasil", uploadedUrl));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR, "Upload gagal: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<UploadJobDTO>> uploadKtp(@RequestParam("file") MultipartFile file) throws IOException {
+        UploadJobDTO job = documentUploadJobService.submit(file, DocumentKind.KTP);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>(HttpStatus.ACCEPTED.value(), "Upload KTP sedang diproses", job));
     }
 
     @PostMapping("/upload-selfie-ktp")
-    public ResponseEntity<ApiResponse<String>> uploadSelfie(@RequestParam("file") MultipartFile file) {
-        try {
-            String uploadedUrl = customerDetailsService.uploadSelfiePhoto(file);
-            return ResponseEntity.ok(ApiResponse.success("Upload selfie berhasil", uploadedUrl));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR, "Upload gagal: " + e.getMessage()));
-        }
+    public ResponseEntity<ApiResponse<UploadJobDTO>> uploadSelfie(@RequestParam("file") MultipartFile file) throws IOException {
+        UploadJobDTO job = documentUploadJobService.submit(file, DocumentKind.SELFIE_KTP);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>(HttpStatus.ACCEPTED.value(), "Upload selfie sedang diproses", job));
+    }
+
+    @GetMapping("/upload-jobs/{jobId}")
+    public ResponseEntity<ApiResponse<UploadJobDTO>> getUploadJob(@PathVariable UUID jobId) {
+        UploadJobDTO job = documentUploadJobService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success("Status upload berhasil diambil", job));
+    }
+
+    // Upload langsung ke storage: ambil tiket, kirim file ke uploadUrl, lalu konfirmasi dengan publicId
+    @PostMapping("/direct-upload/{kind}")
+    public ResponseEntity<ApiResponse<DirectUploadTicketDTO>> issueDirectUpload(@PathVariable DocumentKind kind) {
+        DirectUploadTicketDTO ticket = directUploadService.issue(kind);
+        return ResponseEntity.ok(ApiResponse.success("Tiket upload berhasil dibuat", ticket));
+    }
+
+    @PostMapping("/direct-upload/confirm")
+    public ResponseEntity<ApiResponse<String>> confirmDirectUpload(@Valid @RequestBody DirectUploadConfirmRequestDTO request) throws IOException {
+        String url = directUploadService.confirm(request.getPublicId());
+        return ResponseEntity.ok(ApiResponse.success("Upload berhasil", url));
     }
 
     @PostMapping("/upload-photo")
@@ -76,6 +100,8 @@ public class CustomerDetailsController {
         try {
             String uploadedUrl = customerDetailsService.uploadProfilePhoto(file);
             return ResponseEntity.ok(ApiResponse.success("Upload berhasil", uploadedUrl));
+        } catch (CustomException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR, "Upload gagal: " + e.getMessage()));
@@ -84,11 +110,9 @@ public class CustomerDetailsController {
 
     @Secured("FEATURE_GET_CUSTOMER_PROFILE")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<?>> getCustomerDetails(
-            @PathVariable UUID id,
-            @RequestHeader("Authorization") String token) {
+    public ResponseEntity<ApiResponse<?>> getCustomerDetails(@PathVariable UUID id) {
 
-            Object customerProfile = customerDetailsService.getCustomerProfile(token, id);
+            Object customerProfile = customerDetailsService.getCustomerProfile(id);
             return ResponseEntity.ok(ApiResponse.success("Customer profile retrieved successfully", customerProfile));
         }
     }
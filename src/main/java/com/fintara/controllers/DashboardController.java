@@ -15,6 +15,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 import java.util.UUID;
@@ -41,4 +42,11 @@ public class DashboardController {
         Map<String, Integer> counts = dashboardService.getLoanRequestCountsForDashboard();
         return ResponseEntity.ok(ApiResponse.success("Successfully fetch loan request count",counts));
     }
+
+    // Push counter loan lewat SSE (event "loan-counts") sebagai pengganti polling /loan
+    @Secured("FEATURE_DASHBOARD")
+    @GetMapping("/loan/stream")
+    public SseEmitter streamLoanRequestCounts() {
+        return dashboardService.subscribeLoanRequestCounts();
+    }
 }
@@ -0,0 +1,35 @@
+package com.fintara.controllers;
+
+import com.fintara.dtos.superAdminDTO.EmailDeadLetterDTO;
+import com.fintara.responses.ApiResponse;
+import com.fintara.services.EmailOutboxDispatcherService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("v1/email-outbox")
+public class EmailOutboxController {
+    @Autowired
+    private EmailOutboxDispatcherService emailOutboxDispatcherService;
+
+    // 100 email DEAD terbaru
+    @Secured("FEATURE_MANAGE_EMAIL_OUTBOX")
+    @GetMapping("/dead")
+    public ResponseEntity<ApiResponse<List<EmailDeadLetterDTO>>> getDeadLetters() {
+        return ResponseEntity.ok(ApiResponse.success("Email gagal berhasil diambil", emailOutboxDispatcherService.listDeadLetters()));
+    }
+
+    @Secured("FEATURE_MANAGE_EMAIL_OUTBOX")
+    @PostMapping("/dead/requeue")
+    public ResponseEntity<ApiResponse<Integer>> requeueDeadLetters() {
+        int requeued = emailOutboxDispatcherService.requeueDeadLetters();
+        return ResponseEntity.ok(ApiResponse.success("Email gagal dimasukkan kembali ke antrian", requeued));
+    }
+}
@@ -0,0 +1,109 @@
+package com.fintara.controllers;
+
+import com.fintara.exceptions.CustomException;
+import com.fintara.models.User;
+import com.fintara.services.ExportService;
+import com.fintara.services.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("v1/exports")
+public class ExportController {
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private UserService userService;
+
+    @Secured("FEATURE_EXPORT_DATA")
+    @GetMapping("/loan-requests")
+    public ResponseEntity<StreamingResponseBody> exportLoanRequests(
+            @RequestParam(required = false) UUID branchId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID scopedBranchId = resolveBranchScope(branchId);
+        String statusFilter = normalizeStatus(status);
+        validateRange(from, to);
+
+        return csvResponse("loan-requests",
+                out -> exportService.writeLoanRequests(scopedBranchId, statusFilter, from, to, out));
+    }
+
+    @Secured("FEATURE_EXPORT_DATA")
+    @GetMapping("/loan-approvals")
+    public ResponseEntity<StreamingResponseBody> exportLoanApprovals(
+            @RequestParam(required = false) UUID branchId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID scopedBranchId = resolveBranchScope(branchId);
+        String statusFilter = normalizeStatus(status);
+        validateRange(from, to);
+
+        return csvResponse("loan-approvals",
+                out -> exportService.writeLoanApprovals(scopedBranchId, statusFilter, from, to, out));
+    }
+
+    // status: PAID, UNPAID, atau LATE; rentang tanggal berdasarkan due date
+    @Secured("FEATURE_EXPORT_DATA")
+    @GetMapping("/repayment-schedules")
+    public ResponseEntity<StreamingResponseBody> exportRepaymentSchedules(
+            @RequestParam(required = false) UUID branchId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID scopedBranchId = resolveBranchScope(branchId);
+        String statusFilter = normalizeStatus(status);
+        validateRange(from, to);
+
+        return csvResponse("repayment-schedules",
+                out -> exportService.writeRepaymentSchedules(scopedBranchId, statusFilter, from, to, out));
+    }
+
+    // Selain super admin, export dibatasi ke cabang pegawai yang login
+    private UUID resolveBranchScope(UUID requestedBranchId) {
+        User currentUser = userService.getAuthenticatedUser();
+        if ("SUPER_ADMIN".equalsIgnoreCase(currentUser.getRole().getName())) {
+            return requestedBranchId;
+        }
+
+        UUID ownBranchId = userService.getBranchIdByUserId(currentUser.getId());
+        if (requestedBranchId != null && !requestedBranchId.equals(ownBranchId)) {
+            throw new CustomException("Anda hanya dapat mengekspor data cabang Anda sendiri", HttpStatus.FORBIDDEN);
+        }
+        return ownBranchId;
+    }
+
+    private String normalizeStatus(String status) {
+        return status == null || status.isBlank() ? null : status.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new CustomException("Tanggal 'from' tidak boleh setelah tanggal 'to'", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> csvResponse(String name, StreamingResponseBody body) {
+        String fileName = name + "-" + LocalDate.now() + ".csv";
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
@@ -1,9 +1,9 @@
 package com.fintara.controllers;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 import com.fintara.responses.ApiResponse;
-import jakarta.annotation.Resource;
+import com.fintara.services.FileStorageService;
+import com.fintara.services.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -15,16 +15,16 @@ import java.util.Map;
 @RequestMapping("v1/upload")
 public class FileUploadController {
 
-    @Resource
-    private Cloudinary cloudinary;
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private UserService userService;
 
     @PostMapping("/ktp")
     public ResponseEntity<ApiResponse<Map<String, Object>>> uploadKtp(@RequestParam("file") MultipartFile file) throws IOException {
-        Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
-                "folder", "ktp" // folder khusus di cloudinary
-        ));
+        String url = fileStorageService.storeImage(file, userService.getAuthenticatedUserId(), "ktp"); // folder khusus di storage
 
-        Map<String, Object> response = Map.of("url", uploadResult.get("secure_url"));
+        Map<String, Object> response = Map.of("url", url);
         return ResponseEntity.ok(ApiResponse.success("KTP berhasil diupload", response));
     }
 }
@@ -6,6 +6,7 @@ import com.fintara.enums.LoanStatusGroup;
 import com.fintara.models.LoanRequest;
 import com.fintara.models.User;
 import com.fintara.responses.ApiResponse;
+import com.fintara.services.LoanQueueFeedService;
 import com.fintara.services.LoanRequestService;
 import com.fintara.services.LoanStatusService;
 import com.fintara.services.UserService;
@@ -17,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
 import java.util.List;
@@ -34,6 +36,8 @@ public class LoanRequestController {
     private LoanStatusService loanStatusService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private LoanQueueFeedService loanQueueFeedService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<LoanRequestResponseDTO>> createLoanRequest(@Valid @RequestBody LoanRequestDTO request) {
@@ -75,6 +79,14 @@ public class LoanRequestController {
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Loan request details fetched successfully", dto));
     }
 
+    /********** FEED ANTRIAN (SSE) **********/
+    // Delta antrian marketing / BM / back office, pengganti refresh berkala endpoint /all
+    @Secured({"FEATURE_APPROVAL_MARKETING", "FEATURE_APPROVAL_BM", "FEATURE_DISBURSE"})
+    @GetMapping("/queue/stream")
+    public SseEmitter streamWorkQueue() {
+        return loanQueueFeedService.subscribe(userService.getAuthenticatedUser());
+    }
+
     /********** APPROVAL MARKETING **********/
     @Secured("FEATURE_APPROVAL_MARKETING")
     @GetMapping("/marketing/all")
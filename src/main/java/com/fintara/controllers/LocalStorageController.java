@@ -0,0 +1,32 @@
+package com.fintara.controllers;
+
+import com.fintara.responses.ApiResponse;
+import com.fintara.storage.LocalStorageGateway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Meniru endpoint upload Cloudinary untuk storage lokal (development / pengujian)
+@RestController
+@RequestMapping("v1/local-storage")
+@ConditionalOnProperty(name = "storage.provider", havingValue = "local")
+public class LocalStorageController {
+    @Autowired
+    private LocalStorageGateway localStorageGateway;
+
+    @PostMapping("/upload")
+    public ResponseEntity<ApiResponse<String>> upload(@RequestParam("public_id") String publicId,
+                                                      @RequestParam("expires") String expires,
+                                                      @RequestParam("signature") String signature,
+                                                      @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            String url = localStorageGateway.receive(publicId, expires, signature, file.getOriginalFilename(), content);
+            return ResponseEntity.ok(ApiResponse.success("Upload berhasil", url));
+        }
+    }
+}
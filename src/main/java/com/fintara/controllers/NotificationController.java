@@ -1,16 +1,25 @@
 package com.fintara.controllers;
 
-import com.fintara.services.FirebaseService;
-import com.google.firebase.messaging.FirebaseMessagingException;
+import com.fintara.dtos.notificationDTO.MarkNotificationsReadRequestDTO;
+import com.fintara.dtos.notificationDTO.NotificationInboxPageDTO;
+import com.fintara.push.PushGateway;
+import com.fintara.responses.ApiResponse;
+import com.fintara.services.NotificationInboxService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("v1/notifications")
 public class NotificationController {
 
     @Autowired
-    private FirebaseService firebaseService;
+    private PushGateway pushGateway;
+    @Autowired
+    private NotificationInboxService notificationInboxService;
 
     // DTO untuk menerima input dari frontend/postman
     public static class NotificationRequest {
@@ -21,12 +30,32 @@ public class NotificationController {
 
     @PostMapping("/send")
     public String sendNotification(@RequestBody NotificationRequest request) {
-        try {
-            firebaseService.sendNotification(request.fcmToken, request.title, request.body);
+        PushGateway.SendResult result = pushGateway.sendEach(
+                List.of(new PushGateway.PushMessage(request.fcmToken, request.title, request.body))).get(0);
+        if (result.outcome() == PushGateway.Outcome.SENT) {
             return "Notification sent successfully";
-        } catch (FirebaseMessagingException e) {
-            e.printStackTrace();
-            return "Failed to send notification: " + e.getMessage();
         }
+        return "Failed to send notification: " + result.error();
+    }
+
+    // Riwayat notifikasi user yang login, terbaru dulu (keyset pagination lewat cursor)
+    @GetMapping("/inbox")
+    public ResponseEntity<ApiResponse<NotificationInboxPageDTO>> getMyInbox(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        NotificationInboxPageDTO page = notificationInboxService.getMyFeed(size, cursor);
+        return ResponseEntity.ok(ApiResponse.success("Berhasil mengambil notifikasi", page));
+    }
+
+    @GetMapping("/inbox/unread-count")
+    public ResponseEntity<ApiResponse<Long>> getMyUnreadCount() {
+        long unread = notificationInboxService.getMyUnreadCount();
+        return ResponseEntity.ok(ApiResponse.success("Berhasil mengambil jumlah notifikasi belum dibaca", unread));
+    }
+
+    @PostMapping("/inbox/read")
+    public ResponseEntity<ApiResponse<Long>> markMyNotificationsRead(@Valid @RequestBody MarkNotificationsReadRequestDTO request) {
+        long unread = notificationInboxService.markMyNotificationsRead(request);
+        return ResponseEntity.ok(ApiResponse.success("Notifikasi ditandai sudah dibaca", unread));
     }
 }
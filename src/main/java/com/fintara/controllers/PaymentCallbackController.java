@@ -4,6 +4,7 @@ import com.fintara.models.RepaymentSchedule;
 import com.fintara.repositories.RepaymentScheduleRepository;
 import com.fintara.responses.ApiResponse;
 import com.fintara.services.MidtransPaymentService;
+import com.fintara.services.RepaymentScheduleService;
 import com.midtrans.Midtrans;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -27,6 +28,9 @@ public class PaymentCallbackController {
     @Autowired
     private MidtransPaymentService midtransPaymentService;
 
+    @Autowired
+    private RepaymentScheduleService repaymentScheduleService;
+
     @PostMapping("/callback")
     public ResponseEntity<String> midtransCallback(@RequestBody Map<String, Object> payload) {
         String orderId = (String) payload.get("order_id");
@@ -41,14 +45,8 @@ public class PaymentCallbackController {
         }
 
         // Update repayment schedule
-        RepaymentSchedule schedule = repaymentScheduleRepository.findById(UUID.fromString(orderId))
-                .orElseThrow(() -> new IllegalArgumentException("Schedule not found"));
-
         if ("capture".equals(transactionStatus) || "settlement".equals(transactionStatus)) {
-            schedule.setAmountPaid(new BigDecimal(grossAmount));
-            schedule.setPaidAt(LocalDate.now());
-            schedule.setIsLate(false);
-            repaymentScheduleRepository.save(schedule);
+            repaymentScheduleService.applySettlement(UUID.fromString(orderId), new BigDecimal(grossAmount), LocalDate.now());
         } else if ("cancel".equals(transactionStatus) || "deny".equals(transactionStatus) || "expire".equals(transactionStatus)) {
             // Tambahkan logic jika perlu
         }
@@ -1,9 +1,13 @@
 package com.fintara.controllers;
 
+import com.fintara.dtos.pegawaiDTO.EmployeeDirectoryPageDTO;
+import com.fintara.dtos.pegawaiDTO.EmployeeImportReportDTO;
 import com.fintara.dtos.pegawaiDTO.RegisterPegawaiRequestDTO;
 import com.fintara.dtos.pegawaiDTO.RegisterPegawaiResponseDTO;
 import com.fintara.dtos.superAdminDTO.UserWithPegawaiResponseDTO;
 import com.fintara.responses.ApiResponse;
+import com.fintara.services.EmployeeDirectoryService;
+import com.fintara.services.EmployeeImportService;
 import com.fintara.services.PegawaiService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.UUID;
@@ -20,6 +25,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PegawaiController {
     private final PegawaiService pegawaiService;
+    private final EmployeeDirectoryService employeeDirectoryService;
+    private final EmployeeImportService employeeImportService;
 
     @Secured("FEATURE_ADD_EMPLOYEE")
     @PostMapping("/register")
@@ -31,6 +38,14 @@ public class PegawaiController {
                 .body(new ApiResponse<>(HttpStatus.CREATED.value(), "Employee successfully registered", response));
     }
 
+    // Import massal: kolom name,email,nip,role,branch,jenis_kelamin,status_pegawai; hasil per baris
+    @Secured("FEATURE_ADD_EMPLOYEE")
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<EmployeeImportReportDTO>> importPegawai(@RequestParam("file") MultipartFile file) {
+        EmployeeImportReportDTO report = employeeImportService.importCsv(file);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Employee import finished", report));
+    }
+
     @Secured("FEATURE_GET_ALL_EMPLOYEE")
     @GetMapping
     public ResponseEntity<ApiResponse<List<UserWithPegawaiResponseDTO>>> getAllPegawai() {
@@ -38,6 +53,21 @@ public class PegawaiController {
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "All employees fetched successfully", pegawai));
     }
 
+    // Direktori dari index in-memory: filter branch/role/status/gender, pencarian prefix nama/NIP/email, facet count
+    @Secured("FEATURE_GET_ALL_EMPLOYEE")
+    @GetMapping("/directory")
+    public ResponseEntity<ApiResponse<EmployeeDirectoryPageDTO>> getEmployeeDirectory(
+            @RequestParam(required = false) UUID branchId,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        EmployeeDirectoryPageDTO directory = employeeDirectoryService.search(branchId, role, status, gender, q, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Employee directory fetched successfully", directory));
+    }
+
     @Secured("FEATURE_PROFILE_EMPLOYEE")
     @GetMapping("/me")
     public ResponseEntity<ApiResponse<UserWithPegawaiResponseDTO>> getMyProfile() {
@@ -0,0 +1,29 @@
+package com.fintara.controllers;
+
+import com.fintara.dtos.repaymentsDTO.SettlementReconciliationReportDTO;
+import com.fintara.responses.ApiResponse;
+import com.fintara.services.SettlementReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("v1/reconciliations")
+public class SettlementReconciliationController {
+    @Autowired
+    private SettlementReconciliationService settlementReconciliationService;
+
+    // File settlement bulanan terlalu besar untuk multipart, jadi dibaca dari folder inbox server
+    @Secured("FEATURE_RECONCILE_SETTLEMENT")
+    @PostMapping("/settlements")
+    public ResponseEntity<ApiResponse<SettlementReconciliationReportDTO>> reconcileSettlement(
+            @RequestParam String fileName,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        SettlementReconciliationReportDTO report = settlementReconciliationService.reconcileFromInbox(fileName, repair);
+        return ResponseEntity.ok(ApiResponse.success("Rekonsiliasi settlement selesai", report));
+    }
+}
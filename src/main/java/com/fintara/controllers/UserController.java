@@ -4,7 +4,8 @@ import com.fintara.security.UserDetailsImpl;
 import com.fintara.dtos.superAdminDTO.UserResponseDTO;
 import com.fintara.models.User;
 import com.fintara.responses.ApiResponse;
-import com.fintara.services.CloudinaryService;
+import com.fintara.services.FileStorageService;
+import com.fintara.services.ProfileCacheService;
 import com.fintara.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -27,7 +28,9 @@ public class UserController {
     private final UserService userService;
 
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private FileStorageService fileStorageService;
+    @Autowired
+    private ProfileCacheService profileCacheService;
 
     public UserController(UserService userService) {
         this.userService = userService;
@@ -54,9 +57,10 @@ public class UserController {
                     .body(new ApiResponse<>(HttpStatus.NOT_FOUND.value(), "User not found", null));
         }
 
-        String fotoUrl = cloudinaryService.uploadImageEmployee(foto.getBytes());
+        String fotoUrl = fileStorageService.store(foto, userId, null);
         user.setFotoUrl(fotoUrl);
         userService.saveUser(user);
+        profileCacheService.evict(userId);
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "Foto profil berhasil diperbarui.");
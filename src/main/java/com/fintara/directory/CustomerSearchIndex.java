@@ -0,0 +1,385 @@
+package com.fintara.directory;
+
+import com.fintara.dtos.customerDTO.CustomerSearchItemDTO;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Index pencarian customer di memori berdasarkan NIK, nomor telepon, nomor rekening, dan nama.
+ *
+ * Setiap nilai dinormalisasi menjadi key (angka saja untuk NIK / telepon / rekening, huruf kecil tanpa aksen untuk nama).
+ * Pencarian prefix memakai TreeMap key; jika hasilnya kurang, kandidat typo dicari lewat trigram
+ * lalu diverifikasi dengan edit distance terhadap prefix key.
+ *
+ * Kelas ini tidak thread-safe; sinkronisasi diatur oleh CustomerSearchService.
+ */
+public class CustomerSearchIndex {
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_FUZZY = 1;
+    // Trigram yang terlalu umum (misalnya "^08" di semua nomor HP) dilewati saat mencari kandidat typo
+    private static final int MAX_FUZZY_POSTINGS = 20_000;
+
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<UUID, Integer> docByCustomer = new HashMap<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final TreeMap<String, Postings> keyDocs = new TreeMap<>();
+    private final Map<String, Postings> trigramDocs = new HashMap<>();
+    private final LocalDateTime builtAt;
+
+    public CustomerSearchIndex(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+    }
+
+    public void upsert(CustomerSearchItemDTO item) {
+        remove(item.getCustomerDetailsId());
+
+        String[] keys = keysOf(item);
+        int doc = freeDocs.isEmpty() ? docs.size() : freeDocs.pop();
+        Doc entry = new Doc(item, keys, item.getName() == null ? "" : item.getName().toLowerCase(Locale.ROOT));
+        if (doc == docs.size()) {
+            docs.add(entry);
+        } else {
+            docs.set(doc, entry);
+        }
+        docByCustomer.put(item.getCustomerDetailsId(), doc);
+
+        for (String key : keys) {
+            keyDocs.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+        for (String trigram : trigramsOf(keys)) {
+            trigramDocs.computeIfAbsent(trigram, k -> new Postings()).add(doc);
+        }
+    }
+
+    public boolean remove(UUID customerDetailsId) {
+        Integer doc = docByCustomer.remove(customerDetailsId);
+        if (doc == null) {
+            return false;
+        }
+        Doc entry = docs.get(doc);
+        for (String key : entry.keys()) {
+            removePosting(keyDocs, key, doc);
+        }
+        for (String trigram : trigramsOf(entry.keys())) {
+            removePosting(trigramDocs, trigram, doc);
+        }
+        docs.set(doc, null);
+        freeDocs.push(doc);
+        return true;
+    }
+
+    /**
+     * Setiap kata pada query harus cocok (prefix, atau prefix dengan typo kecil) dengan salah satu key customer.
+     * Hasil diurutkan dari skor tertinggi (cocok persis lebih tinggi dari typo), lalu nama.
+     */
+    public List<CustomerSearchItemDTO> search(String query, int limit) {
+        List<String[]> tokens = queryTokens(query);
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        BitSet matched = null;
+        List<TokenMatch> matches = new ArrayList<>(tokens.size());
+        for (String[] variants : tokens) {
+            TokenMatch match = matchToken(variants, limit);
+            matches.add(match);
+            BitSet tokenDocs = (BitSet) match.prefix().clone();
+            tokenDocs.or(match.fuzzy());
+            if (matched == null) {
+                matched = tokenDocs;
+            } else {
+                matched.and(tokenDocs);
+            }
+            if (matched.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        TopHits top = new TopHits(limit);
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            int score = 0;
+            for (TokenMatch match : matches) {
+                score += match.prefix().get(doc) ? SCORE_PREFIX : SCORE_FUZZY;
+            }
+            top.offer(doc, score);
+        }
+        return top.items();
+    }
+
+    private TokenMatch matchToken(String[] variants, int limit) {
+        BitSet prefix = new BitSet(docs.size());
+        for (String variant : variants) {
+            for (Postings postings : keyDocs.subMap(variant, true, variant + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < postings.size; i++) {
+                    prefix.set(postings.docs[i]);
+                }
+            }
+        }
+        BitSet fuzzy = new BitSet();
+        // Pencarian typo hanya jika hasil prefix belum cukup
+        if (prefix.cardinality() < limit) {
+            for (String variant : variants) {
+                addFuzzyMatches(variant, prefix, fuzzy);
+            }
+        }
+        return new TokenMatch(prefix, fuzzy);
+    }
+
+    private void addFuzzyMatches(String token, BitSet prefix, BitSet fuzzy) {
+        int maxEdits = maxEditsFor(token);
+        if (maxEdits == 0) {
+            return;
+        }
+
+        List<Postings> postingsList = new ArrayList<>();
+        Set<String> queryTrigrams = trigramsOf(new String[]{token});
+        for (String trigram : queryTrigrams) {
+            Postings postings = trigramDocs.get(trigram);
+            if (postings != null && postings.size <= MAX_FUZZY_POSTINGS) {
+                postingsList.add(postings);
+            }
+        }
+        int skipped = queryTrigrams.size() - postingsList.size();
+        // Setiap edit merusak paling banyak 3 trigram
+        int minShared = Math.max(1, queryTrigrams.size() - 3 * maxEdits - skipped);
+
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (Postings postings : postingsList) {
+            for (int i = 0; i < postings.size; i++) {
+                shared.merge(postings.docs[i], 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            int doc = candidate.getKey();
+            if (candidate.getValue() < minShared || prefix.get(doc) || fuzzy.get(doc)) {
+                continue;
+            }
+            for (String key : docs.get(doc).keys()) {
+                if (prefixEditDistance(token, key, maxEdits) <= maxEdits) {
+                    fuzzy.set(doc);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int maxEditsFor(String token) {
+        if (token.length() < 4) return 0;
+        if (token.length() < 8) return 1;
+        return 2;
+    }
+
+    /**
+     * Edit distance terkecil antara query dan prefix mana pun dari key (Levenshtein).
+     * Berhenti lebih awal jika sudah pasti melebihi batas.
+     */
+    static int prefixEditDistance(String query, String key, int maxEdits) {
+        int m = query.length();
+        int n = Math.min(key.length(), m + maxEdits);
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = query.charAt(i - 1) == key.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return rowMin;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    /**
+     * Setiap kata query menjadi satu atau beberapa varian key (misalnya 62812... dan 0812... untuk nomor HP).
+     */
+    static List<String[]> queryTokens(String query) {
+        List<String[]> tokens = new ArrayList<>();
+        if (query == null) {
+            return tokens;
+        }
+        for (String word : normalizeText(query).split("\\s+")) {
+            String token = word.replaceAll("[^0-9a-z]", "");
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (token.chars().allMatch(Character::isDigit) && token.startsWith("62") && token.length() >= 3) {
+                // Bisa NIK berawalan 62 atau nomor HP yang ditulis +62
+                tokens.add(new String[]{token, "0" + token.substring(2)});
+            } else {
+                tokens.add(new String[]{token});
+            }
+        }
+        return tokens;
+    }
+
+    static String[] keysOf(CustomerSearchItemDTO item) {
+        Set<String> keys = new LinkedHashSet<>();
+        addIfPresent(keys, digitsOnly(item.getNik()));
+        addIfPresent(keys, normalizePhone(digitsOnly(item.getNoTelp())));
+        addIfPresent(keys, digitsOnly(item.getNoRek()));
+        if (item.getName() != null) {
+            for (String word : normalizeText(item.getName()).split("\\s+")) {
+                addIfPresent(keys, word.replaceAll("[^0-9a-z]", ""));
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static Set<String> trigramsOf(String[] keys) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String key : keys) {
+            // Penanda awal "^" supaya trigram awal kata lebih berbobot untuk pencarian prefix
+            String padded = "^" + key;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static String normalizeText(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String digitsOnly(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    // Nomor HP Indonesia disimpan dalam format 08..., baik ditulis +62 / 62 / 0
+    private static String normalizePhone(String digits) {
+        return digits.startsWith("62") && digits.length() > 9 ? "0" + digits.substring(2) : digits;
+    }
+
+    private static void addIfPresent(Set<String> keys, String key) {
+        if (!key.isEmpty()) {
+            keys.add(key);
+        }
+    }
+
+    private static void removePosting(Map<String, Postings> index, String key, int doc) {
+        Postings postings = index.get(key);
+        if (postings != null) {
+            postings.remove(doc);
+            if (postings.size == 0) {
+                index.remove(key);
+            }
+        }
+    }
+
+    public int size() { return docByCustomer.size(); }
+    public LocalDateTime getBuiltAt() { return builtAt; }
+
+    // Nama untuk pengurutan disimpan sekali saat insert, bukan dihitung ulang di setiap perbandingan
+    private record Doc(CustomerSearchItemDTO item, String[] keys, String sortName) {
+    }
+
+    private record TokenMatch(BitSet prefix, BitSet fuzzy) {
+    }
+
+    /**
+     * Top-N hasil berdasarkan skor lalu nama, disimpan terurut dalam array kecil (limit maksimal puluhan).
+     * Kandidat yang tidak lebih baik dari hasil terakhir langsung ditolak tanpa alokasi.
+     */
+    private final class TopHits {
+        private final int[] hitDocs;
+        private final int[] hitScores;
+        private int count;
+
+        TopHits(int limit) {
+            hitDocs = new int[limit];
+            hitScores = new int[limit];
+        }
+
+        void offer(int doc, int score) {
+            if (count == hitDocs.length && !ranksBefore(doc, score, hitDocs[count - 1], hitScores[count - 1])) {
+                return;
+            }
+            int position = count == hitDocs.length ? count - 1 : count++;
+            while (position > 0 && ranksBefore(doc, score, hitDocs[position - 1], hitScores[position - 1])) {
+                hitDocs[position] = hitDocs[position - 1];
+                hitScores[position] = hitScores[position - 1];
+                position--;
+            }
+            hitDocs[position] = doc;
+            hitScores[position] = score;
+        }
+
+        private boolean ranksBefore(int doc, int score, int otherDoc, int otherScore) {
+            if (score != otherScore) {
+                return score > otherScore;
+            }
+            return docs.get(doc).sortName().compareTo(docs.get(otherDoc).sortName()) < 0;
+        }
+
+        List<CustomerSearchItemDTO> items() {
+            List<CustomerSearchItemDTO> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(docs.get(hitDocs[i]).item());
+            }
+            return items;
+        }
+    }
+
+    /**
+     * Daftar nomor dokumen (int primitif) untuk satu key atau trigram; urutan tidak dijaga.
+     */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    docs[i] = docs[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
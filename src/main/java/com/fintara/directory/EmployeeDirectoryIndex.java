@@ -0,0 +1,240 @@
+package com.fintara.directory;
+
+import com.fintara.dtos.pegawaiDTO.EmployeeDirectoryItemDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Inverted index direktori pegawai di memori.
+ * Setiap pegawai mendapat nomor dokumen; facet (branch, role, status, gender) disimpan sebagai BitSet per nilai,
+ * dan nama / NIP / email disimpan sebagai term di TreeMap supaya pencarian prefix cukup satu subMap.
+ *
+ * Kelas ini tidak thread-safe; sinkronisasi diatur oleh EmployeeDirectoryService.
+ */
+public class EmployeeDirectoryIndex {
+    public static final String FACET_BRANCH = "branch";
+    public static final String FACET_ROLE = "role";
+    public static final String FACET_STATUS = "status";
+    public static final String FACET_GENDER = "gender";
+    public static final List<String> FACETS = List.of(FACET_BRANCH, FACET_ROLE, FACET_STATUS, FACET_GENDER);
+
+    private static final Comparator<EmployeeDirectoryItemDTO> BY_NAME = Comparator
+            .comparing((EmployeeDirectoryItemDTO item) -> item.getName() == null ? "" : item.getName().toLowerCase(Locale.ROOT))
+            .thenComparing(EmployeeDirectoryItemDTO::getUserId);
+
+    private final List<Entry> docs = new ArrayList<>();
+    private final Map<UUID, Integer> docByUser = new HashMap<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Map<String, BitSet>> facetDocs = new HashMap<>();
+    private final Map<String, String> branchLabels = new HashMap<>();
+    private final TreeMap<String, BitSet> termDocs = new TreeMap<>();
+    private final LocalDateTime builtAt;
+
+    public EmployeeDirectoryIndex(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+        for (String facet : FACETS) {
+            facetDocs.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Tambah atau ganti data satu pegawai. Aman dipanggil berulang untuk user yang sama.
+     */
+    public void upsert(EmployeeDirectoryItemDTO item) {
+        remove(item.getUserId());
+
+        // Nilai facet dan term disimpan saat insert, supaya remove tetap benar walaupun DTO diubah setelahnya
+        String[] facetValues = new String[FACETS.size()];
+        for (int i = 0; i < FACETS.size(); i++) {
+            facetValues[i] = facetValue(item, FACETS.get(i));
+        }
+        Entry entry = new Entry(item, facetValues, termsOf(item));
+
+        int doc = freeDocs.isEmpty() ? docs.size() : freeDocs.pop();
+        if (doc == docs.size()) {
+            docs.add(entry);
+        } else {
+            docs.set(doc, entry);
+        }
+        docByUser.put(item.getUserId(), doc);
+        live.set(doc);
+
+        for (int i = 0; i < FACETS.size(); i++) {
+            if (facetValues[i] != null) {
+                facetDocs.get(FACETS.get(i)).computeIfAbsent(facetValues[i], key -> new BitSet()).set(doc);
+            }
+        }
+        for (String term : entry.terms()) {
+            termDocs.computeIfAbsent(term, key -> new BitSet()).set(doc);
+        }
+        if (item.getBranchId() != null) {
+            branchLabels.put(item.getBranchId().toString(), item.getBranchName());
+        }
+    }
+
+    public boolean remove(UUID userId) {
+        Integer doc = docByUser.remove(userId);
+        if (doc == null) {
+            return false;
+        }
+        Entry entry = docs.get(doc);
+        for (int i = 0; i < FACETS.size(); i++) {
+            if (entry.facetValues()[i] != null) {
+                clearBit(facetDocs.get(FACETS.get(i)), entry.facetValues()[i], doc);
+            }
+        }
+        for (String term : entry.terms()) {
+            clearBit(termDocs, term, doc);
+        }
+        live.clear(doc);
+        docs.set(doc, null);
+        freeDocs.push(doc);
+        return true;
+    }
+
+    /**
+     * @param filters nilai facet yang harus cocok (key: FACET_*), nilai null diabaikan
+     * @param query   satu atau beberapa kata; setiap kata harus menjadi prefix nama, NIP, atau email
+     */
+    public Result search(Map<String, String> filters, String query, int offset, int limit) {
+        BitSet textMatch = matchQuery(query);
+
+        Map<String, BitSet> filterMatch = new LinkedHashMap<>();
+        filters.forEach((facet, value) -> {
+            if (value != null && facetDocs.containsKey(facet)) {
+                filterMatch.put(facet, facetDocs.get(facet).getOrDefault(value, new BitSet()));
+            }
+        });
+
+        BitSet matched = baseMatch(textMatch, filterMatch, null);
+        int total = matched.cardinality();
+
+        List<EmployeeDirectoryItemDTO> hits = new ArrayList<>(total);
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            hits.add(docs.get(doc).item());
+        }
+        hits.sort(BY_NAME);
+        List<EmployeeDirectoryItemDTO> page = offset >= hits.size()
+                ? List.of()
+                : List.copyOf(hits.subList(offset, Math.min(hits.size(), offset + limit)));
+
+        // Facet count: filter facet itu sendiri tidak diterapkan, supaya pilihan lain tetap terlihat
+        Map<String, Map<String, Integer>> facetCounts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            BitSet base = baseMatch(textMatch, filterMatch, facet);
+            Map<String, Integer> counts = new TreeMap<>();
+            for (Map.Entry<String, BitSet> entry : facetDocs.get(facet).entrySet()) {
+                BitSet intersection = (BitSet) entry.getValue().clone();
+                intersection.and(base);
+                int count = intersection.cardinality();
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+            facetCounts.put(facet, counts);
+        }
+
+        return new Result(page, total, facetCounts);
+    }
+
+    private BitSet baseMatch(BitSet textMatch, Map<String, BitSet> filterMatch, String excludedFacet) {
+        BitSet result = (BitSet) live.clone();
+        if (textMatch != null) {
+            result.and(textMatch);
+        }
+        filterMatch.forEach((facet, docsOfValue) -> {
+            if (!facet.equals(excludedFacet)) {
+                result.and(docsOfValue);
+            }
+        });
+        return result;
+    }
+
+    // null berarti tidak ada filter teks
+    private BitSet matchQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        BitSet result = null;
+        for (String word : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            BitSet wordMatch = new BitSet();
+            NavigableMap<String, BitSet> range = termDocs.subMap(word, true, word + Character.MAX_VALUE, false);
+            for (BitSet docsOfTerm : range.values()) {
+                wordMatch.or(docsOfTerm);
+            }
+            if (result == null) {
+                result = wordMatch;
+            } else {
+                result.and(wordMatch);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> termsOf(EmployeeDirectoryItemDTO item) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (item.getName() != null && !item.getName().isBlank()) {
+            String name = item.getName().trim().toLowerCase(Locale.ROOT);
+            terms.add(name);
+            for (String word : name.split("\\s+")) {
+                terms.add(word);
+            }
+        }
+        if (item.getNip() != null && !item.getNip().isBlank()) {
+            terms.add(item.getNip().trim().toLowerCase(Locale.ROOT));
+        }
+        if (item.getEmail() != null && !item.getEmail().isBlank()) {
+            terms.add(item.getEmail().trim().toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+
+    private static String facetValue(EmployeeDirectoryItemDTO item, String facet) {
+        return switch (facet) {
+            case FACET_BRANCH -> item.getBranchId() != null ? item.getBranchId().toString() : null;
+            case FACET_ROLE -> item.getRole();
+            case FACET_STATUS -> item.getStatusPegawai() != null ? item.getStatusPegawai().name() : null;
+            case FACET_GENDER -> item.getJenisKelamin() != null ? item.getJenisKelamin().name() : null;
+            default -> null;
+        };
+    }
+
+    private static void clearBit(Map<String, BitSet> index, String key, int doc) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(doc);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    public int size() { return docByUser.size(); }
+    public LocalDateTime getBuiltAt() { return builtAt; }
+
+    public String branchLabel(String branchId) {
+        return branchLabels.getOrDefault(branchId, branchId);
+    }
+
+    private record Entry(EmployeeDirectoryItemDTO item, String[] facetValues, Set<String> terms) {
+    }
+
+    public record Result(List<EmployeeDirectoryItemDTO> items, int total, Map<String, Map<String, Integer>> facetCounts) {
+    }
+}
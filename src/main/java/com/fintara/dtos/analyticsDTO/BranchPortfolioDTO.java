@@ -0,0 +1,21 @@
+package com.fintara.dtos.analyticsDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BranchPortfolioDTO {
+    private UUID branchId;
+    private String branchName;
+    private long activeLoans;
+    private BigDecimal outstandingPrincipal;
+    private long decidedLoans;
+    private long rejectedLoans;
+    private double rejectionRate;
+}
@@ -0,0 +1,16 @@
+package com.fintara.dtos.analyticsDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyDisbursementDTO {
+    private String month; // yyyy-MM
+    private long loans;
+    private BigDecimal amount;
+}
@@ -0,0 +1,25 @@
+package com.fintara.dtos.analyticsDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortfolioSummaryDTO {
+    private LocalDateTime snapshotBuiltAt;
+    private int totalLoans;
+    private long activeLoans;
+    private BigDecimal totalOutstandingPrincipal;
+    private List<BranchPortfolioDTO> branches;
+    private List<MonthlyDisbursementDTO> disbursedByMonth;
+    private List<DpdBucketDTO> dpdBuckets;
+    private long computeMicros;
+}
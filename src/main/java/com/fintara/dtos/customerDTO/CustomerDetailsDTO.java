@@ -1,9 +1,9 @@
 package com.fintara.dtos.customerDTO;
 
 import com.fintara.enums.JenisKelamin;
-import com.fintara.models.CustomerDetails;
 import com.fintara.models.Plafond;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
@@ -13,6 +13,7 @@ import java.util.UUID;
 
 @Getter
 @Setter
+@NoArgsConstructor // dibutuhkan Jackson saat membaca cache profil dari Redis
 public class CustomerDetailsDTO {
     private UUID id;
     private JenisKelamin jenisKelamin;
@@ -30,23 +31,4 @@ public class CustomerDetailsDTO {
     private BigDecimal remainingPlafond;
     private Plafond plafond;
     private LocalDateTime updatedAt;
-
-    public CustomerDetailsDTO(CustomerDetails customerDetails) {
-        this.id = customerDetails.getId();
-        this.jenisKelamin = customerDetails.getJenisKelamin();
-        this.ttl = customerDetails.getTtl();
-        this.alamat = customerDetails.getAlamat();
-        this.noTelp = customerDetails.getNoTelp();
-        this.nik = customerDetails.getNik();
-        this.namaIbuKandung = customerDetails.getNamaIbuKandung();
-        this.pekerjaan = customerDetails.getPekerjaan();
-        this.gaji = customerDetails.getGaji();
-        this.noRek = customerDetails.getNoRek();
-        this.statusRumah = customerDetails.getStatusRumah();
-        this.ktpUrl = customerDetails.getKtpUrl();
-        this.selfieKtpUrl = customerDetails.getSelfieKtpUrl();
-        this.remainingPlafond = customerDetails.getRemainingPlafond();
-        this.plafond = customerDetails.getPlafond();
-        this.updatedAt = customerDetails.getUpdatedAt();
-    }
 }
@@ -0,0 +1,29 @@
+package com.fintara.dtos.customerDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Satu baris direktori customer. Diisi langsung dari constructor expression JPQL
+ * di CustomerDirectoryRepository, jadi urutan field harus sama dengan query.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerDirectoryItemDTO {
+    private UUID userId;
+    private UUID customerDetailsId;
+    private String name;
+    private String email;
+    private boolean emailVerified;
+    private String noTelp;
+    private UUID plafondId;
+    private String plafondName;
+    private BigDecimal remainingPlafond;
+    private LocalDateTime registeredAt;
+}
@@ -0,0 +1,16 @@
+package com.fintara.dtos.customerDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerDirectoryPageDTO {
+    private List<CustomerDirectoryItemDTO> items;
+    private String nextCursor; // null jika sudah halaman terakhir
+    private boolean hasMore;
+}
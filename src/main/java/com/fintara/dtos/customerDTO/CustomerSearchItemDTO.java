@@ -0,0 +1,23 @@
+package com.fintara.dtos.customerDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerSearchItemDTO {
+    private UUID customerDetailsId;
+    private UUID userId;
+    private String name;
+    private String email;
+    private String nik;
+    private String noTelp;
+    private String noRek;
+    private String plafondName;
+}
@@ -0,0 +1,16 @@
+package com.fintara.dtos.customerDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerSearchResultDTO {
+    private List<CustomerSearchItemDTO> items;
+    private int indexedCustomers;
+    private long tookMicros;
+}
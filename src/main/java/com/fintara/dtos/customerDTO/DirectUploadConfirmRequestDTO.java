@@ -0,0 +1,13 @@
+package com.fintara.dtos.customerDTO;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class DirectUploadConfirmRequestDTO {
+
+    @NotBlank(message = "Public ID tidak boleh kosong")
+    private String publicId;
+}
@@ -0,0 +1,22 @@
+package com.fintara.dtos.customerDTO;
+
+import com.fintara.enums.DocumentKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadTicketDTO {
+    private String publicId;            // dikirim kembali saat konfirmasi
+    private DocumentKind kind;
+    private String uploadUrl;           // client mengirim file langsung ke URL ini
+    private Map<String, String> fields; // field form multipart yang wajib ikut dikirim bersama file
+    private LocalDateTime expiresAt;
+}
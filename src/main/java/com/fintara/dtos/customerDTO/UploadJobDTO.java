@@ -0,0 +1,25 @@
+package com.fintara.dtos.customerDTO;
+
+import com.fintara.enums.DocumentKind;
+import com.fintara.enums.UploadJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadJobDTO {
+    private UUID jobId;
+    private DocumentKind kind;
+    private UploadJobStatus status;
+    private String url;    // terisi saat SUCCESS
+    private String error;  // terisi saat FAILED
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,5 @@
 package com.fintara.dtos.loanApprovalDTO;
 
-import com.fintara.models.LoanApproval;
 import lombok.Builder;
 import lombok.Data;
 
@@ -23,17 +22,4 @@ public class LoanApprovalHistoryResponse {
     private LocalDateTime backOfficeHandledDate;
     // field lain yang kamu butuh
 
-    public static LoanApprovalHistoryResponse fromEntity(LoanApproval entity) {
-        return LoanApprovalHistoryResponse.builder()
-                .id(entity.getLoanRequest().getId())
-                .customerName(entity.getLoanRequest().getCustomer().getUser().getName())
-                .amount(entity.getLoanRequest().getAmount())
-                .tenor(entity.getLoanRequest().getTenor())
-                .statusName(entity.getStatus().getName())
-                .requestDate(entity.getLoanRequest().getRequestDate())
-                .marketingHandledDate(entity.getLoanRequest().getApprovalMarketingAt())
-                .branchManagerHandledDate(entity.getLoanRequest().getApprovalBMAt())
-                .backOfficeHandledDate(entity.getLoanRequest().getDisbursedAt())
-                .build();
-    }
 }
@@ -1,6 +1,5 @@
 package com.fintara.dtos.loanRequestDTO;
 
-import com.fintara.models.LoanRequest;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -21,23 +20,4 @@ public class LoanInProgressResponseDTO {
     private String marketingEmail;
     private String status;
 
-    public static LoanInProgressResponseDTO fromEntity(LoanRequest loanRequest) {
-        LoanInProgressResponseDTO dto = new LoanInProgressResponseDTO();
-        dto.setCustomerId(loanRequest.getCustomer().getUser().getId());
-        dto.setCustomerName(loanRequest.getCustomer().getUser().getName());
-        dto.setLoanRequestId(loanRequest.getId());
-        dto.setAmount(loanRequest.getAmount());
-        dto.setTenor(loanRequest.getTenor());
-        dto.setInterestAmount(loanRequest.getInterestAmount());
-        dto.setInterestRate(loanRequest.getInterestRate());
-        dto.setFeesAmount(loanRequest.getFeesAmount());
-        dto.setBranchName(loanRequest.getBranch() != null ? loanRequest.getBranch().getName() : null);
-        dto.setMarketingName(loanRequest.getMarketing() != null ? loanRequest.getMarketing().getName() : null);
-        dto.setMarketingEmail(loanRequest.getMarketing() != null ? loanRequest.getMarketing().getEmail() : null);
-        dto.setStatus(loanRequest.getStatus() != null ? loanRequest.getStatus().getName() : null);
-        return dto;
-    }
-
 }
-
-
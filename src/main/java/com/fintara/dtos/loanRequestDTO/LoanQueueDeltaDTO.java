@@ -0,0 +1,28 @@
+package com.fintara.dtos.loanRequestDTO;
+
+import com.fintara.enums.LoanQueueDeltaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Perubahan satu baris pada antrian kerja (marketing, BM, atau back office).
+ * Untuk ADDED dan STATUS_CHANGED, field loanRequest berisi baris yang sama dengan endpoint /all.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanQueueDeltaDTO {
+    private LoanQueueDeltaType type;
+    private String queue; // MARKETING, BRANCH_MANAGER, BACK_OFFICE
+    private UUID loanRequestId;
+    private String previousStatus;
+    private String newStatus;
+    private LoanRequestApprovalDTO loanRequest;
+    private LocalDateTime occurredAt;
+}
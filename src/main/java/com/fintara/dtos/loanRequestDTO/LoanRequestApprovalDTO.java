@@ -1,7 +1,9 @@
 package com.fintara.dtos.loanRequestDTO;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -9,6 +11,8 @@ import java.util.UUID;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class LoanRequestApprovalDTO {
     //    Data pinjaman customer
     private UUID id;
@@ -1,7 +1,6 @@
 package com.fintara.dtos.loanRequestDTO;
 
 
-import com.fintara.models.LoanRequest;
 import lombok.Builder;
 import lombok.Data;
 
@@ -25,21 +24,4 @@ public class LoanRequestResponseDTO {
     private String marketingNip;
     private String status;
 
-    // Static method to map from LoanRequest entity
-    public static LoanRequestResponseDTO fromEntity(LoanRequest loanRequest) {
-        return LoanRequestResponseDTO.builder()
-                .customerId(loanRequest.getCustomer().getId())
-                .customerName(loanRequest.getCustomer().getUser().getName())
-                .loanRequestId(loanRequest.getId())
-                .amount(loanRequest.getAmount())
-                .tenor(loanRequest.getTenor())
-                .branchId(loanRequest.getBranch().getId())
-                .branchName(loanRequest.getBranch().getName())
-                .marketingId(loanRequest.getMarketing().getId())
-                .marketingName(loanRequest.getMarketing().getName())
-                .marketingEmail(loanRequest.getMarketing().getEmail())
-                .marketingNip(loanRequest.getMarketing().getPegawaiDetails().getNip())
-                .status(loanRequest.getStatus().getName())
-                .build();
-    }
 }
@@ -0,0 +1,15 @@
+package com.fintara.dtos.notificationDTO;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+// Isi ids untuk menandai notifikasi tertentu, atau all=true untuk menandai semua
+@Data
+public class MarkNotificationsReadRequestDTO {
+    @Size(max = 500, message = "Maksimal 500 notifikasi sekaligus")
+    private List<UUID> ids;
+    private boolean all;
+}
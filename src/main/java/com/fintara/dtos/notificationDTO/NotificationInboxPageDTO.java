@@ -0,0 +1,17 @@
+package com.fintara.dtos.notificationDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificationInboxPageDTO {
+    private List<NotificationItemDTO> items;
+    private String nextCursor; // null jika sudah halaman terakhir
+    private boolean hasMore;
+    private long unreadCount;
+}
@@ -0,0 +1,21 @@
+package com.fintara.dtos.notificationDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationItemDTO {
+    private UUID id;
+    private String title;
+    private String body;
+    private LocalDateTime createdAt;
+    private boolean read;
+}
@@ -0,0 +1,26 @@
+package com.fintara.dtos.pegawaiDTO;
+
+import com.fintara.enums.JenisKelamin;
+import com.fintara.enums.StatusPegawai;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeDirectoryItemDTO {
+    private UUID userId;
+    private String name;
+    private String email;
+    private String nip;
+    private UUID branchId;
+    private String branchName;
+    private String role;
+    private StatusPegawai statusPegawai;
+    private JenisKelamin jenisKelamin;
+}
@@ -0,0 +1,24 @@
+package com.fintara.dtos.pegawaiDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeDirectoryPageDTO {
+    private List<EmployeeDirectoryItemDTO> items;
+    private int total;
+    private int page;
+    private int size;
+    // Jumlah per nilai facet (branch, role, status, gender) dengan filter lain tetap diterapkan
+    private Map<String, List<FacetCountDTO>> facets;
+    private LocalDateTime indexBuiltAt;
+}
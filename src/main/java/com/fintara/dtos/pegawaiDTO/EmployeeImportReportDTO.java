@@ -0,0 +1,22 @@
+package com.fintara.dtos.pegawaiDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeImportReportDTO {
+    private String fileName;
+    private int totalRows;
+    private int createdRows;
+    private int rejectedRows;
+    private int failedRows;
+    private long durationMs;
+    private List<EmployeeImportRowDTO> rows;
+}
@@ -0,0 +1,22 @@
+package com.fintara.dtos.pegawaiDTO;
+
+import com.fintara.enums.EmployeeImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeImportRowDTO {
+    private long lineNumber;
+    private String nip;
+    private String email;
+    private EmployeeImportStatus status;
+    private String message;
+    private UUID userId;
+}
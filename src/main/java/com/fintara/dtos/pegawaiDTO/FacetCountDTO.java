@@ -0,0 +1,14 @@
+package com.fintara.dtos.pegawaiDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetCountDTO {
+    private String value;
+    private String label;
+    private int count;
+}
@@ -0,0 +1,21 @@
+package com.fintara.dtos.repaymentsDTO;
+
+import com.fintara.enums.SettlementMismatchType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SettlementMismatchDTO {
+    private long lineNumber;
+    private UUID orderId;
+    private SettlementMismatchType type;
+    private BigDecimal settledAmount;
+    private BigDecimal recordedAmount;
+    private boolean repaired;
+}
@@ -0,0 +1,30 @@
+package com.fintara.dtos.repaymentsDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SettlementReconciliationReportDTO {
+    private String fileName;
+    private boolean repair;
+    private long totalRows;
+    private long paidRows;
+    private long skippedRows;
+    private long malformedRows;
+    private long matchedRows;
+    private long paidNotApplied;
+    private long amountMismatches;
+    private long unknownOrders;
+    private long repairedRows;
+    private long durationMs;
+    // Hanya sebagian mismatch yang dikirim agar response tetap kecil
+    private List<SettlementMismatchDTO> mismatches;
+    private boolean mismatchesTruncated;
+}
@@ -0,0 +1,23 @@
+package com.fintara.dtos.superAdminDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Isi email sengaja tidak ditampilkan (bisa berisi password sementara atau link reset)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDeadLetterDTO {
+    private UUID id;
+    private String recipient;
+    private String subject;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,105 @@
+package com.fintara.email;
+
+import com.fintara.metrics.Instrumentation;
+import com.fintara.models.EmailOutbox;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mengirim satu batch email lewat satu koneksi SMTP: {@link JavaMailSender#send(MimeMessage...)}
+ * membuka transport sekali untuk semua pesan dalam panggilan yang sama.
+ */
+@Component
+public class EmailBatchSender {
+
+    public enum Outcome {
+        SENT,
+        RETRY,    // gangguan sementara (koneksi, server sibuk)
+        REJECTED  // ditolak permanen (alamat tidak valid, pesan tidak bisa dibentuk)
+    }
+
+    public record Result(Outcome outcome, String error) {
+        public static final Result SENT = new Result(Outcome.SENT, null);
+    }
+
+    private final JavaMailSender mailSender;
+    private final Instrumentation instrumentation;
+
+    @Autowired
+    public EmailBatchSender(JavaMailSender mailSender, Instrumentation instrumentation) {
+        this.mailSender = mailSender;
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * @return hasil per email, dengan urutan yang sama seperti {@code emails}
+     */
+    public List<Result> send(List<EmailOutbox> emails) {
+        List<Result> results = new ArrayList<>(Collections.nCopies(emails.size(), Result.SENT));
+        // Dikirim sesuai urutan outbox; map identitas hanya untuk memetakan kegagalan kembali ke baris
+        List<MimeMessage> batch = new ArrayList<>(emails.size());
+        Map<MimeMessage, Integer> indexByMessage = new IdentityHashMap<>();
+        for (int i = 0; i < emails.size(); i++) {
+            try {
+                MimeMessage message = toMimeMessage(emails.get(i));
+                batch.add(message);
+                indexByMessage.put(message, i);
+            } catch (MessagingException e) {
+                results.set(i, new Result(Outcome.REJECTED, e.getMessage()));
+            }
+        }
+        if (batch.isEmpty()) {
+            return results;
+        }
+
+        try {
+            MimeMessage[] messages = batch.toArray(MimeMessage[]::new);
+            instrumentation.outbound("smtp", "send_batch", () -> mailSender.send(messages));
+        } catch (MailSendException e) {
+            // Hanya pesan yang tercantum di failedMessages yang gagal; sisanya sudah terkirim
+            for (Map.Entry<Object, Exception> failure : e.getFailedMessages().entrySet()) {
+                Integer index = indexByMessage.get(failure.getKey());
+                if (index != null) {
+                    results.set(index, classify(failure.getValue()));
+                }
+            }
+        } catch (MailException e) {
+            // Misalnya autentikasi gagal: tidak ada pesan yang terkirim
+            indexByMessage.values().forEach(index -> results.set(index, new Result(Outcome.RETRY, e.getMessage())));
+        }
+        return results;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true); // true = HTML
+        return message;
+    }
+
+    private static Result classify(Exception e) {
+        if (e instanceof SendFailedException sendFailed) {
+            Address[] invalid = sendFailed.getInvalidAddresses();
+            if (invalid != null && invalid.length > 0) {
+                return new Result(Outcome.REJECTED, e.getMessage());
+            }
+        }
+        return new Result(Outcome.RETRY, e.getMessage());
+    }
+}
@@ -0,0 +1,45 @@
+package com.fintara.email;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Template email. File HTML di {@code templates/email/} dibaca dan dikompilasi sekali saat kelas dimuat.
+ */
+public enum EmailTemplate {
+    INITIAL_PASSWORD("initial-password.html", "Akun Pegawai Baru - Fintara"),
+    RESET_PASSWORD("reset-password.html", "Reset Password Anda"),
+    VERIFICATION("verification.html", "Verifikasi Email Anda - Fintara"),
+    LOAN_DISBURSED("loan-disbursed.html", "Pinjaman Anda Telah Dicairkan - Fintara"),
+    LOAN_DISBURSEMENT_FAILED("loan-disbursement-failed.html", "Gagal Cairkan Pinjaman Anda - Fintara");
+
+    private final String subject;
+    private final HtmlTemplate template;
+
+    EmailTemplate(String file, String subject) {
+        this.subject = subject;
+        this.template = HtmlTemplate.compile(load("/templates/email/" + file));
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String render(Map<String, String> values) {
+        return template.render(values);
+    }
+
+    private static String load(String path) {
+        try (InputStream in = EmailTemplate.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Template email " + path + " tidak ditemukan");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.fintara.email;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template HTML yang di-parse sekali menjadi potongan teks tetap dan placeholder {@code {{nama}}}.
+ * Render hanya menyambung potongan ke satu StringBuilder; semua nilai di-escape sebagai HTML.
+ */
+public final class HtmlTemplate {
+
+    private final String[] literals;     // selalu satu lebih banyak dari placeholders
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private HtmlTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static HtmlTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = source.indexOf("{{", position);
+            if (start < 0) {
+                break;
+            }
+            int end = source.indexOf("}}", start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("Placeholder tidak ditutup pada posisi " + start);
+            }
+            literals.add(source.substring(position, start));
+            placeholders.add(source.substring(start + 2, end).trim());
+            position = end + 2;
+        }
+        literals.add(source.substring(position));
+        return new HtmlTemplate(literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder html = new StringBuilder(literalLength + placeholders.length * 32);
+        for (int i = 0; i < placeholders.length; i++) {
+            html.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Nilai untuk placeholder '" + placeholders[i] + "' tidak ada");
+            }
+            escapeTo(html, value);
+        }
+        return html.append(literals[placeholders.length]).toString();
+    }
+
+    private static void escapeTo(StringBuilder html, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+    }
+}
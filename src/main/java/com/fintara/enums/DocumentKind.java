@@ -0,0 +1,23 @@
+package com.fintara.enums;
+
+public enum DocumentKind {
+    KTP("ktp", "Foto KTP"),
+    SELFIE_KTP("selfie", "Foto selfie dengan KTP"),
+    PROFILE_PHOTO("profile", "Foto profil");
+
+    private final String folder; // folder tujuan di storage
+    private final String label;
+
+    DocumentKind(String folder, String label) {
+        this.folder = folder;
+        this.label = label;
+    }
+
+    public String getFolder() {
+        return folder;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
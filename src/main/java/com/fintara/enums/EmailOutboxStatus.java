@@ -0,0 +1,7 @@
+package com.fintara.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,  // menunggu dikirim (termasuk yang menunggu percobaan ulang)
+    SENDING,  // sedang diproses worker
+    DEAD      // gagal permanen atau melewati batas percobaan, perlu dicek manual
+}
@@ -0,0 +1,7 @@
+package com.fintara.enums;
+
+public enum EmployeeImportStatus {
+    CREATED,   // pegawai tersimpan
+    REJECTED,  // gagal validasi, tidak disimpan
+    FAILED     // valid tetapi gagal saat disimpan ke database
+}
@@ -0,0 +1,7 @@
+package com.fintara.enums;
+
+public enum LoanQueueDeltaType {
+    ADDED,
+    REMOVED,
+    STATUS_CHANGED
+}
@@ -0,0 +1,7 @@
+package com.fintara.enums;
+
+public enum SettlementMismatchType {
+    PAID_NOT_APPLIED,   // sudah settlement di Midtrans, tapi jadwal masih belum lunas
+    AMOUNT_MISMATCH,    // sudah lunas, tapi nominal berbeda dengan gross_amount
+    UNKNOWN_ORDER       // order_id tidak ditemukan di repayment_schedules
+}
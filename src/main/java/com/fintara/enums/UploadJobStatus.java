@@ -0,0 +1,8 @@
+package com.fintara.enums;
+
+public enum UploadJobStatus {
+    PENDING,     // file sudah di-spool, menunggu worker
+    PROCESSING,  // sedang dinormalisasi / diupload
+    SUCCESS,     // URL sudah tersimpan di customer details
+    FAILED
+}
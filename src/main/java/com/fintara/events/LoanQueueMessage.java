@@ -0,0 +1,18 @@
+package com.fintara.events;
+
+import com.fintara.dtos.loanRequestDTO.LoanQueueDeltaDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pesan pub/sub Redis per cabang untuk satu transisi loan request.
+ * Setiap node meneruskan delta ke koneksi SSE miliknya sendiri.
+ */
+public record LoanQueueMessage(
+        UUID branchId,
+        UUID marketingId,
+        UUID handledById,
+        List<LoanQueueDeltaDTO> deltas
+) {
+}
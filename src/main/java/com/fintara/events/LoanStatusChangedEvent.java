@@ -0,0 +1,44 @@
+package com.fintara.events;
+
+import com.fintara.models.LoanRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Dipublikasikan setiap kali loan request berpindah status di pipeline
+ * (dibuat, direview marketing, direview BM, dicairkan / tidak dicairkan).
+ * Listener memakai @TransactionalEventListener sehingga hanya menerima perubahan yang sudah commit.
+ */
+public record LoanStatusChangedEvent(
+        UUID loanRequestId,
+        UUID branchId,
+        String branchName,
+        UUID plafondId,
+        String plafondName,
+        UUID marketingId,
+        UUID handledById,
+        String previousStatus,
+        String newStatus,
+        BigDecimal amount,
+        Integer tenor,
+        LocalDateTime disbursedAt
+) {
+    public static LoanStatusChangedEvent of(LoanRequest loanRequest, String previousStatus, UUID handledById) {
+        return new LoanStatusChangedEvent(
+                loanRequest.getId(),
+                loanRequest.getBranch().getId(),
+                loanRequest.getBranch().getName(),
+                loanRequest.getPlafond().getId(),
+                loanRequest.getPlafond().getName(),
+                loanRequest.getMarketing().getId(),
+                handledById,
+                previousStatus,
+                loanRequest.getStatus().getName(),
+                loanRequest.getAmount(),
+                loanRequest.getTenor(),
+                loanRequest.getDisbursedAt()
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.fintara.events;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Dipublikasikan saat pembayaran cicilan diterapkan ke jadwal (callback Midtrans atau rekonsiliasi).
+ */
+public record RepaymentAppliedEvent(
+        UUID repaymentScheduleId,
+        UUID loanRequestId,
+        BigDecimal amountPaid
+) {
+}
@@ -0,0 +1,22 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.customerDTO.CustomerDetailsDTO;
+import com.fintara.dtos.customerDTO.CustomerProfileResponseDTO;
+import com.fintara.models.CustomerDetails;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface CustomerMapper {
+    // Asosiasi CustomerDetails yang dibaca mapper ini; dipakai di @EntityGraph repository
+    String USER = "user";
+    String PLAFOND = "plafond";
+
+    // Butuh: plafond
+    CustomerDetailsDTO toCustomerDetailsDTO(CustomerDetails customerDetails);
+
+    // Butuh: user
+    @Mapping(target = "name", source = "user.name")
+    @Mapping(target = "email", source = "user.email")
+    CustomerProfileResponseDTO toProfileResponse(CustomerDetails customerDetails);
+}
@@ -0,0 +1,25 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.loanApprovalDTO.LoanApprovalHistoryResponse;
+import com.fintara.models.LoanApproval;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface LoanApprovalMapper {
+    // Asosiasi LoanApproval yang dibaca mapper ini; dipakai di @EntityGraph repository
+    String LOAN_REQUEST_CUSTOMER_USER = "loanRequest.customer.user";
+    String STATUS = "status";
+
+    // Butuh: loanRequest.customer.user, status
+    @Mapping(target = "id", source = "loanRequest.id")
+    @Mapping(target = "customerName", source = "loanRequest.customer.user.name")
+    @Mapping(target = "amount", source = "loanRequest.amount")
+    @Mapping(target = "tenor", source = "loanRequest.tenor")
+    @Mapping(target = "statusName", source = "status.name")
+    @Mapping(target = "requestDate", source = "loanRequest.requestDate")
+    @Mapping(target = "marketingHandledDate", source = "loanRequest.approvalMarketingAt")
+    @Mapping(target = "branchManagerHandledDate", source = "loanRequest.approvalBMAt")
+    @Mapping(target = "backOfficeHandledDate", source = "loanRequest.disbursedAt")
+    LoanApprovalHistoryResponse toHistoryResponse(LoanApproval loanApproval);
+}
@@ -0,0 +1,57 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.loanRequestDTO.LoanInProgressResponseDTO;
+import com.fintara.dtos.loanRequestDTO.LoanRequestApprovalDTO;
+import com.fintara.dtos.loanRequestDTO.LoanRequestResponseDTO;
+import com.fintara.models.LoanRequest;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface LoanRequestMapper {
+    // Asosiasi LoanRequest yang dibaca mapper ini; dipakai di @EntityGraph repository
+    String CUSTOMER = "customer";
+    String CUSTOMER_USER = "customer.user";
+    String BRANCH = "branch";
+    String STATUS = "status";
+    String MARKETING = "marketing";
+    String MARKETING_PEGAWAI = "marketing.pegawaiDetails";
+
+    // Butuh: customer.user, branch, marketing.pegawaiDetails, status
+    @Mapping(target = "customerId", source = "customer.id")
+    @Mapping(target = "customerName", source = "customer.user.name")
+    @Mapping(target = "loanRequestId", source = "id")
+    @Mapping(target = "branchId", source = "branch.id")
+    @Mapping(target = "branchName", source = "branch.name")
+    @Mapping(target = "marketingId", source = "marketing.id")
+    @Mapping(target = "marketingName", source = "marketing.name")
+    @Mapping(target = "marketingEmail", source = "marketing.email")
+    @Mapping(target = "marketingNip", source = "marketing.pegawaiDetails.nip")
+    @Mapping(target = "status", source = "status.name")
+    LoanRequestResponseDTO toResponse(LoanRequest loanRequest);
+
+    // Butuh: customer.user, branch, marketing, status
+    @Mapping(target = "customerId", source = "customer.user.id")
+    @Mapping(target = "customerName", source = "customer.user.name")
+    @Mapping(target = "loanRequestId", source = "id")
+    @Mapping(target = "branchName", source = "branch.name")
+    @Mapping(target = "marketingName", source = "marketing.name")
+    @Mapping(target = "marketingEmail", source = "marketing.email")
+    @Mapping(target = "status", source = "status.name")
+    LoanInProgressResponseDTO toInProgressResponse(LoanRequest loanRequest);
+
+    // Baris antrian approval (marketing / BM / back office). Butuh: customer.user, status
+    @Mapping(target = "customerName", source = "customer.user.name")
+    @Mapping(target = "customerEmail", source = "customer.user.email")
+    @Mapping(target = "customerPhone", source = "customer.noTelp")
+    @Mapping(target = "customerAddress", source = "customer.alamat")
+    @Mapping(target = "customerJob", source = "customer.pekerjaan")
+    @Mapping(target = "customerSalary", source = "customer.gaji")
+    @Mapping(target = "customerKtpPhotoUrl", source = "customer.ktpUrl")
+    @Mapping(target = "customerSelfieKtpPhotoUrl", source = "customer.selfieKtpUrl")
+    @Mapping(target = "status", source = "status.name")
+    @Mapping(target = "marketingNotes", ignore = true)
+    @Mapping(target = "bmNotes", ignore = true)
+    @Mapping(target = "backOfficeNotes", ignore = true)
+    LoanRequestApprovalDTO toApprovalQueueItem(LoanRequest loanRequest);
+}
@@ -0,0 +1,13 @@
+package com.fintara.mappers;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Konfigurasi bersama semua mapper entity -> DTO.
+ * Implementasi di-generate MapStruct saat compile (tanpa reflection), dan field DTO yang lupa dipetakan
+ * membuat build gagal, bukan diam-diam bernilai null.
+ */
+@MapperConfig(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface MappingConfig {
+}
@@ -0,0 +1,15 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.pegawaiDTO.PegawaiDetailsDTO;
+import com.fintara.models.PegawaiDetails;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface PegawaiMapper {
+    // Asosiasi PegawaiDetails yang dibaca mapper ini
+    String BRANCH = "branch";
+
+    @Mapping(target = "branchName", source = "branch.name")
+    PegawaiDetailsDTO toPegawaiDetailsDTO(PegawaiDetails pegawaiDetails);
+}
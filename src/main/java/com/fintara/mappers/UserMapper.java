@@ -0,0 +1,30 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.customerDTO.UserWithCustomerResponseDTO;
+import com.fintara.dtos.superAdminDTO.UserResponseDTO;
+import com.fintara.dtos.superAdminDTO.UserWithPegawaiResponseDTO;
+import com.fintara.models.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class, uses = {PegawaiMapper.class, CustomerMapper.class})
+public interface UserMapper {
+    // Asosiasi User yang dibaca mapper ini; dipakai di @EntityGraph repository
+    String ROLE = "role";
+    String PEGAWAI_DETAILS = "pegawaiDetails";
+    String PEGAWAI_BRANCH = "pegawaiDetails.branch";
+    String CUSTOMER_DETAILS = "customerDetails";
+    String CUSTOMER_PLAFOND = "customerDetails.plafond";
+
+    // Butuh: role, pegawaiDetails.branch
+    @Mapping(target = "role", source = "role.name", defaultValue = "ROLE_UNKNOWN")
+    UserWithPegawaiResponseDTO toUserWithPegawai(User user);
+
+    // Butuh: role, customerDetails.plafond
+    @Mapping(target = "role", source = "role.name", defaultValue = "ROLE_UNKNOWN")
+    UserWithCustomerResponseDTO toUserWithCustomer(User user);
+
+    // Butuh: role, customerDetails.plafond, pegawaiDetails.branch
+    @Mapping(target = "role", source = "role.name", defaultValue = "ROLE_UNKNOWN")
+    UserResponseDTO toUserResponse(User user);
+}
@@ -0,0 +1,95 @@
+package com.fintara.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timer untuk jalur yang menentukan latensi: filter JWT, tahap pengajuan & review pinjaman, job terjadwal,
+ * dan panggilan ke layanan luar. Setiap timer mempublikasikan histogram persentil (bucket Prometheus, bisa
+ * diagregasi antar instance) dan diberi tag outcome=success|error.
+ *
+ * Nama timer:
+ * <ul>
+ *   <li>{@code auth.jwt} (stage: blacklist, parse, user_load)</li>
+ *   <li>{@code loan.create} (stage: pricing, branch_search, assignment)</li>
+ *   <li>{@code loan.review} (transition: marketing, branch_manager, back_office)</li>
+ *   <li>{@code loan.schedule.generate}</li>
+ *   <li>{@code job.duration} (job)</li>
+ *   <li>{@code outbound.call} (target: fcm, smtp, cloudinary, midtrans, google; operation)</li>
+ * </ul>
+ */
+@Component
+public class Instrumentation {
+
+    public static final String AUTH_JWT = "auth.jwt";
+    public static final String LOAN_CREATE = "loan.create";
+    public static final String LOAN_REVIEW = "loan.review";
+    public static final String LOAN_SCHEDULE_GENERATE = "loan.schedule.generate";
+    public static final String JOB_DURATION = "job.duration";
+    public static final String OUTBOUND_CALL = "outbound.call";
+
+    @FunctionalInterface
+    public interface ThrowingSupplier<T, E extends Exception> {
+        T get() throws E;
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public Instrumentation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T, E extends Exception> T stage(String name, String stage, ThrowingSupplier<T, E> work) throws E {
+        return time(name, Tags.of("stage", stage), work);
+    }
+
+    public <E extends Exception> void stage(String name, String stage, ThrowingRunnable<E> work) throws E {
+        time(name, Tags.of("stage", stage), asSupplier(work));
+    }
+
+    public <T, E extends Exception> T outbound(String target, String operation, ThrowingSupplier<T, E> call) throws E {
+        return time(OUTBOUND_CALL, Tags.of("target", target, "operation", operation), call);
+    }
+
+    public <E extends Exception> void outbound(String target, String operation, ThrowingRunnable<E> call) throws E {
+        time(OUTBOUND_CALL, Tags.of("target", target, "operation", operation), asSupplier(call));
+    }
+
+    public <T, E extends Exception> T time(String name, Tags tags, ThrowingSupplier<T, E> work) throws E {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public <E extends Exception> void time(String name, Tags tags, ThrowingRunnable<E> work) throws E {
+        time(name, tags, asSupplier(work));
+    }
+
+    public void count(String name, String... tags) {
+        meterRegistry.counter(name, tags).increment();
+    }
+
+    private static <E extends Exception> ThrowingSupplier<Void, E> asSupplier(ThrowingRunnable<E> work) {
+        return () -> {
+            work.run();
+            return null;
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.fintara.models;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fintara.enums.JenisKelamin;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,7 +13,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "customer_details")
+@Table(name = "customer_details", indexes = {
+        @Index(name = "idx_customer_details_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_customer_details_plafond", columnList = "plafond_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,6 +58,12 @@ public class CustomerDetails {
     @Column(name = "remaining_plafond", nullable = false)
     private BigDecimal remainingPlafond;
 
+    // Tanggal registrasi. Untuk customer yang terdaftar sebelum kolom ini ada, nilainya diisi saat startup
+    // (StartupConfig.backfillCustomerRegistrationDate) dari updated_at, jadi hanya perkiraan
+    @Column(name = "created_at", updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
     @Column(name = "updated_at")
     @UpdateTimestamp
     private LocalDateTime updatedAt;
@@ -0,0 +1,41 @@
+package com.fintara.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Inbox notifikasi in-app. Baris hanya ditambah (dan ditandai dibaca), dihapus oleh pruning setelah masa retensi
+@Entity
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_feed", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notifications_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Notification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // Hanya id, bukan relasi: insert batch dari dispatcher tidak perlu memuat User
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 1000)
+    private String body;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+}
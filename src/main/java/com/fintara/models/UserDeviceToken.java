@@ -6,9 +6,12 @@ import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Satu baris per device: user bisa login di beberapa device sekaligus, dan satu token FCM hanya dimiliki satu user
 @Entity
 @Table(name = "user_device_tokens", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"user_id"})
+        @UniqueConstraint(name = "uk_user_device_tokens_token", columnNames = {"fcm_token"})
+}, indexes = {
+        @Index(name = "idx_user_device_tokens_last_login", columnList = "last_login")
 })
 @Data
 public class UserDeviceToken {
@@ -28,6 +31,7 @@ public class UserDeviceToken {
     @Column(name = "device_info")
     private String deviceInfo;
 
+    // Login terakhir dari device ini; token yang tidak dipakai melewati TTL dihapus
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 }
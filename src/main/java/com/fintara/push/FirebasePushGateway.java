@@ -0,0 +1,66 @@
+package com.fintara.push;
+
+import com.fintara.metrics.Instrumentation;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "push.provider", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushGateway implements PushGateway {
+
+    private final Instrumentation instrumentation;
+
+    public FirebasePushGateway(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public List<SendResult> sendEach(List<PushMessage> messages) {
+        List<Message> fcmMessages = messages.stream()
+                .map(message -> Message.builder()
+                        .setToken(message.token())
+                        .setNotification(Notification.builder()
+                                .setTitle(message.title())
+                                .setBody(message.body())
+                                .build())
+                        .build())
+                .toList();
+
+        try {
+            // Satu request HTTP untuk seluruh batch, hasilnya per pesan
+            BatchResponse response = instrumentation.outbound("fcm", "send_each",
+                    () -> FirebaseMessaging.getInstance().sendEach(fcmMessages));
+            List<SendResult> results = new ArrayList<>(messages.size());
+            for (SendResponse sendResponse : response.getResponses()) {
+                results.add(sendResponse.isSuccessful() ? SendResult.SENT : classify(sendResponse.getException()));
+            }
+            return results;
+        } catch (FirebaseMessagingException e) {
+            // Seluruh batch gagal (misalnya autentikasi atau jaringan)
+            return Collections.nCopies(messages.size(), classify(e));
+        }
+    }
+
+    private static SendResult classify(FirebaseMessagingException e) {
+        MessagingErrorCode code = e.getMessagingErrorCode();
+        if (code == MessagingErrorCode.UNREGISTERED) {
+            return new SendResult(Outcome.UNREGISTERED, e.getMessage());
+        }
+        if (code == null || code == MessagingErrorCode.UNAVAILABLE
+                || code == MessagingErrorCode.INTERNAL || code == MessagingErrorCode.QUOTA_EXCEEDED) {
+            return new SendResult(Outcome.RETRYABLE, e.getMessage());
+        }
+        return new SendResult(Outcome.FAILED, e.getMessage());
+    }
+}
@@ -0,0 +1,64 @@
+package com.fintara.push;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pengganti FCM untuk pengujian dan development: pesan hanya dicatat di memori.
+ * Token bisa ditandai tidak terdaftar, dan beberapa panggilan berikutnya bisa dibuat gagal sementara.
+ */
+@Component
+@ConditionalOnProperty(name = "push.provider", havingValue = "fake")
+public class InMemoryPushGateway implements PushGateway {
+
+    private final List<PushMessage> sent = new CopyOnWriteArrayList<>();
+    private final Set<String> unregisteredTokens = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger failingCalls = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public List<SendResult> sendEach(List<PushMessage> messages) {
+        if (messages.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch melebihi " + MAX_BATCH_SIZE + " pesan");
+        }
+        calls.incrementAndGet();
+        boolean fail = failingCalls.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0;
+
+        List<SendResult> results = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            if (fail) {
+                results.add(new SendResult(Outcome.RETRYABLE, "gangguan sementara (fake)"));
+            } else if (unregisteredTokens.contains(message.token())) {
+                results.add(new SendResult(Outcome.UNREGISTERED, "token tidak terdaftar (fake)"));
+            } else {
+                sent.add(message);
+                results.add(SendResult.SENT);
+            }
+        }
+        return results;
+    }
+
+    public void markUnregistered(String token) {
+        unregisteredTokens.add(token);
+    }
+
+    // Panggilan sendEach berikutnya sebanyak n kali mengembalikan RETRYABLE untuk semua pesan
+    public void failNextCalls(int n) {
+        failingCalls.set(n);
+    }
+
+    public List<PushMessage> sent() {
+        return List.copyOf(sent);
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+}
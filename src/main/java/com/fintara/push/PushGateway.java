@@ -0,0 +1,35 @@
+package com.fintara.push;
+
+import java.util.List;
+
+/**
+ * Pengirim push notification ke device (FCM di production, fake in-process untuk pengujian).
+ */
+public interface PushGateway {
+
+    /**
+     * Batas jumlah pesan per panggilan {@link #sendEach(List)} (batas FCM sendEach).
+     */
+    int MAX_BATCH_SIZE = 500;
+
+    record PushMessage(String token, String title, String body) {
+    }
+
+    enum Outcome {
+        SENT,
+        UNREGISTERED, // token sudah tidak berlaku, harus dihapus
+        RETRYABLE,    // gangguan sementara di sisi provider, boleh dikirim ulang
+        FAILED
+    }
+
+    record SendResult(Outcome outcome, String error) {
+        public static final SendResult SENT = new SendResult(Outcome.SENT, null);
+    }
+
+    /**
+     * Kirim maksimal {@link #MAX_BATCH_SIZE} pesan dalam satu panggilan.
+     *
+     * @return hasil per pesan, dengan urutan yang sama seperti {@code messages}
+     */
+    List<SendResult> sendEach(List<PushMessage> messages);
+}
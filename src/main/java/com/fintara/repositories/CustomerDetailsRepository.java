@@ -1,15 +1,66 @@
 package com.fintara.repositories;
 
+import com.fintara.mappers.CustomerMapper;
 import com.fintara.models.CustomerDetails;
 import com.fintara.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerDetailsRepository extends JpaRepository<CustomerDetails, Integer> {
     Optional<CustomerDetails> findByUser(User user);
     Optional<CustomerDetails> findById(UUID id);
+
+    // Profil customer: asosiasi yang dibaca CustomerMapper.toProfileResponse
+    @EntityGraph(attributePaths = {CustomerMapper.USER})
+    @Query("SELECT cd FROM CustomerDetails cd WHERE cd.user.id = :userId")
+    Optional<CustomerDetails> findWithUserByUserId(@Param("userId") UUID userId);
+
+    // Isi tanggal registrasi customer lama supaya direktori (keyset by created_at) punya urutan total
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE customer_details SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL",
+            nativeQuery = true)
+    int backfillCreatedAt();
+
+    // Baris index pencarian customer: id, userId, nama, email, nik, noTelp, noRek, nama plafond
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT cd.id, u.id, u.name, u.email, cd.nik, cd.noTelp, cd.noRek, p.name
+    FROM CustomerDetails cd
+    JOIN cd.user u
+    JOIN cd.plafond p
+    """)
+    Stream<Object[]> streamSearchRows();
+
+    @Query("""
+    SELECT cd.id, u.id, u.name, u.email, cd.nik, cd.noTelp, cd.noRek, p.name
+    FROM CustomerDetails cd
+    JOIN cd.user u
+    JOIN cd.plafond p
+    WHERE cd.id = :id
+    """)
+    List<Object[]> findSearchRowById(@Param("id") UUID id);
+
+    @Query("""
+    SELECT cd.id, u.id, u.name, u.email, cd.nik, cd.noTelp, cd.noRek, p.name
+    FROM CustomerDetails cd
+    JOIN cd.user u
+    JOIN cd.plafond p
+    WHERE u.id = :userId
+    """)
+    List<Object[]> findSearchRowByUserId(@Param("userId") UUID userId);
 }
@@ -0,0 +1,75 @@
+package com.fintara.repositories;
+
+import com.fintara.dtos.customerDTO.CustomerDirectoryItemDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Query direktori customer dengan keyset pagination.
+ * Hasil langsung berupa DTO (constructor expression), tanpa memuat entity User / CustomerDetails / Plafond.
+ */
+@Repository
+public class CustomerDirectoryRepository {
+    public static final String SORT_REGISTERED_AT = "registeredAt";
+    public static final String SORT_NAME = "name";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param afterValue nilai kolom sort dari baris terakhir halaman sebelumnya (LocalDateTime atau String), null untuk halaman pertama
+     * @param afterId    id customer_details dari baris terakhir halaman sebelumnya
+     */
+    public List<CustomerDirectoryItemDTO> findPage(UUID plafondId, LocalDateTime registeredFrom, LocalDateTime registeredTo,
+                                                   String sort, boolean ascending,
+                                                   Object afterValue, UUID afterId, int limit) {
+        // Kolom sort hanya dari whitelist, tidak pernah dari input mentah
+        String sortExpression = SORT_NAME.equals(sort) ? "COALESCE(u.name, '')" : "cd.createdAt";
+        String direction = ascending ? "ASC" : "DESC";
+        String comparator = ascending ? ">" : "<";
+
+        StringBuilder jpql = new StringBuilder("""
+                SELECT new com.fintara.dtos.customerDTO.CustomerDirectoryItemDTO(
+                    u.id, cd.id, u.name, u.email, u.emailVerified, cd.noTelp,
+                    p.id, p.name, cd.remainingPlafond, cd.createdAt)
+                FROM CustomerDetails cd
+                JOIN cd.user u
+                JOIN cd.plafond p
+                WHERE 1 = 1
+                """);
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (plafondId != null) {
+            jpql.append(" AND p.id = :plafondId");
+            parameters.put("plafondId", plafondId);
+        }
+        if (registeredFrom != null) {
+            jpql.append(" AND cd.createdAt >= :registeredFrom");
+            parameters.put("registeredFrom", registeredFrom);
+        }
+        if (registeredTo != null) {
+            jpql.append(" AND cd.createdAt < :registeredTo");
+            parameters.put("registeredTo", registeredTo);
+        }
+        if (afterValue != null && afterId != null) {
+            jpql.append(" AND (").append(sortExpression).append(' ').append(comparator).append(" :afterValue")
+                    .append(" OR (").append(sortExpression).append(" = :afterValue AND cd.id ").append(comparator).append(" :afterId))");
+            parameters.put("afterValue", afterValue);
+            parameters.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY ").append(sortExpression).append(' ').append(direction)
+                .append(", cd.id ").append(direction);
+
+        TypedQuery<CustomerDirectoryItemDTO> query = entityManager.createQuery(jpql.toString(), CustomerDirectoryItemDTO.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
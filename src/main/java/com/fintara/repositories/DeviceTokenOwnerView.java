@@ -0,0 +1,8 @@
+package com.fintara.repositories;
+
+import java.util.UUID;
+
+public interface DeviceTokenOwnerView {
+    String getFcmToken();
+    UUID getUserId();
+}
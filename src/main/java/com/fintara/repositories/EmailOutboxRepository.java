@@ -0,0 +1,54 @@
+package com.fintara.repositories;
+
+import com.fintara.enums.EmailOutboxStatus;
+import com.fintara.models.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<UUID> findDueIds(@Param("status") EmailOutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Klaim hanya baris yang masih PENDING, jadi dua node tidak pernah mengirim email yang sama
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.fintara.enums.EmailOutboxStatus.SENDING, e.claimToken = :token, e.claimedAt = :now " +
+            "WHERE e.id IN :ids AND e.status = com.fintara.enums.EmailOutboxStatus.PENDING")
+    int claim(@Param("ids") Collection<UUID> ids, @Param("token") UUID token, @Param("now") LocalDateTime now);
+
+    // Urut sesuai waktu dibuat (id sebagai pemecah seri), jadi email dikirim sesuai urutan masuk antrian
+    List<EmailOutbox> findAllByClaimTokenOrderByCreatedAtAscIdAsc(UUID claimToken);
+
+    // Batch yang ditinggal worker (misalnya node mati saat mengirim) dikembalikan ke antrian
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.fintara.enums.EmailOutboxStatus.PENDING, e.claimToken = null " +
+            "WHERE e.status = com.fintara.enums.EmailOutboxStatus.SENDING AND e.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.fintara.enums.EmailOutboxStatus.PENDING, e.attempts = 0, e.nextAttemptAt = :now " +
+            "WHERE e.status = com.fintara.enums.EmailOutboxStatus.DEAD")
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    // Isi email DEAD bisa berisi password sementara / link reset, jadi tidak disimpan selamanya
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = com.fintara.enums.EmailOutboxStatus.DEAD AND e.createdAt < :cutoff")
+    int deleteDeadCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    List<EmailOutbox> findTop100ByStatusOrderByCreatedAtDesc(EmailOutboxStatus status);
+
+    long countByStatus(EmailOutboxStatus status);
+}
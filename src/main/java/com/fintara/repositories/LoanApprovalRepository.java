@@ -1,14 +1,21 @@
 package com.fintara.repositories;
 
+import com.fintara.mappers.LoanApprovalMapper;
 import com.fintara.models.LoanApproval;
 import com.fintara.models.LoanRequest;
-import io.lettuce.core.dynamic.annotation.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoanApprovalRepository extends JpaRepository<LoanApproval, UUID> {
@@ -16,6 +23,8 @@ public interface LoanApprovalRepository extends JpaRepository<LoanApproval, UUID
 
     List<LoanApproval> findByLoanRequestId(UUID loanRequestId);
 
+    // Asosiasi yang dibaca LoanApprovalMapper.toHistoryResponse
+    @EntityGraph(attributePaths = {LoanApprovalMapper.LOAN_REQUEST_CUSTOMER_USER, LoanApprovalMapper.STATUS})
     @Query("SELECT la FROM LoanApproval la WHERE la.handledBy.id = :userId")
     List<LoanApproval> findAllByHandledBy(UUID userId);
 
@@ -24,5 +33,26 @@ public interface LoanApprovalRepository extends JpaRepository<LoanApproval, UUID
     int countDistinctLoanRequestByHandledBy(@Param("userId") UUID userId);
 
     List<LoanApproval> findByLoanRequestIdOrderByApprovedAtAsc(UUID loanRequestId);
-}
 
+    // Export CSV riwayat approval, difilter opsional per cabang / status / tanggal approval
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+    SELECT la.id, lr.id, b.name, s.name, h.name, r.name, la.approvedAt,
+           la.notes, la.notesIdentitas, la.notesPlafond, la.notesSummary
+    FROM LoanApproval la
+    JOIN la.loanRequest lr
+    JOIN lr.branch b
+    JOIN la.status s
+    JOIN la.handledBy h
+    JOIN h.role r
+    WHERE (:branchId IS NULL OR b.id = :branchId)
+      AND (:status IS NULL OR s.name = :status)
+      AND (:from IS NULL OR la.approvedAt >= :from)
+      AND (:to IS NULL OR la.approvedAt < :to)
+    ORDER BY la.approvedAt
+    """)
+    Stream<Object[]> streamForExport(@Param("branchId") UUID branchId,
+                                     @Param("status") String status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+}
@@ -1,16 +1,23 @@
 package com.fintara.repositories;
 
 import com.fintara.enums.LoanStatus;
+import com.fintara.mappers.LoanRequestMapper;
 import com.fintara.models.CustomerDetails;
 import com.fintara.models.LoanRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoanRequestRepository extends JpaRepository<LoanRequest, UUID> {
@@ -19,12 +26,18 @@ public interface LoanRequestRepository extends JpaRepository<LoanRequest, UUID>
     @Query("SELECT lr.marketing.id, COUNT(lr) FROM LoanRequest lr WHERE lr.branch.id = :branchId GROUP BY lr.marketing.id")
     List<Object[]> countLoanRequestsByMarketing(@Param("branchId") UUID branchId);
 
+    // Antrian approval: asosiasi yang dibaca LoanRequestMapper.toApprovalQueueItem
+    @EntityGraph(attributePaths = {LoanRequestMapper.CUSTOMER_USER, LoanRequestMapper.STATUS})
     @Query("SELECT lr FROM LoanRequest lr WHERE lr.marketing.id = :marketingId AND lr.status.name = 'REVIEW'")
     List<LoanRequest> findByMarketingId(@Param("marketingId") UUID marketingId);
 
+    @EntityGraph(attributePaths = {LoanRequestMapper.CUSTOMER_USER, LoanRequestMapper.STATUS})
     @Query("SELECT l FROM LoanRequest l WHERE l.branch.id = :branchId AND l.status.name = :status")
     List<LoanRequest> findByBranchIdAndStatus(@Param("branchId") UUID branchId, @Param("status") String status);
 
+    // Asosiasi yang dibaca LoanRequestMapper.toInProgressResponse
+    @EntityGraph(attributePaths = {LoanRequestMapper.CUSTOMER_USER, LoanRequestMapper.BRANCH,
+            LoanRequestMapper.MARKETING, LoanRequestMapper.STATUS})
     List<LoanRequest> findAllByCustomer_User_IdAndStatus_NameIn(UUID userId, List<String> statusNames);
 
     boolean existsByCustomerAndStatus_NameIn(CustomerDetails customer, List<String> statusNames);
@@ -32,4 +45,40 @@ public interface LoanRequestRepository extends JpaRepository<LoanRequest, UUID>
     int countByStatusNameAndMarketingId(String statusName, UUID marketingId);
 
     int countByStatusNameAndBranchId(String statusName, UUID branchId);
+
+    // Kolom skalar untuk snapshot analitik portofolio; dibaca streaming agar tidak memuat entity
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT lr.id, b.id, b.name, p.id, p.name, s.name, lr.amount, lr.tenor, lr.disbursedAt
+    FROM LoanRequest lr
+    JOIN lr.branch b
+    JOIN lr.plafond p
+    JOIN lr.status s
+    """)
+    Stream<Object[]> streamPortfolioRows();
+
+    // Export CSV: kolom skalar, forward-only, difilter opsional per cabang / status / tanggal dibuat
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+    SELECT lr.id, lr.createdAt, b.name, s.name, u.name, u.email, cd.nik, m.name, p.name,
+           lr.amount, lr.tenor, lr.interestRate, lr.interestAmount, lr.feesAmount,
+           lr.disbursedAmount, lr.totalRepaymentAmount,
+           lr.approvalMarketingAt, lr.approvalBMAt, lr.disbursedAt
+    FROM LoanRequest lr
+    JOIN lr.branch b
+    JOIN lr.status s
+    JOIN lr.customer cd
+    JOIN cd.user u
+    JOIN lr.marketing m
+    JOIN lr.plafond p
+    WHERE (:branchId IS NULL OR b.id = :branchId)
+      AND (:status IS NULL OR s.name = :status)
+      AND (:from IS NULL OR lr.createdAt >= :from)
+      AND (:to IS NULL OR lr.createdAt < :to)
+    ORDER BY lr.createdAt
+    """)
+    Stream<Object[]> streamForExport(@Param("branchId") UUID branchId,
+                                     @Param("status") String status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,51 @@
+package com.fintara.repositories;
+
+import com.fintara.models.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+    // Halaman pertama feed: terbaru dulu
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFeed(@Param("userId") UUID userId, Pageable pageable);
+
+    // Halaman berikutnya: baris setelah (createdAt, id) terakhir dari halaman sebelumnya
+    @Query("""
+    SELECT n FROM Notification n
+    WHERE n.userId = :userId
+      AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))
+    ORDER BY n.createdAt DESC, n.id DESC
+    """)
+    List<Notification> findFeedAfter(@Param("userId") UUID userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     Pageable pageable);
+
+    long countByUserIdAndReadAtIsNull(UUID userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt WHERE n.userId = :userId AND n.id IN :ids AND n.readAt IS NULL")
+    int markRead(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids, @Param("readAt") LocalDateTime readAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt WHERE n.userId = :userId AND n.readAt IS NULL")
+    int markAllRead(@Param("userId") UUID userId, @Param("readAt") LocalDateTime readAt);
+
+    // Pruning bertahap supaya DELETE besar tidak mengunci tabel lama-lama
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE TOP (:limit) FROM notifications WHERE created_at < :cutoff", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -2,15 +2,25 @@ package com.fintara.repositories;
 
 import com.fintara.models.Branch;
 import com.fintara.models.PegawaiDetails;
-import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 @Repository
 public interface PegawaiRepository extends JpaRepository<PegawaiDetails, Long> {
     boolean existsByNip(String nip);
 
+    @Query("SELECT p.nip FROM PegawaiDetails p WHERE p.nip IN :nips")
+    List<String> findExistingNips(@Param("nips") Collection<String> nips);
+
+    @Query("SELECT DISTINCT p.branch.id FROM PegawaiDetails p WHERE p.user.role.name = :roleName")
+    List<UUID> findBranchIdsWithRole(@Param("roleName") String roleName);
+
     @Query("""
     SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END
     FROM PegawaiDetails p
@@ -18,4 +28,34 @@ public interface PegawaiRepository extends JpaRepository<PegawaiDetails, Long> {
     """)
     boolean existsByBranchAndRoleName(@Param("branch") Branch branch, @Param("roleName") String roleName);
 
+    // Baris direktori pegawai: userId, nama, email, nip, branchId, nama branch, role, status, jenis kelamin
+    @Query("""
+    SELECT u.id, u.name, u.email, p.nip, b.id, b.name, r.name, p.statusPegawai, p.jenisKelamin
+    FROM PegawaiDetails p
+    JOIN p.user u
+    JOIN p.branch b
+    JOIN u.role r
+    """)
+    List<Object[]> findDirectoryRows();
+
+    @Query("""
+    SELECT u.id, u.name, u.email, p.nip, b.id, b.name, r.name, p.statusPegawai, p.jenisKelamin
+    FROM PegawaiDetails p
+    JOIN p.user u
+    JOIN p.branch b
+    JOIN u.role r
+    WHERE u.id = :userId
+    """)
+    List<Object[]> findDirectoryRowByUserId(@Param("userId") UUID userId);
+
+    @Query("""
+    SELECT u.id, u.name, u.email, p.nip, b.id, b.name, r.name, p.statusPegawai, p.jenisKelamin
+    FROM PegawaiDetails p
+    JOIN p.user u
+    JOIN p.branch b
+    JOIN u.role r
+    WHERE u.id IN :userIds
+    """)
+    List<Object[]> findDirectoryRowsByUserIds(@Param("userIds") Collection<UUID> userIds);
+
 }
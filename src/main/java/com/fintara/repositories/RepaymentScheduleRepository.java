@@ -1,14 +1,19 @@
 package com.fintara.repositories;
 
 import com.fintara.models.RepaymentSchedule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface RepaymentScheduleRepository extends JpaRepository<RepaymentSchedule, UUID> {
     List<RepaymentSchedule> findByLoanRequestId(UUID loanRequestId);
@@ -24,4 +29,52 @@ public interface RepaymentScheduleRepository extends JpaRepository<RepaymentSche
       AND rs.loanRequest.status.name = 'DISBURSED'
     """)
     BigDecimal getTotalAmountPaidByCustomer(@Param("customerId") UUID customerId);
+
+    @Query("""
+    SELECT rs.id AS id, rs.amountPaid AS amountPaid, rs.paidAt AS paidAt
+    FROM RepaymentSchedule rs
+    WHERE rs.id IN :ids
+    ORDER BY rs.id
+    """)
+    List<RepaymentSettlementView> findSettlementViewsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Jumlah cicilan belum dibayar dan jatuh tempo tertua per loan (untuk analitik portofolio)
+    @Query("""
+    SELECT rs.loanRequest.id, COUNT(rs), MIN(rs.dueDate)
+    FROM RepaymentSchedule rs
+    WHERE rs.paidAt IS NULL
+    GROUP BY rs.loanRequest.id
+    """)
+    List<Object[]> summarizeUnpaidByLoan();
+
+    @Query("""
+    SELECT COUNT(rs), MIN(rs.dueDate)
+    FROM RepaymentSchedule rs
+    WHERE rs.loanRequest.id = :loanRequestId AND rs.paidAt IS NULL
+    """)
+    List<Object[]> summarizeUnpaidByLoanId(@Param("loanRequestId") UUID loanRequestId);
+
+    // Export CSV jadwal cicilan; status: PAID, UNPAID, atau LATE
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+    SELECT rs.id, lr.id, b.name, u.name, rs.installmentNumber, rs.amountToPay, rs.amountPaid,
+           rs.dueDate, rs.isLate, rs.penaltyAmount, rs.paidAt
+    FROM RepaymentSchedule rs
+    JOIN rs.loanRequest lr
+    JOIN lr.branch b
+    JOIN lr.customer cd
+    JOIN cd.user u
+    WHERE (:branchId IS NULL OR b.id = :branchId)
+      AND (:status IS NULL
+           OR (:status = 'PAID' AND rs.paidAt IS NOT NULL)
+           OR (:status = 'UNPAID' AND rs.paidAt IS NULL)
+           OR (:status = 'LATE' AND rs.isLate = true))
+      AND (:from IS NULL OR rs.dueDate >= :from)
+      AND (:to IS NULL OR rs.dueDate < :to)
+    ORDER BY rs.dueDate
+    """)
+    Stream<Object[]> streamForExport(@Param("branchId") UUID branchId,
+                                     @Param("status") String status,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
 }
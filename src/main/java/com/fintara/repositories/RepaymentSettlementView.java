@@ -0,0 +1,11 @@
+package com.fintara.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface RepaymentSettlementView {
+    UUID getId();
+    BigDecimal getAmountPaid();
+    LocalDate getPaidAt();
+}
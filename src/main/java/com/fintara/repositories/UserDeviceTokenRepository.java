@@ -1,15 +1,92 @@
 package com.fintara.repositories;
 
-import com.fintara.models.User;
 import com.fintara.models.UserDeviceToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserDeviceTokenRepository extends JpaRepository<UserDeviceToken, UUID> {
-    void deleteByUser_Id(UUID userId);
 
-    Optional<UserDeviceToken> findByUser_Id(UUID userId);
+    // Token aktif semua penerima dalam satu batch push notification
+    List<UserDeviceToken> findAllByUser_IdInAndLastLoginAfter(Collection<UUID> userIds, LocalDateTime cutoff);
 
+    /**
+     * Daftarkan token device dalam satu statement. Token yang sudah ada dipindahkan ke user yang login
+     * (device ganti akun), sehingga notifikasi user lama tidak lagi sampai ke device ini.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            MERGE user_device_tokens WITH (HOLDLOCK) AS t
+            USING (SELECT :userId AS user_id, :fcmToken AS fcm_token) AS s
+            ON t.fcm_token = s.fcm_token
+            WHEN MATCHED THEN
+                UPDATE SET user_id = s.user_id, device_info = :deviceInfo, last_login = :lastLogin
+            WHEN NOT MATCHED THEN
+                INSERT (id, user_id, fcm_token, device_info, last_login)
+                VALUES (NEWID(), s.user_id, s.fcm_token, :deviceInfo, :lastLogin);
+            """, nativeQuery = true)
+    int upsert(@Param("userId") UUID userId,
+               @Param("fcmToken") String fcmToken,
+               @Param("deviceInfo") String deviceInfo,
+               @Param("lastLogin") LocalDateTime lastLogin);
+
+    // Pemilik token saat ini, dicek sebelum write-behind lastLogin
+    @Query("SELECT t.fcmToken AS fcmToken, t.user.id AS userId FROM UserDeviceToken t WHERE t.fcmToken IN :tokens")
+    List<DeviceTokenOwnerView> findOwnersByFcmTokenIn(@Param("tokens") Collection<String> tokens);
+
+    // Write-behind lastLogin untuk device yang login ulang; hanya untuk token yang masih milik user yang login
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDeviceToken t SET t.lastLogin = :lastLogin WHERE t.fcmToken IN :tokens")
+    int touch(@Param("tokens") Collection<String> tokens, @Param("lastLogin") LocalDateTime lastLogin);
+
+    // Token yang dilaporkan UNREGISTERED oleh FCM
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserDeviceToken t WHERE t.fcmToken IN :tokens")
+    int deleteByFcmTokenIn(@Param("tokens") Collection<String> tokens);
+
+    // Token yang tidak dipakai login melewati TTL
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserDeviceToken t WHERE t.lastLogin IS NULL OR t.lastLogin < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Migrasi dari model satu token per user: hapus unique constraint lama pada user_id dan (user_id, fcm_token)
+     * (ddl-auto update tidak menghapus constraint) serta duplikat token lama, lalu pastikan fcm_token unik.
+     * ddl-auto update gagal menambah constraint itu selama duplikat masih ada, jadi ditambahkan di sini.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DECLARE @constraint sysname;
+            SELECT @constraint = kc.name
+            FROM sys.key_constraints kc
+            JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id
+            JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+            WHERE kc.parent_object_id = OBJECT_ID('user_device_tokens') AND kc.type = 'UQ'
+            GROUP BY kc.name
+            HAVING COUNT(*) = 1 AND MAX(c.name) = 'user_id';
+            IF @constraint IS NOT NULL
+                EXEC('ALTER TABLE user_device_tokens DROP CONSTRAINT ' + QUOTENAME(@constraint));
+            WITH ranked AS (
+                SELECT ROW_NUMBER() OVER (PARTITION BY fcm_token ORDER BY last_login DESC) AS rn
+                FROM user_device_tokens
+            )
+            DELETE FROM ranked WHERE rn > 1;
+            IF OBJECT_ID('uk_user_device_tokens_user_token', 'UQ') IS NOT NULL
+                ALTER TABLE user_device_tokens DROP CONSTRAINT uk_user_device_tokens_user_token;
+            IF OBJECT_ID('uk_user_device_tokens_token', 'UQ') IS NULL
+                ALTER TABLE user_device_tokens ADD CONSTRAINT uk_user_device_tokens_token UNIQUE (fcm_token);
+            """, nativeQuery = true)
+    void migrateFromSingleDevice();
 }
@@ -1,11 +1,13 @@
 package com.fintara.repositories;
 
+import com.fintara.mappers.UserMapper;
 import com.fintara.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.EntityGraph;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,9 +19,11 @@ public interface UserRepository extends JpaRepository<User, UUID> {
             "WHERE p.branch.id = :branchId AND u.role.name = 'MARKETING'")
     List<User> findMarketingByBranch(@Param("branchId") UUID branchId);
 
+    @EntityGraph(attributePaths = {UserMapper.ROLE, UserMapper.CUSTOMER_DETAILS, UserMapper.CUSTOMER_PLAFOND})
     @Query("SELECT u FROM User u WHERE u.role.name = 'CUSTOMER'")
     List<User> findAllWithCustomer();
 
+    @EntityGraph(attributePaths = {UserMapper.ROLE, UserMapper.PEGAWAI_DETAILS, UserMapper.PEGAWAI_BRANCH})
     @Query("SELECT u FROM User u WHERE u.pegawaiDetails IS NOT NULL")
     List<User> findAllWithPegawai();
 
@@ -29,7 +33,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.customerDetails WHERE u.id = :userId")
     Optional<User> findByIdWithCustomer(@Param("userId") UUID userId);
 
-    @EntityGraph(attributePaths = {"customerDetails", "customerDetails.plafond"})
+    @EntityGraph(attributePaths = {UserMapper.ROLE, UserMapper.CUSTOMER_DETAILS, UserMapper.CUSTOMER_PLAFOND})
     @Query("SELECT u FROM User u WHERE u.email = :email")
     Optional<User> findByEmailWithDetails(@Param("email") String email);
 
@@ -49,4 +53,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmailOrNip(String username);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
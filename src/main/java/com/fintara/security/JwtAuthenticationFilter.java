@@ -1,5 +1,6 @@
 package com.fintara.security;
 
+import com.fintara.metrics.Instrumentation;
 import com.fintara.utils.JwtUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,6 +24,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     JwtUtils jwtUtils;
     @Autowired
     JwtBlacklist jwtBlacklist;
+    @Autowired
+    Instrumentation instrumentation;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,8 +39,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 path.startsWith("/api/v1/loan-requests/loan-simulate") ||
                 path.startsWith("/api/v1/loan-requests/loan-web-simulate") ||
                 path.startsWith("/api/v1/cloudinary/") ||
-                path.startsWith("/api/v1/notifications/") ||
+                (path.startsWith("/api/v1/notifications/") && !path.startsWith("/api/v1/notifications/inbox")) ||
                 path.startsWith("/api/v1/repayments/") ||
+                path.equals("/actuator/prometheus") ||
+                path.equals("/actuator/health") ||
                 path.startsWith("/download/") ||
                 path.startsWith("/swagger-ui") ||
                 path.startsWith("/v3/api-docs") ||
@@ -51,14 +56,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             if (StringUtils.hasText(jwt)) {
                 // 🔥 Cek blacklist
-                if (jwtBlacklist.isBlacklisted(jwt)) {
+                if (instrumentation.stage(Instrumentation.AUTH_JWT, "blacklist", () -> jwtBlacklist.isBlacklisted(jwt))) {
+                    instrumentation.count("auth.jwt.rejected", "reason", "blacklisted");
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("Token sudah tidak valid (blacklisted)");
                     return;
                 }
 
-                String username = jwtUtils.getUsername(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                String username = instrumentation.stage(Instrumentation.AUTH_JWT, "parse", () -> jwtUtils.getUsername(jwt));
+                UserDetails userDetails = instrumentation.stage(Instrumentation.AUTH_JWT, "user_load",
+                        () -> userDetailsService.loadUserByUsername(username));
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
@@ -1,6 +1,7 @@
 package com.fintara.security;
 
 import com.fintara.utils.JwtUtils;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -52,6 +53,8 @@ public class SecurityConfiguration implements WebMvcConfigurer {
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Dispatch ASYNC (StreamingResponseBody / SSE) sudah diotorisasi di request awal
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/download/**",
                                 "/v1/home/",
@@ -59,14 +62,21 @@ public class SecurityConfiguration implements WebMvcConfigurer {
                                 "/v3/api-docs/**", "/api-docs/**")
                         .permitAll()
                         .requestMatchers("/v1/auth/**").permitAll()
+                        // Inbox notifikasi milik user yang login; harus sebelum permitAll /v1/notifications/**
+                        .requestMatchers("/v1/notifications/inbox/**").authenticated()
                         .requestMatchers("/v1/notifications/**").permitAll()
                         .requestMatchers("/v1/auth/login-google").permitAll()
                         .requestMatchers("/v1/cloudinary/**").permitAll()
+                        // Upload langsung ke storage lokal (pengujian) diotorisasi oleh signature tiket
+                        .requestMatchers("/v1/local-storage/**").permitAll()
                         .requestMatchers("/v1/loan-requests/loan-simulate").permitAll()
                         .requestMatchers("/v1/loan-requests/loan-web-simulate").permitAll()
                         .requestMatchers("/v1/payments/**").permitAll()
                         .requestMatchers("/v1/repayments/**").permitAll()
                         .requestMatchers("/v1/plafonds/all").permitAll()
+                        // Scrape Prometheus & health check di port manajemen (lihat management.server.*),
+                        // tidak terjangkau dari port API publik; endpoint actuator lain tetap butuh login
+                        .requestMatchers("/actuator/prometheus", "/actuator/health").permitAll()
                         .anyRequest().authenticated())
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
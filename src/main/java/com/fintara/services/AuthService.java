@@ -61,6 +61,8 @@ public class AuthService {
     private GoogleTokenVerifier googleTokenVerifier;
     @Autowired
     private UserDeviceTokenService userDeviceTokenService;
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
 
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
@@ -94,6 +96,8 @@ public class AuthService {
 
         // ⬇️ Simpan CustomerDetails
         customerDetailsService.saveCustomerDetails(customerDetails);
+        dashboardCounterService.increment(DashboardCounterService.TOTAL_USERS);
+        dashboardCounterService.increment(DashboardCounterService.TOTAL_CUSTOMERS);
 
         // 🔹 Generate token verifikasi dan simpan ke Redis
         String verificationToken = UUID.randomUUID().toString();
@@ -145,9 +149,9 @@ public class AuthService {
         String jwt = jwtUtils.generateToken(authentication);
         redisService.saveCustomerSession(email, jwt);
 
-        // ✅ Simpan FCM token (jika ada)
+        // ✅ Daftarkan FCM token device ini (jika ada); device lain milik user tetap aktif
         if (request.getFcmToken() != null && !request.getFcmToken().isBlank()) {
-            userDeviceTokenService.saveOrReplaceToken(user, request.getFcmToken(), request.getDeviceInfo());
+            userDeviceTokenService.registerToken(user, request.getFcmToken(), request.getDeviceInfo());
         }
 
         // Siapkan response
@@ -204,10 +208,12 @@ public class AuthService {
                     .build();
 
             customerDetailsService.saveCustomerDetails(details);
+            dashboardCounterService.increment(DashboardCounterService.TOTAL_USERS);
+            dashboardCounterService.increment(DashboardCounterService.TOTAL_CUSTOMERS);
         }
 
-        // ⬅️ Simpan FCM Token (hapus yang lama, ganti dengan yang baru)
-        userDeviceTokenService.saveOrReplaceToken(user, fcmToken, deviceInfo);
+        // ⬅️ Daftarkan FCM token device ini; device lain milik user tetap aktif
+        userDeviceTokenService.registerToken(user, fcmToken, deviceInfo);
 
         // 🔐 Simpan session dan buat JWT
         String jwt = jwtUtils.generateTokenForGoogle(user);
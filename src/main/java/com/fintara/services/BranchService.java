@@ -29,6 +29,10 @@ public class BranchService {
     private NameNormalizer nameNormalizer;
     @Autowired
     private UserService userService;
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    @Autowired
+    private ProfileCacheService profileCacheService;
 
     public ResponseEntity<Branch> createBranch(@Valid @RequestBody Branch branch) {
         String normalizedName = nameNormalizer.normalizedName(branch.getName());
@@ -38,7 +42,9 @@ public class BranchService {
             throw new CustomException("Branch sudah ada!", HttpStatus.BAD_REQUEST);
         }
 
-        return ResponseEntity.ok(branchRepository.save(branch));
+        Branch savedBranch = branchRepository.save(branch);
+        dashboardCounterService.increment(DashboardCounterService.TOTAL_BRANCHES);
+        return ResponseEntity.ok(savedBranch);
     }
 
     public List<Branch> getAllBranches() {
@@ -85,11 +91,7 @@ public class BranchService {
         List<Branch> allBranches = branchRepository.findAll();
 
         // Urutkan berdasarkan jarak terdekat
-        List<Branch> sortedBranches = allBranches.stream()
-                .sorted(Comparator.comparing(branch -> haversineDistance(
-                        latitude, longitude,
-                        branch.getLatitude(), branch.getLongitude())))
-                .toList();
+        List<Branch> sortedBranches = sortByDistance(allBranches, latitude, longitude);
 
         // Cari cabang yang ada marketing
         for (Branch branch : sortedBranches) {
@@ -115,7 +117,15 @@ public class BranchService {
 //                .orElse(null);
 //    }
 
-    private double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
+    static List<Branch> sortByDistance(List<Branch> branches, double latitude, double longitude) {
+        return branches.stream()
+                .sorted(Comparator.comparing(branch -> haversineDistance(
+                        latitude, longitude,
+                        branch.getLatitude(), branch.getLongitude())))
+                .toList();
+    }
+
+    static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
         final int R = 6371; // Radius bumi dalam KM
         double dLat = Math.toRadians(lat2 - lat1);
         double dLon = Math.toRadians(lon2 - lon1);
@@ -164,6 +174,8 @@ public class BranchService {
         }
 
         branchRepository.save(branch);
+        // Nama branch ikut tersimpan di profil pegawai yang di-cache
+        profileCacheService.evictAll();
 
         return mapToDTO(branch);
     }
@@ -174,6 +186,7 @@ public class BranchService {
                 .orElseThrow(() -> new CustomException("Branch dengan ID ini tidak ditemukan", HttpStatus.NOT_FOUND));
 
         branchRepository.delete(branch);
+        dashboardCounterService.decrement(DashboardCounterService.TOTAL_BRANCHES);
     }
 
     public Long count() {
@@ -1,39 +0,0 @@
-package com.fintara.services;
-
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-
-import java.io.IOException;
-import java.util.Map;
-
-@Service
-public class CloudinaryService {
-
-    private final Cloudinary cloudinary;
-
-    public CloudinaryService(@Value("${cloudinary.cloud-name}") String cloudName,
-                             @Value("${cloudinary.api-key}") String apiKey,
-                             @Value("${cloudinary.api-secret}") String apiSecret) {
-        this.cloudinary = new Cloudinary(ObjectUtils.asMap(
-                "cloud_name", cloudName,
-                "api_key", apiKey,
-                "api_secret", apiSecret
-        ));
-    }
-
-    public String uploadFile(MultipartFile file) throws IOException {
-        // Mengupload file ke Cloudinary
-        Map<String, Object> uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-
-        // Ambil URL yang aman dari hasil upload
-        return (String) uploadResult.get("secure_url");
-    }
-
-    public String uploadImageEmployee(byte[] imageBytes) throws IOException {
-        Map<String, Object> uploadResult = cloudinary.uploader().upload(imageBytes, ObjectUtils.emptyMap());
-        return (String) uploadResult.get("secure_url"); // Mendapatkan URL aman dari Cloudinary
-    }
-}
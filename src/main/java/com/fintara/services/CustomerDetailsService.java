@@ -2,15 +2,16 @@ package com.fintara.services;
 
 import com.fintara.dtos.customerDTO.CustomerUpdateProfileRequestDTO;
 import com.fintara.dtos.customerDTO.FirstTimeUpdateDTO;
+import com.fintara.enums.DocumentKind;
 import com.fintara.enums.JenisKelamin;
 import com.fintara.exceptions.CustomException;
+import com.fintara.mappers.CustomerMapper;
 import com.fintara.utils.JwtUtils;
 import com.fintara.dtos.customerDTO.CustomerProfileResponseDTO;
 import com.fintara.models.CustomerDetails;
 import com.fintara.models.User;
 import com.fintara.repositories.CustomerDetailsRepository;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -38,11 +39,15 @@ public class CustomerDetailsService {
     @Autowired
     private JwtUtils jwtUtils;
     @Autowired
-    private ModelMapper modelMapper;
+    private CustomerMapper customerMapper;
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private FileStorageService fileStorageService;
     @Autowired
     private RedisService redisService;
+    @Autowired
+    private CustomerSearchService customerSearchService;
+    @Autowired
+    private ProfileCacheService profileCacheService;
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerDetailsService.class);
 
@@ -58,42 +63,37 @@ public class CustomerDetailsService {
                 .orElseThrow(() -> new CustomException("Customer details not found", HttpStatus.NOT_FOUND));
     }
 
-    private void validateAccessToProfile(User requester, User targetUser) {
-        boolean isSuperAdmin = requester.getRole().getName().equalsIgnoreCase("SUPER_ADMIN");
-        boolean isOwner = requester.getId().equals(targetUser.getId());
+    // Dicek dari principal JWT, jadi akses ditolak sebelum cache atau database disentuh
+    private void validateAccessToProfile(UUID targetUserId) {
+        boolean isSuperAdmin = "SUPER_ADMIN".equalsIgnoreCase(userService.getAuthenticatedRoleName());
+        boolean isOwner = userService.getAuthenticatedUserId().equals(targetUserId);
 
         if (!isSuperAdmin && !isOwner) {
             throw new CustomException("Anda tidak memiliki akses untuk melihat data ini", HttpStatus.FORBIDDEN);
         }
     }
 
-    @Transactional
-    public CustomerProfileResponseDTO getCustomerProfile(String token, UUID id) {
-        String extractedToken = jwtUtils.extractToken(token);
-        String requesterEmail = jwtUtils.getUsername(extractedToken);
-
-        User requester = userService.findByEmail(requesterEmail);
-        User targetUser = userService.getPegawaiUserById(id); // bisa disesuaikan jadi getUserById jika lebih generik
-
-        validateAccessToProfile(requester, targetUser);
+    public CustomerProfileResponseDTO getCustomerProfile(UUID id) {
+        validateAccessToProfile(id);
+        return profileCacheService.get(ProfileCacheService.CUSTOMER_PROFILE, id,
+                CustomerProfileResponseDTO.class, () -> loadCustomerProfile(id));
+    }
 
-        CustomerDetails customerDetails = customerDetailsRepository.findByUser(targetUser)
+    private CustomerProfileResponseDTO loadCustomerProfile(UUID id) {
+        // Satu query: customer details beserta user-nya (nama & email)
+        CustomerDetails customerDetails = customerDetailsRepository.findWithUserByUserId(id)
                 .orElseThrow(() -> new CustomException("Customer tidak ditemukan", HttpStatus.NOT_FOUND));
 
-        // Mapping otomatis dari entity ke DTO
-        CustomerProfileResponseDTO response = modelMapper.map(customerDetails, CustomerProfileResponseDTO.class);
-
-        // Set atribut yang berasal dari entitas `User`
-        response.setName(targetUser.getName());
-        response.setEmail(targetUser.getEmail());
-
-        return response;
+        return customerMapper.toProfileResponse(customerDetails);
     }
 
     // Save customer details
     @Transactional
     public CustomerDetails saveCustomerDetails(CustomerDetails customerDetails) {
-        return customerDetailsRepository.save(customerDetails);
+        CustomerDetails saved = customerDetailsRepository.save(customerDetails);
+        customerSearchService.refresh(saved.getId());
+        profileCacheService.evict(saved.getUser().getId());
+        return saved;
     }
 
     // Metode untuk mengisi data dari DTO ke entitas
@@ -187,62 +187,25 @@ public class CustomerDetailsService {
         return "Profile updated successfully";
     }
 
-    public String uploadKtpPhoto(MultipartFile file) throws IOException {
-        // Ambil user yang sedang login
-        User currentUser = userService.getAuthenticatedUser();
-        String email = currentUser.getEmail();
-
-        logger.info("Memulai proses upload ktp untuk user: {}", email);
-
-        User loggedInUser = userService.findByEmail(email);
-        if (loggedInUser == null) {
-            throw new CustomException("User tidak ditemukan", HttpStatus.UNAUTHORIZED);
-        }
-
-        CustomerDetails customerDetails = getCustomerDetailsByUser(loggedInUser);
-        if (customerDetails == null) {
-            customerDetails = new CustomerDetails();
-            customerDetails.setUser(loggedInUser);
-        }
-
-        // Upload ke Cloudinary
-        String uploadedUrl = cloudinaryService.uploadFile(file);
-
-        // Simpan URL selfie ke entity
-        customerDetails.setKtpUrl(uploadedUrl);
-        saveCustomerDetails(customerDetails);
-
-        logger.info("Upload KTP berhasil disimpan untuk user ID: {}", loggedInUser.getId());
-        return uploadedUrl;
-    }
-
-    public String uploadSelfiePhoto(MultipartFile file) throws IOException {
-        // Ambil user yang sedang login
-        User currentUser = userService.getAuthenticatedUser();
-        String email = currentUser.getEmail();
-
-        logger.info("Memulai proses upload selfie untuk user: {}", email);
-
-        User loggedInUser = userService.findByEmail(email);
-        if (loggedInUser == null) {
-            throw new CustomException("User tidak ditemukan", HttpStatus.UNAUTHORIZED);
-        }
-
-        CustomerDetails customerDetails = getCustomerDetailsByUser(loggedInUser);
-        if (customerDetails == null) {
-            customerDetails = new CustomerDetails();
-            customerDetails.setUser(loggedInUser);
+    // Dipanggil setelah file tersimpan di storage (worker job upload atau konfirmasi upload langsung)
+    @Transactional
+    public void updateDocumentUrl(UUID userId, DocumentKind kind, String url) {
+        User user = userService.findById(userId);
+        if (kind == DocumentKind.PROFILE_PHOTO) {
+            user.setFotoUrl(url);
+            userService.saveUser(user);
+            profileCacheService.evict(userId);
+        } else {
+            CustomerDetails customerDetails = getCustomerDetailsByUser(user);
+            switch (kind) {
+                case KTP -> customerDetails.setKtpUrl(url);
+                case SELFIE_KTP -> customerDetails.setSelfieKtpUrl(url);
+                default -> throw new IllegalArgumentException("Jenis dokumen tidak dikenal: " + kind);
+            }
+            saveCustomerDetails(customerDetails);
         }
 
-        // Upload ke Cloudinary
-        String uploadedUrl = cloudinaryService.uploadFile(file);
-
-        // Simpan URL selfie ke entity
-        customerDetails.setSelfieKtpUrl(uploadedUrl);
-        saveCustomerDetails(customerDetails);
-
-        logger.info("Upload selfie berhasil disimpan untuk user ID: {}", loggedInUser.getId());
-        return uploadedUrl;
+        logger.info("Upload {} berhasil disimpan untuk user ID: {}", kind, userId);
     }
 
     public String uploadProfilePhoto(MultipartFile file) throws IOException {
@@ -257,12 +220,13 @@ public class CustomerDetailsService {
             throw new CustomException("User tidak ditemukan", HttpStatus.UNAUTHORIZED);
         }
 
-        // Upload ke Cloudinary
-        String uploadedUrl = cloudinaryService.uploadFile(file);
+        // Upload ke storage (di-stream dari disk)
+        String uploadedUrl = fileStorageService.store(file, loggedInUser.getId(), null);
 
         // Simpan URL foto profil ke entity User
         loggedInUser.setFotoUrl(uploadedUrl);
         userService.saveUser(loggedInUser);  // Pastikan method ini update User di DB
+        profileCacheService.evict(loggedInUser.getId());
 
         logger.info("Upload foto profil berhasil disimpan untuk user ID: {}", loggedInUser.getId());
         return uploadedUrl;
@@ -0,0 +1,147 @@
+package com.fintara.services;
+
+import com.fintara.directory.CustomerSearchIndex;
+import com.fintara.dtos.customerDTO.CustomerSearchItemDTO;
+import com.fintara.dtos.customerDTO.CustomerSearchResultDTO;
+import com.fintara.exceptions.CustomException;
+import com.fintara.repositories.CustomerDetailsRepository;
+import com.fintara.utils.AfterCommit;
+import com.fintara.utils.RebuildableSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Pencarian customer berdasarkan NIK, nomor telepon, nomor rekening, dan nama dari index in-memory (per node).
+ * Index dibangun dengan streaming saat startup dan setiap malam, lalu diperbarui setelah commit
+ * setiap kali data customer disimpan.
+ */
+@Service
+public class CustomerSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSearchService.class);
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+    private static final int MIN_QUERY_LENGTH = 2;
+
+    @Autowired
+    private CustomerDetailsRepository customerDetailsRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RebuildableSnapshot<CustomerSearchIndex> index = new RebuildableSnapshot<>(new CustomerSearchIndex(LocalDateTime.now()));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initIndex() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            logger.error("Gagal membangun index pencarian customer saat startup", e);
+        }
+    }
+
+    @Scheduled(cron = "0 0 3 * * ?") // setiap hari jam 03:00
+    public void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        CustomerSearchIndex fresh = index.rebuild(this::loadIndex);
+        if (fresh != null) {
+            logger.info("✅ Index pencarian customer dibangun: {} customer dalam {} ms", fresh.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    private CustomerSearchIndex loadIndex() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return transactionTemplate.execute(status -> {
+            CustomerSearchIndex fresh = new CustomerSearchIndex(LocalDateTime.now());
+            // Baris dibaca bertahap (fetch size), tidak memuat seluruh tabel ke memori sekaligus
+            try (Stream<Object[]> rows = customerDetailsRepository.streamSearchRows()) {
+                rows.forEach(row -> fresh.upsert(toItem(row)));
+            }
+            return fresh;
+        });
+    }
+
+    /**
+     * Muat ulang satu customer ke index setelah transaksi yang sedang berjalan commit.
+     */
+    public void refresh(UUID customerDetailsId) {
+        afterCommit(() -> {
+            List<Object[]> rows = customerDetailsRepository.findSearchRowById(customerDetailsId);
+            if (rows.isEmpty()) {
+                index.apply(current -> current.remove(customerDetailsId));
+            } else {
+                CustomerSearchItemDTO item = toItem(rows.get(0));
+                index.apply(current -> current.upsert(item));
+            }
+        });
+    }
+
+    // Untuk perubahan di tabel users (misalnya nama), yang hanya tahu id user
+    public void refreshByUser(UUID userId) {
+        afterCommit(() -> {
+            for (Object[] row : customerDetailsRepository.findSearchRowByUserId(userId)) {
+                CustomerSearchItemDTO item = toItem(row);
+                index.apply(current -> current.upsert(item));
+            }
+        });
+    }
+
+    public void remove(UUID customerDetailsId) {
+        afterCommit(() -> index.apply(current -> current.remove(customerDetailsId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                // Rebuild malam hari akan memperbaiki index
+                logger.warn("Gagal update index pencarian customer: {}", e.getMessage());
+            }
+        };
+        AfterCommit.run(safeAction);
+    }
+
+    public CustomerSearchResultDTO search(String query, Integer limit) {
+        int maxResults = limit == null ? DEFAULT_LIMIT : limit;
+        if (maxResults < 1 || maxResults > MAX_LIMIT) {
+            throw new CustomException("Parameter limit harus antara 1 dan " + MAX_LIMIT, HttpStatus.BAD_REQUEST);
+        }
+        if (query == null || query.trim().length() < MIN_QUERY_LENGTH) {
+            throw new CustomException("Kata kunci pencarian minimal " + MIN_QUERY_LENGTH + " karakter", HttpStatus.BAD_REQUEST);
+        }
+
+        long started = System.nanoTime();
+        return index.read(current -> {
+            List<CustomerSearchItemDTO> items = current.search(query, maxResults);
+            return new CustomerSearchResultDTO(items, current.size(), (System.nanoTime() - started) / 1_000);
+        });
+    }
+
+    private static CustomerSearchItemDTO toItem(Object[] row) {
+        return CustomerSearchItemDTO.builder()
+                .customerDetailsId((UUID) row[0])
+                .userId((UUID) row[1])
+                .name((String) row[2])
+                .email((String) row[3])
+                .nik((String) row[4])
+                .noTelp((String) row[5])
+                .noRek((String) row[6])
+                .plafondName((String) row[7])
+                .build();
+    }
+}
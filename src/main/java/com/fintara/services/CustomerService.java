@@ -1,10 +1,14 @@
 package com.fintara.services;
 
 import com.fintara.exceptions.CustomException;
-import com.fintara.dtos.customerDTO.CustomerDetailsDTO;
+import com.fintara.dtos.customerDTO.CustomerDirectoryItemDTO;
+import com.fintara.dtos.customerDTO.CustomerDirectoryPageDTO;
 import com.fintara.dtos.customerDTO.UserWithCustomerResponseDTO;
+import com.fintara.mappers.UserMapper;
 import com.fintara.models.User;
 import com.fintara.repositories.CustomerDetailsRepository;
+import com.fintara.repositories.CustomerDirectoryRepository;
+import com.fintara.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,7 +16,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,30 +29,29 @@ public class CustomerService {
     private final UserService userService;
     @Autowired
     private CustomerDetailsRepository customerDetailsRepository;
+    @Autowired
+    private CustomerDirectoryRepository customerDirectoryRepository;
+    @Autowired
+    private CustomerSearchService customerSearchService;
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private ProfileCacheService profileCacheService;
+
+    private static final int DIRECTORY_DEFAULT_SIZE = 20;
+    private static final int DIRECTORY_MAX_SIZE = 100;
 
+    /**
+     * @deprecated memuat seluruh customer beserta entity terkait; gunakan {@link #getCustomerDirectory}
+     */
+    @Deprecated
     public List<UserWithCustomerResponseDTO> getAllCustomer() {
         try {
             List<User> users = userService.getAllCustomers();
 
-            return users.stream().map(user -> {
-                UserWithCustomerResponseDTO response = new UserWithCustomerResponseDTO();
-                response.setId(user.getId());
-                response.setName(user.getName());
-                response.setEmail(user.getEmail());
-
-                // Pastikan role tidak null sebelum diakses
-                if (user.getRole() != null) {
-                    response.setRole(user.getRole().getName());
-                } else {
-                    response.setRole("ROLE_UNKNOWN");
-                }
-
-                // Set CustomerDetails jika ada
-                response.setCustomerDetails(user.getCustomerDetails() != null ?
-                        new CustomerDetailsDTO(user.getCustomerDetails()) : null);
-
-                return response;
-            }).collect(Collectors.toList());
+            return users.stream()
+                    .map(userMapper::toUserWithCustomer)
+                    .collect(Collectors.toList());
 
         } catch (Exception e) {
             // Tangani kesalahan tidak terduga dan log error
@@ -52,23 +59,78 @@ public class CustomerService {
         }
     }
 
+    /**
+     * Direktori customer dengan keyset pagination, filter plafond dan tanggal registrasi (inklusif).
+     * Cursor berisi nilai sort + id baris terakhir, jadi halaman berikutnya tidak memakai OFFSET.
+     */
+    public CustomerDirectoryPageDTO getCustomerDirectory(Integer size, String cursor, UUID plafondId,
+                                                         LocalDate registeredFrom, LocalDate registeredTo,
+                                                         String sort, String direction) {
+        int pageSize = size == null ? DIRECTORY_DEFAULT_SIZE : size;
+        if (pageSize < 1 || pageSize > DIRECTORY_MAX_SIZE) {
+            throw new CustomException("Parameter size harus antara 1 dan " + DIRECTORY_MAX_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        if (registeredFrom != null && registeredTo != null && registeredFrom.isAfter(registeredTo)) {
+            throw new CustomException("registeredFrom tidak boleh setelah registeredTo", HttpStatus.BAD_REQUEST);
+        }
+
+        String sortColumn = sort == null ? CustomerDirectoryRepository.SORT_REGISTERED_AT : sort;
+        if (!CustomerDirectoryRepository.SORT_REGISTERED_AT.equals(sortColumn) && !CustomerDirectoryRepository.SORT_NAME.equals(sortColumn)) {
+            throw new CustomException("Sort hanya boleh registeredAt atau name", HttpStatus.BAD_REQUEST);
+        }
+        // Default: registrasi terbaru dulu, nama A-Z
+        boolean ascending = direction == null
+                ? CustomerDirectoryRepository.SORT_NAME.equals(sortColumn)
+                : "asc".equalsIgnoreCase(direction);
+
+        Object afterValue = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                KeysetCursor decoded = KeysetCursor.decode(cursor);
+                afterValue = CustomerDirectoryRepository.SORT_NAME.equals(sortColumn)
+                        ? decoded.sortValue()
+                        : LocalDateTime.parse(decoded.sortValue());
+                afterId = decoded.id();
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new CustomException("Cursor tidak valid", HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        // Ambil satu baris lebih untuk mengetahui apakah masih ada halaman berikutnya
+        List<CustomerDirectoryItemDTO> rows = customerDirectoryRepository.findPage(
+                plafondId,
+                registeredFrom != null ? registeredFrom.atStartOfDay() : null,
+                registeredTo != null ? registeredTo.plusDays(1).atStartOfDay() : null,
+                sortColumn, ascending, afterValue, afterId, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CustomerDirectoryItemDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            CustomerDirectoryItemDTO last = items.get(items.size() - 1);
+            String lastValue = CustomerDirectoryRepository.SORT_NAME.equals(sortColumn)
+                    ? (last.getName() != null ? last.getName() : "")
+                    : last.getRegisteredAt().toString();
+            nextCursor = new KeysetCursor(lastValue, last.getCustomerDetailsId()).encode();
+        }
+        return new CustomerDirectoryPageDTO(List.copyOf(items), nextCursor, hasMore);
+    }
+
     public UserWithCustomerResponseDTO getMyProfile() {
         // Ambil data user yang sedang login
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = userDetails.getUsername();
 
-        // Ambil user berdasarkan email/username
-        User user = userService.findByEmail(username); // pastikan ini tidak null dan melempar exception kalau tidak ditemukan
+        return profileCacheService.get(ProfileCacheService.CUSTOMER_ME, userService.getAuthenticatedUserId(),
+                UserWithCustomerResponseDTO.class, () -> loadMyProfile(username));
+    }
+
+    private UserWithCustomerResponseDTO loadMyProfile(String username) {
+        // Ambil user beserta customer details & plafond dalam satu query, sesuai kebutuhan UserMapper
+        User user = userService.findByEmailWithCustomerDetails(username);
 
-        // Mapping ke DTO
-        return UserWithCustomerResponseDTO.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .fotoUrl(user.getFotoUrl())
-                .role(user.getRole().getName())
-                .customerDetails(new CustomerDetailsDTO(user.getCustomerDetails()))
-                .build();
+        return userMapper.toUserWithCustomer(user);
     }
 
     public String updateMyProfile(UserWithCustomerResponseDTO request) {
@@ -85,6 +147,8 @@ public class CustomerService {
 
         // Simpan perubahan
         userService.saveUser(user);
+        customerSearchService.refreshByUser(user.getId());
+        profileCacheService.evict(user.getId());
 
         return "Profile updated successfully";
     }
@@ -0,0 +1,142 @@
+package com.fintara.services;
+
+import com.fintara.repositories.*;
+import com.fintara.utils.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counter dashboard yang disimpan di Redis, supaya dashboard tidak perlu COUNT(*) ke setiap tabel.
+ * Counter diubah setelah transaksi commit oleh service yang membuat/menghapus data,
+ * dan dikoreksi berkala dari database oleh {@link #reconcile()}.
+ */
+@Service
+public class DashboardCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCounterService.class);
+
+    public static final String TOTAL_USERS = "totalUsers";
+    public static final String TOTAL_PEGAWAI = "totalPegawai";
+    public static final String TOTAL_CUSTOMERS = "totalCustomers";
+    public static final String TOTAL_ROLES = "totalRoles";
+    public static final String TOTAL_BRANCHES = "totalBranches";
+    public static final String TOTAL_PLAFONDS = "totalPlafonds";
+
+    private static final String COUNTER_PREFIX = "dashboard_counter:";
+
+    @Autowired
+    private RedisService redisService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PegawaiRepository pegawaiRepository;
+    @Autowired
+    private CustomerDetailsRepository customerDetailsRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private BranchRepository branchRepository;
+    @Autowired
+    private PlafondRepository plafondRepository;
+
+    public void increment(String counter) {
+        adjust(counter, 1);
+    }
+
+    public void decrement(String counter) {
+        adjust(counter, -1);
+    }
+
+    public void adjust(String counter, long delta) {
+        // Ikut transaksi yang sedang berjalan: counter baru berubah kalau data benar-benar tersimpan
+        AfterCommit.run(() -> applyDelta(counter, delta));
+    }
+
+    private void applyDelta(String counter, long delta) {
+        try {
+            // Key yang belum ada tidak dibuat di sini, nanti diisi dari database saat dibaca
+            redisService.incrementIfExists(COUNTER_PREFIX + counter, delta);
+        } catch (Exception e) {
+            // Kalau Redis gagal, buang counter supaya dihitung ulang dari database saat dibaca
+            logger.warn("Gagal update counter {}: {}", counter, e.getMessage());
+            invalidate(counter);
+        }
+    }
+
+    /**
+     * Ambil beberapa counter sekaligus dengan satu MGET.
+     * Counter yang belum ada di Redis dihitung dari database lalu disimpan.
+     */
+    public Map<String, Long> getCounters(List<String> counters) {
+        List<String> keys = counters.stream().map(counter -> COUNTER_PREFIX + counter).toList();
+        List<String> values = null;
+        try {
+            values = redisService.getCounters(keys);
+        } catch (Exception e) {
+            logger.warn("Gagal membaca counter dashboard dari Redis: {}", e.getMessage());
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counters.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            result.put(counters.get(i), value != null ? Long.parseLong(value) : reconcile(counters.get(i)));
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initCounters() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("Counter dashboard belum bisa diinisialisasi: {}", e.getMessage());
+        }
+    }
+
+    // Koreksi drift (misalnya data dari seeder atau update counter yang gagal)
+    @Scheduled(fixedDelayString = "${dashboard.counter.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        for (String counter : List.of(TOTAL_USERS, TOTAL_PEGAWAI, TOTAL_CUSTOMERS, TOTAL_ROLES, TOTAL_BRANCHES, TOTAL_PLAFONDS)) {
+            reconcile(counter);
+        }
+        logger.debug("Counter dashboard sudah direkonsiliasi");
+    }
+
+    private long reconcile(String counter) {
+        long actual = countFromDatabase(counter);
+        try {
+            redisService.setCounter(COUNTER_PREFIX + counter, actual);
+        } catch (Exception e) {
+            logger.warn("Gagal menyimpan counter {}: {}", counter, e.getMessage());
+        }
+        return actual;
+    }
+
+    private void invalidate(String counter) {
+        try {
+            redisService.deleteKey(COUNTER_PREFIX + counter);
+        } catch (Exception ignored) {
+            // reconcile berikutnya akan menimpa nilai yang salah
+        }
+    }
+
+    private long countFromDatabase(String counter) {
+        return switch (counter) {
+            case TOTAL_USERS -> userRepository.count();
+            case TOTAL_PEGAWAI -> pegawaiRepository.count();
+            case TOTAL_CUSTOMERS -> customerDetailsRepository.count();
+            case TOTAL_ROLES -> roleRepository.count();
+            case TOTAL_BRANCHES -> branchRepository.count();
+            case TOTAL_PLAFONDS -> plafondRepository.count();
+            default -> throw new IllegalArgumentException("Counter tidak dikenal: " + counter);
+        };
+    }
+}
@@ -1,24 +1,17 @@
 package com.fintara.services;
 
-import com.fintara.exceptions.CustomException;
 import com.fintara.models.User;
 import com.fintara.repositories.DashboardRepository;
-import com.fintara.repositories.LoanApprovalRepository;
 import com.fintara.repositories.LoanRequestRepository;
-import com.fintara.repositories.UserRepository;
-import com.fintara.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -44,13 +37,20 @@ public class DashboardService {
     private UserService userService;
     @Autowired
     private LoanApprovalService loanApprovalService;
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    @Autowired
+    private LoanQueueCounterService loanQueueCounterService;
+    @Autowired
+    private StaffStreamService staffStreamService;
 
     public Map<String, Object> getDashboardData() {
         Map<String, Object> dashboardData = new HashMap<>();
 
         try {
-            dashboardData.put("totalUsers", dashboardRepository.getTotalUsers());
-            dashboardData.put("totalRoles", dashboardRepository.getTotalRoles());
+            dashboardData.putAll(dashboardCounterService.getCounters(List.of(
+                    DashboardCounterService.TOTAL_USERS,
+                    DashboardCounterService.TOTAL_ROLES)));
         } catch (Exception e) {
             logger.error("Gagal mengambil data dashboard: {}", e.getMessage());
             dashboardData.put("totalUsers", 0);
@@ -61,46 +61,40 @@ public class DashboardService {
     }
 
     public Map<String, Long> getDashboardSummary() {
-        Map<String, Long> summary = new HashMap<>();
-        summary.put("totalPegawai", pegawaiService.count());
-        summary.put("totalCustomers", customerService.count());
-        summary.put("totalRoles", roleService.count());
-        summary.put("totalBranches", branchService.count());
-        summary.put("totalPlafonds", plafondService.count());
-        return summary;
+        // Satu MGET ke Redis, bukan lima COUNT(*) ke database
+        return dashboardCounterService.getCounters(List.of(
+                DashboardCounterService.TOTAL_PEGAWAI,
+                DashboardCounterService.TOTAL_CUSTOMERS,
+                DashboardCounterService.TOTAL_ROLES,
+                DashboardCounterService.TOTAL_BRANCHES,
+                DashboardCounterService.TOTAL_PLAFONDS));
     }
 
     public Map<String, Integer> getLoanRequestCountsForDashboard() {
         User currentUser = userService.getAuthenticatedUser();
-        String role = currentUser.getRole().getName(); // Misal: ROLE_MARKETING, ROLE_BRANCH_MANAGER, ROLE_BACK_OFFICE
-
-        int toCheckCount = 0;
-        int checkedByUserCount = loanApprovalService.countDistinctLoanRequestsByHandledBy(currentUser.getId());
-
-        switch (role) {
-            case "MARKETING":
-                toCheckCount = loanRequestRepository.countByStatusNameAndMarketingId("REVIEW", currentUser.getId());
-                break;
-            case "BRANCH_MANAGER":
-                UUID branchId = currentUser.getPegawaiDetails().getBranch().getId();
-                toCheckCount = loanRequestRepository.countByStatusNameAndBranchId("DIREKOMENDASIKAN_MARKETING", branchId);
-                break;
-            case "BACK_OFFICE":
-                UUID branchIdBo = currentUser.getPegawaiDetails().getBranch().getId();
-                toCheckCount = loanRequestRepository.countByStatusNameAndBranchId("DISETUJUI_BM", branchIdBo);
-                break;
-            default:
-                return (Map<String, Integer>) emptyResponse();
-        }
+        // Dibaca dari counter Redis; role tanpa antrian pengecekan mendapat map kosong
+        return loanQueueCounterService.getCounts(currentUser.getId(), currentUser.getRole().getName(), branchIdOf(currentUser));
+    }
 
-        Map<String, Integer> result = new HashMap<>();
-        result.put("loanRequestsToCheck", toCheckCount);
-        result.put("loanRequestsCheckedByUser", checkedByUserCount);
+    /**
+     * Buka stream SSE counter loan. Nilai awal langsung dikirim,
+     * selanjutnya dikirim ulang setiap ada transisi status yang memengaruhi user ini.
+     */
+    public SseEmitter subscribeLoanRequestCounts() {
+        User currentUser = userService.getAuthenticatedUser();
+        String role = currentUser.getRole().getName();
+        UUID branchId = branchIdOf(currentUser);
 
-        return result;
+        StaffStreamService.Subscriber subscriber = staffStreamService.subscribe(currentUser.getId(), role, branchId);
+        staffStreamService.send(subscriber, LoanQueueCounterService.LOAN_COUNTS_EVENT,
+                loanQueueCounterService.getCounts(currentUser.getId(), role, branchId));
+        return subscriber.emitter();
     }
 
-    private ResponseEntity<ApiResponse<Map<String, Integer>>> emptyResponse() {
-        return ResponseEntity.ok(ApiResponse.success("No data for this role", Collections.emptyMap()));
+    private UUID branchIdOf(User user) {
+        if (user.getPegawaiDetails() == null || user.getPegawaiDetails().getBranch() == null) {
+            return null;
+        }
+        return user.getPegawaiDetails().getBranch().getId();
     }
 }
@@ -0,0 +1,114 @@
+package com.fintara.services;
+
+import com.fintara.dtos.customerDTO.DirectUploadTicketDTO;
+import com.fintara.enums.DocumentKind;
+import com.fintara.exceptions.CustomException;
+import com.fintara.storage.DirectUploadSigner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Upload foto langsung dari aplikasi ke storage: server hanya mengeluarkan tiket bertanda tangan
+ * dan memverifikasi hasilnya, byte gambar tidak pernah melewati node aplikasi.
+ *
+ * Tiket (public ID -> pemilik + jenis dokumen) disimpan di Redis dengan masa berlaku singkat dan hanya
+ * bisa dikonfirmasi sekali. Saat konfirmasi, data aset (URL, ukuran, format) diambil dari storage,
+ * bukan dari client.
+ */
+@Service
+public class DirectUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(DirectUploadService.class);
+
+    private static final String KEY_PREFIX = "direct_upload:";
+    private static final Set<String> ALLOWED_FORMATS = Set.of("jpg", "jpeg", "png");
+
+    @Value("${storage.direct.ticket-ttl-minutes:10}")
+    private long ticketTtlMinutes;
+    @Value("${storage.direct.max-bytes:5242880}")
+    private long maxBytes;
+
+    @Autowired
+    private DirectUploadSigner directUploadSigner;
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CustomerDetailsService customerDetailsService;
+
+    public DirectUploadTicketDTO issue(DocumentKind kind) {
+        UUID userId = userService.getAuthenticatedUserId();
+        // Public ID ditentukan server supaya client tidak bisa menimpa aset lain
+        String publicId = kind.getFolder() + "/" + UUID.randomUUID();
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(ticketTtlMinutes));
+        DirectUploadSigner.Ticket ticket = directUploadSigner.sign(publicId, expiresAt);
+
+        String key = key(publicId);
+        redisTemplate.opsForHash().putAll(key, Map.of("userId", userId.toString(), "kind", kind.name()));
+        redisTemplate.expireAt(key, expiresAt);
+
+        logger.info("Tiket upload langsung {} ({}) dibuat untuk user ID: {}", publicId, kind, userId);
+        return DirectUploadTicketDTO.builder()
+                .publicId(publicId)
+                .kind(kind)
+                .uploadUrl(ticket.uploadUrl())
+                .fields(ticket.fields())
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .build();
+    }
+
+    /**
+     * Verifikasi aset hasil upload langsung lalu simpan URL-nya ke profil customer.
+     *
+     * @return URL aset yang disimpan
+     */
+    public String confirm(String publicId) throws IOException {
+        UUID userId = userService.getAuthenticatedUserId();
+        String key = key(publicId);
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key);
+        String ownerId = (String) fields.get("userId");
+        if (ownerId == null || !ownerId.equals(userId.toString())) {
+            throw new CustomException("Tiket upload tidak ditemukan atau sudah kedaluwarsa", HttpStatus.NOT_FOUND);
+        }
+        DocumentKind kind = DocumentKind.valueOf((String) fields.get("kind"));
+
+        DirectUploadSigner.StoredAsset asset = directUploadSigner.verify(publicId);
+        if (asset == null) {
+            throw new CustomException("File belum diupload ke storage", HttpStatus.BAD_REQUEST);
+        }
+        if (asset.format() == null || !ALLOWED_FORMATS.contains(asset.format().toLowerCase(Locale.ROOT))) {
+            throw new CustomException("Format file tidak didukung, gunakan JPG atau PNG", HttpStatus.BAD_REQUEST);
+        }
+        if (asset.bytes() > maxBytes) {
+            throw new CustomException("Ukuran file melebihi batas", HttpStatus.BAD_REQUEST);
+        }
+
+        // Hapus tiket sebelum menyimpan: dari dua konfirmasi bersamaan hanya satu yang lolos
+        if (!Boolean.TRUE.equals(redisTemplate.delete(key))) {
+            throw new CustomException("Tiket upload tidak ditemukan atau sudah kedaluwarsa", HttpStatus.NOT_FOUND);
+        }
+        customerDetailsService.updateDocumentUrl(userId, kind, asset.url());
+
+        logger.info("✅ Upload langsung {} ({}) dikonfirmasi untuk user ID: {}", publicId, kind, userId);
+        return asset.url();
+    }
+
+    private static String key(String publicId) {
+        return KEY_PREFIX + publicId;
+    }
+}
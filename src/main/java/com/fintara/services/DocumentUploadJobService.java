@@ -0,0 +1,166 @@
+package com.fintara.services;
+
+import com.fintara.dtos.customerDTO.UploadJobDTO;
+import com.fintara.enums.DocumentKind;
+import com.fintara.enums.UploadJobStatus;
+import com.fintara.exceptions.CustomException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Upload dokumen customer (KTP / selfie) sebagai job asinkron.
+ *
+ * Request hanya men-spool file ke disk lokal dan langsung mendapat job ID; normalisasi, upload ke storage
+ * dan penyimpanan URL ke customer details dikerjakan pool worker. Status job disimpan di Redis (hash per job)
+ * supaya bisa di-poll dari node mana pun, dan customer juga diberi notifikasi push saat job selesai.
+ */
+@Service
+public class DocumentUploadJobService {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentUploadJobService.class);
+
+    private static final String KEY_PREFIX = "upload_job:";
+
+    @Value("${upload.job.ttl-hours:24}")
+    private long ttlHours;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private CustomerDetailsService customerDetailsService;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    @Qualifier("documentJobExecutor")
+    private ThreadPoolExecutor jobExecutor;
+
+    public UploadJobDTO submit(MultipartFile file, DocumentKind kind) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new CustomException("File tidak boleh kosong", HttpStatus.BAD_REQUEST);
+        }
+        UUID userId = userService.getAuthenticatedUserId();
+        FileStorageService.SpooledFile spooled = fileStorageService.spool(file);
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadJobDTO job = UploadJobDTO.builder()
+                .jobId(UUID.randomUUID())
+                .kind(kind)
+                .status(UploadJobStatus.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put("userId", userId.toString());
+        fields.put("kind", kind.name());
+        fields.put("status", job.getStatus().name());
+        fields.put("createdAt", now.toString());
+        fields.put("updatedAt", now.toString());
+        try {
+            save(job.getJobId(), fields);
+        } catch (RuntimeException e) {
+            // Tanpa record job di Redis file spool tidak akan pernah diproses, jadi langsung dihapus
+            Files.deleteIfExists(spooled.path());
+            throw e;
+        }
+
+        try {
+            jobExecutor.execute(() -> process(job.getJobId(), userId, kind, spooled));
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(spooled.path());
+            redisTemplate.delete(key(job.getJobId()));
+            logger.warn("Antrian job upload penuh ({} job menunggu)", jobExecutor.getQueue().size());
+            throw new CustomException("Antrian upload sedang penuh, silakan coba lagi", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        logger.info("Job upload {} ({}) diterima untuk user ID: {}", job.getJobId(), kind, userId);
+        return job;
+    }
+
+    // Job hanya bisa dilihat pemiliknya; job milik user lain diperlakukan seperti tidak ada
+    public UploadJobDTO getJob(UUID jobId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key(jobId));
+        String ownerId = (String) fields.get("userId");
+        if (ownerId == null || !ownerId.equals(userService.getAuthenticatedUserId().toString())) {
+            throw new CustomException("Job upload tidak ditemukan", HttpStatus.NOT_FOUND);
+        }
+
+        return UploadJobDTO.builder()
+                .jobId(jobId)
+                .kind(DocumentKind.valueOf((String) fields.get("kind")))
+                .status(UploadJobStatus.valueOf((String) fields.get("status")))
+                .url((String) fields.get("url"))
+                .error((String) fields.get("error"))
+                .createdAt(LocalDateTime.parse((String) fields.get("createdAt")))
+                .updatedAt(LocalDateTime.parse((String) fields.get("updatedAt")))
+                .build();
+    }
+
+    private void process(UUID jobId, UUID userId, DocumentKind kind, FileStorageService.SpooledFile spooled) {
+        updateStatus(jobId, UploadJobStatus.PROCESSING, Map.of());
+        try {
+            String url = fileStorageService.storeSpooledImage(spooled, userId, kind.getFolder());
+            customerDetailsService.updateDocumentUrl(userId, kind, url);
+
+            updateStatus(jobId, UploadJobStatus.SUCCESS, Map.of("url", url));
+            logger.info("✅ Job upload {} selesai untuk user ID: {}", jobId, userId);
+            notifyQuietly(userId, "Upload Dokumen Berhasil", kind.getLabel() + " Anda berhasil diunggah.");
+        } catch (Exception e) {
+            logger.error("Job upload {} untuk user ID {} gagal: {}", jobId, userId, e.getMessage(), e);
+            // Pesan CustomException memang untuk user; error lain tidak diteruskan apa adanya
+            String error = e instanceof CustomException ? e.getMessage() : "Upload gagal, silakan coba lagi";
+            updateStatus(jobId, UploadJobStatus.FAILED, Map.of("error", error));
+            notifyQuietly(userId, "Upload Dokumen Gagal", kind.getLabel() + " gagal diunggah, silakan coba lagi.");
+        }
+    }
+
+    private void updateStatus(UUID jobId, UploadJobStatus status, Map<String, String> extraFields) {
+        Map<String, String> fields = new HashMap<>(extraFields);
+        fields.put("status", status.name());
+        fields.put("updatedAt", LocalDateTime.now().toString());
+        try {
+            save(jobId, fields);
+        } catch (Exception e) {
+            // Status yang gagal ditulis tidak boleh membatalkan upload yang sudah berjalan
+            logger.warn("Gagal memperbarui status job upload {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private void save(UUID jobId, Map<String, String> fields) {
+        String key = key(jobId);
+        redisTemplate.opsForHash().putAll(key, fields);
+        redisTemplate.expire(key, Duration.ofHours(ttlHours));
+    }
+
+    private void notifyQuietly(UUID userId, String title, String body) {
+        try {
+            notificationService.sendNotificationToUser(userId, title, body);
+        } catch (Exception e) {
+            logger.warn("Gagal mengirim notifikasi job upload ke user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static String key(UUID jobId) {
+        return KEY_PREFIX + jobId;
+    }
+}
@@ -0,0 +1,272 @@
+package com.fintara.services;
+
+import com.fintara.dtos.superAdminDTO.EmailDeadLetterDTO;
+import com.fintara.email.EmailBatchSender;
+import com.fintara.enums.EmailOutboxStatus;
+import com.fintara.models.EmailOutbox;
+import com.fintara.repositories.EmailOutboxRepository;
+import com.fintara.utils.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pengirim email dari tabel email_outbox.
+ *
+ * Poller (di scheduler aplikasi) mengklaim email yang sudah jatuh tempo (klaim lewat UPDATE bersyarat, aman untuk banyak node),
+ * membaginya per batch, lalu executor email mengirim tiap batch lewat satu koneksi SMTP. Email terkirim dihapus
+ * dari tabel; yang gagal sementara dijadwalkan ulang dengan backoff eksponensial, dan yang ditolak permanen atau melewati
+ * batas percobaan ditandai DEAD lalu dihapus setelah masa retensi. Poller berjalan berkala dan juga dibangunkan setelah ada email baru di-commit;
+ * dalam satu node hanya satu poll yang berjalan pada satu waktu.
+ */
+@Service
+public class EmailOutboxDispatcherService {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcherService.class);
+
+    private static final long MAX_RETRY_DELAY_SECONDS = 3600;
+    private static final int ERROR_MAX_LENGTH = 1000;
+
+    @Value("${email.batch-size:50}")
+    private int batchSize;
+    @Value("${email.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+    @Value("${email.max-attempts:6}")
+    private int maxAttempts;
+    @Value("${email.retry-base-delay-seconds:30}")
+    private long retryBaseDelaySeconds;
+    @Value("${email.claim-timeout-minutes:10}")
+    private long claimTimeoutMinutes;
+    @Value("${email.dead-retention-days:14}")
+    private long deadRetentionDays;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private EmailBatchSender emailBatchSender;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    // Poller tidak pernah mengirim lebih dari jumlah thread executor sekaligus, jadi antriannya tidak pernah penuh
+    @Autowired
+    @Qualifier("emailExecutor")
+    private ThreadPoolExecutor sendExecutor;
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicInteger pollRequests = new AtomicInteger();
+    private Timer batchTimer;
+    private ScheduledFuture<?> pollTask;
+
+    @PostConstruct
+    public void init() {
+        batchTimer = Timer.builder("email.batch.duration").register(meterRegistry);
+        pollTask = taskScheduler.scheduleWithFixedDelay(this::pollQuietly,
+                Instant.now().plusMillis(pollIntervalMs), Duration.ofMillis(pollIntervalMs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollTask.cancel(false);
+    }
+
+    // Bangunkan poller setelah transaksi yang memasukkan email commit, supaya email tidak menunggu interval berikutnya
+    public void wakeUpAfterCommit() {
+        Runnable wakeUp = () -> {
+            if (wakeUpPending.compareAndSet(false, true)) {
+                try {
+                    taskScheduler.schedule(() -> {
+                        wakeUpPending.set(false);
+                        pollQuietly();
+                    }, Instant.now());
+                } catch (Exception e) {
+                    wakeUpPending.set(false);
+                }
+            }
+        };
+        AfterCommit.run(wakeUp);
+    }
+
+    public void poll() {
+        // Scheduler punya beberapa thread: poll berkala dan wake-up tidak boleh berjalan bersamaan.
+        // Poll yang datang saat poll lain sedang berjalan hanya dihitung, lalu dilayani oleh putaran berikutnya
+        // di thread yang sedang poll. Putaran berhenti hanya kalau hitungan kembali ke 0, jadi tidak ada permintaan yang hilang.
+        if (pollRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        try {
+            do {
+                pollDue();
+                requests = pollRequests.addAndGet(-requests);
+            } while (requests != 0);
+        } catch (RuntimeException e) {
+            // Permintaan yang tertunda dilayani poll berkala berikutnya
+            pollRequests.set(0);
+            throw e;
+        }
+    }
+
+    private void pollDue() {
+        emailOutboxRepository.releaseStaleClaims(LocalDateTime.now().minusMinutes(claimTimeoutMinutes));
+
+        int limit = batchSize * sendExecutor.getMaximumPoolSize();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<UUID> dueIds = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, limit));
+            if (dueIds.isEmpty()) {
+                return;
+            }
+            UUID claimToken = UUID.randomUUID();
+            if (emailOutboxRepository.claim(dueIds, claimToken, now) > 0) {
+                List<EmailOutbox> claimed = emailOutboxRepository.findAllByClaimTokenOrderByCreatedAtAscIdAsc(claimToken);
+                List<Future<?>> batches = new ArrayList<>();
+                for (int from = 0; from < claimed.size(); from += batchSize) {
+                    List<EmailOutbox> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+                    batches.add(sendExecutor.submit(() -> deliver(batch)));
+                }
+                awaitAll(batches);
+            }
+            if (dueIds.size() < limit) {
+                return;
+            }
+        }
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        List<EmailBatchSender.Result> results = batchTimer.record(() -> emailBatchSender.send(batch));
+
+        List<UUID> sent = new ArrayList<>();
+        List<EmailOutbox> failed = new ArrayList<>();
+        int retried = 0;
+        int dead = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            EmailBatchSender.Result result = results.get(i);
+            if (result.outcome() == EmailBatchSender.Outcome.SENT) {
+                sent.add(email.getId());
+                continue;
+            }
+
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(truncate(result.error()));
+            email.setClaimToken(null);
+            if (result.outcome() == EmailBatchSender.Outcome.REJECTED || email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutboxStatus.DEAD);
+                dead++;
+                logger.error("Email {} ke {} gagal permanen setelah {} percobaan: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), result.error());
+            } else {
+                email.setStatus(EmailOutboxStatus.PENDING);
+                email.setNextAttemptAt(now.plusSeconds(backoffSeconds(email.getAttempts())));
+                retried++;
+            }
+            failed.add(email);
+        }
+
+        // Email terkirim langsung dihapus, jadi isi email (termasuk password sementara) tidak tersimpan lama
+        if (!sent.isEmpty()) {
+            emailOutboxRepository.deleteAllByIdInBatch(sent);
+        }
+        if (!failed.isEmpty()) {
+            emailOutboxRepository.saveAll(failed);
+        }
+        count("sent", sent.size());
+        count("retried", retried);
+        count("dead", dead);
+        logger.info("Batch email: {} terkirim, {} dijadwalkan ulang, {} gagal permanen", sent.size(), retried, dead);
+    }
+
+    public List<EmailDeadLetterDTO> listDeadLetters() {
+        return emailOutboxRepository.findTop100ByStatusOrderByCreatedAtDesc(EmailOutboxStatus.DEAD).stream()
+                .map(email -> EmailDeadLetterDTO.builder()
+                        .id(email.getId())
+                        .recipient(email.getRecipient())
+                        .subject(email.getSubject())
+                        .attempts(email.getAttempts())
+                        .lastError(email.getLastError())
+                        .createdAt(email.getCreatedAt())
+                        .build())
+                .toList();
+    }
+
+    // Kirim ulang semua email DEAD (misalnya setelah konfigurasi SMTP diperbaiki)
+    public int requeueDeadLetters() {
+        int requeued = emailOutboxRepository.requeueDead(LocalDateTime.now());
+        logger.info("{} email DEAD dimasukkan kembali ke antrian", requeued);
+        wakeUpAfterCommit();
+        return requeued;
+    }
+
+    // Email DEAD yang tidak dikirim ulang dalam masa retensi dihapus beserta isinya
+    @Scheduled(cron = "0 15 4 * * ?") // setiap hari jam 04:15
+    public void purgeDeadLetters() {
+        int deleted = emailOutboxRepository.deleteDeadCreatedBefore(LocalDateTime.now().minusDays(deadRetentionDays));
+        if (deleted > 0) {
+            logger.info("✅ {} email DEAD lebih lama dari {} hari dihapus", deleted, deadRetentionDays);
+        }
+    }
+
+    // 30 detik, 1 menit, 2 menit, ... maksimal 1 jam
+    private long backoffSeconds(int attempts) {
+        return Math.min(MAX_RETRY_DELAY_SECONDS, retryBaseDelaySeconds << Math.min(attempts - 1, 20));
+    }
+
+    private void awaitAll(List<Future<?>> batches) {
+        for (Future<?> batch : batches) {
+            try {
+                batch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Baris batch ini tetap SENDING dan akan dikembalikan ke antrian setelah claim timeout
+                logger.error("Batch email gagal diproses: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (Exception e) {
+            logger.error("Polling antrian email gagal: {}", e.getMessage(), e);
+        }
+    }
+
+    private void count(String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter("email.messages", "outcome", outcome).increment(amount);
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= ERROR_MAX_LENGTH) {
+            return error;
+        }
+        return error.substring(0, ERROR_MAX_LENGTH);
+    }
+}
@@ -0,0 +1,177 @@
+package com.fintara.services;
+
+import com.fintara.directory.EmployeeDirectoryIndex;
+import com.fintara.dtos.pegawaiDTO.EmployeeDirectoryItemDTO;
+import com.fintara.dtos.pegawaiDTO.EmployeeDirectoryPageDTO;
+import com.fintara.dtos.pegawaiDTO.FacetCountDTO;
+import com.fintara.enums.JenisKelamin;
+import com.fintara.enums.StatusPegawai;
+import com.fintara.exceptions.CustomException;
+import com.fintara.repositories.PegawaiRepository;
+import com.fintara.utils.AfterCommit;
+import com.fintara.utils.RebuildableSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Direktori pegawai yang dilayani dari index in-memory (per node), tanpa query ke database saat dibaca.
+ * Index diperbarui setelah commit oleh service yang mengubah data pegawai,
+ * dan dibangun ulang berkala untuk menangkap perubahan lain (misalnya branch diganti nama).
+ */
+@Service
+public class EmployeeDirectoryService {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeDirectoryService.class);
+
+    private static final int DEFAULT_SIZE = 20;
+    private static final int MAX_SIZE = 100;
+
+    @Autowired
+    private PegawaiRepository pegawaiRepository;
+
+    private final RebuildableSnapshot<EmployeeDirectoryIndex> index = new RebuildableSnapshot<>(new EmployeeDirectoryIndex(LocalDateTime.now()));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initIndex() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            logger.error("Gagal membangun index direktori pegawai saat startup", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${directory.employee.rebuild-interval-ms:3600000}")
+    public void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        EmployeeDirectoryIndex fresh = index.rebuild(() -> {
+            EmployeeDirectoryIndex loaded = new EmployeeDirectoryIndex(LocalDateTime.now());
+            for (Object[] row : pegawaiRepository.findDirectoryRows()) {
+                loaded.upsert(toItem(row));
+            }
+            return loaded;
+        });
+        if (fresh != null) {
+            logger.info("✅ Index direktori pegawai dibangun: {} pegawai dalam {} ms", fresh.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    /**
+     * Muat ulang satu pegawai ke index setelah transaksi yang sedang berjalan commit.
+     */
+    public void refresh(UUID userId) {
+        afterCommit(() -> {
+            List<Object[]> rows = pegawaiRepository.findDirectoryRowByUserId(userId);
+            if (rows.isEmpty()) {
+                index.apply(current -> current.remove(userId));
+            } else {
+                EmployeeDirectoryItemDTO item = toItem(rows.get(0));
+                index.apply(current -> current.upsert(item));
+            }
+        });
+    }
+
+    // Versi batch untuk import massal: satu query untuk semua user
+    public void refresh(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(userIds);
+        afterCommit(() -> {
+            List<EmployeeDirectoryItemDTO> items = pegawaiRepository.findDirectoryRowsByUserIds(ids).stream()
+                    .map(EmployeeDirectoryService::toItem)
+                    .toList();
+            index.apply(current -> items.forEach(current::upsert));
+        });
+    }
+
+    public void remove(UUID userId) {
+        afterCommit(() -> index.apply(current -> current.remove(userId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                // Rebuild berkala akan memperbaiki index
+                logger.warn("Gagal update index direktori pegawai: {}", e.getMessage());
+            }
+        };
+        AfterCommit.run(safeAction);
+    }
+
+    public EmployeeDirectoryPageDTO search(UUID branchId, String role, String status, String gender,
+                                          String query, Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_SIZE : size;
+        if (pageNumber < 0) {
+            throw new CustomException("Parameter page tidak boleh negatif", HttpStatus.BAD_REQUEST);
+        }
+        if (pageSize < 1 || pageSize > MAX_SIZE) {
+            throw new CustomException("Parameter size harus antara 1 dan " + MAX_SIZE, HttpStatus.BAD_REQUEST);
+        }
+
+        Map<String, String> filters = new HashMap<>();
+        filters.put(EmployeeDirectoryIndex.FACET_BRANCH, branchId != null ? branchId.toString() : null);
+        filters.put(EmployeeDirectoryIndex.FACET_ROLE, role != null ? role.toUpperCase() : null);
+        filters.put(EmployeeDirectoryIndex.FACET_STATUS, status != null ? parseEnum(StatusPegawai.class, status, "status").name() : null);
+        filters.put(EmployeeDirectoryIndex.FACET_GENDER, gender != null ? parseEnum(JenisKelamin.class, gender, "gender").name() : null);
+
+        return index.read(current -> {
+            EmployeeDirectoryIndex.Result result = current.search(filters, query, pageNumber * pageSize, pageSize);
+
+            Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+            result.facetCounts().forEach((facet, counts) -> {
+                List<FacetCountDTO> values = new ArrayList<>(counts.size());
+                counts.forEach((value, count) -> values.add(new FacetCountDTO(value,
+                        EmployeeDirectoryIndex.FACET_BRANCH.equals(facet) ? current.branchLabel(value) : value, count)));
+                facets.put(facet, values);
+            });
+
+            return EmployeeDirectoryPageDTO.builder()
+                    .items(result.items())
+                    .total(result.total())
+                    .page(pageNumber)
+                    .size(pageSize)
+                    .facets(facets)
+                    .indexBuiltAt(current.getBuiltAt())
+                    .build();
+        });
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String parameter) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Nilai " + parameter + " tidak valid: " + value, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static EmployeeDirectoryItemDTO toItem(Object[] row) {
+        return EmployeeDirectoryItemDTO.builder()
+                .userId((UUID) row[0])
+                .name((String) row[1])
+                .email((String) row[2])
+                .nip((String) row[3])
+                .branchId((UUID) row[4])
+                .branchName((String) row[5])
+                .role((String) row[6])
+                .statusPegawai((StatusPegawai) row[7])
+                .jenisKelamin((JenisKelamin) row[8])
+                .build();
+    }
+}
@@ -0,0 +1,310 @@
+package com.fintara.services;
+
+import com.fintara.dtos.pegawaiDTO.EmployeeImportReportDTO;
+import com.fintara.dtos.pegawaiDTO.EmployeeImportRowDTO;
+import com.fintara.enums.EmployeeImportStatus;
+import com.fintara.enums.JenisKelamin;
+import com.fintara.enums.StatusPegawai;
+import com.fintara.enums.UserType;
+import com.fintara.exceptions.CustomException;
+import com.fintara.models.Branch;
+import com.fintara.models.PegawaiDetails;
+import com.fintara.models.Role;
+import com.fintara.models.User;
+import com.fintara.repositories.BranchRepository;
+import com.fintara.repositories.PegawaiRepository;
+import com.fintara.repositories.RoleRepository;
+import com.fintara.repositories.UserRepository;
+import com.fintara.utils.EmployeeCsvReader;
+import com.fintara.utils.EmployeeCsvReader.EmployeeCsvRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.regex.Pattern;
+
+/**
+ * Import pegawai massal dari CSV.
+ * Semua baris divalidasi dulu di memori (NIP / email yang sudah ada dimuat sekali per file, aturan satu
+ * branch manager per cabang dicek dari set), password di-hash paralel di pool terbatas,
+ * lalu data disimpan per chunk dengan JDBC batch. Email password awal dikirim async setelah chunk commit.
+ */
+@Service
+public class EmployeeImportService {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeImportService.class);
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private static final Pattern NIP_PATTERN = Pattern.compile("^\\d{8}$");
+    private static final String BRANCH_MANAGER = "BRANCH_MANAGER";
+    // Batas parameter IN di SQL Server 2100, jadi lookup dipecah
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    @Value("${employee.import.max-rows:2000}")
+    private int maxRows;
+    @Value("${employee.import.chunk-size:100}")
+    private int chunkSize;
+
+    @Autowired
+    private PegawaiRepository pegawaiRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BranchRepository branchRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    @Autowired
+    private EmployeeDirectoryService employeeDirectoryService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+    // Antrian terbatas + CallerRunsPolicy: kalau pool penuh, thread request ikut meng-hash (backpressure)
+    @Autowired
+    @Qualifier("batchExecutor")
+    private ThreadPoolExecutor hashExecutor;
+
+    // email sudah dinormalisasi ke huruf kecil, sama dengan nilai yang dicek keunikannya
+    private record ValidRow(EmployeeImportRowDTO report, String name, String email, String nip,
+                            UUID roleId, UUID branchId, JenisKelamin jenisKelamin, StatusPegawai statusPegawai) {
+    }
+
+    private record PreparedRow(ValidRow row, String password, String passwordHash) {
+    }
+
+    public EmployeeImportReportDTO importCsv(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new CustomException("File CSV tidak boleh kosong", HttpStatus.BAD_REQUEST);
+        }
+        long started = System.currentTimeMillis();
+
+        List<EmployeeCsvRow> csvRows;
+        try {
+            csvRows = new EmployeeCsvReader(maxRows).read(file.getInputStream());
+        } catch (IllegalArgumentException e) {
+            throw new CustomException(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IOException e) {
+            throw new CustomException("Gagal membaca file CSV", HttpStatus.BAD_REQUEST);
+        }
+
+        List<EmployeeImportRowDTO> reports = new ArrayList<>(csvRows.size());
+        List<ValidRow> validRows = validate(csvRows, reports);
+        logger.info("Import pegawai {}: {} baris, {} valid", file.getOriginalFilename(), csvRows.size(), validRows.size());
+
+        List<PreparedRow> prepared = hashPasswords(validRows);
+        for (int from = 0; from < prepared.size(); from += chunkSize) {
+            persistChunk(prepared.subList(from, Math.min(prepared.size(), from + chunkSize)));
+        }
+
+        int created = 0;
+        int rejected = 0;
+        int failed = 0;
+        for (EmployeeImportRowDTO report : reports) {
+            switch (report.getStatus()) {
+                case CREATED -> created++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+        long duration = System.currentTimeMillis() - started;
+        logger.info("✅ Import pegawai selesai: {} dibuat, {} ditolak, {} gagal dalam {} ms", created, rejected, failed, duration);
+
+        return EmployeeImportReportDTO.builder()
+                .fileName(file.getOriginalFilename())
+                .totalRows(reports.size())
+                .createdRows(created)
+                .rejectedRows(rejected)
+                .failedRows(failed)
+                .durationMs(duration)
+                .rows(reports)
+                .build();
+    }
+
+    private List<ValidRow> validate(List<EmployeeCsvRow> csvRows, List<EmployeeImportRowDTO> reports) {
+        Map<String, UUID> roles = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            roles.put(role.getName().toUpperCase(Locale.ROOT), role.getId());
+        }
+        Map<String, UUID> branches = new HashMap<>();
+        for (Branch branch : branchRepository.findAll()) {
+            branches.put(branch.getName().toLowerCase(Locale.ROOT), branch.getId());
+        }
+
+        // NIP / email yang sudah terdaftar, hanya untuk nilai yang ada di file
+        Set<String> nips = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (EmployeeCsvRow row : csvRows) {
+            if (row.nip() != null) nips.add(row.nip());
+            if (row.email() != null) emails.add(row.email().toLowerCase(Locale.ROOT));
+        }
+        Set<String> takenNips = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (List<String> chunk : chunks(nips)) {
+            takenNips.addAll(pegawaiRepository.findExistingNips(chunk));
+        }
+        for (List<String> chunk : chunks(emails)) {
+            userRepository.findExistingEmails(chunk).forEach(email -> takenEmails.add(email.toLowerCase(Locale.ROOT)));
+        }
+        Set<UUID> branchesWithManager = new HashSet<>(pegawaiRepository.findBranchIdsWithRole(BRANCH_MANAGER));
+
+        List<ValidRow> validRows = new ArrayList<>();
+        for (EmployeeCsvRow row : csvRows) {
+            EmployeeImportRowDTO report = EmployeeImportRowDTO.builder()
+                    .lineNumber(row.lineNumber())
+                    .nip(row.nip())
+                    .email(row.email())
+                    .build();
+            reports.add(report);
+
+            String error = null;
+            String role = row.role() != null ? row.role().toUpperCase(Locale.ROOT) : null;
+            UUID branchId = row.branchName() != null ? branches.get(row.branchName().toLowerCase(Locale.ROOT)) : null;
+            JenisKelamin jenisKelamin = parseEnum(JenisKelamin.class, row.jenisKelamin());
+            StatusPegawai statusPegawai = parseEnum(StatusPegawai.class, row.statusPegawai());
+            String email = row.email() != null ? row.email().toLowerCase(Locale.ROOT) : null;
+
+            if (row.error() != null) {
+                error = row.error();
+            } else if (row.name() == null) {
+                error = "Nama harus diisi";
+            } else if (email == null || !EMAIL_PATTERN.matcher(row.email()).matches()) {
+                error = "Format email tidak valid";
+            } else if (row.nip() == null || !NIP_PATTERN.matcher(row.nip()).matches()) {
+                error = "NIP harus terdiri dari 8 digit angka";
+            } else if (role == null || !roles.containsKey(role) || "CUSTOMER".equals(role)) {
+                error = "Role tidak valid: " + row.role();
+            } else if (branchId == null) {
+                error = "Branch tidak ditemukan: " + row.branchName();
+            } else if (jenisKelamin == null) {
+                error = "Jenis kelamin tidak valid: " + row.jenisKelamin();
+            } else if (statusPegawai == null) {
+                error = "Status pegawai tidak valid: " + row.statusPegawai();
+            } else if (!takenNips.add(row.nip())) {
+                error = "NIP sudah terdaftar";
+            } else if (!takenEmails.add(email)) {
+                error = "Email sudah terdaftar";
+            } else if (BRANCH_MANAGER.equals(role) && !branchesWithManager.add(branchId)) {
+                error = "Cabang ini sudah memiliki Branch Manager";
+            }
+
+            if (error != null) {
+                report.setStatus(EmployeeImportStatus.REJECTED);
+                report.setMessage(error);
+                continue;
+            }
+            validRows.add(new ValidRow(report, row.name(), email, row.nip(),
+                    roles.get(role), branchId, jenisKelamin, statusPegawai));
+        }
+        return validRows;
+    }
+
+    // BCrypt sengaja lambat (~puluhan ms per hash), jadi dikerjakan paralel di pool terbatas
+    private List<PreparedRow> hashPasswords(List<ValidRow> validRows) {
+        List<CompletableFuture<PreparedRow>> futures = new ArrayList<>(validRows.size());
+        for (ValidRow row : validRows) {
+            String password = RandomStringUtils.randomAlphanumeric(8);
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> new PreparedRow(row, password, passwordEncoder.encode(password)), hashExecutor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private void persistChunk(List<PreparedRow> chunk) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<UUID> userIds = new ArrayList<>(chunk.size());
+                for (PreparedRow prepared : chunk) {
+                    ValidRow row = prepared.row();
+                    User user = User.builder()
+                            .name(row.name())
+                            .email(row.email())
+                            .password(prepared.passwordHash())
+                            .role(entityManager.getReference(Role.class, row.roleId()))
+                            .userType(UserType.PEGAWAI)
+                            .isFirstLogin(true)
+                            .build();
+                    entityManager.persist(user);
+
+                    PegawaiDetails pegawaiDetails = PegawaiDetails.builder()
+                            .nip(row.nip())
+                            .branch(entityManager.getReference(Branch.class, row.branchId()))
+                            .statusPegawai(row.statusPegawai())
+                            .jenisKelamin(row.jenisKelamin())
+                            .user(user)
+                            .build();
+                    entityManager.persist(pegawaiDetails);
+                    userIds.add(user.getId());
+                }
+                // Insert dikirim sebagai JDBC batch (hibernate.jdbc.batch_size), lalu persistence context dikosongkan
+                entityManager.flush();
+                entityManager.clear();
+
+                dashboardCounterService.adjust(DashboardCounterService.TOTAL_USERS, chunk.size());
+                dashboardCounterService.adjust(DashboardCounterService.TOTAL_PEGAWAI, chunk.size());
+                employeeDirectoryService.refresh(userIds);
+                // Email masuk outbox di transaksi yang sama: hanya terkirim jika chunk ini commit
+                chunk.forEach(prepared -> emailService.sendInitialPasswordEmail(prepared.row().email(), prepared.password()));
+            });
+
+            for (PreparedRow prepared : chunk) {
+                prepared.row().report().setStatus(EmployeeImportStatus.CREATED);
+                prepared.row().report().setMessage("Akun pegawai berhasil dibuat");
+            }
+        } catch (Exception e) {
+            // Satu chunk gagal (misalnya bentrok unique dengan request lain) tidak membatalkan chunk lain
+            logger.error("Gagal menyimpan chunk import pegawai ({} baris): {}", chunk.size(), e.getMessage());
+            for (PreparedRow prepared : chunk) {
+                prepared.row().report().setStatus(EmployeeImportStatus.FAILED);
+                prepared.row().report().setMessage("Gagal menyimpan ke database, silakan import ulang baris ini");
+            }
+        }
+    }
+
+    private static List<List<String>> chunks(Set<String> values) {
+        List<String> list = new ArrayList<>(values);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += LOOKUP_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + LOOKUP_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.fintara.services;
+
+import com.fintara.repositories.LoanApprovalRepository;
+import com.fintara.repositories.LoanRequestRepository;
+import com.fintara.repositories.RepaymentScheduleRepository;
+import com.fintara.utils.CsvRowWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Export CSV streaming untuk audit. Data dibaca dari Stream JPA forward-only (fetch size dari query hint)
+ * dan ditulis baris per baris, jadi heap tetap konstan berapa pun jumlah barisnya.
+ * Method dipanggil dari StreamingResponseBody, transaksi read-only dibuka di thread async tersebut.
+ */
+@Service
+public class ExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int CLEAR_INTERVAL = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private LoanRequestRepository loanRequestRepository;
+    @Autowired
+    private LoanApprovalRepository loanApprovalRepository;
+    @Autowired
+    private RepaymentScheduleRepository repaymentScheduleRepository;
+
+    @Transactional(readOnly = true)
+    public long writeLoanRequests(UUID branchId, String status, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        CsvRowWriter csv = new CsvRowWriter(out).header(
+                "loan_request_id", "created_at", "branch", "status", "customer_name", "customer_email", "nik",
+                "marketing", "plafond", "amount", "tenor", "interest_rate", "interest_amount", "fees_amount",
+                "disbursed_amount", "total_repayment_amount", "approval_marketing_at", "approval_bm_at", "disbursed_at");
+
+        try (Stream<Object[]> rows = loanRequestRepository.streamForExport(branchId, status, startOfDay(from), startOfNextDay(to))) {
+            return writeRows("loan_requests", rows, csv);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long writeLoanApprovals(UUID branchId, String status, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        CsvRowWriter csv = new CsvRowWriter(out).header(
+                "loan_approval_id", "loan_request_id", "branch", "status", "handled_by", "handled_by_role", "approved_at",
+                "notes", "notes_identitas", "notes_plafond", "notes_summary");
+
+        try (Stream<Object[]> rows = loanApprovalRepository.streamForExport(branchId, status, startOfDay(from), startOfNextDay(to))) {
+            return writeRows("loan_approvals", rows, csv);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long writeRepaymentSchedules(UUID branchId, String status, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        CsvRowWriter csv = new CsvRowWriter(out).header(
+                "repayment_schedule_id", "loan_request_id", "branch", "customer_name", "installment_number",
+                "amount_to_pay", "amount_paid", "due_date", "is_late", "penalty_amount", "paid_at");
+
+        LocalDate toExclusive = to != null ? to.plusDays(1) : null;
+        try (Stream<Object[]> rows = repaymentScheduleRepository.streamForExport(branchId, status, from, toExclusive)) {
+            return writeRows("repayment_schedules", rows, csv);
+        }
+    }
+
+    private long writeRows(String exportName, Stream<Object[]> rows, CsvRowWriter csv) throws IOException {
+        long started = System.currentTimeMillis();
+        long count = 0;
+
+        Iterator<Object[]> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            for (Object value : iterator.next()) {
+                csv.field(value);
+            }
+            csv.endRow();
+
+            // Projection skalar tidak masuk persistence context, clear() berkala menjaga
+            // agar entity yang mungkin ikut termuat tidak menumpuk selama export panjang
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        csv.flush();
+
+        logger.info("Export {} selesai: {} baris dalam {} ms", exportName, count, System.currentTimeMillis() - started);
+        return count;
+    }
+
+    private static LocalDateTime startOfDay(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime startOfNextDay(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
+    }
+}
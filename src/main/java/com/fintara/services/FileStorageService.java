@@ -0,0 +1,247 @@
+package com.fintara.services;
+
+import com.fintara.exceptions.CustomException;
+import com.fintara.storage.ContentHashIndex;
+import com.fintara.storage.StorageGateway;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pintu masuk semua upload file ke storage.
+ *
+ * File multipart dipindahkan ke spool di disk lalu di-stream ke {@link StorageGateway}, jadi isi file tidak pernah
+ * dimuat utuh ke heap. Upload berjalan di pool terbatas (jumlah upload paralel + antrian dibatasi), dan pemanggil
+ * hanya menunggu sampai batas waktu; saat pool penuh request langsung ditolak dengan 503.
+ *
+ * SHA-256 isi file dihitung sambil spool. Kalau user yang sama pernah menyimpan byte yang sama ke folder yang sama,
+ * URL lama dari {@link ContentHashIndex} dipakai lagi tanpa normalisasi maupun upload ulang.
+ */
+@Service
+public class FileStorageService {
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final String VARIANT_RAW = "raw";
+    private static final String VARIANT_IMAGE = "image";
+
+    /**
+     * File multipart yang sudah dipindahkan ke direktori spool, beserta SHA-256 isinya (hex).
+     */
+    public record SpooledFile(Path path, String sha256) {
+    }
+
+    @Value("${storage.upload.timeout-seconds:30}")
+    private long timeoutSeconds;
+    @Value("${storage.upload.spool-dir:${java.io.tmpdir}/fintara-upload}")
+    private String spoolDir;
+
+    @Autowired
+    private StorageGateway storageGateway;
+    @Autowired
+    private ImageNormalizationService imageNormalizationService;
+    @Autowired
+    private ContentHashIndex contentHashIndex;
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private ThreadPoolExecutor uploadExecutor;
+
+    private Path spoolPath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        spoolPath = Files.createDirectories(Paths.get(spoolDir));
+    }
+
+    /**
+     * Upload file multipart. File di-spool ke disk dulu, dan spool dihapus setelah upload selesai atau gagal.
+     *
+     * @param ownerId user pemilik file, dipakai sebagai batas dedup
+     * @param folder folder tujuan di storage, boleh null
+     * @return URL file yang tersimpan
+     */
+    public String store(MultipartFile file, UUID ownerId, String folder) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new CustomException("File tidak boleh kosong", HttpStatus.BAD_REQUEST);
+        }
+        SpooledFile spooled = spool(file);
+        String existingUrl = findExisting(spooled, ownerId, VARIANT_RAW, folder);
+        if (existingUrl != null) {
+            return existingUrl;
+        }
+        String url = upload(spooled.path(), folder, true);
+        contentHashIndex.put(ownerId, VARIANT_RAW, folder, spooled.sha256(), url);
+        return url;
+    }
+
+    /**
+     * Upload foto dokumen: di-spool, dinormalisasi (orientasi, resolusi, kompresi JPEG), lalu diupload.
+     * File yang bukan gambar tetap diupload apa adanya.
+     *
+     * @param ownerId user pemilik dokumen, dipakai sebagai batas dedup
+     * @param folder folder tujuan di storage, juga dipakai sebagai jenis dokumen di metrik
+     */
+    public String storeImage(MultipartFile file, UUID ownerId, String folder) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new CustomException("File tidak boleh kosong", HttpStatus.BAD_REQUEST);
+        }
+        return storeSpooledImage(spool(file), ownerId, folder);
+    }
+
+    /**
+     * Sama seperti {@link #storeImage(MultipartFile, UUID, String)} untuk file hasil {@link #spool(MultipartFile)}.
+     * File spool selalu dihapus, baik upload berhasil maupun gagal.
+     */
+    public String storeSpooledImage(SpooledFile spooled, UUID ownerId, String folder) throws IOException {
+        // Hash dari byte asli: upload ulang foto yang sama tidak perlu dinormalisasi lagi
+        String existingUrl = findExisting(spooled, ownerId, VARIANT_IMAGE, folder);
+        if (existingUrl != null) {
+            return existingUrl;
+        }
+
+        Path source = spooled.path();
+        Path normalized;
+        try {
+            normalized = imageNormalizationService.normalize(source, folder);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(source);
+            throw e;
+        }
+        if (!normalized.equals(source)) {
+            deleteQuietly(source);
+        }
+        String url = upload(normalized, folder, true);
+        contentHashIndex.put(ownerId, VARIANT_IMAGE, folder, spooled.sha256(), url);
+        return url;
+    }
+
+    /**
+     * Upload file yang sudah ada di disk. File milik pemanggil dan tidak dihapus.
+     */
+    public String store(Path file, String folder) throws IOException {
+        return upload(file, folder, false);
+    }
+
+    // Pindahkan file multipart ke direktori spool; pemanggil bertanggung jawab menghapusnya
+    public SpooledFile spool(MultipartFile file) throws IOException {
+        Path target = Files.createTempFile(spoolPath, "upload-", extensionOf(file.getOriginalFilename()));
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            // Disalin secara streaming, hash dihitung dari byte yang sama tanpa membaca file dua kali
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(target);
+            throw e;
+        }
+        return new SpooledFile(target, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private String findExisting(SpooledFile spooled, UUID ownerId, String variant, String folder) {
+        String url = contentHashIndex.find(ownerId, variant, folder, spooled.sha256());
+        if (url != null) {
+            deleteQuietly(spooled.path());
+            logger.info("✅ File {} sudah pernah disimpan, memakai aset yang ada", spooled.sha256());
+        }
+        return url;
+    }
+
+    private String upload(Path file, String folder, boolean deleteAfter) throws IOException {
+        Future<String> future;
+        try {
+            future = uploadExecutor.submit(() -> {
+                try {
+                    return storageGateway.upload(file, folder);
+                } finally {
+                    if (deleteAfter) {
+                        deleteQuietly(file);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (deleteAfter) {
+                deleteQuietly(file);
+            }
+            logger.warn("Antrian upload penuh ({} upload berjalan, {} menunggu)",
+                    uploadExecutor.getActiveCount(), uploadExecutor.getQueue().size());
+            throw new CustomException("Layanan upload sedang sibuk, silakan coba lagi", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            // Task yang belum sempat jalan tidak akan menghapus spool-nya sendiri
+            if (deleteAfter) {
+                deleteQuietly(file);
+            }
+            logger.warn("Upload {} melebihi batas waktu {} detik", file.getFileName(), timeoutSeconds);
+            throw new CustomException("Upload file melebihi batas waktu", HttpStatus.GATEWAY_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IOException("Upload file dibatalkan", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Upload file gagal", cause);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || filename.length() - dot > 6) {
+            return null;
+        }
+        String extension = filename.substring(dot).toLowerCase(Locale.ROOT);
+        return extension.matches("\\.[a-z0-9]+") ? extension : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 wajib tersedia di setiap JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Gagal menghapus file spool {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -1,33 +0,0 @@
-package com.fintara.services;
-
-import com.fintara.models.User;
-import com.fintara.models.UserDeviceToken;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
-
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.Notification;
-
-@Service
-public class FirebaseService {
-
-    @Autowired
-    private UserService userService;
-
-    public void sendNotification(String fcmToken, String title, String body) throws FirebaseMessagingException {
-        Notification notification = Notification.builder()
-                .setTitle(title)
-                .setBody(body)
-                .build();
-
-        Message message = Message.builder()
-                .setToken(fcmToken)
-                .setNotification(notification)
-                .build();
-
-        String response = FirebaseMessaging.getInstance().send(message);
-        System.out.println("Successfully sent message: " + response);
-    }
-}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.fintara.services;
+
+import com.fintara.exceptions.CustomException;
+import com.fintara.utils.ImageNormalizer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tahap normalisasi gambar sebelum upload (KTP / selfie), dijalankan di pool worker terpisah
+ * karena decode & encode gambar memakan CPU dan memori.
+ * Ukuran file asli dan yang disimpan dicatat sebagai metrik per jenis dokumen.
+ */
+@Service
+public class ImageNormalizationService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageNormalizationService.class);
+
+    @Value("${storage.image.max-dimension:1600}")
+    private int maxDimension;
+    @Value("${storage.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+    @Value("${storage.upload.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    // Antrian terbatas + CallerRunsPolicy: kalau pool penuh, thread request ikut memproses (backpressure)
+    @Autowired
+    @Qualifier("imageExecutor")
+    private ThreadPoolExecutor imageExecutor;
+
+    private ImageNormalizer normalizer;
+
+    @PostConstruct
+    public void init() {
+        normalizer = new ImageNormalizer(maxDimension, jpegQuality);
+    }
+
+    /**
+     * @param kind jenis dokumen untuk tag metrik, misalnya "ktp" atau "selfie"
+     * @return file JPEG hasil normalisasi (file baru milik pemanggil), atau {@code source} itu sendiri
+     * jika file bukan gambar yang bisa didecode
+     */
+    public Path normalize(Path source, String kind) throws IOException {
+        long originalBytes = Files.size(source);
+        Path target = Files.createTempFile(source.getParent(), "normalized-", ".jpg");
+
+        ImageNormalizer.Result result;
+        try {
+            result = await(imageExecutor.submit(() -> normalizer.normalize(source, target)));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+
+        if (result == null) {
+            Files.deleteIfExists(target);
+            logger.info("File {} bukan gambar yang bisa dinormalisasi, disimpan apa adanya", source.getFileName());
+            record(kind, "skipped", originalBytes, originalBytes);
+            return source;
+        }
+
+        long storedBytes = Files.size(target);
+        record(kind, "normalized", originalBytes, storedBytes);
+        logger.info("✅ Gambar {} dinormalisasi ke {}x{}: {} -> {} byte",
+                kind, result.width(), result.height(), originalBytes, storedBytes);
+        return target;
+    }
+
+    private ImageNormalizer.Result await(Future<ImageNormalizer.Result> future) throws IOException {
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new CustomException("Pemrosesan gambar melebihi batas waktu", HttpStatus.GATEWAY_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IOException("Pemrosesan gambar dibatalkan", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Pemrosesan gambar gagal", cause);
+        }
+    }
+
+    private void record(String kind, String outcome, long originalBytes, long storedBytes) {
+        String kindTag = kind != null ? kind : "lainnya";
+        DistributionSummary.builder("storage.image.original.bytes")
+                .baseUnit("bytes")
+                .tag("kind", kindTag)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(originalBytes);
+        DistributionSummary.builder("storage.image.stored.bytes")
+                .baseUnit("bytes")
+                .tag("kind", kindTag)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(storedBytes);
+    }
+}
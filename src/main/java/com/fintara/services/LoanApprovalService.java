@@ -3,6 +3,7 @@ package com.fintara.services;
 import com.fintara.dtos.loanApprovalDTO.LoanApprovalReviewerResponse;
 import com.fintara.exceptions.CustomException;
 import com.fintara.dtos.loanApprovalDTO.LoanApprovalHistoryResponse;
+import com.fintara.mappers.LoanApprovalMapper;
 import com.fintara.models.LoanApproval;
 import com.fintara.models.LoanRequest;
 import com.fintara.models.LoanStatus;
@@ -29,6 +30,8 @@ public class LoanApprovalService {
     private LoanStatusService loanStatusService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private LoanApprovalMapper loanApprovalMapper;
 
     /**
      * Approve a loan request with the given decision.
@@ -115,7 +118,7 @@ public class LoanApprovalService {
     public List<LoanApprovalHistoryResponse> getHandledApprovalsByUser(UUID userId) {
         List<LoanApproval> approvals = loanApprovalRepository.findAllByHandledBy(userId);
         return approvals.stream()
-                .map(LoanApprovalHistoryResponse::fromEntity)
+                .map(loanApprovalMapper::toHistoryResponse)
                 .toList();
     }
 
@@ -0,0 +1,226 @@
+package com.fintara.services;
+
+import com.fintara.analytics.LoanPortfolioSnapshot;
+import com.fintara.analytics.PortfolioAggregationTask;
+import com.fintara.dtos.analyticsDTO.BranchPortfolioDTO;
+import com.fintara.dtos.analyticsDTO.DpdBucketDTO;
+import com.fintara.dtos.analyticsDTO.MonthlyDisbursementDTO;
+import com.fintara.dtos.analyticsDTO.PortfolioSummaryDTO;
+import com.fintara.events.LoanStatusChangedEvent;
+import com.fintara.events.RepaymentAppliedEvent;
+import com.fintara.exceptions.CustomException;
+import com.fintara.repositories.LoanRequestRepository;
+import com.fintara.repositories.RepaymentScheduleRepository;
+import com.fintara.utils.RebuildableSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Analitik portofolio pinjaman dari snapshot in-memory, tanpa query ke database saat dibaca.
+ * Snapshot dibangun ulang setiap malam dan diperbarui dari event loan / pembayaran di antaranya.
+ */
+@Service
+public class LoanPortfolioAnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(LoanPortfolioAnalyticsService.class);
+
+    private static final int MAX_MONTHS = 60;
+    private static final Set<String> DISBURSED_STATUSES = Set.of("DISBURSED");
+    private static final Set<String> REJECTED_STATUSES = Set.of("DITOLAK_MARKETING", "DITOLAK_BM", "NOT_DISBURSED");
+    private static final Set<String> IN_PROGRESS_STATUSES = Set.of("REVIEW", "DIREKOMENDASIKAN_MARKETING", "DISETUJUI_BM");
+
+    @Autowired
+    private LoanRequestRepository loanRequestRepository;
+    @Autowired
+    private RepaymentScheduleRepository repaymentScheduleRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RebuildableSnapshot<LoanPortfolioSnapshot> snapshot = new RebuildableSnapshot<>(new LoanPortfolioSnapshot(LocalDateTime.now()));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initSnapshot() {
+        try {
+            rebuildSnapshot();
+        } catch (Exception e) {
+            logger.error("Gagal membangun snapshot portofolio saat startup", e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 2 * * ?") // setiap hari jam 02:30, setelah job denda harian
+    public void rebuildSnapshot() {
+        long started = System.currentTimeMillis();
+        LoanPortfolioSnapshot fresh = snapshot.rebuild(this::loadSnapshot);
+        if (fresh != null) {
+            logger.info("✅ Snapshot portofolio dibangun: {} loan dalam {} ms", fresh.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    private LoanPortfolioSnapshot loadSnapshot() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return transactionTemplate.execute(status -> {
+            LoanPortfolioSnapshot fresh = new LoanPortfolioSnapshot(LocalDateTime.now());
+            try (Stream<Object[]> rows = loanRequestRepository.streamPortfolioRows()) {
+                rows.forEach(row -> fresh.upsertLoan(
+                        (UUID) row[0],
+                        (UUID) row[1], (String) row[2],
+                        (UUID) row[3], (String) row[4],
+                        (String) row[5],
+                        toCents((BigDecimal) row[6]),
+                        row[7] != null ? (Integer) row[7] : 1,
+                        (LocalDateTime) row[8]));
+            }
+            for (Object[] row : repaymentScheduleRepository.summarizeUnpaidByLoan()) {
+                fresh.updateRepayment((UUID) row[0], ((Number) row[1]).intValue(), toEpochDay((LocalDate) row[2]));
+            }
+            return fresh;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanStatusChanged(LoanStatusChangedEvent event) {
+        try {
+            long principal = toCents(event.amount());
+            int tenor = event.tenor() != null ? event.tenor() : 1;
+            snapshot.apply(current -> current.upsertLoan(event.loanRequestId(),
+                    event.branchId(), event.branchName(),
+                    event.plafondId(), event.plafondName(),
+                    event.newStatus(), principal, tenor, event.disbursedAt()));
+
+            if (DISBURSED_STATUSES.contains(event.newStatus())) {
+                refreshRepayment(event.loanRequestId());
+            }
+        } catch (Exception e) {
+            logger.warn("Gagal update snapshot portofolio untuk loan {}: {}", event.loanRequestId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRepaymentApplied(RepaymentAppliedEvent event) {
+        try {
+            refreshRepayment(event.loanRequestId());
+        } catch (Exception e) {
+            logger.warn("Gagal update snapshot portofolio untuk loan {}: {}", event.loanRequestId(), e.getMessage());
+        }
+    }
+
+    private void refreshRepayment(UUID loanRequestId) {
+        List<Object[]> rows = repaymentScheduleRepository.summarizeUnpaidByLoanId(loanRequestId);
+        Object[] row = rows.isEmpty() ? null : rows.get(0);
+        int unpaid = row != null && row[0] != null ? ((Number) row[0]).intValue() : 0;
+        int oldestDue = row != null ? toEpochDay((LocalDate) row[1]) : LoanPortfolioSnapshot.NO_DATE;
+        snapshot.apply(current -> current.updateRepayment(loanRequestId, unpaid, oldestDue));
+    }
+
+    public PortfolioSummaryDTO getPortfolioSummary(int months) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new CustomException("Parameter months harus antara 1 dan " + MAX_MONTHS, HttpStatus.BAD_REQUEST);
+        }
+
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        int lastMonth = LoanPortfolioSnapshot.monthIndex(today.getYear(), today.getMonthValue());
+        int firstMonth = lastMonth - months + 1;
+
+        return snapshot.read(current -> {
+            LoanPortfolioSnapshot.Dictionary statuses = current.getStatuses();
+
+            boolean[] disbursed = new boolean[statuses.size()];
+            boolean[] decided = new boolean[statuses.size()];
+            boolean[] rejected = new boolean[statuses.size()];
+            for (int code = 0; code < statuses.size(); code++) {
+                String status = statuses.labelOf(code);
+                disbursed[code] = DISBURSED_STATUSES.contains(status);
+                decided[code] = !IN_PROGRESS_STATUSES.contains(status);
+                rejected[code] = REJECTED_STATUSES.contains(status);
+            }
+
+            PortfolioAggregationTask.Result result = ForkJoinPool.commonPool().invoke(new PortfolioAggregationTask(
+                    current, 0, current.size(), today.toEpochDay(), firstMonth, months, disbursed, decided, rejected));
+
+            return toSummary(current, result, firstMonth, months, (System.nanoTime() - started) / 1_000);
+        });
+    }
+
+    private PortfolioSummaryDTO toSummary(LoanPortfolioSnapshot current, PortfolioAggregationTask.Result result,
+                                          int firstMonth, int months, long computeMicros) {
+        LoanPortfolioSnapshot.Dictionary branches = current.getBranches();
+        List<BranchPortfolioDTO> branchDTOs = new ArrayList<>(branches.size());
+        long activeLoans = 0;
+        long totalOutstanding = 0;
+        for (int code = 0; code < branches.size(); code++) {
+            long decided = result.decidedByBranch[code];
+            long rejected = result.rejectedByBranch[code];
+            double rejectionRate = decided == 0 ? 0.0
+                    : BigDecimal.valueOf(rejected).divide(BigDecimal.valueOf(decided), 4, RoundingMode.HALF_UP).doubleValue();
+
+            branchDTOs.add(new BranchPortfolioDTO(
+                    (UUID) branches.keyOf(code),
+                    branches.labelOf(code),
+                    result.activeLoansByBranch[code],
+                    fromCents(result.outstandingCentsByBranch[code]),
+                    decided,
+                    rejected,
+                    rejectionRate));
+            activeLoans += result.activeLoansByBranch[code];
+            totalOutstanding += result.outstandingCentsByBranch[code];
+        }
+
+        List<MonthlyDisbursementDTO> monthly = new ArrayList<>(months);
+        for (int i = 0; i < months; i++) {
+            int monthIndex = firstMonth + i;
+            String label = String.format("%04d-%02d", monthIndex / 12, monthIndex % 12 + 1);
+            monthly.add(new MonthlyDisbursementDTO(label, result.disbursedCountByMonth[i], fromCents(result.disbursedCentsByMonth[i])));
+        }
+
+        List<DpdBucketDTO> dpdBuckets = new ArrayList<>(PortfolioAggregationTask.DPD_BUCKETS.length);
+        for (int i = 0; i < PortfolioAggregationTask.DPD_BUCKETS.length; i++) {
+            dpdBuckets.add(new DpdBucketDTO(PortfolioAggregationTask.DPD_BUCKETS[i], result.dpdCount[i], fromCents(result.dpdOutstandingCents[i])));
+        }
+
+        return PortfolioSummaryDTO.builder()
+                .snapshotBuiltAt(current.getBuiltAt())
+                .totalLoans(current.size())
+                .activeLoans(activeLoans)
+                .totalOutstandingPrincipal(fromCents(totalOutstanding))
+                .branches(branchDTOs)
+                .disbursedByMonth(monthly)
+                .dpdBuckets(dpdBuckets)
+                .computeMicros(computeMicros)
+                .build();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? LoanPortfolioSnapshot.NO_DATE : (int) date.toEpochDay();
+    }
+}
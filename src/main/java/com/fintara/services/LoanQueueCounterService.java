@@ -0,0 +1,162 @@
+package com.fintara.services;
+
+import com.fintara.events.LoanStatusChangedEvent;
+import com.fintara.repositories.LoanApprovalRepository;
+import com.fintara.repositories.LoanRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Counter "perlu dicek" dan "sudah dicek" untuk dashboard marketing, BM, dan back office.
+ * Counter disimpan di Redis dan diperbarui dari {@link LoanStatusChangedEvent} oleh LoanQueueFeedService,
+ * lalu nilainya dikirim ke dashboard yang sedang terhubung lewat SSE di setiap node.
+ * Counter diberi TTL, sehingga drift (misalnya review ganda) terkoreksi dari database saat key diisi ulang.
+ */
+@Service
+public class LoanQueueCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(LoanQueueCounterService.class);
+
+    public static final String LOAN_COUNTS_EVENT = "loan-counts";
+
+    private static final String TO_CHECK_MARKETING_PREFIX = "loan_counter:to_check:marketing:";
+    private static final String TO_CHECK_BM_PREFIX = "loan_counter:to_check:bm:";
+    private static final String TO_CHECK_BO_PREFIX = "loan_counter:to_check:bo:";
+    private static final String CHECKED_PREFIX = "loan_counter:checked:";
+    private static final Duration COUNTER_TTL = Duration.ofHours(1);
+
+    private static final Set<String> BRANCH_QUEUE_ROLES = Set.of("BRANCH_MANAGER", "BACK_OFFICE");
+
+    @Autowired
+    private RedisService redisService;
+    @Autowired
+    private LoanRequestRepository loanRequestRepository;
+    @Autowired
+    private LoanApprovalRepository loanApprovalRepository;
+    @Autowired
+    private StaffStreamService staffStreamService;
+
+    /**
+     * Counter untuk satu pegawai; kosong untuk role yang tidak punya antrian pengecekan.
+     */
+    public Map<String, Integer> getCounts(UUID userId, String role, UUID branchId) {
+        String toCheckKey = toCheckKeyForRole(role, userId, branchId);
+        if (toCheckKey == null) {
+            return Collections.emptyMap();
+        }
+        String checkedKey = CHECKED_PREFIX + userId;
+
+        List<String> values = null;
+        try {
+            values = redisService.getCounters(List.of(toCheckKey, checkedKey));
+        } catch (Exception e) {
+            logger.warn("Gagal membaca counter loan dari Redis: {}", e.getMessage());
+        }
+
+        int toCheck = values != null && values.get(0) != null
+                ? Integer.parseInt(values.get(0))
+                : seed(toCheckKey, countToCheckFromDatabase(role, userId, branchId));
+        int checked = values != null && values.get(1) != null
+                ? Integer.parseInt(values.get(1))
+                : seed(checkedKey, loanApprovalRepository.countDistinctLoanRequestByHandledBy(userId));
+
+        Map<String, Integer> result = new HashMap<>();
+        result.put("loanRequestsToCheck", toCheck);
+        result.put("loanRequestsCheckedByUser", checked);
+        return result;
+    }
+
+    /**
+     * Terapkan satu transisi status ke counter. Dipanggil setelah transaksi commit.
+     */
+    public void applyTransition(LoanStatusChangedEvent event) {
+        try {
+            String previousKey = toCheckKeyForStatus(event.previousStatus(), event.marketingId(), event.branchId());
+            String newKey = toCheckKeyForStatus(event.newStatus(), event.marketingId(), event.branchId());
+            if (!Objects.equals(previousKey, newKey)) {
+                if (previousKey != null) {
+                    redisService.incrementIfExists(previousKey, -1);
+                }
+                if (newKey != null) {
+                    redisService.incrementIfExists(newKey, 1);
+                }
+            }
+            // Transisi dari status sebelumnya berarti ada pegawai yang baru saja memproses loan ini
+            if (event.previousStatus() != null && event.handledById() != null) {
+                redisService.incrementIfExists(CHECKED_PREFIX + event.handledById(), 1);
+            }
+        } catch (Exception e) {
+            logger.warn("Gagal update counter loan {}: {}", event.loanRequestId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Kirim ulang counter ke koneksi SSE lokal milik user tertentu dan BM/BO di cabang tersebut.
+     */
+    public void pushCounts(Collection<UUID> affectedUsers, UUID branchId) {
+        if (!staffStreamService.hasSubscribers()) {
+            return;
+        }
+        for (StaffStreamService.Subscriber subscriber
+                : staffStreamService.subscribersFor(affectedUsers, branchId, BRANCH_QUEUE_ROLES)) {
+            Map<String, Integer> counts = getCounts(subscriber.userId(), subscriber.role(), subscriber.branchId());
+            if (!counts.isEmpty()) {
+                staffStreamService.send(subscriber, LOAN_COUNTS_EVENT, counts);
+            }
+        }
+    }
+
+    private int seed(String key, int actual) {
+        try {
+            redisService.setCounter(key, actual, COUNTER_TTL);
+        } catch (Exception e) {
+            logger.warn("Gagal menyimpan counter {}: {}", key, e.getMessage());
+        }
+        return actual;
+    }
+
+    private int countToCheckFromDatabase(String role, UUID userId, UUID branchId) {
+        return switch (role) {
+            case "MARKETING" -> loanRequestRepository.countByStatusNameAndMarketingId("REVIEW", userId);
+            case "BRANCH_MANAGER" -> loanRequestRepository.countByStatusNameAndBranchId("DIREKOMENDASIKAN_MARKETING", branchId);
+            case "BACK_OFFICE" -> loanRequestRepository.countByStatusNameAndBranchId("DISETUJUI_BM", branchId);
+            default -> 0;
+        };
+    }
+
+    private static String toCheckKeyForRole(String role, UUID userId, UUID branchId) {
+        if (role == null) {
+            return null;
+        }
+        return switch (role) {
+            case "MARKETING" -> TO_CHECK_MARKETING_PREFIX + userId;
+            case "BRANCH_MANAGER" -> branchId != null ? TO_CHECK_BM_PREFIX + branchId : null;
+            case "BACK_OFFICE" -> branchId != null ? TO_CHECK_BO_PREFIX + branchId : null;
+            default -> null;
+        };
+    }
+
+    // Status yang sedang menunggu pengecekan menentukan antrian (counter) mana yang berubah
+    private static String toCheckKeyForStatus(String status, UUID marketingId, UUID branchId) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case "REVIEW" -> marketingId != null ? TO_CHECK_MARKETING_PREFIX + marketingId : null;
+            case "DIREKOMENDASIKAN_MARKETING" -> branchId != null ? TO_CHECK_BM_PREFIX + branchId : null;
+            case "DISETUJUI_BM" -> branchId != null ? TO_CHECK_BO_PREFIX + branchId : null;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.fintara.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintara.dtos.loanRequestDTO.LoanQueueDeltaDTO;
+import com.fintara.dtos.loanRequestDTO.LoanRequestApprovalDTO;
+import com.fintara.enums.LoanQueueDeltaType;
+import com.fintara.events.LoanQueueMessage;
+import com.fintara.events.LoanStatusChangedEvent;
+import com.fintara.models.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Feed perubahan antrian kerja (marketing, BM, back office) lewat SSE.
+ * Setiap transisi status yang sudah commit dipublikasikan ke topic Redis per cabang,
+ * lalu setiap node meneruskan delta dan counter terbaru ke koneksi SSE miliknya.
+ */
+@Service
+public class LoanQueueFeedService implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(LoanQueueFeedService.class);
+
+    public static final String QUEUE_DELTA_EVENT = "queue-delta";
+
+    private static final String QUEUE_MARKETING = "MARKETING";
+    private static final String QUEUE_BRANCH_MANAGER = "BRANCH_MANAGER";
+    private static final String QUEUE_BACK_OFFICE = "BACK_OFFICE";
+
+    private static final String CHANNEL_PREFIX = "loan_queue:branch:";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private StaffStreamService staffStreamService;
+    @Autowired
+    private LoanQueueCounterService loanQueueCounterService;
+    @Autowired
+    private LoanRequestService loanRequestService;
+    @Autowired
+    private UserService userService;
+
+    @PostConstruct
+    public void registerListener() {
+        listenerContainer.addMessageListener(this, new PatternTopic(CHANNEL_PREFIX + "*"));
+    }
+
+    /**
+     * Buka stream antrian untuk pegawai yang login. Client memuat endpoint /all sekali,
+     * lalu menerapkan event "queue-delta" (dan "loan-counts") tanpa polling ulang.
+     */
+    public SseEmitter subscribe(User user) {
+        UUID branchId = userService.getBranchIdByUserId(user.getId());
+        return staffStreamService.subscribe(user.getId(), user.getRole().getName(), branchId).emitter();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanStatusChanged(LoanStatusChangedEvent event) {
+        // Counter diperbarui dulu supaya nilai yang dikirim node lain sudah termasuk transisi ini
+        loanQueueCounterService.applyTransition(event);
+
+        LoanQueueMessage message;
+        try {
+            message = new LoanQueueMessage(event.branchId(), event.marketingId(), event.handledById(), buildDeltas(event));
+        } catch (Exception e) {
+            logger.warn("Gagal menyusun delta antrian untuk loan {}: {}", event.loanRequestId(), e.getMessage());
+            return;
+        }
+
+        try {
+            redisTemplate.convertAndSend(CHANNEL_PREFIX + event.branchId(), objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            // Redis tidak tersedia: setidaknya koneksi di node ini tetap menerima perubahan
+            logger.warn("Gagal publish delta antrian loan {}: {}", event.loanRequestId(), e.getMessage());
+            dispatch(message);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            dispatch(objectMapper.readValue(body, LoanQueueMessage.class));
+        } catch (Exception e) {
+            logger.warn("Gagal memproses pesan antrian dari Redis: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(LoanQueueMessage message) {
+        if (!staffStreamService.hasSubscribers()) {
+            return;
+        }
+        for (LoanQueueDeltaDTO delta : message.deltas()) {
+            List<StaffStreamService.Subscriber> subscribers = QUEUE_MARKETING.equals(delta.getQueue())
+                    ? staffStreamService.subscribersFor(Collections.singletonList(message.marketingId()), null, Set.of())
+                    : staffStreamService.subscribersFor(List.of(), message.branchId(), Set.of(delta.getQueue()));
+            for (StaffStreamService.Subscriber subscriber : subscribers) {
+                staffStreamService.send(subscriber, QUEUE_DELTA_EVENT, delta);
+            }
+        }
+        loanQueueCounterService.pushCounts(Arrays.asList(message.marketingId(), message.handledById()), message.branchId());
+    }
+
+    private List<LoanQueueDeltaDTO> buildDeltas(LoanStatusChangedEvent event) {
+        List<LoanQueueDeltaDTO> deltas = new ArrayList<>(3);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Antrian marketing berisi semua pengajuan milik marketing tersebut
+        addDelta(deltas, QUEUE_MARKETING,
+                event.previousStatus() == null ? LoanQueueDeltaType.ADDED : LoanQueueDeltaType.STATUS_CHANGED, event, now);
+
+        // Antrian BM dan back office hanya berisi satu status
+        addMembershipDelta(deltas, QUEUE_BRANCH_MANAGER, "DIREKOMENDASIKAN_MARKETING", event, now);
+        addMembershipDelta(deltas, QUEUE_BACK_OFFICE, "DISETUJUI_BM", event, now);
+
+        // Baris lengkap hanya dimuat sekali, dan hanya jika ada delta yang membutuhkannya
+        if (deltas.stream().anyMatch(delta -> delta.getType() != LoanQueueDeltaType.REMOVED)) {
+            LoanRequestApprovalDTO row = loanRequestService.getLoanRequestApprovalDTO(event.loanRequestId());
+            for (LoanQueueDeltaDTO delta : deltas) {
+                if (delta.getType() != LoanQueueDeltaType.REMOVED) {
+                    delta.setLoanRequest(row);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    private static void addMembershipDelta(List<LoanQueueDeltaDTO> deltas, String queue, String queueStatus,
+                                           LoanStatusChangedEvent event, LocalDateTime now) {
+        boolean wasInQueue = queueStatus.equals(event.previousStatus());
+        boolean isInQueue = queueStatus.equals(event.newStatus());
+        if (!wasInQueue && isInQueue) {
+            addDelta(deltas, queue, LoanQueueDeltaType.ADDED, event, now);
+        } else if (wasInQueue && !isInQueue) {
+            addDelta(deltas, queue, LoanQueueDeltaType.REMOVED, event, now);
+        }
+    }
+
+    private static void addDelta(List<LoanQueueDeltaDTO> deltas, String queue, LoanQueueDeltaType type,
+                                 LoanStatusChangedEvent event, LocalDateTime now) {
+        deltas.add(LoanQueueDeltaDTO.builder()
+                .type(type)
+                .queue(queue)
+                .loanRequestId(event.loanRequestId())
+                .previousStatus(event.previousStatus())
+                .newStatus(event.newStatus())
+                .occurredAt(now)
+                .build());
+    }
+}
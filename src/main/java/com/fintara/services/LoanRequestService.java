@@ -2,14 +2,19 @@ package com.fintara.services;
 
 import com.fintara.dtos.loanRequestDTO.*;
 import com.fintara.enums.LoanStatusGroup;
+import com.fintara.events.LoanStatusChangedEvent;
 import com.fintara.exceptions.CustomException;
+import com.fintara.mappers.LoanRequestMapper;
+import com.fintara.metrics.Instrumentation;
 import com.fintara.models.*;
 import com.fintara.repositories.InterestPerTenorRepository;
 import com.fintara.repositories.LoanRequestRepository;
 import com.fintara.repositories.PlafondRepository;
+import io.micrometer.core.instrument.Tags;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -59,6 +64,15 @@ public class LoanRequestService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LoanRequestMapper loanRequestMapper;
+
+    @Autowired
+    private Instrumentation instrumentation;
+
     private User getAuthenticatedUser() {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = userDetails.getUsername();
@@ -163,23 +177,7 @@ public class LoanRequestService {
             throw new CustomException("Interest rate untuk tenor " + request.getTenor() + " pada plafond " + request.getPlafondName() + " tidak ditemukan.", HttpStatus.BAD_REQUEST);
         }
 
-        BigDecimal interestRate = interestOpt.get().getInterestRate();
-        BigDecimal feesAmount = request.getAmount().multiply(selectedPlafond.getFeeRate());
-        BigDecimal disbursedAmount = request.getAmount().subtract(feesAmount);
-        BigDecimal interestAmount = request.getAmount().multiply(interestRate);
-        BigDecimal totalRepayment = request.getAmount().add(interestAmount).add(feesAmount);
-        BigDecimal estimatedInstallment = totalRepayment.divide(BigDecimal.valueOf(request.getTenor()), 0, RoundingMode.CEILING);
-
-        return LoanPreviewResponseDTO.builder()
-                .requestedAmount(request.getAmount())
-                .disbursedAmount(disbursedAmount)
-                .tenor(request.getTenor())
-                .interestRate(interestRate)
-                .interestAmount(interestAmount)
-                .feesAmount(feesAmount)
-                .totalRepayment(totalRepayment)
-                .estimatedInstallment(estimatedInstallment)
-                .build();
+        return quote(request.getAmount(), request.getTenor(), interestOpt.get().getInterestRate(), selectedPlafond.getFeeRate());
     }
 
     /**
@@ -202,23 +200,7 @@ public class LoanRequestService {
             throw new CustomException("Interest rate untuk tenor " + request.getTenor() + " pada plafond default tidak ditemukan.", HttpStatus.BAD_REQUEST);
         }
 
-        BigDecimal interestRate = interestOpt.get().getInterestRate();
-        BigDecimal feesAmount = request.getAmount().multiply(defaultPlafond.getFeeRate());
-        BigDecimal disbursedAmount = request.getAmount().subtract(feesAmount);
-        BigDecimal interestAmount = request.getAmount().multiply(interestRate);
-        BigDecimal totalRepayment = request.getAmount().add(interestAmount).add(feesAmount);
-        BigDecimal estimatedInstallment = totalRepayment.divide(BigDecimal.valueOf(request.getTenor()), 0, RoundingMode.CEILING);
-
-        return LoanPreviewResponseDTO.builder()
-                .requestedAmount(request.getAmount())
-                .disbursedAmount(disbursedAmount)
-                .tenor(request.getTenor())
-                .interestRate(interestRate)
-                .interestAmount(interestAmount)
-                .feesAmount(feesAmount)
-                .totalRepayment(totalRepayment)
-                .estimatedInstallment(estimatedInstallment)
-                .build();
+        return quote(request.getAmount(), request.getTenor(), interestOpt.get().getInterestRate(), defaultPlafond.getFeeRate());
     }
 
     /**
@@ -250,23 +232,25 @@ public class LoanRequestService {
             throw new CustomException("Interest rate tidak ditemukan", HttpStatus.BAD_REQUEST);
         }
 
-        // Ambil disbursedAmount setelah dikurangi biaya admin (fees)
-        // Hitung bunga = amount * interestRate
-        BigDecimal disbursedAmount = requestDTO.getAmount().subtract(requestDTO.getAmount().multiply(customerPlafond.getFeeRate()));
-        BigDecimal interestRate = interestOpt.get().getInterestRate();
-        BigDecimal interestAmount = requestDTO.getAmount().multiply(interestRate);
-        //fee amount diambila dari fee_rate di plafond sesuai dengan plafond customer
-        BigDecimal feesAmount = requestDTO.getAmount().multiply(customerPlafond.getFeeRate());
-
-        BigDecimal totalRepayment = requestDTO.getAmount().add(interestAmount).add(feesAmount);
+        //fee amount diambil dari fee_rate di plafond sesuai dengan plafond customer
+        return quote(requestDTO.getAmount(), requestDTO.getTenor(), interestOpt.get().getInterestRate(), customerPlafond.getFeeRate());
+    }
 
-        // Hitung estimasi cicilan = totalRepayment / tenor
-        BigDecimal estimatedInstallment = totalRepayment.divide(BigDecimal.valueOf(requestDTO.getTenor()), 0, RoundingMode.CEILING);
+    /**
+     * Hitung estimasi pinjaman: biaya admin dipotong dari dana cair, bunga = amount * interestRate,
+     * dan cicilan = (amount + bunga + biaya) / tenor dibulatkan ke atas.
+     */
+    static LoanPreviewResponseDTO quote(BigDecimal amount, int tenor, BigDecimal interestRate, BigDecimal feeRate) {
+        BigDecimal feesAmount = amount.multiply(feeRate);
+        BigDecimal disbursedAmount = amount.subtract(feesAmount);
+        BigDecimal interestAmount = amount.multiply(interestRate);
+        BigDecimal totalRepayment = amount.add(interestAmount).add(feesAmount);
+        BigDecimal estimatedInstallment = totalRepayment.divide(BigDecimal.valueOf(tenor), 0, RoundingMode.CEILING);
 
         return LoanPreviewResponseDTO.builder()
-                .requestedAmount(requestDTO.getAmount())
+                .requestedAmount(amount)
                 .disbursedAmount(disbursedAmount)
-                .tenor(requestDTO.getTenor())
+                .tenor(tenor)
                 .interestRate(interestRate)
                 .interestAmount(interestAmount)
                 .feesAmount(feesAmount)
@@ -300,28 +284,16 @@ public class LoanRequestService {
             throw new CustomException("Anda masih memiliki pengajuan yang sedang diproses. Harap tunggu hingga pengajuan sebelumnya selesai.", HttpStatus.BAD_REQUEST);
         }
 
-        Plafond customerPlafond = validatePlafond(customerDetails, requestDTO.getAmount(), requestDTO.getTenor());
-
-        Optional<InterestPerTenor> interestOpt = interestPerTenorRepository.findByPlafondAndTenor(customerPlafond, requestDTO.getTenor())
-                .stream().findFirst();
-
-        if (interestOpt.isEmpty()) {
-            throw new CustomException("Interest rate untuk tenor " + requestDTO.getTenor() + " pada plafond "
-                    + customerPlafond.getName() + " tidak ditemukan.", HttpStatus.BAD_REQUEST);
-        }
-
-        BigDecimal interestRate = interestOpt.get().getInterestRate();
-
-        BigDecimal interestAmount = requestDTO.getAmount().multiply(interestRate);
+        Pricing pricing = instrumentation.stage(Instrumentation.LOAN_CREATE, "pricing",
+                () -> price(customerDetails, requestDTO));
 
-        BigDecimal feesAmount = requestDTO.getAmount().multiply(customerPlafond.getFeeRate());
-
-        UUID branchId = branchService.findNearestBranchWithMarketing(requestDTO.getLatitude(), requestDTO.getLongitude());
+        UUID branchId = instrumentation.stage(Instrumentation.LOAN_CREATE, "branch_search",
+                () -> branchService.findNearestBranchWithMarketing(requestDTO.getLatitude(), requestDTO.getLongitude()));
         if (branchId == null) {
             throw new CustomException("Tidak ada cabang terdekat", HttpStatus.BAD_REQUEST);
         }
 
-        User assignedMarketing = assignMarketing(branchId);
+        User assignedMarketing = instrumentation.stage(Instrumentation.LOAN_CREATE, "assignment", () -> assignMarketing(branchId));
 
         LoanStatus pendingStatus = loanStatusService.findByName("REVIEW");
 
@@ -333,18 +305,43 @@ public class LoanRequestService {
                 .marketing(assignedMarketing)
                 .requestDate(LocalDateTime.now())
                 .status(pendingStatus)
-                .plafond(customerPlafond)
-                .interestRate(interestRate)
-                .interestAmount(interestAmount)
-                .feesAmount(feesAmount)
+                .plafond(pricing.plafond())
+                .interestRate(pricing.interestRate())
+                .interestAmount(pricing.interestAmount())
+                .feesAmount(pricing.feesAmount())
                 .build();
 
         LoanRequest savedLoanRequest = loanRequestRepository.save(newRequest);
+        eventPublisher.publishEvent(LoanStatusChangedEvent.of(savedLoanRequest, null, currentUser.getId()));
 
-        return LoanRequestResponseDTO.fromEntity(savedLoanRequest);
+        return loanRequestMapper.toResponse(savedLoanRequest);
     }
 
 
+    private record Pricing(Plafond plafond, BigDecimal interestRate, BigDecimal interestAmount, BigDecimal feesAmount) {
+    }
+
+    // Validasi plafond & tenor, lalu hitung bunga dan biaya pengajuan
+    private Pricing price(CustomerDetails customerDetails, LoanRequestDTO requestDTO) {
+        Plafond customerPlafond = validatePlafond(customerDetails, requestDTO.getAmount(), requestDTO.getTenor());
+
+        Optional<InterestPerTenor> interestOpt = interestPerTenorRepository.findByPlafondAndTenor(customerPlafond, requestDTO.getTenor())
+                .stream().findFirst();
+
+        if (interestOpt.isEmpty()) {
+            throw new CustomException("Interest rate untuk tenor " + requestDTO.getTenor() + " pada plafond "
+                    + customerPlafond.getName() + " tidak ditemukan.", HttpStatus.BAD_REQUEST);
+        }
+
+        BigDecimal interestRate = interestOpt.get().getInterestRate();
+
+        BigDecimal interestAmount = requestDTO.getAmount().multiply(interestRate);
+
+        BigDecimal feesAmount = requestDTO.getAmount().multiply(customerPlafond.getFeeRate());
+
+        return new Pricing(customerPlafond, interestRate, interestAmount, feesAmount);
+    }
+
     private Plafond validatePlafond(CustomerDetails customerDetails, BigDecimal amount, int tenor) {
         Plafond plafond = customerDetails.getPlafond();
 
@@ -506,38 +503,30 @@ public class LoanRequestService {
     }
 
     /********** MARKETING APPROVAL **********/
-    private LoanRequestApprovalDTO convertToDTO(LoanRequest loanRequest) {
-        CustomerDetails customer = loanRequest.getCustomer();
-        User user = customer.getUser();
 
-        return LoanRequestApprovalDTO.builder()
-                .id(loanRequest.getId())
-                .customerName(user.getName())
-                .customerEmail(user.getEmail())
-                .customerPhone(customer.getNoTelp())
-                .customerAddress(customer.getAlamat())
-                .customerJob(customer.getPekerjaan())
-                .customerSalary(customer.getGaji())
-                .customerKtpPhotoUrl(customer.getKtpUrl())
-                .customerSelfieKtpPhotoUrl(customer.getSelfieKtpUrl())
-                .amount(loanRequest.getAmount())
-                .tenor(loanRequest.getTenor())
-                .status(loanRequest.getStatus().getName())
-                .requestDate(loanRequest.getRequestDate())
-                .build();
+    // Satu baris antrian approval, dipakai untuk delta feed antrian kerja
+    @Transactional
+    public LoanRequestApprovalDTO getLoanRequestApprovalDTO(UUID loanRequestId) {
+        return loanRequestRepository.findById(loanRequestId)
+                .map(loanRequestMapper::toApprovalQueueItem)
+                .orElse(null);
     }
 
-
     public List<LoanRequestApprovalDTO> getLoanRequestsByMarketing(UUID marketingId) {
         List<LoanRequest> loanRequests = loanRequestRepository.findByMarketingId(marketingId);
 
         return loanRequests.stream()
-                .map(this::convertToDTO)
+                .map(loanRequestMapper::toApprovalQueueItem)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public void reviewLoanRequest(UUID loanRequestId, UUID marketingId, String status, String notes, String notesIdentitas, String notesPlafond, String notesSummary) {
+        instrumentation.time(Instrumentation.LOAN_REVIEW, Tags.of("transition", "marketing"),
+                () -> applyMarketingReview(loanRequestId, marketingId, status, notes, notesIdentitas, notesPlafond, notesSummary));
+    }
+
+    private void applyMarketingReview(UUID loanRequestId, UUID marketingId, String status, String notes, String notesIdentitas, String notesPlafond, String notesSummary) {
         // 1️⃣ Ambil loan request yang bersangkutan
         LoanRequest loanRequest = loanRequestRepository.findById(loanRequestId)
                 .orElseThrow(() -> new CustomException("Loan request tidak ditemukan", HttpStatus.NOT_FOUND));
@@ -554,6 +543,7 @@ public class LoanRequestService {
         System.out.println("Notes Summary: " + notesSummary);
 
         // 3️⃣ Update status berdasarkan hasil review
+        String previousStatus = loanRequest.getStatus().getName();
         LoanStatus loanStatus = loanStatusService.findByName(status); // Status sudah diterima sebagai parameter
         loanRequest.setStatus(loanStatus);
         if ("DIREKOMENDASIKAN_MARKETING".equals(status)) {
@@ -576,6 +566,7 @@ public class LoanRequestService {
                 .build();
 
         loanApprovalService.save(loanApproval);
+        eventPublisher.publishEvent(LoanStatusChangedEvent.of(loanRequest, previousStatus, marketingId));
     }
 
 
@@ -589,12 +580,17 @@ public class LoanRequestService {
 
         // 3️⃣ Konversi ke DTO agar response lebih rapi
         return loanRequests.stream()
-                .map(this::convertToDTO)
+                .map(loanRequestMapper::toApprovalQueueItem)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public void reviewLoanRequestByBM(UUID loanRequestId, UUID branchManagerId, String status, String notes, String notesIdentitas, String notesPlafond, String notesSummary) {
+        instrumentation.time(Instrumentation.LOAN_REVIEW, Tags.of("transition", "branch_manager"),
+                () -> applyBranchManagerReview(loanRequestId, branchManagerId, status, notes, notesIdentitas, notesPlafond, notesSummary));
+    }
+
+    private void applyBranchManagerReview(UUID loanRequestId, UUID branchManagerId, String status, String notes, String notesIdentitas, String notesPlafond, String notesSummary) {
         // 1️⃣ Ambil loan request
         LoanRequest loanRequest = loanRequestRepository.findById(loanRequestId)
                 .orElseThrow(() -> new CustomException("Loan request tidak ditemukan", HttpStatus.NOT_FOUND));
@@ -606,6 +602,7 @@ public class LoanRequestService {
         }
 
         // 3️⃣ Update status berdasarkan review BM
+        String previousStatus = loanRequest.getStatus().getName();
         LoanStatus newStatus = loanStatusService.findByName(status); // Status sudah diterima sebagai parameter
         loanRequest.setStatus(newStatus);
         loanRequest.setApprovalBMAt(LocalDateTime.now()); // Timestamp approval BM
@@ -634,6 +631,7 @@ public class LoanRequestService {
                 .approvedAt(LocalDateTime.now())
                 .build();
         loanApprovalService.save(approvalRecord);
+        eventPublisher.publishEvent(LoanStatusChangedEvent.of(loanRequest, previousStatus, branchManagerId));
 
         // 5️⃣ Kirim notifikasi jika status approved
         if ("DISETUJUI_BM".equalsIgnoreCase(newStatus.getName())) {
@@ -655,13 +653,19 @@ public class LoanRequestService {
 
         // 3️⃣ Konversi ke DTO agar response lebih rapi
         return loanRequests.stream()
-                .map(this::convertToDTO)
+                .map(loanRequestMapper::toApprovalQueueItem)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public void disburseLoanRequest(UUID loanRequestId, UUID backOfficeId, String status, String notes, String notesIdentitas, String notesPlafond, String notesSummary) {
+        instrumentation.time(Instrumentation.LOAN_REVIEW, Tags.of("transition", "back_office"),
+                () -> applyBackOfficeDecision(loanRequestId, backOfficeId, status, notes, notesIdentitas, notesPlafond, notesSummary));
+    }
+
+    private void applyBackOfficeDecision(UUID loanRequestId, UUID backOfficeId, String status, String notes, String notesIdentitas, String notesPlafond, String notesSummary) {
         LoanRequest loanRequest = findAndValidateLoanRequest(loanRequestId, backOfficeId);
+        String previousStatus = loanRequest.getStatus().getName();
         LoanStatus targetStatus = loanStatusService.findByName(status);
 
         updateLoanRequestStatusAndCalculation(loanRequest, targetStatus);
@@ -673,6 +677,8 @@ public class LoanRequestService {
         } else {
             handleNonDisbursement(loanRequest);
         }
+
+        eventPublisher.publishEvent(LoanStatusChangedEvent.of(loanRequest, previousStatus, backOfficeId));
     }
 
     private LoanRequest findAndValidateLoanRequest(UUID loanRequestId, UUID backOfficeId) {
@@ -769,7 +775,7 @@ public class LoanRequestService {
         List<LoanRequest> loanRequests = loanRequestRepository.findAllByCustomer_User_IdAndStatus_NameIn(currentUser.getId(), statuses);
 
         return loanRequests.stream()
-                .map(LoanInProgressResponseDTO::fromEntity)
+                .map(loanRequestMapper::toInProgressResponse)
                 .collect(Collectors.toList());
     }
 
@@ -1,7 +1,9 @@
 package com.fintara.services;
 
+import com.fintara.metrics.Instrumentation;
 import com.midtrans.httpclient.SnapApi;
 import com.midtrans.httpclient.error.MidtransError;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -11,6 +13,9 @@ import java.util.UUID;
 @Service
 public class MidtransPaymentService {
 
+    @Autowired
+    private Instrumentation instrumentation;
+
     public String generateSnapToken(UUID repaymentScheduleId, long amount) throws MidtransError {
         Map<String, Object> params = new HashMap<>();
 
@@ -26,6 +31,6 @@ public class MidtransPaymentService {
         params.put("credit_card", creditCard);
 
         // Generate token dari Midtrans
-        return SnapApi.createTransactionToken(params);
+        return instrumentation.outbound("midtrans", "create_transaction_token", () -> SnapApi.createTransactionToken(params));
     }
 }
@@ -0,0 +1,185 @@
+package com.fintara.services;
+
+import com.fintara.dtos.notificationDTO.MarkNotificationsReadRequestDTO;
+import com.fintara.dtos.notificationDTO.NotificationInboxPageDTO;
+import com.fintara.dtos.notificationDTO.NotificationItemDTO;
+import com.fintara.exceptions.CustomException;
+import com.fintara.models.Notification;
+import com.fintara.repositories.NotificationRepository;
+import com.fintara.utils.AfterCommit;
+import com.fintara.utils.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inbox notifikasi in-app: riwayat notifikasi per user, supaya user yang melewatkan push tidak perlu
+ * memanggil endpoint status berulang-ulang.
+ *
+ * Notifikasi ditulis oleh {@link NotificationService} di transaksi yang memicunya, jadi ikut commit / rollback bersama
+ * perubahan itu dan tidak hilang walaupun antrian push penuh atau aplikasi restart sebelum flush. Jumlah belum dibaca disimpan di Redis per user; key yang belum ada dihitung ulang dari database saat dibaca,
+ * dan TTL-nya membatasi drift (misalnya karena pruning).
+ */
+@Service
+public class NotificationInboxService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationInboxService.class);
+
+    private static final String UNREAD_PREFIX = "notification_unread:";
+    private static final Duration UNREAD_TTL = Duration.ofDays(1);
+    private static final int FEED_DEFAULT_SIZE = 20;
+    private static final int FEED_MAX_SIZE = 100;
+    private static final int PRUNE_CHUNK_SIZE = 5000;
+
+    @Value("${notification.retention-days:90}")
+    private long retentionDays;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private RedisService redisService;
+    @Autowired
+    private UserService userService;
+
+    // Simpan notifikasi di transaksi pemanggil; jumlah belum dibaca di Redis baru dinaikkan setelah commit
+    public void append(UUID userId, String title, String body) {
+        notificationRepository.save(Notification.builder().userId(userId).title(title).body(body).build());
+        AfterCommit.run(() -> adjustUnread(userId, 1));
+    }
+
+    /**
+     * Feed notifikasi user yang login, terbaru dulu, dengan keyset pagination.
+     */
+    public NotificationInboxPageDTO getMyFeed(Integer size, String cursor) {
+        int pageSize = size == null ? FEED_DEFAULT_SIZE : size;
+        if (pageSize < 1 || pageSize > FEED_MAX_SIZE) {
+            throw new CustomException("Parameter size harus antara 1 dan " + FEED_MAX_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        UUID userId = userService.getAuthenticatedUserId();
+
+        // Ambil satu baris lebih untuk mengetahui apakah masih ada halaman berikutnya
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Notification> rows;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor decoded;
+            LocalDateTime afterCreatedAt;
+            try {
+                decoded = KeysetCursor.decode(cursor);
+                afterCreatedAt = LocalDateTime.parse(decoded.sortValue());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new CustomException("Cursor tidak valid", HttpStatus.BAD_REQUEST);
+            }
+            rows = notificationRepository.findFeedAfter(userId, afterCreatedAt, decoded.id(), limit);
+        } else {
+            rows = notificationRepository.findFeed(userId, limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Notification> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt().toString(), last.getId()).encode();
+        }
+        List<NotificationItemDTO> items = page.stream()
+                .map(notification -> NotificationItemDTO.builder()
+                        .id(notification.getId())
+                        .title(notification.getTitle())
+                        .body(notification.getBody())
+                        .createdAt(notification.getCreatedAt())
+                        .read(notification.getReadAt() != null)
+                        .build())
+                .toList();
+        return new NotificationInboxPageDTO(items, nextCursor, hasMore, unreadCount(userId));
+    }
+
+    public long getMyUnreadCount() {
+        return unreadCount(userService.getAuthenticatedUserId());
+    }
+
+    /**
+     * Tandai notifikasi tertentu (atau semua) milik user yang login sebagai dibaca.
+     *
+     * @return jumlah notifikasi yang masih belum dibaca
+     */
+    public long markMyNotificationsRead(MarkNotificationsReadRequestDTO request) {
+        UUID userId = userService.getAuthenticatedUserId();
+        LocalDateTime now = LocalDateTime.now();
+        if (request.isAll()) {
+            notificationRepository.markAllRead(userId, now);
+            // Hitung ulang dari database: notifikasi yang masuk bersamaan tidak ikut ter-reset
+            invalidateUnread(userId);
+        } else if (request.getIds() != null && !request.getIds().isEmpty()) {
+            int updated = notificationRepository.markRead(userId, request.getIds(), now);
+            adjustUnread(userId, -updated);
+        } else {
+            throw new CustomException("Isi ids atau all=true", HttpStatus.BAD_REQUEST);
+        }
+        return unreadCount(userId);
+    }
+
+    @Scheduled(cron = "0 0 4 * * ?") // setiap hari jam 04:00
+    public void pruneExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = notificationRepository.deleteOlderThan(cutoff, PRUNE_CHUNK_SIZE);
+            total += deleted;
+        } while (deleted == PRUNE_CHUNK_SIZE);
+        if (total > 0) {
+            logger.info("✅ {} notifikasi lebih lama dari {} hari dihapus", total, retentionDays);
+        }
+    }
+
+    private long unreadCount(UUID userId) {
+        String key = UNREAD_PREFIX + userId;
+        try {
+            String value = redisService.getCounters(List.of(key)).get(0);
+            if (value != null) {
+                return Math.max(0, Long.parseLong(value));
+            }
+        } catch (Exception e) {
+            logger.warn("Gagal membaca jumlah notifikasi belum dibaca dari Redis: {}", e.getMessage());
+        }
+
+        long actual = notificationRepository.countByUserIdAndReadAtIsNull(userId);
+        try {
+            redisService.setCounter(key, actual, UNREAD_TTL);
+        } catch (Exception e) {
+            logger.warn("Gagal menyimpan jumlah notifikasi belum dibaca: {}", e.getMessage());
+        }
+        return actual;
+    }
+
+    private void adjustUnread(UUID userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        try {
+            // Key yang belum ada tidak dibuat di sini, nanti diisi dari database saat dibaca
+            redisService.incrementIfExists(UNREAD_PREFIX + userId, delta);
+        } catch (Exception e) {
+            logger.warn("Gagal update jumlah notifikasi belum dibaca user {}: {}", userId, e.getMessage());
+            invalidateUnread(userId);
+        }
+    }
+
+    private void invalidateUnread(UUID userId) {
+        try {
+            redisService.deleteKey(UNREAD_PREFIX + userId);
+        } catch (Exception ignored) {
+            // TTL key akan mengoreksi nilai yang salah
+        }
+    }
+}
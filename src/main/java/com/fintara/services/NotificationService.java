@@ -1,7 +1,5 @@
 package com.fintara.services;
 
-import com.fintara.models.UserDeviceToken;
-import com.google.firebase.messaging.FirebaseMessagingException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.UUID;
@@ -10,26 +8,14 @@ import java.util.UUID;
 public class NotificationService {
 
     @Autowired
-    private FirebaseService firebaseService;
+    private PushDispatcherService pushDispatcherService;
     @Autowired
-    private UserDeviceTokenService userDeviceTokenService;
+    private NotificationInboxService notificationInboxService;
 
-    // Misal method ini di service yang meng-handle notifikasi
+    // Riwayat inbox ditulis di transaksi pemanggil; push diantrikan dan dikirim dalam batch oleh PushDispatcherService,
+    // pemanggil tidak menunggu FCM
     public void sendNotificationToUser(UUID userId, String title, String body) {
-        // Panggil service UserDeviceToken yang return UserDeviceToken (bisa null)
-        UserDeviceToken token = userDeviceTokenService.findById(userId);
-
-        if (token != null) {
-            try {
-                String fcmToken = token.getFcmToken();
-                firebaseService.sendNotification(fcmToken, title, body);
-            } catch (FirebaseMessagingException e) {
-                e.printStackTrace();
-            }
-        } else {
-            // User belum punya token device (belum login di device atau belum registrasi FCM)
-            System.out.println("User dengan ID " + userId + " belum punya FCM token.");
-            // Bisa handle lain, misal simpan log atau abaikan
-        }
+        notificationInboxService.append(userId, title, body);
+        pushDispatcherService.enqueue(userId, title, body);
     }
 }
@@ -28,6 +28,10 @@ public class PegawaiDetailsService {
     private BranchService branchService;
     @Autowired
     private RoleService roleService;
+    @Autowired
+    private EmployeeDirectoryService employeeDirectoryService;
+    @Autowired
+    private ProfileCacheService profileCacheService;
 
 
     public PegawaiDetailsService(PegawaiDetailsRepository pegawaiDetailsRepository) {
@@ -86,6 +90,8 @@ public class PegawaiDetailsService {
         // Simpan perubahan ke database
         savePegawaiDetails(pegawaiDetails);
         userService.saveUser(targetUser); // Simpan role jika diubah
+        employeeDirectoryService.refresh(targetUser.getId());
+        profileCacheService.evict(targetUser.getId());
 
         return "Pegawai details updated successfully!";
     }
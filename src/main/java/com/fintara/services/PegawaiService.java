@@ -1,6 +1,5 @@
 package com.fintara.services;
 
-import com.fintara.dtos.pegawaiDTO.PegawaiDetailsDTO;
 import com.fintara.dtos.pegawaiDTO.RegisterPegawaiRequestDTO;
 import com.fintara.dtos.pegawaiDTO.RegisterPegawaiResponseDTO;
 import com.fintara.dtos.pegawaiDTO.UpdatePegawaiRequestDTO;
@@ -8,6 +7,7 @@ import com.fintara.dtos.superAdminDTO.UserWithPegawaiResponseDTO;
 import com.fintara.enums.StatusPegawai;
 import com.fintara.enums.UserType;
 import com.fintara.exceptions.CustomException;
+import com.fintara.mappers.UserMapper;
 import com.fintara.models.Branch;
 import com.fintara.models.PegawaiDetails;
 import com.fintara.models.Role;
@@ -48,6 +48,14 @@ public class PegawaiService {
     private EmailService emailService;
     @Autowired
     private JwtUtils jwtUtils;
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    @Autowired
+    private EmployeeDirectoryService employeeDirectoryService;
+    @Autowired
+    private ProfileCacheService profileCacheService;
+    @Autowired
+    private UserMapper userMapper;
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -92,6 +100,9 @@ public class PegawaiService {
                 .user(pegawai)
                 .build();
         pegawaiRepository.save(pegawaiDetails);
+        dashboardCounterService.increment(DashboardCounterService.TOTAL_USERS);
+        dashboardCounterService.increment(DashboardCounterService.TOTAL_PEGAWAI);
+        employeeDirectoryService.refresh(pegawai.getId());
 
         emailService.sendInitialPasswordEmail(request.getEmail(), generatedPassword);
 
@@ -110,26 +121,9 @@ public class PegawaiService {
                 throw new CustomException("Tidak ada data pegawai yang ditemukan", HttpStatus.NOT_FOUND);
             }
 
-            return users.stream().map(user -> {
-                UserWithPegawaiResponseDTO response = new UserWithPegawaiResponseDTO();
-
-                response.setId(user.getId());
-                response.setName(user.getName());
-                response.setEmail(user.getEmail());
-
-                // Pastikan role tidak null sebelum diakses
-                if (user.getRole() != null) {
-                    response.setRole(user.getRole().getName());
-                } else {
-                    response.setRole("ROLE_UNKNOWN"); // Default jika role null
-                }
-
-                // Set PegawaiDetails jika ada
-                response.setPegawaiDetails(user.getPegawaiDetails() != null ?
-                        new PegawaiDetailsDTO(user.getPegawaiDetails()) : null);
-
-                return response;
-            }).collect(Collectors.toList());
+            return users.stream()
+                    .map(userMapper::toUserWithPegawai)
+                    .collect(Collectors.toList());
 
         } catch (CustomException e) {
             throw e; // CustomException tetap dilempar agar bisa ditangani oleh controller
@@ -141,18 +135,7 @@ public class PegawaiService {
 
     public UserWithPegawaiResponseDTO getPegawaiById(UUID userId) {
         User user = userService.getPegawaiUserById(userId);
-
-        UserWithPegawaiResponseDTO response = new UserWithPegawaiResponseDTO();
-        response.setId(user.getId());
-        response.setName(user.getName());
-        response.setEmail(user.getEmail());
-        response.setRole(user.getRole().getName());
-
-        // Konversi PegawaiDetails ke DTO jika ada
-        response.setPegawaiDetails(user.getPegawaiDetails() != null ?
-                new PegawaiDetailsDTO(user.getPegawaiDetails()) : null);
-
-        return response;
+        return userMapper.toUserWithPegawai(user);
     }
 
     public UserWithPegawaiResponseDTO getMyProfile() {
@@ -160,25 +143,9 @@ public class PegawaiService {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = userDetails.getUsername(); // Username biasanya adalah email atau ID pengguna
 
-        // Ambil User berdasarkan username
-        User user = userService.findByEmail(username);
-
-        return mapToUserWithPegawaiResponseDTO(user);
-    }
-
-    private UserWithPegawaiResponseDTO mapToUserWithPegawaiResponseDTO(User user) {
-        UserWithPegawaiResponseDTO response = new UserWithPegawaiResponseDTO();
-        response.setId(user.getId());
-        response.setFotoUrl(user.getFotoUrl());
-        response.setName(user.getName());
-        response.setEmail(user.getEmail());
-        response.setRole(user.getRole().getName());
-
-        if (user.getPegawaiDetails() != null) {
-            response.setPegawaiDetails(new PegawaiDetailsDTO(user.getPegawaiDetails()));
-        }
-
-        return response;
+        // Ambil User berdasarkan username hanya jika profil belum ada di cache
+        return profileCacheService.get(ProfileCacheService.PEGAWAI_ME, userService.getAuthenticatedUserId(),
+                UserWithPegawaiResponseDTO.class, () -> userMapper.toUserWithPegawai(userService.findByEmail(username)));
     }
 
     //Edit Data Pegawai
@@ -219,19 +186,10 @@ public class PegawaiService {
 
         // Simpan perubahan user
         userService.saveUser(targetUser);
+        employeeDirectoryService.refresh(targetUser.getId());
+        profileCacheService.evict(targetUser.getId());
 
-        // 🔄 Konversi ke response DTO tanpa constructor
-        UserWithPegawaiResponseDTO response = new UserWithPegawaiResponseDTO();
-        response.setId(targetUser.getId());
-        response.setName(targetUser.getName());
-        response.setEmail(targetUser.getEmail());
-        response.setRole(targetUser.getRole().getName());
-
-        if (targetUser.getPegawaiDetails() != null) {
-            response.setPegawaiDetails(new PegawaiDetailsDTO(targetUser.getPegawaiDetails()));
-        }
-
-        return response;
+        return userMapper.toUserWithPegawai(targetUser);
     }
 
 
@@ -239,6 +197,10 @@ public class PegawaiService {
     public void deletePegawai(UUID id) {
         User user = userService.getPegawaiUserById(id);
         userService.deleteUserById(user.getId());
+        dashboardCounterService.decrement(DashboardCounterService.TOTAL_USERS);
+        dashboardCounterService.decrement(DashboardCounterService.TOTAL_PEGAWAI);
+        employeeDirectoryService.remove(user.getId());
+        profileCacheService.evict(user.getId());
     }
 
     public Long count() {
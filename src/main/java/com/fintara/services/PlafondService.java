@@ -19,6 +19,9 @@ public class PlafondService {
     private final PlafondRepository plafondRepository;
     @Autowired
     private final NameNormalizer nameNormalizer;
+    private final DashboardCounterService dashboardCounterService;
+    @Autowired
+    private ProfileCacheService profileCacheService;
 
     public List<Plafond> getAllPlafonds() {
         return plafondRepository.findAllByOrderByMaxAmountAsc();
@@ -51,7 +54,9 @@ public class PlafondService {
             throw new CustomException("Minimal tenor tidak boleh lebih besar dari maksimal tenor", HttpStatus.BAD_REQUEST);
         }
 
-        return plafondRepository.save(request);
+        Plafond savedPlafond = plafondRepository.save(request);
+        dashboardCounterService.increment(DashboardCounterService.TOTAL_PLAFONDS);
+        return savedPlafond;
     }
 
     public Plafond updatePlafond(UUID id, Plafond request) {
@@ -76,7 +81,10 @@ public class PlafondService {
         existing.setMinTenor(request.getMinTenor());
         existing.setMaxTenor(request.getMaxTenor());
 
-        return plafondRepository.save(existing);
+        Plafond saved = plafondRepository.save(existing);
+        // Data plafond ikut tersimpan di profil customer yang di-cache
+        profileCacheService.evictAll();
+        return saved;
     }
 
     public Long count() {
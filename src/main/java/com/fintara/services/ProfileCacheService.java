@@ -0,0 +1,166 @@
+package com.fintara.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintara.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache profil per user dua tingkat: L1 Caffeine di memori node, L2 Redis berisi DTO dalam bentuk JSON.
+ *
+ * Saat miss, hanya satu thread per key per node yang memuat dari Redis / database (Caffeine menahan
+ * pemanggil lain sampai nilai siap), jadi lonjakan request ke profil yang sama tidak menjadi lonjakan query.
+ * Invalidasi dilakukan setelah commit: L1 dan L2 dihapus, lalu node lain diberi tahu lewat pub/sub Redis.
+ */
+@Service
+public class ProfileCacheService implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProfileCacheService.class);
+
+    public static final String CUSTOMER_ME = "customer_me";
+    public static final String PEGAWAI_ME = "pegawai_me";
+    public static final String CUSTOMER_PROFILE = "customer_profile";
+    private static final List<String> KINDS = List.of(CUSTOMER_ME, PEGAWAI_ME, CUSTOMER_PROFILE);
+
+    private static final String KEY_PREFIX = "profile_cache:";
+    private static final String INVALIDATE_CHANNEL = "profile_cache:invalidate";
+    private static final String INVALIDATE_ALL = "*";
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    @Value("${profile.cache.local-max-size:10000}")
+    private long localMaxSize;
+    @Value("${profile.cache.local-ttl-seconds:60}")
+    private long localTtlSeconds;
+    @Value("${profile.cache.redis-ttl-minutes:30}")
+    private long redisTtlMinutes;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    private Cache<String, Object> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * Ambil profil dari L1, lalu L2, dan baru memanggil loader (database) jika keduanya miss.
+     * Exception dari loader diteruskan ke pemanggil dan tidak disimpan di cache.
+     */
+    public <T> T get(String kind, UUID userId, Class<T> type, Supplier<T> loader) {
+        String key = kind + ":" + userId;
+        return type.cast(localCache.get(key, k -> loadThroughRedis(k, type, loader)));
+    }
+
+    private <T> T loadThroughRedis(String key, Class<T> type, Supplier<T> loader) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            if (json != null) {
+                return objectMapper.readValue(json, type);
+            }
+        } catch (Exception e) {
+            // Redis bermasalah: tetap layani dari database
+            logger.warn("Gagal membaca cache profil {} dari Redis: {}", key, e.getMessage());
+        }
+
+        T value = loader.get();
+        if (value != null) {
+            try {
+                redisTemplate.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(value), Duration.ofMinutes(redisTtlMinutes));
+            } catch (Exception e) {
+                logger.warn("Gagal menyimpan cache profil {} ke Redis: {}", key, e.getMessage());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Hapus semua profil milik satu user setelah transaksi yang sedang berjalan commit.
+     */
+    public void evict(UUID userId) {
+        afterCommit(() -> {
+            evictLocal(userId.toString());
+            List<String> keys = KINDS.stream().map(kind -> KEY_PREFIX + kind + ":" + userId).toList();
+            redisTemplate.delete(keys);
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, userId.toString());
+        });
+    }
+
+    // Untuk perubahan yang menyentuh banyak profil sekaligus (misalnya data plafond berubah)
+    public void evictAll() {
+        afterCommit(() -> {
+            evictLocal(INVALIDATE_ALL);
+            List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(DELETE_BATCH_SIZE).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == DELETE_BATCH_SIZE) {
+                        redisTemplate.delete(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                redisTemplate.delete(batch);
+            }
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, INVALIDATE_ALL);
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evictLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void evictLocal(String target) {
+        if (INVALIDATE_ALL.equals(target)) {
+            localCache.invalidateAll();
+            return;
+        }
+        // invalidate menunggu load yang sedang berjalan untuk key yang sama selesai, jadi hasil lama tidak tertinggal di L1
+        for (String kind : KINDS) {
+            localCache.invalidate(kind + ":" + target);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                // Entry yang gagal dihapus akan kedaluwarsa sendiri (TTL)
+                logger.warn("Gagal invalidasi cache profil: {}", e.getMessage());
+            }
+        };
+        AfterCommit.run(safeAction);
+    }
+}
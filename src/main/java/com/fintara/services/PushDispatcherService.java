@@ -0,0 +1,286 @@
+package com.fintara.services;
+
+import com.fintara.models.UserDeviceToken;
+import com.fintara.push.PushGateway;
+import com.fintara.push.PushGateway.PushMessage;
+import com.fintara.push.PushGateway.SendResult;
+import com.fintara.repositories.UserDeviceTokenRepository;
+import com.fintara.utils.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Antrian push notification yang dikirim dalam batch.
+ *
+ * Notifikasi dikumpulkan selama satu interval flush; notifikasi identik (user, judul, isi) dalam interval yang sama
+ * digabung menjadi satu. Saat flush, token semua user diambil dengan satu query lalu dikirim lewat
+ * {@link PushGateway#sendEach} per batch maksimal 500 pesan; batch-batch itu dikirim paralel di executor push.
+ * Token UNREGISTERED langsung dihapus, dan pesan yang gagal sementara dikirim ulang dengan backoff eksponensial
+ * sampai batas percobaan. Flush berkala dan pengiriman ulang dijadwalkan di scheduler aplikasi.
+ */
+@Service
+public class PushDispatcherService {
+    private static final Logger logger = LoggerFactory.getLogger(PushDispatcherService.class);
+
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+    // Batas parameter SQL Server 2100: satu flush bisa berisi sampai push.queue-capacity user
+    private static final int TOKEN_LOOKUP_CHUNK_SIZE = 1000;
+
+    private record PendingPush(UUID userId, String title, String body) {
+    }
+
+    private final PushGateway pushGateway;
+    private final UserDeviceTokenRepository userDeviceTokenRepository;
+    private final MeterRegistry meterRegistry;
+    private final Executor sendExecutor;
+    private final TaskScheduler taskScheduler;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long retryBaseDelayMs;
+    private final int queueCapacity;
+    private final long tokenTtlDays;
+
+    private final Object lock = new Object();
+    private LinkedHashSet<PendingPush> pending = new LinkedHashSet<>();
+    private ScheduledFuture<?> flushTask;
+    private Timer batchTimer;
+
+    public PushDispatcherService(PushGateway pushGateway,
+                                 UserDeviceTokenRepository userDeviceTokenRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("pushExecutor") Executor sendExecutor,
+                                 TaskScheduler taskScheduler,
+                                 @Value("${push.batch-size:500}") int batchSize,
+                                 @Value("${push.flush-interval-ms:500}") long flushIntervalMs,
+                                 @Value("${push.max-attempts:4}") int maxAttempts,
+                                 @Value("${push.retry-base-delay-ms:1000}") long retryBaseDelayMs,
+                                 @Value("${push.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${push.token.ttl-days:60}") long tokenTtlDays) {
+        this.pushGateway = pushGateway;
+        this.userDeviceTokenRepository = userDeviceTokenRepository;
+        this.meterRegistry = meterRegistry;
+        this.sendExecutor = sendExecutor;
+        this.taskScheduler = taskScheduler;
+        this.batchSize = Math.min(Math.max(1, batchSize), PushGateway.MAX_BATCH_SIZE);
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.queueCapacity = queueCapacity;
+        this.tokenTtlDays = tokenTtlDays;
+    }
+
+    @PostConstruct
+    public void init() {
+        batchTimer = Timer.builder("push.batch.duration").register(meterRegistry);
+        Gauge.builder("push.queue.size", this, dispatcher -> dispatcher.pendingCount()).register(meterRegistry);
+
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushQuietly,
+                Instant.now().plusMillis(flushIntervalMs), Duration.ofMillis(flushIntervalMs));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushTask.cancel(false);
+        flushQuietly();
+    }
+
+    /**
+     * Masukkan notifikasi ke antrian. Di dalam transaksi, notifikasi baru diantrikan setelah commit
+     * supaya user tidak diberi tahu tentang perubahan yang akhirnya di-rollback.
+     */
+    public void enqueue(UUID userId, String title, String body) {
+        PendingPush push = new PendingPush(userId, title, body);
+        AfterCommit.run(() -> add(push));
+    }
+
+    private void add(PendingPush push) {
+        synchronized (lock) {
+            if (pending.size() >= queueCapacity) {
+                count("dropped", 1);
+                logger.warn("Antrian push notification penuh ({}), notifikasi untuk user {} dibuang", queueCapacity, push.userId());
+                return;
+            }
+            if (!pending.add(push)) {
+                count("coalesced", 1);
+            }
+        }
+    }
+
+    // Kirim semua notifikasi yang sedang antri
+    public void flush() {
+        List<PendingPush> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending = new LinkedHashSet<>();
+        }
+
+        Set<UUID> uniqueUserIds = new LinkedHashSet<>();
+        batch.forEach(push -> uniqueUserIds.add(push.userId()));
+        List<UUID> userIds = new ArrayList<>(uniqueUserIds);
+        Map<UUID, List<String>> tokensByUser = new HashMap<>();
+        // Semua device aktif user (login dalam TTL token) menerima notifikasi
+        LocalDateTime activeSince = LocalDateTime.now().minusDays(tokenTtlDays);
+        for (int from = 0; from < userIds.size(); from += TOKEN_LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + TOKEN_LOOKUP_CHUNK_SIZE, userIds.size()));
+            for (UserDeviceToken token : userDeviceTokenRepository.findAllByUser_IdInAndLastLoginAfter(chunk, activeSince)) {
+                tokensByUser.computeIfAbsent(token.getUser().getId(), id -> new ArrayList<>()).add(token.getFcmToken());
+            }
+        }
+
+        List<PushMessage> messages = new ArrayList<>();
+        for (PendingPush push : batch) {
+            List<String> tokens = tokensByUser.get(push.userId());
+            if (tokens == null) {
+                // User belum punya token device aktif (belum login di device, belum registrasi FCM, atau token kedaluwarsa)
+                count("no_token", 1);
+                continue;
+            }
+            tokens.forEach(token -> messages.add(new PushMessage(token, push.title(), push.body())));
+        }
+        send(messages, 1);
+    }
+
+    private void send(List<PushMessage> messages, int attempt) {
+        List<Future<List<PushMessage>>> chunks = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<PushMessage> chunk = messages.subList(from, Math.min(from + batchSize, messages.size()));
+            FutureTask<List<PushMessage>> task = new FutureTask<>(() -> sendChunk(chunk));
+            sendExecutor.execute(task);
+            chunks.add(task);
+        }
+
+        List<PushMessage> retry = new ArrayList<>();
+        for (Future<List<PushMessage>> chunk : chunks) {
+            try {
+                retry.addAll(chunk.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Batch push notification gagal diproses: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        if (retry.isEmpty()) {
+            return;
+        }
+        if (attempt >= maxAttempts) {
+            count("failed", retry.size());
+            logger.warn("{} push notification gagal setelah {} percobaan", retry.size(), attempt);
+            return;
+        }
+        count("retried", retry.size());
+        long delay = backoffMs(attempt);
+        taskScheduler.schedule(() -> sendQuietly(retry, attempt + 1), Instant.now().plusMillis(delay));
+    }
+
+    // Kirim satu batch; kembalikan pesan yang perlu dikirim ulang
+    private List<PushMessage> sendChunk(List<PushMessage> chunk) {
+        List<SendResult> results;
+        try {
+            results = batchTimer.recordCallable(() -> pushGateway.sendEach(chunk));
+        } catch (Exception e) {
+            logger.warn("Batch push notification ({} pesan) gagal dikirim: {}", chunk.size(), e.getMessage());
+            return chunk;
+        }
+
+        List<PushMessage> retry = new ArrayList<>();
+        List<String> unregistered = new ArrayList<>();
+        int sent = 0;
+        int failed = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            SendResult result = results.get(i);
+            switch (result.outcome()) {
+                case SENT -> sent++;
+                case UNREGISTERED -> unregistered.add(chunk.get(i).token());
+                case RETRYABLE -> retry.add(chunk.get(i));
+                case FAILED -> {
+                    failed++;
+                    logger.warn("Push notification gagal dikirim: {}", result.error());
+                }
+            }
+        }
+        count("sent", sent);
+        count("failed", failed);
+        purge(unregistered);
+        return retry;
+    }
+
+    private void purge(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        count("unregistered", tokens.size());
+        try {
+            int deleted = userDeviceTokenRepository.deleteByFcmTokenIn(tokens);
+            logger.info("{} token FCM yang tidak terdaftar dihapus", deleted);
+        } catch (Exception e) {
+            // Token yang gagal dihapus akan terdeteksi lagi pada pengiriman berikutnya
+            logger.warn("Gagal menghapus token FCM yang tidak terdaftar: {}", e.getMessage());
+        }
+    }
+
+    // Backoff eksponensial dengan jitter: base, 2x base, 4x base, ... maksimal 60 detik
+    private long backoffMs(int attempt) {
+        long delay = Math.min(MAX_RETRY_DELAY_MS, retryBaseDelayMs << Math.min(attempt - 1, 20));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Flush push notification gagal: {}", e.getMessage(), e);
+        }
+    }
+
+    private void sendQuietly(List<PushMessage> messages, int attempt) {
+        try {
+            send(messages, attempt);
+        } catch (Exception e) {
+            logger.error("Pengiriman ulang push notification gagal: {}", e.getMessage(), e);
+        }
+    }
+
+    private int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private void count(String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter("push.messages", "outcome", outcome).increment(amount);
+        }
+    }
+}
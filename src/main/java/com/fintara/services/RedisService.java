@@ -2,9 +2,11 @@ package com.fintara.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -21,6 +23,11 @@ public class RedisService {
     private static final String VERIFY_EMAIL_PREFIX = "verify_email:";
     private static final long VERIFY_EMAIL_TTL_MINUTES = 5; // 15 menit
 
+    // INCRBY hanya jika key sudah ada; key yang belum ada diisi dari database oleh pemanggil
+    private static final DefaultRedisScript<Long> INCREMENT_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('INCRBY', KEYS[1], ARGV[1]) end return nil",
+            Long.class);
+
     // ---------- PEGAWAI ----------
     public void savePegawaiSession(String nip, String jwtToken) {
         redisTemplate.opsForValue().set(PEGAWAI_SESSION_PREFIX + nip, jwtToken, SESSION_TTL);
@@ -73,4 +80,30 @@ public class RedisService {
     public void removeEmailVerificationToken(String token) {
         redisTemplate.delete(VERIFY_EMAIL_PREFIX + token);
     }
+
+    // ---------- COUNTER ----------
+    /**
+     * Tambah/kurangi counter hanya jika key sudah ada (TTL tidak berubah).
+     *
+     * @return nilai baru, atau null jika key belum ada
+     */
+    public Long incrementIfExists(String key, long delta) {
+        return redisTemplate.execute(INCREMENT_IF_EXISTS, List.of(key), String.valueOf(delta));
+    }
+
+    public List<String> getCounters(List<String> keys) {
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
+    public void setCounter(String key, long value) {
+        redisTemplate.opsForValue().set(key, String.valueOf(value));
+    }
+
+    public void setCounter(String key, long value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, String.valueOf(value), ttl);
+    }
+
+    public void deleteKey(String key) {
+        redisTemplate.delete(key);
+    }
 }
@@ -1,6 +1,8 @@
 package com.fintara.services;
 
 import com.fintara.dtos.repaymentsDTO.RepaymentsScheduleDTO;
+import com.fintara.events.RepaymentAppliedEvent;
+import com.fintara.metrics.Instrumentation;
 import com.fintara.models.CustomerDetails;
 import com.fintara.models.LoanRequest;
 import com.fintara.models.Plafond;
@@ -8,9 +10,11 @@ import com.fintara.models.RepaymentSchedule;
 import com.fintara.repositories.CustomerDetailsRepository;
 import com.fintara.repositories.PlafondRepository;
 import com.fintara.repositories.RepaymentScheduleRepository;
+import io.micrometer.core.instrument.Tags;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +23,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,6 +42,12 @@ public class RepaymentScheduleService {
     @Autowired
     private PlafondService plafondService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Instrumentation instrumentation;
+
     // save
     public void save(RepaymentSchedule repaymentSchedule) {
         repaymentScheduleRepository.save(repaymentSchedule);
@@ -45,7 +56,7 @@ public class RepaymentScheduleService {
     @Scheduled(cron = "0 0 1 * * ?") // setiap hari jam 1 pagi
     @Transactional
     public void runDailyPenaltyUpdate() {
-        updatePenaltyForAllUnpaidSchedules();
+        instrumentation.time(Instrumentation.JOB_DURATION, Tags.of("job", "penalty"), this::updatePenaltyForAllUnpaidSchedules);
     }
 
     public void updatePenaltyForAllUnpaidSchedules() {
@@ -55,21 +66,30 @@ public class RepaymentScheduleService {
         for (RepaymentSchedule schedule : overdueSchedules) {
             long daysLate = ChronoUnit.DAYS.between(schedule.getDueDate(), LocalDate.now());
 
-            // 5% dari angsuran per hari keterlambatan
-            BigDecimal dailyPenalty = schedule.getAmountToPay()
-                    .multiply(BigDecimal.valueOf(0.05));
-
-            BigDecimal penalty = dailyPenalty.multiply(BigDecimal.valueOf(daysLate));
-
             schedule.setIsLate(true);
-            schedule.setPenaltyAmount(penalty);
+            schedule.setPenaltyAmount(penalty(schedule.getAmountToPay(), daysLate));
         }
 
         repaymentScheduleRepository.saveAll(overdueSchedules);
     }
 
+    // 5% dari angsuran per hari keterlambatan
+    static BigDecimal penalty(BigDecimal amountToPay, long daysLate) {
+        BigDecimal dailyPenalty = amountToPay.multiply(BigDecimal.valueOf(0.05));
+        return dailyPenalty.multiply(BigDecimal.valueOf(daysLate));
+    }
+
     @Transactional
     public void generateRepaymentSchedulesForLoan(LoanRequest loanRequest) {
+        instrumentation.time(Instrumentation.LOAN_SCHEDULE_GENERATE, Tags.empty(), () -> generateSchedules(loanRequest));
+    }
+
+    private void generateSchedules(LoanRequest loanRequest) {
+        repaymentScheduleRepository.saveAll(buildSchedules(loanRequest, LocalDate.now()));
+    }
+
+    // Jadwal cicilan bulanan mulai satu bulan setelah startDate
+    static List<RepaymentSchedule> buildSchedules(LoanRequest loanRequest, LocalDate startDate) {
         BigDecimal principal = loanRequest.getAmount(); // dana yang diajukan konsumen
         int tenor = loanRequest.getTenor();
 
@@ -89,19 +109,46 @@ public class RepaymentScheduleService {
         BigDecimal installmentAmount = totalRepayment
                 .divide(BigDecimal.valueOf(tenor), 2, RoundingMode.HALF_UP);
 
+        List<RepaymentSchedule> schedules = new ArrayList<>(tenor);
         for (int i = 1; i <= tenor; i++) {
-            RepaymentSchedule schedule = RepaymentSchedule.builder()
+            schedules.add(RepaymentSchedule.builder()
                     .loanRequest(loanRequest)
                     .installmentNumber(i)
                     .amountToPay(installmentAmount)
                     .amountPaid(BigDecimal.ZERO)
-                    .dueDate(LocalDate.now().plusMonths(i))
+                    .dueDate(startDate.plusMonths(i))
                     .isLate(false)
                     .penaltyAmount(BigDecimal.ZERO)
-                    .build();
+                    .build());
+        }
+        return schedules;
+    }
 
-            repaymentScheduleRepository.save(schedule);
+    /**
+     * Menandai jadwal cicilan lunas berdasarkan settlement Midtrans.
+     * Dipakai bersama oleh callback Midtrans dan job rekonsiliasi settlement,
+     * dan aman dipanggil berulang: settlement yang sama tidak diterapkan dua kali.
+     *
+     * @return true jika jadwal berubah, false jika settlement sudah pernah diterapkan
+     */
+    @Transactional
+    public boolean applySettlement(UUID scheduleId, BigDecimal grossAmount, LocalDate paidAt) {
+        RepaymentSchedule schedule = repaymentScheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new IllegalArgumentException("Schedule not found"));
+
+        if (schedule.getPaidAt() != null
+                && schedule.getAmountPaid() != null
+                && schedule.getAmountPaid().compareTo(grossAmount) == 0) {
+            return false;
         }
+
+        schedule.setAmountPaid(grossAmount);
+        schedule.setPaidAt(paidAt);
+        schedule.setIsLate(false);
+        repaymentScheduleRepository.save(schedule);
+
+        eventPublisher.publishEvent(new RepaymentAppliedEvent(schedule.getId(), schedule.getLoanRequest().getId(), grossAmount));
+        return true;
     }
 
     // Pembayaran Cicilan
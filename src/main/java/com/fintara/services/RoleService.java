@@ -34,6 +34,10 @@ public class RoleService {
     private RoleFeatureService roleFeatureService;
     @Autowired
     private NameNormalizer nameNormalizer;
+    @Autowired
+    private DashboardCounterService dashboardCounterService;
+    @Autowired
+    private ProfileCacheService profileCacheService;
 
     public Role getRoleByName(String roleName) {
         return roleRepository.findByName(roleName)
@@ -67,7 +71,9 @@ public class RoleService {
             throw new CustomException("Role sudah ada!", HttpStatus.BAD_REQUEST);
         }
 
-        return ResponseEntity.ok(roleRepository.save(role));
+        Role savedRole = roleRepository.save(role);
+        dashboardCounterService.increment(DashboardCounterService.TOTAL_ROLES);
+        return ResponseEntity.ok(savedRole);
     }
 
     public void editRole(UUID id, RoleUpdateRequest request) {
@@ -92,6 +98,8 @@ public class RoleService {
 
         role.setRoleFeatures(newRoleFeatures);
         roleRepository.save(role);
+        // Nama role ikut tersimpan di profil yang di-cache
+        profileCacheService.evictAll();
     }
 
     public ResponseEntity<Map<String, String>> deleteRole(UUID id) {
@@ -99,6 +107,7 @@ public class RoleService {
                 .orElseThrow(() -> new CustomException("Role tidak ditemukan!", HttpStatus.NOT_FOUND));
 
         roleRepository.delete(role);
+        dashboardCounterService.decrement(DashboardCounterService.TOTAL_ROLES);
 
         return ResponseEntity.ok(Map.of("message", "Role berhasil dihapus!"));
     }
@@ -0,0 +1,233 @@
+package com.fintara.services;
+
+import com.fintara.dtos.repaymentsDTO.SettlementMismatchDTO;
+import com.fintara.dtos.repaymentsDTO.SettlementReconciliationReportDTO;
+import com.fintara.enums.SettlementMismatchType;
+import com.fintara.exceptions.CustomException;
+import com.fintara.repositories.RepaymentScheduleRepository;
+import com.fintara.repositories.RepaymentSettlementView;
+import com.fintara.utils.SettlementCsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rekonsiliasi file settlement Midtrans terhadap repayment_schedules.
+ * Baris CSV dikumpulkan ke batch berukuran tetap (array primitif), lalu dicocokkan
+ * ke database per batch dengan id terurut, sehingga memori tidak bergantung pada ukuran file.
+ * Perbaikan memakai {@link RepaymentScheduleService#applySettlement} yang sama dengan callback Midtrans.
+ */
+@Service
+public class SettlementReconciliationService {
+    private static final Logger logger = LoggerFactory.getLogger(SettlementReconciliationService.class);
+
+    private static final int BATCH_SIZE = 1000; // aman di bawah batas 2100 parameter SQL Server
+    private static final int MAX_REPORTED_MISMATCHES = 500;
+
+    @Autowired
+    private RepaymentScheduleRepository repaymentScheduleRepository;
+
+    @Autowired
+    private RepaymentScheduleService repaymentScheduleService;
+
+    @Value("${reconciliation.inbox-dir}")
+    private String inboxDir;
+
+    public SettlementReconciliationReportDTO reconcileFromInbox(String fileName, boolean repair) {
+        Path inbox = Paths.get(inboxDir).toAbsolutePath().normalize();
+        Path file = inbox.resolve(fileName).normalize();
+
+        // Cegah path traversal keluar dari folder inbox
+        if (!file.startsWith(inbox) || !Files.isRegularFile(file)) {
+            throw new CustomException("File settlement " + fileName + " tidak ditemukan", HttpStatus.NOT_FOUND);
+        }
+        return reconcile(file, repair);
+    }
+
+    public SettlementReconciliationReportDTO reconcile(Path file, boolean repair) {
+        long startedAt = System.currentTimeMillis();
+        ReconciliationRun run = new ReconciliationRun(repair);
+
+        try {
+            new SettlementCsvReader().read(file, run::accept);
+        } catch (IllegalArgumentException e) {
+            throw new CustomException(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IOException e) {
+            logger.error("Gagal membaca file settlement {}", file, e);
+            throw new CustomException("Gagal membaca file settlement", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        run.flush();
+
+        SettlementReconciliationReportDTO report = run.toReport(file.getFileName().toString(),
+                System.currentTimeMillis() - startedAt);
+        logger.info("✅ Rekonsiliasi {} selesai: {} baris, {} cocok, {} belum diterapkan, {} beda nominal, {} tidak dikenal, {} diperbaiki",
+                report.getFileName(), report.getTotalRows(), report.getMatchedRows(), report.getPaidNotApplied(),
+                report.getAmountMismatches(), report.getUnknownOrders(), report.getRepairedRows());
+        return report;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * State satu kali proses rekonsiliasi. Batch disimpan di array primitif
+     * yang dipakai ulang, UUID baru dibuat saat batch dikirim ke database.
+     */
+    private class ReconciliationRun {
+        private final boolean repair;
+
+        private final long[] msb = new long[BATCH_SIZE];
+        private final long[] lsb = new long[BATCH_SIZE];
+        private final long[] cents = new long[BATCH_SIZE];
+        private final long[] lineNumbers = new long[BATCH_SIZE];
+        private final long[] epochDays = new long[BATCH_SIZE];
+        private int size;
+
+        private long totalRows;
+        private long paidRows;
+        private long skippedRows;
+        private long malformedRows;
+        private long matchedRows;
+        private long paidNotApplied;
+        private long amountMismatches;
+        private long unknownOrders;
+        private long repairedRows;
+        private final List<SettlementMismatchDTO> mismatches = new ArrayList<>();
+        private boolean truncated;
+
+        ReconciliationRun(boolean repair) {
+            this.repair = repair;
+        }
+
+        void accept(SettlementCsvReader.SettlementRow row) {
+            totalRows++;
+            if (!row.isValid()) {
+                malformedRows++;
+                if (malformedRows <= 10) {
+                    logger.warn("Baris settlement {} dilewati: {}", row.getLineNumber(), row.getError());
+                }
+                return;
+            }
+            if (!row.isPaid()) {
+                skippedRows++;
+                return;
+            }
+
+            paidRows++;
+            msb[size] = row.getOrderIdMsb();
+            lsb[size] = row.getOrderIdLsb();
+            cents[size] = row.getAmountCents();
+            lineNumbers[size] = row.getLineNumber();
+            epochDays[size] = row.getSettlementEpochDay();
+            size++;
+
+            if (size == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (size == 0) {
+                return;
+            }
+
+            List<UUID> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(new UUID(msb[i], lsb[i]));
+            }
+
+            Map<UUID, RepaymentSettlementView> schedules = new HashMap<>(size * 2);
+            for (RepaymentSettlementView view : repaymentScheduleRepository.findSettlementViewsByIdIn(ids)) {
+                schedules.put(view.getId(), view);
+            }
+
+            for (int i = 0; i < size; i++) {
+                UUID id = ids.get(i);
+                RepaymentSettlementView schedule = schedules.get(id);
+
+                if (schedule == null) {
+                    unknownOrders++;
+                    record(i, id, SettlementMismatchType.UNKNOWN_ORDER, null, false);
+                    continue;
+                }
+
+                if (schedule.getPaidAt() == null) {
+                    paidNotApplied++;
+                    record(i, id, SettlementMismatchType.PAID_NOT_APPLIED, schedule.getAmountPaid(), applyRepair(i, id));
+                } else if (schedule.getAmountPaid() == null || toCents(schedule.getAmountPaid()) != cents[i]) {
+                    amountMismatches++;
+                    record(i, id, SettlementMismatchType.AMOUNT_MISMATCH, schedule.getAmountPaid(), applyRepair(i, id));
+                } else {
+                    matchedRows++;
+                }
+            }
+
+            size = 0;
+        }
+
+        private boolean applyRepair(int i, UUID id) {
+            if (!repair) {
+                return false;
+            }
+            LocalDate paidAt = epochDays[i] >= 0 ? LocalDate.ofEpochDay(epochDays[i]) : LocalDate.now();
+            try {
+                boolean changed = repaymentScheduleService.applySettlement(id, fromCents(cents[i]), paidAt);
+                if (changed) {
+                    repairedRows++;
+                }
+                return changed;
+            } catch (Exception e) {
+                logger.error("Gagal memperbaiki jadwal {} dari baris settlement {}", id, lineNumbers[i], e);
+                return false;
+            }
+        }
+
+        private void record(int i, UUID id, SettlementMismatchType type, BigDecimal recordedAmount, boolean repaired) {
+            if (mismatches.size() >= MAX_REPORTED_MISMATCHES) {
+                truncated = true;
+                return;
+            }
+            mismatches.add(new SettlementMismatchDTO(lineNumbers[i], id, type, fromCents(cents[i]), recordedAmount, repaired));
+        }
+
+        SettlementReconciliationReportDTO toReport(String fileName, long durationMs) {
+            return SettlementReconciliationReportDTO.builder()
+                    .fileName(fileName)
+                    .repair(repair)
+                    .totalRows(totalRows)
+                    .paidRows(paidRows)
+                    .skippedRows(skippedRows)
+                    .malformedRows(malformedRows)
+                    .matchedRows(matchedRows)
+                    .paidNotApplied(paidNotApplied)
+                    .amountMismatches(amountMismatches)
+                    .unknownOrders(unknownOrders)
+                    .repairedRows(repairedRows)
+                    .durationMs(durationMs)
+                    .mismatches(mismatches)
+                    .mismatchesTruncated(truncated)
+                    .build();
+        }
+    }
+}
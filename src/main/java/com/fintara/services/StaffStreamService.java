@@ -0,0 +1,112 @@
+package com.fintara.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry koneksi SSE milik pegawai yang sedang membuka dashboard.
+ * Setiap koneksi dicatat per user dan per cabang, sehingga event bisa dikirim
+ * ke user tertentu atau ke seluruh pegawai di satu cabang.
+ */
+@Service
+public class StaffStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(StaffStreamService.class);
+
+    // Browser (EventSource) otomatis reconnect setelah timeout
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    public record Subscriber(UUID userId, String role, UUID branchId, SseEmitter emitter) {
+    }
+
+    private final Map<UUID, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscriber>> subscribersByBranch = new ConcurrentHashMap<>();
+
+    public Subscriber subscribe(UUID userId, String role, UUID branchId) {
+        Subscriber subscriber = new Subscriber(userId, role, branchId, new SseEmitter(STREAM_TIMEOUT_MS));
+
+        subscribersByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        if (branchId != null) {
+            subscribersByBranch.computeIfAbsent(branchId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        subscriber.emitter().onCompletion(() -> remove(subscriber));
+        subscriber.emitter().onTimeout(() -> remove(subscriber));
+        subscriber.emitter().onError(error -> remove(subscriber));
+
+        logger.debug("Stream dashboard dibuka untuk user {}", userId);
+        return subscriber;
+    }
+
+    /**
+     * Subscriber milik user-user tertentu ditambah subscriber di cabang dengan role tertentu.
+     */
+    public List<Subscriber> subscribersFor(Collection<UUID> userIds, UUID branchId, Set<String> branchRoles) {
+        List<Subscriber> result = new ArrayList<>();
+        for (UUID userId : userIds) {
+            if (userId != null) {
+                result.addAll(subscribersByUser.getOrDefault(userId, Set.of()));
+            }
+        }
+        if (branchId != null) {
+            for (Subscriber subscriber : subscribersByBranch.getOrDefault(branchId, Set.of())) {
+                if (branchRoles.contains(subscriber.role()) && !result.contains(subscriber)) {
+                    result.add(subscriber);
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribersByUser.isEmpty();
+    }
+
+    public void send(Subscriber subscriber, String eventName, Object data) {
+        try {
+            subscriber.emitter().send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Koneksi sudah ditutup browser
+            remove(subscriber);
+        }
+    }
+
+    // Komentar SSE berkala supaya proxy tidak memutus koneksi idle dan koneksi mati cepat terdeteksi
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                try {
+                    subscriber.emitter().send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(subscriber);
+                }
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        removeFrom(subscribersByUser, subscriber.userId(), subscriber);
+        if (subscriber.branchId() != null) {
+            removeFrom(subscribersByBranch, subscriber.branchId(), subscriber);
+        }
+    }
+
+    private static void removeFrom(Map<UUID, Set<Subscriber>> index, UUID key, Subscriber subscriber) {
+        index.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
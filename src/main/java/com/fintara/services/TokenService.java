@@ -24,7 +24,7 @@ public class TokenService {
     @Autowired
     private BlacklistedTokenRepository blacklistedTokenRepository;
 
-    private String hashToken(String token) {
+    static String hashToken(String token) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] encodedHash = digest.digest(token.getBytes());
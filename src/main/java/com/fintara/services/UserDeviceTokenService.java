@@ -1,42 +1,137 @@
 package com.fintara.services;
 
 import com.fintara.models.User;
-import com.fintara.models.UserDeviceToken;
 import com.fintara.repositories.UserDeviceTokenRepository;
-import jakarta.transaction.Transactional;
+import com.fintara.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Token FCM per device. User bisa aktif di beberapa device; setiap login mendaftarkan token device itu.
+ *
+ * Token baru (atau device info / pemilik yang berubah) langsung ditulis dengan satu upsert supaya notifikasi berikutnya sampai.
+ * Login ulang dari device yang sudah dikenal hanya memperbarui lastLogin, dan itu ditulis belakangan per batch. Saat flush,
+ * token yang ternyata sudah dipindahkan ke user lain (misalnya lewat node lain) di-upsert kembali ke user yang login.
+ * Token yang tidak dipakai login melewati TTL dianggap tidak aktif: tidak dikirimi notifikasi dan dihapus berkala.
+ */
 @Service
 public class UserDeviceTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(UserDeviceTokenService.class);
+
+    // Batas parameter SQL Server 2100, sisakan ruang untuk parameter lain
+    private static final int TOUCH_CHUNK_SIZE = 1000;
+
+    // Pemilik token dan device info terakhir yang diketahui node ini
+    private record DeviceOwner(UUID userId, String deviceInfo) {
+    }
+
+    @Value("${push.token.ttl-days:60}")
+    private long tokenTtlDays;
+    @Value("${push.token.known-cache-size:100000}")
+    private long knownCacheSize;
+    @Value("${push.token.known-cache-ttl-minutes:60}")
+    private long knownCacheTtlMinutes;
 
     @Autowired
     private UserDeviceTokenRepository userDeviceTokenRepository;
 
-    @Transactional
-    public void saveOrReplaceToken(User user, String fcmToken, String deviceInfo) {
-        // Hapus token lama
-        userDeviceTokenRepository.deleteByUser_Id(user.getId());
+    // Token yang sudah tercatat di database beserta pemiliknya. Satu token hanya dimiliki satu user, jadi key-nya token saja:
+    // login user lain di device yang sama menimpa entri ini.
+    private Cache<String, DeviceOwner> knownDevices;
+    private final Map<String, DeviceOwner> pendingTouches = new ConcurrentHashMap<>();
 
-        // Paksa flush supaya delete langsung dieksekusi ke DB
-        userDeviceTokenRepository.flush();
+    @PostConstruct
+    public void init() {
+        knownDevices = Caffeine.newBuilder()
+                .maximumSize(knownCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(knownCacheTtlMinutes))
+                .build();
+    }
 
-        // Simpan token baru
-        UserDeviceToken token = new UserDeviceToken();
-        token.setUser(user);
-        token.setFcmToken(fcmToken);
-        token.setDeviceInfo(deviceInfo);
-        token.setLastLogin(LocalDateTime.now());
+    @PreDestroy
+    public void shutdown() {
+        flushLastLogins();
+    }
 
-        userDeviceTokenRepository.save(token);
+    public void registerToken(User user, String fcmToken, String deviceInfo) {
+        DeviceOwner owner = new DeviceOwner(user.getId(), Objects.toString(deviceInfo, ""));
+        if (owner.equals(knownDevices.getIfPresent(fcmToken))) {
+            pendingTouches.put(fcmToken, owner);
+            return;
+        }
+
+        userDeviceTokenRepository.upsert(user.getId(), fcmToken, deviceInfo, LocalDateTime.now());
+
+        // Tandai dikenal setelah commit; kalau login di-rollback, login berikutnya meng-upsert lagi
+        AfterCommit.run(() -> knownDevices.put(fcmToken, owner));
     }
 
+    // Tulis lastLogin device yang login ulang sejak flush terakhir
+    @Scheduled(fixedDelayString = "${push.token.touch-flush-interval-ms:30000}")
+    public void flushLastLogins() {
+        Map<String, DeviceOwner> batch = new HashMap<>();
+        for (String token : pendingTouches.keySet()) {
+            DeviceOwner owner = pendingTouches.remove(token);
+            if (owner != null) {
+                batch.put(token, owner);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> tokens = new ArrayList<>(batch.keySet());
+        int touched = 0;
+        int reassigned = 0;
+        for (int from = 0; from < tokens.size(); from += TOUCH_CHUNK_SIZE) {
+            List<String> chunk = tokens.subList(from, Math.min(from + TOUCH_CHUNK_SIZE, tokens.size()));
+
+            // Cache tiap node bisa basi: token yang sudah dipindahkan ke user lain tidak cukup di-touch
+            Map<String, UUID> currentOwners = new HashMap<>();
+            userDeviceTokenRepository.findOwnersByFcmTokenIn(chunk)
+                    .forEach(view -> currentOwners.put(view.getFcmToken(), view.getUserId()));
+            List<String> owned = new ArrayList<>();
+            for (String token : chunk) {
+                DeviceOwner owner = batch.get(token);
+                if (owner.userId().equals(currentOwners.get(token))) {
+                    owned.add(token);
+                } else {
+                    userDeviceTokenRepository.upsert(owner.userId(), token, owner.deviceInfo(), now);
+                    reassigned++;
+                }
+            }
+            if (!owned.isEmpty()) {
+                touched += userDeviceTokenRepository.touch(owned, now);
+            }
+        }
+        logger.debug("lastLogin {} device diperbarui, {} token dikembalikan ke user yang login ({} token)",
+                touched, reassigned, batch.size());
+    }
 
-    //find by id
-    public UserDeviceToken findById(UUID id) {
-        return userDeviceTokenRepository.findByUser_Id(id).orElse(null);
+    @Scheduled(cron = "0 30 3 * * ?") // setiap hari jam 03:30
+    public void purgeExpiredTokens() {
+        int deleted = userDeviceTokenRepository.deleteExpired(LocalDateTime.now().minusDays(tokenTtlDays));
+        if (deleted > 0) {
+            logger.info("✅ {} token device yang tidak aktif dihapus", deleted);
+        }
     }
 }
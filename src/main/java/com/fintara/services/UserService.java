@@ -1,13 +1,13 @@
 package com.fintara.services;
 
-import com.fintara.dtos.customerDTO.CustomerDetailsDTO;
 import com.fintara.dtos.customerDTO.UserWithCustomerResponseDTO;
-import com.fintara.dtos.pegawaiDTO.PegawaiDetailsDTO;
 import com.fintara.dtos.superAdminDTO.UserResponseDTO;
 import com.fintara.exceptions.CustomException;
+import com.fintara.mappers.UserMapper;
 import com.fintara.models.User;
 import com.fintara.models.Role;
 import com.fintara.repositories.UserRepository;
+import com.fintara.security.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -36,6 +36,8 @@ public class UserService implements UserDetailsService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private RoleService roleService;
+    @Autowired
+    private UserMapper userMapper;
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
@@ -62,6 +64,12 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new CustomException("User dengan email " + email + " tidak ditemukan", HttpStatus.NOT_FOUND));
     }
 
+    // User beserta role, customer details dan plafond (untuk profil customer)
+    public User findByEmailWithCustomerDetails(String email) {
+        return userRepository.findByEmailWithDetails(email)
+                .orElseThrow(() -> new CustomException("User dengan email " + email + " tidak ditemukan", HttpStatus.NOT_FOUND));
+    }
+
     // Find user by email or nip
     public User getUserByEmailOrNip(String username) {
         return userRepository.findByEmailOrNip(username)
@@ -103,16 +111,9 @@ public class UserService implements UserDetailsService {
         try {
             List<User> users = userRepository.findAll();
 
-            return users.stream().map(user -> new UserResponseDTO(
-                    user.getId(),
-                    user.getName(),
-                    user.getEmail(),
-                    user.getRole().getName(),
-                    user.getCustomerDetails() != null ?
-                            new CustomerDetailsDTO(user.getCustomerDetails()) : null,
-                    user.getPegawaiDetails() != null ?
-                            new PegawaiDetailsDTO(user.getPegawaiDetails()) : null
-            )).collect(Collectors.toList());
+            return users.stream()
+                    .map(userMapper::toUserResponse)
+                    .collect(Collectors.toList());
 
         } catch (Exception e) {
             logger.error("Error saat mengambil daftar pengguna: {}", e.getMessage(), e);
@@ -187,6 +188,23 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new CustomException("User not found", HttpStatus.UNAUTHORIZED));
     }
 
+    // Id user yang sedang login langsung dari principal JWT, tanpa query ke database
+    public UUID getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return principal.getUserId();
+        }
+        return getAuthenticatedUser().getId();
+    }
+
+    public String getAuthenticatedRoleName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return principal.getRoleName();
+        }
+        return getAuthenticatedUser().getRole().getName();
+    }
+
     public UUID getBranchIdByUserId(UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new CustomException("User tidak ditemukan", HttpStatus.NOT_FOUND));
@@ -239,14 +257,7 @@ public class UserService implements UserDetailsService {
             User user = userRepository.findByIdWithCustomer(userId)
                     .orElseThrow(() -> new CustomException("User dengan ID " + userId + " tidak ditemukan", HttpStatus.NOT_FOUND));
 
-            return new UserWithCustomerResponseDTO(
-                    user.getId(),
-                    user.getName(),
-                    user.getEmail(),
-                    user.getFotoUrl(),
-                    user.getRole().getName(),
-                    new CustomerDetailsDTO(user.getCustomerDetails())
-            );
+            return userMapper.toUserWithCustomer(user);
         } catch (Exception e) {
             logger.error("Error saat mengambil pengguna dengan ID {}: {}", userId, e.getMessage(), e);
             throw new CustomException("Gagal mengambil pengguna", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,96 @@
+package com.fintara.storage;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.api.exceptions.NotFound;
+import com.cloudinary.utils.ObjectUtils;
+import com.fintara.metrics.Instrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "storage.provider", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryStorageGateway implements StorageGateway, DirectUploadSigner {
+
+    private static final String ALLOWED_FORMATS = "jpg,jpeg,png";
+
+    private final Cloudinary cloudinary;
+    private final int timeoutSeconds;
+    private final int maxImageDimension;
+    private final Instrumentation instrumentation;
+
+    public CloudinaryStorageGateway(@Value("${cloudinary.cloud-name}") String cloudName,
+                                    @Value("${cloudinary.api-key}") String apiKey,
+                                    @Value("${cloudinary.api-secret}") String apiSecret,
+                                    @Value("${storage.upload.timeout-seconds:30}") int timeoutSeconds,
+                                    @Value("${storage.image.max-dimension:1600}") int maxImageDimension,
+                                    Instrumentation instrumentation) {
+        this.cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", cloudName,
+                "api_key", apiKey,
+                "api_secret", apiSecret
+        ));
+        this.timeoutSeconds = timeoutSeconds;
+        this.maxImageDimension = maxImageDimension;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public String upload(Path file, String folder) throws IOException {
+        Map<String, Object> options = new HashMap<>();
+        // Timeout koneksi & socket HTTP client Cloudinary (detik)
+        options.put("timeout", timeoutSeconds);
+        if (folder != null) {
+            options.put("folder", folder);
+        }
+
+        // Upload dari File (bukan byte[]): SDK men-stream isi file ke request multipart
+        Map<?, ?> uploadResult = instrumentation.outbound("cloudinary", "upload",
+                () -> cloudinary.uploader().upload(file.toFile(), options));
+
+        // Ambil URL yang aman dari hasil upload
+        return (String) uploadResult.get("secure_url");
+    }
+
+    @Override
+    public Ticket sign(String publicId, Instant expiresAt) {
+        // Cloudinary menolak signature yang timestamp-nya lebih dari 1 jam; masa berlaku lebih pendek dijaga oleh pemanggil
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("public_id", publicId);
+        params.put("timestamp", String.valueOf(Instant.now().getEpochSecond()));
+        params.put("allowed_formats", ALLOWED_FORMATS);
+        // Incoming transformation: gambar diperkecil di sisi Cloudinary sebelum disimpan
+        params.put("transformation", "c_limit,w_" + maxImageDimension + ",h_" + maxImageDimension);
+        String signature = cloudinary.apiSignRequest(params, cloudinary.config.apiSecret);
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        params.forEach((key, value) -> fields.put(key, value.toString()));
+        fields.put("api_key", cloudinary.config.apiKey);
+        fields.put("signature", signature);
+        String uploadUrl = "https://api.cloudinary.com/v1_1/" + cloudinary.config.cloudName + "/image/upload";
+        return new Ticket(uploadUrl, fields);
+    }
+
+    @Override
+    public StoredAsset verify(String publicId) throws IOException {
+        Map<?, ?> resource;
+        try {
+            resource = instrumentation.outbound("cloudinary", "resource",
+                    () -> cloudinary.api().resource(publicId, ObjectUtils.asMap("resource_type", "image")));
+        } catch (NotFound e) {
+            return null;
+        } catch (Exception e) {
+            throw new IOException("Gagal memeriksa aset " + publicId + " di Cloudinary", e);
+        }
+        return new StoredAsset((String) resource.get("secure_url"),
+                ((Number) resource.get("bytes")).longValue(),
+                (String) resource.get("format"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.fintara.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Index SHA-256 isi file -> URL di storage, disimpan di Redis.
+ * Kunci dibedakan per varian (gambar ternormalisasi / file mentah) dan folder, karena byte yang sama
+ * menghasilkan aset berbeda tergantung jalur uploadnya. Kunci juga dibedakan per pemilik: dokumen identitas
+ * milik satu user tidak boleh dipakai ulang untuk user lain walaupun byte-nya sama.
+ * Redis bermasalah berarti tanpa dedup, bukan gagal upload.
+ */
+@Component
+public class ContentHashIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ContentHashIndex.class);
+
+    private static final String KEY_PREFIX = "storage_hash:";
+
+    @Value("${storage.dedup.ttl-days:180}")
+    private long ttlDays;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public String find(UUID ownerId, String variant, String folder, String sha256) {
+        String url = null;
+        try {
+            url = redisTemplate.opsForValue().get(key(ownerId, variant, folder, sha256));
+        } catch (Exception e) {
+            logger.warn("Gagal membaca index hash storage: {}", e.getMessage());
+        }
+        meterRegistry.counter("storage.upload.dedup", "variant", variant, "result", url != null ? "hit" : "miss").increment();
+        return url;
+    }
+
+    public void put(UUID ownerId, String variant, String folder, String sha256, String url) {
+        try {
+            redisTemplate.opsForValue().set(key(ownerId, variant, folder, sha256), url, Duration.ofDays(ttlDays));
+        } catch (Exception e) {
+            logger.warn("Gagal menyimpan index hash storage: {}", e.getMessage());
+        }
+    }
+
+    private static String key(UUID ownerId, String variant, String folder, String sha256) {
+        return KEY_PREFIX + ownerId + ":" + variant + ":" + (folder != null ? folder : "-") + ":" + sha256;
+    }
+}
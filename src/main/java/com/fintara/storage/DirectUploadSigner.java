@@ -0,0 +1,35 @@
+package com.fintara.storage;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Upload langsung dari aplikasi mobile ke storage tanpa melewati server aplikasi.
+ * Server hanya menandatangani parameter upload dan kemudian memverifikasi aset yang sudah tersimpan.
+ */
+public interface DirectUploadSigner {
+
+    /**
+     * Parameter upload bertanda tangan: client mengirim {@code fields} beserta file ke {@code uploadUrl}.
+     */
+    record Ticket(String uploadUrl, Map<String, String> fields) {
+    }
+
+    /**
+     * Aset yang sudah ada di storage, menurut storage itu sendiri (bukan menurut client).
+     */
+    record StoredAsset(String url, long bytes, String format) {
+    }
+
+    /**
+     * @param publicId  ID aset yang ditentukan server, termasuk folder (misalnya "ktp/&lt;uuid&gt;")
+     * @param expiresAt batas waktu tiket; provider yang tidak mendukung masa berlaku sendiri cukup mengabaikannya
+     */
+    Ticket sign(String publicId, Instant expiresAt);
+
+    /**
+     * @return aset yang tersimpan, atau null jika belum ada file dengan {@code publicId} tersebut
+     */
+    StoredAsset verify(String publicId) throws IOException;
+}
@@ -0,0 +1,141 @@
+package com.fintara.storage;
+
+import com.fintara.exceptions.CustomException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pengganti Cloudinary untuk pengujian dan development: file disalin ke direktori lokal
+ * dan URL-nya dibentuk dari base URL yang dikonfigurasi.
+ *
+ * Upload langsung disimulasikan dengan signature HMAC: {@link #receive} menerima file hanya jika
+ * public ID, masa berlaku dan signature cocok dengan yang dikeluarkan {@link #sign}.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.provider", havingValue = "local")
+public class LocalStorageGateway implements StorageGateway, DirectUploadSigner {
+
+    private final Path rootDirectory;
+    private final String baseUrl;
+    private final String uploadUrl;
+    private final byte[] signingSecret;
+
+    public LocalStorageGateway(@Value("${storage.local.directory:${java.io.tmpdir}/fintara-storage}") String rootDirectory,
+                               @Value("${storage.local.base-url:http://localhost:8080/files}") String baseUrl,
+                               @Value("${storage.local.upload-url:http://localhost:8080/v1/local-storage/upload}") String uploadUrl,
+                               @Value("${storage.local.signing-secret:local-dev-secret}") String signingSecret) {
+        this.rootDirectory = Paths.get(rootDirectory).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.uploadUrl = uploadUrl;
+        this.signingSecret = signingSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String upload(Path file, String folder) throws IOException {
+        String relativePath = (folder != null ? folder + "/" : "") + UUID.randomUUID() + extensionOf(file.getFileName().toString());
+        Path target = resolve(relativePath);
+        Files.createDirectories(target.getParent());
+        Files.copy(file, target);
+        return baseUrl + "/" + relativePath;
+    }
+
+    @Override
+    public Ticket sign(String publicId, Instant expiresAt) {
+        String expires = String.valueOf(expiresAt.getEpochSecond());
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("public_id", publicId);
+        fields.put("expires", expires);
+        fields.put("signature", signature(publicId, expires));
+        return new Ticket(uploadUrl, fields);
+    }
+
+    /**
+     * Sisi "storage" dari upload langsung: simpan file jika signature valid dan belum kedaluwarsa.
+     *
+     * @return URL publik file yang tersimpan
+     */
+    public String receive(String publicId, String expires, String signature, String filename, InputStream content) throws IOException {
+        byte[] expected = signature(publicId, expires).getBytes(StandardCharsets.UTF_8);
+        if (signature == null || !MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.UTF_8))) {
+            throw new CustomException("Signature upload tidak valid", HttpStatus.FORBIDDEN);
+        }
+        if (Instant.now().getEpochSecond() > Long.parseLong(expires)) {
+            throw new CustomException("Tiket upload sudah kedaluwarsa", HttpStatus.FORBIDDEN);
+        }
+
+        String extension = extensionOf(filename);
+        if (extension.isEmpty()) {
+            throw new CustomException("Nama file harus memiliki ekstensi", HttpStatus.BAD_REQUEST);
+        }
+        String relativePath = publicId + extension;
+        Path target = resolve(relativePath);
+        Files.createDirectories(target.getParent());
+        Files.copy(content, target);
+        return baseUrl + "/" + relativePath;
+    }
+
+    @Override
+    public StoredAsset verify(String publicId) throws IOException {
+        Path base = resolve(publicId);
+        if (!Files.isDirectory(base.getParent())) {
+            return null;
+        }
+        // Ekstensi ditentukan saat upload, jadi cari file dengan nama public ID apa pun ekstensinya
+        String prefix = base.getFileName() + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(base.getParent(), file -> file.getFileName().toString().startsWith(prefix))) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String relativePath = rootDirectory.relativize(file).toString().replace('\\', '/');
+                return new StoredAsset(baseUrl + "/" + relativePath, Files.size(file), name.substring(prefix.length()));
+            }
+        }
+        return null;
+    }
+
+    private Path resolve(String relativePath) throws IOException {
+        Path target = rootDirectory.resolve(relativePath).normalize();
+        if (!target.startsWith(rootDirectory) || target.equals(rootDirectory)) {
+            throw new IOException("Path tujuan tidak valid: " + relativePath);
+        }
+        return target;
+    }
+
+    private String signature(String publicId, String expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(signingSecret, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal((publicId + ":" + expires).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String extensionOf(String name) {
+        if (name == null) {
+            return "";
+        }
+        int dot = name.lastIndexOf('.');
+        String extension = dot >= 0 ? name.substring(dot).toLowerCase(Locale.ROOT) : "";
+        return extension.matches("\\.[a-z0-9]{1,5}") ? extension : "";
+    }
+}
@@ -0,0 +1,18 @@
+package com.fintara.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tujuan penyimpanan file upload (Cloudinary di production, filesystem lokal untuk pengujian).
+ * Implementasi membaca isi file secara streaming dari disk, tidak memuat seluruh file ke heap.
+ */
+public interface StorageGateway {
+
+    /**
+     * @param file   file lokal yang akan diupload; tidak dihapus oleh gateway
+     * @param folder folder tujuan di storage, boleh null
+     * @return URL publik file yang tersimpan
+     */
+    String upload(Path file, String folder) throws IOException;
+}
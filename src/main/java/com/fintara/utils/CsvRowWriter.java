@@ -0,0 +1,95 @@
+package com.fintara.utils;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Penulis CSV sederhana untuk export streaming.
+ * Satu StringBuilder dipakai ulang untuk setiap baris, lalu ditulis ke BufferedWriter,
+ * sehingga jumlah baris tidak memengaruhi pemakaian heap.
+ */
+public class CsvRowWriter implements Flushable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(512);
+    private boolean firstField = true;
+
+    public CsvRowWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public CsvRowWriter header(String... columns) throws IOException {
+        for (String column : columns) {
+            field(column);
+        }
+        endRow();
+        return this;
+    }
+
+    public CsvRowWriter field(Object value) {
+        if (!firstField) {
+            line.append(',');
+        }
+        firstField = false;
+
+        if (value == null) {
+            return this;
+        }
+        if (value instanceof BigDecimal decimal) {
+            line.append(decimal.toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+        } else {
+            appendEscaped(value.toString());
+        }
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        line.append('\n');
+        writer.append(line);
+        line.setLength(0);
+        firstField = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void appendEscaped(String text) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length() && !needsQuotes; i++) {
+            char c = text.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        // Cegah formula injection saat file dibuka di spreadsheet
+        boolean formulaLike = !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0;
+
+        if (!needsQuotes && !formulaLike) {
+            line.append(text);
+            return;
+        }
+
+        line.append('"');
+        if (formulaLike) {
+            line.append('\'');
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
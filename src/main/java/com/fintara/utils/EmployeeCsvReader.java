@@ -0,0 +1,144 @@
+package com.fintara.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pembaca CSV import pegawai secara streaming (baris per baris).
+ * Kolom dicari dari header, jadi urutan kolom bebas; nilai hanya di-trim, validasi isi dilakukan oleh service.
+ */
+public class EmployeeCsvReader {
+
+    private static final int FIELD_NAME = 0;
+    private static final int FIELD_EMAIL = 1;
+    private static final int FIELD_NIP = 2;
+    private static final int FIELD_ROLE = 3;
+    private static final int FIELD_BRANCH = 4;
+    private static final int FIELD_GENDER = 5;
+    private static final int FIELD_STATUS = 6;
+    private static final String[] FIELD_LABELS = {"name", "email", "nip", "role", "branch", "jenis_kelamin", "status_pegawai"};
+
+    public record EmployeeCsvRow(long lineNumber, String name, String email, String nip, String role,
+                                 String branchName, String jenisKelamin, String statusPegawai, String error) {
+        public boolean isValid() {
+            return error == null;
+        }
+    }
+
+    private final int maxRows;
+
+    public EmployeeCsvReader(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * @return semua baris data (tanpa header dan baris kosong); baris yang kolomnya kurang diberi error
+     */
+    public List<EmployeeCsvRow> read(InputStream input) throws IOException {
+        List<EmployeeCsvRow> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            int[] columns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (columns == null) {
+                    columns = parseHeader(line);
+                    continue;
+                }
+                if (rows.size() >= maxRows) {
+                    throw new IllegalArgumentException("File import maksimal berisi " + maxRows + " baris pegawai");
+                }
+                rows.add(toRow(lineNumber, splitFields(line), columns));
+            }
+            if (columns == null) {
+                throw new IllegalArgumentException("File import kosong atau tidak memiliki header");
+            }
+        }
+        return rows;
+    }
+
+    private static int[] parseHeader(String line) {
+        // Lewati BOM UTF-8 jika ada
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        int[] columns = new int[FIELD_LABELS.length];
+        Arrays.fill(columns, -1);
+
+        List<String> names = splitFields(line);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).toLowerCase(Locale.ROOT).replace(' ', '_');
+            switch (name) {
+                case "name", "nama" -> columns[FIELD_NAME] = i;
+                case "email" -> columns[FIELD_EMAIL] = i;
+                case "nip" -> columns[FIELD_NIP] = i;
+                case "role" -> columns[FIELD_ROLE] = i;
+                case "branch", "branch_name", "cabang" -> columns[FIELD_BRANCH] = i;
+                case "jenis_kelamin", "gender" -> columns[FIELD_GENDER] = i;
+                case "status_pegawai", "status" -> columns[FIELD_STATUS] = i;
+                default -> { }
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (int field = 0; field < columns.length; field++) {
+            if (columns[field] < 0) {
+                missing.add(FIELD_LABELS[field]);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Header import pegawai tidak memiliki kolom: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static EmployeeCsvRow toRow(long lineNumber, List<String> fields, int[] columns) {
+        String[] values = new String[columns.length];
+        for (int field = 0; field < columns.length; field++) {
+            if (columns[field] >= fields.size()) {
+                return new EmployeeCsvRow(lineNumber, null, null, null, null, null, null, null,
+                        "Jumlah kolom tidak sesuai header");
+            }
+            String value = fields.get(columns[field]);
+            values[field] = value.isEmpty() ? null : value;
+        }
+        return new EmployeeCsvRow(lineNumber, values[FIELD_NAME], values[FIELD_EMAIL], values[FIELD_NIP],
+                values[FIELD_ROLE], values[FIELD_BRANCH], values[FIELD_GENDER], values[FIELD_STATUS], null);
+    }
+
+    // Koma di dalam tanda kutip tidak dianggap pemisah; "" di dalam kutipan menjadi satu tanda kutip
+    static List<String> splitFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+}
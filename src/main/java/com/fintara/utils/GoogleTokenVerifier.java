@@ -1,5 +1,6 @@
 package com.fintara.utils;
 
+import com.fintara.metrics.Instrumentation;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
 import com.google.api.client.http.javanet.NetHttpTransport;
@@ -12,8 +13,10 @@ import java.util.List;
 public class GoogleTokenVerifier {
 
     private final GoogleIdTokenVerifier verifier;
+    private final Instrumentation instrumentation;
 
-    public GoogleTokenVerifier() {
+    public GoogleTokenVerifier(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
         verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), new JacksonFactory())
                 .setAudience(List.of("124749850521-rjebupase6asr2pngv30p8bt2npevgs5.apps.googleusercontent.com"))
                 .build();
@@ -21,7 +24,8 @@ public class GoogleTokenVerifier {
 
     public GoogleIdToken.Payload verify(String idTokenString) {
         try {
-            GoogleIdToken idToken = verifier.verify(idTokenString);
+            // Verifikasi bisa mengambil ulang public key Google (HTTP) saat cache-nya kedaluwarsa
+            GoogleIdToken idToken = instrumentation.outbound("google", "verify_id_token", () -> verifier.verify(idTokenString));
             return idToken != null ? idToken.getPayload() : null;
         } catch (Exception e) {
             return null;
@@ -0,0 +1,246 @@
+package com.fintara.utils;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Normalisasi foto dokumen (KTP / selfie) sebelum disimpan: decode, putar sesuai orientasi EXIF,
+ * perkecil sampai sisi terpanjang {@code maxDimension}, lalu simpan ulang sebagai JPEG.
+ *
+ * Decode memakai subsampling dari reader, jadi foto 12 MP tidak pernah didecode penuh ke memori.
+ */
+public class ImageNormalizer {
+
+    // Batas resolusi sumber, mencegah "decompression bomb"
+    private static final long MAX_SOURCE_PIXELS = 60_000_000L;
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    public record Result(int width, int height) {
+    }
+
+    private final int maxDimension;
+    private final float jpegQuality;
+
+    public ImageNormalizer(int maxDimension, float jpegQuality) {
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * @return ukuran gambar hasil, atau null jika sumber bukan gambar yang bisa didecode (file tidak diubah)
+     */
+    public Result normalize(Path source, Path target) throws IOException {
+        BufferedImage decoded = decode(source);
+        if (decoded == null) {
+            return null;
+        }
+
+        BufferedImage image = orient(scaleToRgb(decoded), readOrientation(source));
+        writeJpeg(image, target);
+        return new Result(image.getWidth(), image.getHeight());
+    }
+
+    private BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Resolusi gambar terlalu besar: " + width + "x" + height);
+                }
+
+                // Subsampling bulat: hasil decode tetap >= maxDimension, sisanya diperhalus saat scaling
+                int subsampling = Math.max(1, Math.max(width, height) / maxDimension);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } catch (IIOException e) {
+                // Format dikenali tapi tidak bisa didecode (misalnya JPEG CMYK): file disimpan apa adanya
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scaleToRgb(BufferedImage source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Selalu digambar ulang ke INT_RGB: alpha dibuang (latar putih) dan orient() bisa bekerja langsung di array piksel
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Orientasi EXIF 1-8; 5-8 menukar lebar dan tinggi
+    static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = orientation >= 5;
+        int targetWidth = swap ? height : width;
+        BufferedImage target = new BufferedImage(targetWidth, swap ? width : height, BufferedImage.TYPE_INT_RGB);
+
+        int[] src = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        int[] dst = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int tx;
+                int ty;
+                switch (orientation) {
+                    case 2 -> { tx = width - 1 - x; ty = y; }
+                    case 3 -> { tx = width - 1 - x; ty = height - 1 - y; }
+                    case 4 -> { tx = x; ty = height - 1 - y; }
+                    case 5 -> { tx = y; ty = x; }
+                    case 6 -> { tx = height - 1 - y; ty = x; }
+                    case 7 -> { tx = height - 1 - y; ty = width - 1 - x; }
+                    default -> { tx = y; ty = width - 1 - x; }
+                }
+                dst[ty * targetWidth + tx] = src[y * width + x];
+            }
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            // Metadata (termasuk EXIF/GPS) tidak ikut ditulis
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Baca tag orientasi EXIF dari header JPEG. Mengembalikan 1 (normal) untuk format lain atau jika tag tidak ada.
+     */
+    static int readOrientation(Path source) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            return readOrientation(in);
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    static int readOrientation(DataInputStream in) throws IOException {
+        if (in.readUnsignedShort() != 0xFFD8) {
+            return 1;
+        }
+        while (true) {
+            int marker = in.readUnsignedShort();
+            if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                return 1; // awal data gambar: tidak ada EXIF
+            }
+            int length = in.readUnsignedShort() - 2;
+            if (length < 0) {
+                return 1;
+            }
+            if (marker != 0xFFE1) {
+                skipFully(in, length);
+                continue;
+            }
+            byte[] segment = new byte[length];
+            in.readFully(segment);
+            if (length > 6 && segment[0] == 'E' && segment[1] == 'x' && segment[2] == 'i' && segment[3] == 'f') {
+                return orientationFromTiff(segment, 6);
+            }
+        }
+    }
+
+    private static int orientationFromTiff(byte[] data, int tiffStart) {
+        if (data.length < tiffStart + 8) {
+            return 1;
+        }
+        boolean littleEndian = data[tiffStart] == 'I';
+        int ifdOffset = tiffStart + readInt(data, tiffStart + 4, littleEndian);
+        if (ifdOffset < tiffStart || ifdOffset + 2 > data.length) {
+            return 1;
+        }
+        int entries = readShort(data, ifdOffset, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifdOffset + 2 + i * 12;
+            if (entry + 12 > data.length) {
+                return 1;
+            }
+            if (readShort(data, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+                return readShort(data, entry + 8, littleEndian);
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean littleEndian) {
+        int high = readShort(data, littleEndian ? offset + 2 : offset, littleEndian);
+        int low = readShort(data, littleEndian ? offset : offset + 2, littleEndian);
+        return (high << 16) | low;
+    }
+
+    private static void skipFully(InputStream in, int length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
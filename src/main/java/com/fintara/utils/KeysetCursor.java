@@ -0,0 +1,30 @@
+package com.fintara.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor untuk keyset pagination: nilai kolom sort terakhir + id terakhir,
+ * dikodekan Base64 (URL-safe) supaya opaque bagi client.
+ */
+public record KeysetCursor(String sortValue, UUID id) {
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException jika cursor bukan hasil {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Cursor tidak valid");
+        }
+        return new KeysetCursor(raw.substring(separator + 1), UUID.fromString(raw.substring(0, separator)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.fintara.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Struktur in-memory (index / snapshot) yang dibaca bersamaan, diubah sedikit-sedikit,
+ * dan sesekali dibangun ulang penuh dari database.
+ *
+ * Rebuild berjalan tanpa menahan lock. Perubahan yang masuk selama rebuild tetap diterapkan ke nilai lama
+ * dan dicatat, lalu diterapkan ulang ke nilai baru sebelum nilai baru dipasang.
+ */
+public class RebuildableSnapshot<T> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Consumer<T>> pendingUpdates = new ArrayList<>();
+    private T current;
+    private boolean rebuilding;
+
+    public RebuildableSnapshot(T initial) {
+        this.current = initial;
+    }
+
+    /**
+     * @return nilai baru yang sudah dipasang, atau null kalau rebuild lain sedang berjalan
+     */
+    public T rebuild(Supplier<T> loader) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                return null;
+            }
+            rebuilding = true;
+            pendingUpdates.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        T fresh = null;
+        try {
+            fresh = loader.get();
+            return fresh;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (fresh != null) {
+                    for (Consumer<T> update : pendingUpdates) {
+                        update.accept(fresh);
+                    }
+                    current = fresh;
+                }
+                pendingUpdates.clear();
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void apply(Consumer<T> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(current);
+            if (rebuilding) {
+                pendingUpdates.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Reader tidak boleh menyimpan referensi ke nilai di luar lambda: nilai bisa diubah setelah lock dilepas
+    public <R> R read(Function<T, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.fintara.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Pembaca CSV settlement Midtrans secara streaming.
+ * File dibaca lewat FileChannel dengan buffer tetap, setiap baris di-parse langsung dari byte
+ * (order_id -> dua long UUID, gross_amount -> sen) tanpa membuat String per kolom,
+ * sehingga file jutaan baris tetap berjalan dengan memori konstan.
+ */
+public class SettlementCsvReader {
+
+    public static final int STATUS_OTHER = 0;
+    public static final int STATUS_SETTLEMENT = 1;
+    public static final int STATUS_CAPTURE = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+    private static final int MAX_FIELDS = 128;
+
+    private static final byte[] SETTLEMENT = "settlement".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CAPTURE = "capture".getBytes(StandardCharsets.US_ASCII);
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(SettlementRow row);
+    }
+
+    /**
+     * Satu baris settlement. Objek ini dipakai ulang untuk setiap baris,
+     * jadi handler harus menyalin nilai yang dibutuhkan sebelum kembali.
+     */
+    public static final class SettlementRow {
+        private long lineNumber;
+        private String error;
+        private long orderIdMsb;
+        private long orderIdLsb;
+        private long amountCents;
+        private int status;
+        private long settlementEpochDay;
+
+        public long getLineNumber() { return lineNumber; }
+        public boolean isValid() { return error == null; }
+        public String getError() { return error; }
+        public long getOrderIdMsb() { return orderIdMsb; }
+        public long getOrderIdLsb() { return orderIdLsb; }
+        public long getAmountCents() { return amountCents; }
+        public int getStatus() { return status; }
+        public boolean isPaid() { return status == STATUS_SETTLEMENT || status == STATUS_CAPTURE; }
+        /** -1 jika kolom settlement_time tidak ada atau tidak valid. */
+        public long getSettlementEpochDay() { return settlementEpochDay; }
+    }
+
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private final SettlementRow row = new SettlementRow();
+
+    private int orderIdIndex = -1;
+    private int amountIndex = -1;
+    private int statusIndex = -1;
+    private int settlementTimeIndex = -1;
+    private boolean headerParsed;
+
+    /**
+     * Membaca seluruh file dan memanggil handler untuk setiap baris data.
+     *
+     * @return jumlah baris data yang diproses (tanpa header dan baris kosong)
+     */
+    public long read(Path path, RowHandler handler) throws IOException {
+        headerParsed = false;
+        orderIdIndex = -1;
+        amountIndex = -1;
+        statusIndex = -1;
+        settlementTimeIndex = -1;
+        long dataRows = 0;
+        long lineNumber = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            byte[] line = new byte[MAX_LINE_LENGTH];
+            int lineLength = 0;
+            boolean overflow = false;
+
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        lineNumber++;
+                        if (processLine(line, lineLength, overflow, lineNumber, handler)) {
+                            dataRows++;
+                        }
+                        lineLength = 0;
+                        overflow = false;
+                    } else if (b != '\r') {
+                        if (lineLength < line.length) {
+                            line[lineLength++] = b;
+                        } else {
+                            overflow = true;
+                        }
+                    }
+                }
+                buffer.clear();
+            }
+
+            if (lineLength > 0) {
+                lineNumber++;
+                if (processLine(line, lineLength, overflow, lineNumber, handler)) {
+                    dataRows++;
+                }
+            }
+        }
+
+        if (!headerParsed) {
+            throw new IllegalArgumentException("File settlement kosong atau tidak memiliki header");
+        }
+        return dataRows;
+    }
+
+    private boolean processLine(byte[] line, int length, boolean overflow, long lineNumber, RowHandler handler) {
+        if (length == 0) {
+            return false;
+        }
+        if (!headerParsed) {
+            parseHeader(line, length);
+            headerParsed = true;
+            return false;
+        }
+
+        row.lineNumber = lineNumber;
+        row.error = null;
+        row.orderIdMsb = 0;
+        row.orderIdLsb = 0;
+        row.amountCents = 0;
+        row.status = STATUS_OTHER;
+        row.settlementEpochDay = -1;
+
+        if (overflow) {
+            row.error = "Baris terlalu panjang";
+            handler.onRow(row);
+            return true;
+        }
+
+        int fields = splitFields(line, length);
+        if (fields <= Math.max(Math.max(orderIdIndex, amountIndex), statusIndex)) {
+            row.error = "Jumlah kolom tidak sesuai header";
+            handler.onRow(row);
+            return true;
+        }
+
+        if (!parseUuid(line, fieldStart[orderIdIndex], fieldEnd[orderIdIndex])) {
+            row.error = "order_id bukan UUID yang valid";
+        } else {
+            long cents = parseCents(line, fieldStart[amountIndex], fieldEnd[amountIndex]);
+            if (cents < 0) {
+                row.error = "gross_amount tidak valid";
+            } else {
+                row.amountCents = cents;
+            }
+        }
+
+        row.status = parseStatus(line, fieldStart[statusIndex], fieldEnd[statusIndex]);
+        if (settlementTimeIndex >= 0 && settlementTimeIndex < fields) {
+            row.settlementEpochDay = parseEpochDay(line, fieldStart[settlementTimeIndex], fieldEnd[settlementTimeIndex]);
+        }
+
+        handler.onRow(row);
+        return true;
+    }
+
+    private void parseHeader(byte[] line, int length) {
+        int start = 0;
+        // Lewati BOM UTF-8 jika ada
+        if (length >= 3 && (line[0] & 0xFF) == 0xEF && (line[1] & 0xFF) == 0xBB && (line[2] & 0xFF) == 0xBF) {
+            start = 3;
+        }
+
+        int fields = splitFields(line, length, start);
+        for (int i = 0; i < fields; i++) {
+            String name = new String(line, fieldStart[i], fieldEnd[i] - fieldStart[i], StandardCharsets.UTF_8)
+                    .trim()
+                    .toLowerCase(Locale.ROOT)
+                    .replace(' ', '_');
+            switch (name) {
+                case "order_id" -> orderIdIndex = i;
+                case "gross_amount", "amount" -> amountIndex = i;
+                case "transaction_status", "status" -> statusIndex = i;
+                case "settlement_time", "settlement_date" -> settlementTimeIndex = i;
+                default -> { }
+            }
+        }
+
+        if (orderIdIndex < 0 || amountIndex < 0 || statusIndex < 0) {
+            throw new IllegalArgumentException(
+                    "Header settlement harus memiliki kolom order_id, gross_amount, dan transaction_status");
+        }
+    }
+
+    private int splitFields(byte[] line, int length) {
+        return splitFields(line, length, 0);
+    }
+
+    // Memecah baris menjadi offset kolom; koma di dalam tanda kutip tidak dianggap pemisah
+    private int splitFields(byte[] line, int length, int offset) {
+        int count = 0;
+        int start = offset;
+        boolean inQuotes = false;
+
+        for (int i = offset; i <= length && count < MAX_FIELDS; i++) {
+            if (i < length && line[i] == '"') {
+                inQuotes = !inQuotes;
+            } else if (i == length || (line[i] == ',' && !inQuotes)) {
+                int s = start;
+                int e = i;
+                while (s < e && line[s] == ' ') s++;
+                while (e > s && line[e - 1] == ' ') e--;
+                if (e - s >= 2 && line[s] == '"' && line[e - 1] == '"') {
+                    s++;
+                    e--;
+                }
+                fieldStart[count] = s;
+                fieldEnd[count] = e;
+                count++;
+                start = i + 1;
+            }
+        }
+        return count;
+    }
+
+    private boolean parseUuid(byte[] b, int start, int end) {
+        if (end - start != 36) {
+            return false;
+        }
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 36; i++) {
+            byte c = b[start + i];
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+                continue;
+            }
+            int v = hexValue(c);
+            if (v < 0) {
+                return false;
+            }
+            if (i < 19) {
+                msb = (msb << 4) | v;
+            } else {
+                lsb = (lsb << 4) | v;
+            }
+        }
+        row.orderIdMsb = msb;
+        row.orderIdLsb = lsb;
+        return true;
+    }
+
+    private static int hexValue(byte c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    // "150000.00" -> 15000000 sen. Mengembalikan -1 jika format tidak valid.
+    static long parseCents(byte[] b, int start, int end) {
+        long units = 0;
+        long fraction = 0;
+        int fractionDigits = -1;
+        boolean hasDigit = false;
+
+        for (int i = start; i < end; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+                if (fractionDigits < 0) {
+                    if (units > Long.MAX_VALUE / 1000) {
+                        return -1;
+                    }
+                    units = units * 10 + (c - '0');
+                } else if (fractionDigits < 2) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (c != '0') {
+                    return -1; // lebih presisi dari sen
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c != ',' || fractionDigits >= 0) {
+                return -1;
+            }
+        }
+
+        if (!hasDigit) {
+            return -1;
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        return units * 100 + fraction;
+    }
+
+    private static int parseStatus(byte[] b, int start, int end) {
+        if (equalsIgnoreCase(b, start, end, SETTLEMENT)) return STATUS_SETTLEMENT;
+        if (equalsIgnoreCase(b, start, end, CAPTURE)) return STATUS_CAPTURE;
+        return STATUS_OTHER;
+    }
+
+    private static boolean equalsIgnoreCase(byte[] b, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            byte c = b[start + i];
+            if (c >= 'A' && c <= 'Z') {
+                c = (byte) (c + 32);
+            }
+            if (c != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ambil bagian tanggal "yyyy-MM-dd" dari settlement_time
+    private static long parseEpochDay(byte[] b, int start, int end) {
+        if (end - start < 10 || b[start + 4] != '-' || b[start + 7] != '-') {
+            return -1;
+        }
+        int year = digits(b, start, 4);
+        int month = digits(b, start + 5, 2);
+        int day = digits(b, start + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return -1;
+        }
+        try {
+            return LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return -1;
+        }
+    }
+
+    private static int digits(byte[] b, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            if (b[i] < '0' || b[i] > '9') {
+                return -1;
+            }
+            value = value * 10 + (b[i] - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,84 @@
+package com.fintara.directory;
+
+import com.fintara.dtos.customerDTO.CustomerSearchItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerSearchIndexTest {
+    private CustomerSearchIndex index;
+    private CustomerSearchItemDTO budi;
+
+    private CustomerSearchItemDTO customer(String name, String nik, String noTelp, String noRek) {
+        return CustomerSearchItemDTO.builder()
+                .customerDetailsId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .name(name)
+                .nik(nik)
+                .noTelp(noTelp)
+                .noRek(noRek)
+                .build();
+    }
+
+    private List<String> names(String query) {
+        return index.search(query, 10).stream().map(CustomerSearchItemDTO::getName).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerSearchIndex(LocalDateTime.now());
+        budi = customer("Budi Santoso", "3174012345678901", "+62 812-3456-7890", "1234567890");
+        index.upsert(budi);
+        index.upsert(customer("Siti Rahayu", "3273019876543210", "081298765432", "9876543210"));
+        index.upsert(customer("Andréa Putri", "3201000000000003", "0813 1111 2222", "5550001111"));
+    }
+
+    @Test
+    void search_shouldMatchPrefixOfNikPhoneAccountAndName() {
+        assertEquals(List.of("Budi Santoso"), names("317401"));
+        assertEquals(List.of("Siti Rahayu"), names("98765"));
+        assertEquals(List.of("Budi Santoso"), names("santo budi"));
+        assertEquals(List.of("Andréa Putri"), names("andrea"));
+        assertEquals(List.of(), names("zzzz"));
+    }
+
+    @Test
+    void search_shouldNormalizeIndonesianPhoneNumbers() {
+        assertEquals(List.of("Budi Santoso"), names("0812-3456"));
+        assertEquals(List.of("Budi Santoso"), names("62812345"));
+    }
+
+    @Test
+    void search_shouldTolerateSmallTyposAndRankExactMatchesFirst() {
+        assertEquals(List.of("Budi Santoso"), names("santso"));
+        assertEquals(List.of("Siti Rahayu"), names("rahyu"));
+        // "butri" hanya cocok dengan typo, tidak boleh mengalahkan hasil prefix persis
+        index.upsert(customer("Butrianto", "3300000000000001", "0819", "1"));
+        assertEquals("Butrianto", names("butri").get(0));
+    }
+
+    @Test
+    void upsertAndRemove_shouldKeepIndexConsistent() {
+        budi.setName("Budi Hartono");
+        index.upsert(budi);
+        assertEquals(List.of(), names("santoso"));
+        assertEquals(List.of("Budi Hartono"), names("hartono"));
+
+        assertTrue(index.remove(budi.getCustomerDetailsId()));
+        assertFalse(index.remove(budi.getCustomerDetailsId()));
+        assertEquals(List.of(), names("hartono"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void prefixEditDistance_shouldCompareAgainstBestPrefix() {
+        assertEquals(0, CustomerSearchIndex.prefixEditDistance("sant", "santoso", 1));
+        assertEquals(1, CustomerSearchIndex.prefixEditDistance("santso", "santoso", 1));
+        assertTrue(CustomerSearchIndex.prefixEditDistance("abcd", "wxyz", 1) > 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.fintara.directory;
+
+import com.fintara.dtos.pegawaiDTO.EmployeeDirectoryItemDTO;
+import com.fintara.enums.JenisKelamin;
+import com.fintara.enums.StatusPegawai;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeDirectoryIndexTest {
+    private final UUID jakarta = UUID.randomUUID();
+    private final UUID bandung = UUID.randomUUID();
+    private EmployeeDirectoryIndex index;
+
+    private EmployeeDirectoryItemDTO employee(String name, String nip, UUID branchId, String role, StatusPegawai status) {
+        return EmployeeDirectoryItemDTO.builder()
+                .userId(UUID.randomUUID())
+                .name(name)
+                .email(name.toLowerCase().replace(' ', '.') + "@fintara.id")
+                .nip(nip)
+                .branchId(branchId)
+                .branchName(branchId.equals(jakarta) ? "Jakarta" : "Bandung")
+                .role(role)
+                .statusPegawai(status)
+                .jenisKelamin(JenisKelamin.LAKI_LAKI)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new EmployeeDirectoryIndex(LocalDateTime.now());
+        index.upsert(employee("Budi Santoso", "1001", jakarta, "MARKETING", StatusPegawai.ACTIVE));
+        index.upsert(employee("Andi Wijaya", "1002", jakarta, "BRANCH_MANAGER", StatusPegawai.ACTIVE));
+        index.upsert(employee("Budiman", "2001", bandung, "MARKETING", StatusPegawai.CUTI));
+    }
+
+    @Test
+    void search_shouldFilterByFacetAndKeepOtherFacetValuesInCounts() {
+        Map<String, String> filters = new HashMap<>();
+        filters.put(EmployeeDirectoryIndex.FACET_BRANCH, jakarta.toString());
+
+        EmployeeDirectoryIndex.Result result = index.search(filters, null, 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals("Andi Wijaya", result.items().get(0).getName());
+        // Facet branch tidak difilter oleh dirinya sendiri
+        assertEquals(2, result.facetCounts().get(EmployeeDirectoryIndex.FACET_BRANCH).get(jakarta.toString()));
+        assertEquals(1, result.facetCounts().get(EmployeeDirectoryIndex.FACET_BRANCH).get(bandung.toString()));
+        assertEquals(1, result.facetCounts().get(EmployeeDirectoryIndex.FACET_ROLE).get("MARKETING"));
+    }
+
+    @Test
+    void search_shouldMatchPrefixOfNameNipAndEmail() {
+        assertEquals(2, index.search(Map.of(), "budi", 0, 10).total());
+        assertEquals(1, index.search(Map.of(), "budi sant", 0, 10).total());
+        assertEquals(1, index.search(Map.of(), "200", 0, 10).total());
+        assertEquals(1, index.search(Map.of(), "andi.wijaya@", 0, 10).total());
+        assertEquals(0, index.search(Map.of(), "zzz", 0, 10).total());
+    }
+
+    @Test
+    void upsertAndRemove_shouldKeepIndexConsistent() {
+        EmployeeDirectoryItemDTO moved = employee("Citra Lestari", "3001", jakarta, "BACK_OFFICE", StatusPegawai.ACTIVE);
+        index.upsert(moved);
+        moved.setBranchId(bandung);
+        index.upsert(moved);
+
+        Map<String, String> jakartaOnly = Map.of(EmployeeDirectoryIndex.FACET_BRANCH, jakarta.toString());
+        assertEquals(2, index.search(jakartaOnly, null, 0, 10).total());
+
+        assertTrue(index.remove(moved.getUserId()));
+        assertFalse(index.remove(moved.getUserId()));
+        assertEquals(0, index.search(Map.of(), "citra", 0, 10).total());
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.fintara.email;
+
+import com.fintara.metrics.Instrumentation;
+import com.fintara.models.EmailOutbox;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailBatchSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void send_shouldDeliverWholeBatch() throws Exception {
+        EmailBatchSender sender = new EmailBatchSender(mailSender(greenMail.getSmtp().getPort()), new Instrumentation(new SimpleMeterRegistry()));
+
+        List<EmailBatchSender.Result> results = sender.send(List.of(
+                email("a@fintara.test", "Satu"),
+                email("b@fintara.test", "Dua"),
+                email("c@fintara.test", "Tiga")));
+
+        assertTrue(results.stream().allMatch(result -> result.outcome() == EmailBatchSender.Outcome.SENT));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Satu", received[0].getSubject());
+    }
+
+    @Test
+    void send_shouldRejectInvalidAddressAndSendTheRest() {
+        EmailBatchSender sender = new EmailBatchSender(mailSender(greenMail.getSmtp().getPort()), new Instrumentation(new SimpleMeterRegistry()));
+
+        List<EmailBatchSender.Result> results = sender.send(List.of(
+                email("<alamat-tidak-ditutup", "Salah"),
+                email("b@fintara.test", "Benar")));
+
+        assertEquals(EmailBatchSender.Outcome.REJECTED, results.get(0).outcome());
+        assertEquals(EmailBatchSender.Outcome.SENT, results.get(1).outcome());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void send_shouldMarkBatchForRetryWhenServerUnreachable() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        EmailBatchSender sender = new EmailBatchSender(mailSender(closedPort), new Instrumentation(new SimpleMeterRegistry()));
+
+        List<EmailBatchSender.Result> results = sender.send(List.of(email("a@fintara.test", "Satu"), email("b@fintara.test", "Dua")));
+
+        assertTrue(results.stream().allMatch(result -> result.outcome() == EmailBatchSender.Outcome.RETRY));
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return mailSender;
+    }
+
+    private static EmailOutbox email(String to, String subject) {
+        return EmailOutbox.builder()
+                .id(UUID.randomUUID())
+                .recipient(to)
+                .subject(subject)
+                .body("<p>" + subject + "</p>")
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.fintara.email;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlTemplateTest {
+
+    @Test
+    void render_shouldFillPlaceholdersAndEscapeValues() {
+        HtmlTemplate template = HtmlTemplate.compile("<h2>Hai, {{name}}</h2><a href=\"{{ link }}\">x</a>");
+
+        String html = template.render(Map.of("name", "<b>Budi</b> & co", "link", "https://a/?t=1&u=\"2\""));
+
+        assertEquals("<h2>Hai, &lt;b&gt;Budi&lt;/b&gt; &amp; co</h2><a href=\"https://a/?t=1&amp;u=&quot;2&quot;\">x</a>", html);
+    }
+
+    @Test
+    void render_shouldRejectMissingValue() {
+        HtmlTemplate template = HtmlTemplate.compile("<p>{{amount}}</p>");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of()));
+    }
+
+    @Test
+    void emailTemplates_shouldLoadAndRender() {
+        String html = EmailTemplate.LOAN_DISBURSED.render(Map.of("name", "Siti", "amount", "5000000"));
+
+        assertTrue(html.contains("Hai, Siti"));
+        assertTrue(html.contains("<strong>5000000</strong>"));
+        assertEquals("Pinjaman Anda Telah Dicairkan - Fintara", EmailTemplate.LOAN_DISBURSED.getSubject());
+    }
+}
@@ -0,0 +1,58 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.customerDTO.CustomerProfileResponseDTO;
+import com.fintara.models.CustomerDetails;
+import com.fintara.models.User;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerMapperTest {
+    private final CustomerMapper mapper = Mappers.getMapper(CustomerMapper.class);
+
+    private CustomerDetails customerDetails() {
+        User user = User.builder().name("Budi Santoso").email("budi@fintara.id").build();
+        return CustomerDetails.builder()
+                .user(user)
+                .ttl(LocalDate.of(1990, 5, 17))
+                .alamat("Jl. Sudirman 1")
+                .noTelp("081234567890")
+                .nik("3174012345678901")
+                .namaIbuKandung("Siti")
+                .pekerjaan("Karyawan")
+                .gaji(new BigDecimal("12500000"))
+                .noRek("1234567890")
+                .statusRumah("Milik Sendiri")
+                .build();
+    }
+
+    @Test
+    void toProfileResponse_shouldMatchPreviousModelMapperResult() {
+        CustomerDetails customerDetails = customerDetails();
+
+        // Hasil cara lama: ModelMapper lalu nama & email di-set manual dari user
+        CustomerProfileResponseDTO expected = new ModelMapper().map(customerDetails, CustomerProfileResponseDTO.class);
+        expected.setName(customerDetails.getUser().getName());
+        expected.setEmail(customerDetails.getUser().getEmail());
+
+        assertEquals(expected, mapper.toProfileResponse(customerDetails));
+    }
+
+    @Test
+    void toProfileResponse_shouldTolerateMissingUserAndNullSource() {
+        CustomerDetails customerDetails = customerDetails();
+        customerDetails.setUser(null);
+
+        CustomerProfileResponseDTO response = mapper.toProfileResponse(customerDetails);
+
+        assertNull(response.getName());
+        assertEquals("3174012345678901", response.getNik());
+        assertNull(mapper.toProfileResponse(null));
+        assertNull(mapper.toCustomerDetailsDTO(null));
+    }
+}
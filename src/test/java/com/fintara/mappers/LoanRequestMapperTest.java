@@ -0,0 +1,64 @@
+package com.fintara.mappers;
+
+import com.fintara.dtos.loanRequestDTO.LoanInProgressResponseDTO;
+import com.fintara.dtos.loanRequestDTO.LoanRequestApprovalDTO;
+import com.fintara.models.CustomerDetails;
+import com.fintara.models.LoanRequest;
+import com.fintara.models.LoanStatus;
+import com.fintara.models.User;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanRequestMapperTest {
+    private final LoanRequestMapper mapper = Mappers.getMapper(LoanRequestMapper.class);
+
+    private LoanRequest loanRequest() {
+        User user = User.builder().id(UUID.randomUUID()).name("Budi").email("budi@fintara.id").build();
+        CustomerDetails customer = CustomerDetails.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .noTelp("081234567890")
+                .gaji(new BigDecimal("8000000"))
+                .build();
+        return LoanRequest.builder()
+                .id(UUID.randomUUID())
+                .customer(customer)
+                .status(LoanStatus.builder().name("REVIEW").build())
+                .amount(new BigDecimal("5000000"))
+                .tenor(12)
+                .build();
+    }
+
+    @Test
+    void toInProgressResponse_shouldUseCustomerUserIdAndSkipMissingAssociations() {
+        LoanRequest loanRequest = loanRequest();
+
+        LoanInProgressResponseDTO dto = mapper.toInProgressResponse(loanRequest);
+
+        assertEquals(loanRequest.getCustomer().getUser().getId(), dto.getCustomerId());
+        assertEquals(loanRequest.getId(), dto.getLoanRequestId());
+        assertEquals("REVIEW", dto.getStatus());
+        // branch & marketing tidak di-set: hasilnya null, bukan NullPointerException
+        assertNull(dto.getBranchName());
+        assertNull(dto.getMarketingEmail());
+    }
+
+    @Test
+    void toApprovalQueueItem_shouldFlattenCustomerFields() {
+        LoanRequest loanRequest = loanRequest();
+
+        LoanRequestApprovalDTO dto = mapper.toApprovalQueueItem(loanRequest);
+
+        assertEquals("Budi", dto.getCustomerName());
+        assertEquals("budi@fintara.id", dto.getCustomerEmail());
+        assertEquals("081234567890", dto.getCustomerPhone());
+        assertEquals(new BigDecimal("8000000"), dto.getCustomerSalary());
+        assertEquals(12, dto.getTenor());
+        assertNull(dto.getMarketingNotes());
+    }
+}
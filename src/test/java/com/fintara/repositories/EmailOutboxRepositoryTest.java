@@ -0,0 +1,18 @@
+package com.fintara.repositories;
+
+import com.fintara.models.EmailOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailOutboxRepositoryTest {
+
+    @Test
+    void findAllByClaimToken_shouldOrderByCreatedAtThenId() {
+        PartTree query = new PartTree("findAllByClaimTokenOrderByCreatedAtAscIdAsc", EmailOutbox.class);
+
+        assertEquals(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id")), query.getSort());
+    }
+}
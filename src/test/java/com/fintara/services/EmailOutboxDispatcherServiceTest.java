@@ -0,0 +1,67 @@
+package com.fintara.services;
+
+import com.fintara.repositories.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherServiceTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private EmailOutboxDispatcherService dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Wake-up dijalankan langsung di thread pemanggil, jadi interleaving bisa diatur dari dalam poll
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        });
+        when(emailOutboxRepository.findDueIds(any(), any(), any())).thenReturn(List.of());
+
+        dispatcher = new EmailOutboxDispatcherService();
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxRepository", emailOutboxRepository);
+        ReflectionTestUtils.setField(dispatcher, "taskScheduler", taskScheduler);
+        ReflectionTestUtils.setField(dispatcher, "sendExecutor", new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()));
+    }
+
+    @Test
+    void wakeUpAfterCommit_shouldBeServedWhenArrivingWhilePollIsRunning() {
+        AtomicInteger rounds = new AtomicInteger();
+        when(emailOutboxRepository.releaseStaleClaims(any())).thenAnswer(invocation -> {
+            // Email baru commit saat poll pertama masih berjalan: wake-up-nya ditolak poll yang sedang berjalan
+            if (rounds.incrementAndGet() == 1) {
+                dispatcher.wakeUpAfterCommit();
+            }
+            return 0;
+        });
+
+        dispatcher.poll();
+        verify(emailOutboxRepository, times(2)).releaseStaleClaims(any());
+
+        // Flag wake-up tidak tertinggal, jadi email berikutnya tetap membangunkan poller
+        dispatcher.wakeUpAfterCommit();
+        verify(emailOutboxRepository, times(3)).releaseStaleClaims(any());
+    }
+}
@@ -0,0 +1,100 @@
+package com.fintara.services;
+
+import com.fintara.storage.ContentHashIndex;
+import com.fintara.storage.StorageGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FileStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, String> redis = new HashMap<>();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private final ThreadPoolExecutor uploadExecutor =
+            new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(values.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+
+        ContentHashIndex contentHashIndex = new ContentHashIndex();
+        ReflectionTestUtils.setField(contentHashIndex, "ttlDays", 180L);
+        ReflectionTestUtils.setField(contentHashIndex, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(contentHashIndex, "meterRegistry", new SimpleMeterRegistry());
+
+        StorageGateway storageGateway = mock(StorageGateway.class);
+        when(storageGateway.upload(any(), any())).thenAnswer(invocation ->
+                "https://storage/" + invocation.getArgument(1) + "/asset-" + uploads.incrementAndGet() + ".jpg");
+        ImageNormalizationService imageNormalizationService = mock(ImageNormalizationService.class);
+        when(imageNormalizationService.normalize(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        fileStorageService = new FileStorageService();
+        ReflectionTestUtils.setField(fileStorageService, "timeoutSeconds", 5L);
+        ReflectionTestUtils.setField(fileStorageService, "spoolDir", tempDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "storageGateway", storageGateway);
+        ReflectionTestUtils.setField(fileStorageService, "imageNormalizationService", imageNormalizationService);
+        ReflectionTestUtils.setField(fileStorageService, "contentHashIndex", contentHashIndex);
+        ReflectionTestUtils.setField(fileStorageService, "uploadExecutor", uploadExecutor);
+        fileStorageService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadExecutor.shutdownNow();
+    }
+
+    @Test
+    void storeImage_shouldNotShareIdentityDocumentBetweenUsers() throws Exception {
+        String urlA = fileStorageService.storeImage(ktp(), UUID.randomUUID(), "ktp");
+        String urlB = fileStorageService.storeImage(ktp(), UUID.randomUUID(), "ktp");
+
+        assertNotEquals(urlA, urlB);
+        assertEquals(2, uploads.get());
+    }
+
+    @Test
+    void storeImage_shouldReuseAssetWhenSameUserUploadsSameBytes() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        String first = fileStorageService.storeImage(ktp(), userId, "ktp");
+        String second = fileStorageService.storeImage(ktp(), userId, "ktp");
+
+        assertEquals(first, second);
+        assertEquals(1, uploads.get());
+    }
+
+    private static MockMultipartFile ktp() {
+        return new MockMultipartFile("file", "ktp.jpg", "image/jpeg", new byte[]{1, 2, 3, 4, 5});
+    }
+}
@@ -21,6 +21,9 @@ class PlafondServiceTest {
     @Mock
     private PlafondRepository plafondRepository;
 
+    @Mock
+    private DashboardCounterService dashboardCounterService;
+
     private NameNormalizer nameNormalizer;
 
     private PlafondService plafondService;
@@ -29,7 +32,7 @@ class PlafondServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         nameNormalizer = new NameNormalizer(); // pakai instance asli
-        plafondService = new PlafondService(plafondRepository, nameNormalizer);
+        plafondService = new PlafondService(plafondRepository, nameNormalizer, dashboardCounterService);
     }
 
     @Test
@@ -54,6 +57,7 @@ class PlafondServiceTest {
         assertEquals(12, result.getMaxTenor());
         verify(plafondRepository).findByName("Test Plafond");
         verify(plafondRepository).save(any(Plafond.class));
+        verify(dashboardCounterService).increment(DashboardCounterService.TOTAL_PLAFONDS);
     }
 
     @Test
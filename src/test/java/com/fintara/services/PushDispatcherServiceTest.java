@@ -0,0 +1,159 @@
+package com.fintara.services;
+
+import com.fintara.models.User;
+import com.fintara.models.UserDeviceToken;
+import com.fintara.push.InMemoryPushGateway;
+import com.fintara.repositories.UserDeviceTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PushDispatcherServiceTest {
+
+    @Mock
+    private UserDeviceTokenRepository userDeviceTokenRepository;
+
+    private InMemoryPushGateway pushGateway;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService sendExecutor;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private PushDispatcherService dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pushGateway = new InMemoryPushGateway();
+        meterRegistry = new SimpleMeterRegistry();
+        sendExecutor = Executors.newFixedThreadPool(2);
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+        // Interval flush panjang: flush dipanggil manual di test
+        dispatcher = new PushDispatcherService(pushGateway, userDeviceTokenRepository, meterRegistry,
+                sendExecutor, taskScheduler, 500, 60_000, 3, 1, 10_000, 60);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        taskScheduler.shutdown();
+        sendExecutor.shutdown();
+    }
+
+    @Test
+    void flush_shouldCoalesceDuplicatesAndSkipUsersWithoutToken() {
+        UUID userId = UUID.randomUUID();
+        when(userDeviceTokenRepository.findAllByUser_IdInAndLastLoginAfter(any(), any())).thenReturn(List.of(token(userId, "token-a")));
+
+        dispatcher.enqueue(userId, "Pinjaman", "Disetujui");
+        dispatcher.enqueue(userId, "Pinjaman", "Disetujui");
+        dispatcher.enqueue(UUID.randomUUID(), "Pinjaman", "Ditolak");
+        dispatcher.flush();
+
+        assertEquals(1, pushGateway.sent().size());
+        assertEquals("token-a", pushGateway.sent().get(0).token());
+        assertEquals(1.0, meterRegistry.counter("push.messages", "outcome", "coalesced").count());
+        assertEquals(1.0, meterRegistry.counter("push.messages", "outcome", "no_token").count());
+    }
+
+    @Test
+    void flush_shouldFanOutToAllDevicesOfUser() {
+        UUID userId = UUID.randomUUID();
+        when(userDeviceTokenRepository.findAllByUser_IdInAndLastLoginAfter(any(), any()))
+                .thenReturn(List.of(token(userId, "token-hp"), token(userId, "token-tablet")));
+
+        dispatcher.enqueue(userId, "Pinjaman", "Disetujui");
+        dispatcher.flush();
+
+        assertEquals(2, pushGateway.sent().size());
+        assertEquals(1, pushGateway.calls());
+    }
+
+    @Test
+    void flush_shouldSplitIntoBatchesOfAtMost500() {
+        List<UserDeviceToken> tokens = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            UUID userId = UUID.randomUUID();
+            tokens.add(token(userId, "token-" + i));
+            dispatcher.enqueue(userId, "Info", "Pesan");
+        }
+        // 1200 user dicari dalam dua chunk; setiap chunk hanya mengembalikan token user di chunk itu
+        when(userDeviceTokenRepository.findAllByUser_IdInAndLastLoginAfter(any(), any())).thenAnswer(invocation -> {
+            Collection<UUID> userIds = invocation.getArgument(0);
+            return tokens.stream().filter(token -> userIds.contains(token.getUser().getId())).toList();
+        });
+
+        dispatcher.flush();
+
+        assertEquals(1200, pushGateway.sent().size());
+        assertEquals(3, pushGateway.calls());
+    }
+
+    @Test
+    void flush_shouldLookUpTokensInChunks() {
+        for (int i = 0; i < 2500; i++) {
+            dispatcher.enqueue(UUID.randomUUID(), "Info", "Pesan");
+        }
+
+        dispatcher.flush();
+
+        // Batas parameter SQL Server: user dalam satu flush tidak boleh dikirim sebagai satu daftar IN
+        verify(userDeviceTokenRepository, times(3)).findAllByUser_IdInAndLastLoginAfter(argThat(ids -> ids.size() <= 1000), any());
+        assertEquals(2500.0, meterRegistry.counter("push.messages", "outcome", "no_token").count());
+    }
+
+    @Test
+    void flush_shouldPurgeUnregisteredTokens() {
+        UUID userId = UUID.randomUUID();
+        when(userDeviceTokenRepository.findAllByUser_IdInAndLastLoginAfter(any(), any())).thenReturn(List.of(token(userId, "token-lama")));
+        pushGateway.markUnregistered("token-lama");
+
+        dispatcher.enqueue(userId, "Info", "Pesan");
+        dispatcher.flush();
+
+        assertTrue(pushGateway.sent().isEmpty());
+        verify(userDeviceTokenRepository).deleteByFcmTokenIn(List.of("token-lama"));
+    }
+
+    @Test
+    void flush_shouldRetryTransientFailures() throws InterruptedException {
+        UUID userId = UUID.randomUUID();
+        when(userDeviceTokenRepository.findAllByUser_IdInAndLastLoginAfter(any(), any())).thenReturn(List.of(token(userId, "token-a")));
+        pushGateway.failNextCalls(1);
+
+        dispatcher.enqueue(userId, "Info", "Pesan");
+        dispatcher.flush();
+
+        // Percobaan ulang dijadwalkan di scheduler setelah backoff singkat
+        for (int i = 0; i < 100 && pushGateway.sent().isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, pushGateway.sent().size());
+        assertEquals(2, pushGateway.calls());
+        assertEquals(1.0, meterRegistry.counter("push.messages", "outcome", "retried").count());
+    }
+
+    private static UserDeviceToken token(UUID userId, String fcmToken) {
+        User user = new User();
+        user.setId(userId);
+        UserDeviceToken token = new UserDeviceToken();
+        token.setUser(user);
+        token.setFcmToken(fcmToken);
+        return token;
+    }
+}
@@ -0,0 +1,101 @@
+package com.fintara.services;
+
+import com.fintara.models.User;
+import com.fintara.repositories.DeviceTokenOwnerView;
+import com.fintara.repositories.UserDeviceTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserDeviceTokenServiceTest {
+
+    @Mock
+    private UserDeviceTokenRepository userDeviceTokenRepository;
+
+    @InjectMocks
+    private UserDeviceTokenService userDeviceTokenService;
+
+    private final User userA = user();
+    private final User userB = user();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userDeviceTokenService, "knownCacheSize", 1000L);
+        ReflectionTestUtils.setField(userDeviceTokenService, "knownCacheTtlMinutes", 60L);
+        userDeviceTokenService.init();
+    }
+
+    @Test
+    void registerToken_shouldOnlyTouchKnownDeviceOfSameUser() {
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+
+        verify(userDeviceTokenRepository, times(1)).upsert(eq(userA.getId()), eq("token-hp"), eq("Android"), any());
+    }
+
+    @Test
+    void registerToken_shouldUpsertWhenDeviceSwitchedBackToPreviousUser() {
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+        userDeviceTokenService.registerToken(userB, "token-hp", "Android");
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+
+        // Login ulang A tidak boleh hanya di-touch: token masih tercatat milik B
+        verify(userDeviceTokenRepository, times(2)).upsert(eq(userA.getId()), eq("token-hp"), eq("Android"), any());
+        verify(userDeviceTokenRepository, times(1)).upsert(eq(userB.getId()), eq("token-hp"), eq("Android"), any());
+    }
+
+    @Test
+    void flushLastLogins_shouldReassignTokenTakenOverOnAnotherNode() {
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+        // Sementara itu B login di device yang sama lewat node lain
+        when(userDeviceTokenRepository.findOwnersByFcmTokenIn(any())).thenReturn(List.of(owner("token-hp", userB.getId())));
+
+        userDeviceTokenService.flushLastLogins();
+
+        verify(userDeviceTokenRepository, times(2)).upsert(eq(userA.getId()), eq("token-hp"), eq("Android"), any());
+        verify(userDeviceTokenRepository, never()).touch(any(), any());
+    }
+
+    @Test
+    void flushLastLogins_shouldTouchTokensStillOwnedByUser() {
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+        userDeviceTokenService.registerToken(userA, "token-hp", "Android");
+        when(userDeviceTokenRepository.findOwnersByFcmTokenIn(any())).thenReturn(List.of(owner("token-hp", userA.getId())));
+
+        userDeviceTokenService.flushLastLogins();
+
+        verify(userDeviceTokenRepository).touch(eq(List.of("token-hp")), any());
+        verify(userDeviceTokenRepository, times(1)).upsert(any(), any(), any(), any());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static DeviceTokenOwnerView owner(String fcmToken, UUID userId) {
+        return new DeviceTokenOwnerView() {
+            @Override
+            public String getFcmToken() {
+                return fcmToken;
+            }
+
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.fintara.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fintara.exceptions.CustomException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageGatewayTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void upload_shouldCopyFileIntoFolderAndReturnPublicUrl() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("ktp.jpg"), "isi-file");
+        LocalStorageGateway gateway = gateway(tempDir.resolve("storage"), "http://localhost/files/");
+
+        String url = gateway.upload(source, "ktp");
+
+        assertTrue(url.startsWith("http://localhost/files/ktp/"));
+        assertTrue(url.endsWith(".jpg"));
+        Path stored = tempDir.resolve("storage").resolve(url.substring("http://localhost/files/".length()));
+        assertEquals("isi-file", Files.readString(stored));
+        assertTrue(Files.exists(source), "file sumber tetap milik pemanggil");
+    }
+
+    @Test
+    void upload_shouldRejectFolderOutsideRoot() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("foto.png"), "x");
+        LocalStorageGateway gateway = gateway(tempDir.resolve("storage"), "http://localhost/files");
+
+        assertThrows(IOException.class, () -> gateway.upload(source, "../luar"));
+    }
+
+    @Test
+    void directUpload_shouldStoreSignedFileAndVerifyIt() throws IOException {
+        LocalStorageGateway gateway = gateway(tempDir, "http://localhost/files");
+        assertNull(gateway.verify("ktp/abc"), "belum ada file sebelum upload");
+
+        Map<String, String> fields = gateway.sign("ktp/abc", Instant.now().plusSeconds(600)).fields();
+        String url = gateway.receive(fields.get("public_id"), fields.get("expires"), fields.get("signature"),
+                "KTP.JPG", new ByteArrayInputStream("gambar".getBytes(StandardCharsets.UTF_8)));
+
+        DirectUploadSigner.StoredAsset asset = gateway.verify("ktp/abc");
+        assertEquals("http://localhost/files/ktp/abc.jpg", url);
+        assertEquals(url, asset.url());
+        assertEquals(6, asset.bytes());
+        assertEquals("jpg", asset.format());
+    }
+
+    @Test
+    void directUpload_shouldRejectTamperedOrExpiredTicket() {
+        LocalStorageGateway gateway = gateway(tempDir, "http://localhost/files");
+        Map<String, String> fields = gateway.sign("ktp/abc", Instant.now().plusSeconds(600)).fields();
+        Map<String, String> expired = gateway.sign("ktp/abc", Instant.now().minusSeconds(1)).fields();
+
+        assertThrows(CustomException.class, () -> gateway.receive("selfie/abc", fields.get("expires"), fields.get("signature"),
+                "a.jpg", new ByteArrayInputStream(new byte[1])));
+        assertThrows(CustomException.class, () -> gateway.receive("ktp/abc", expired.get("expires"), expired.get("signature"),
+                "a.jpg", new ByteArrayInputStream(new byte[1])));
+    }
+
+    private static LocalStorageGateway gateway(Path root, String baseUrl) {
+        return new LocalStorageGateway(root.toString(), baseUrl, "http://localhost/v1/local-storage/upload", "rahasia");
+    }
+}
@@ -0,0 +1,52 @@
+package com.fintara.utils;
+
+import com.fintara.utils.EmployeeCsvReader.EmployeeCsvRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCsvReaderTest {
+
+    private List<EmployeeCsvRow> readAll(String content, int maxRows) throws IOException {
+        return new EmployeeCsvReader(maxRows).read(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void read_shouldMapColumnsByHeaderInAnyOrder() throws IOException {
+        String csv = "\uFEFFNIP,Nama,Email,Role,Cabang,Gender,Status\r\n"
+                + "12345678,\"Santoso, Budi\",budi@fintara.id,MARKETING,Jakarta Pusat,LAKI_LAKI,ACTIVE\r\n"
+                + "\r\n"
+                + "87654321,Siti,siti@fintara.id,BACK_OFFICE,Bandung,PEREMPUAN\n";
+
+        List<EmployeeCsvRow> rows = readAll(csv, 10);
+
+        assertEquals(2, rows.size());
+        EmployeeCsvRow first = rows.get(0);
+        assertTrue(first.isValid());
+        assertEquals(2, first.lineNumber());
+        assertEquals("Santoso, Budi", first.name());
+        assertEquals("12345678", first.nip());
+        assertEquals("Jakarta Pusat", first.branchName());
+        assertEquals("ACTIVE", first.statusPegawai());
+
+        EmployeeCsvRow second = rows.get(1);
+        assertFalse(second.isValid());
+        assertEquals(4, second.lineNumber());
+    }
+
+    @Test
+    void read_shouldRejectMissingColumnsAndTooManyRows() {
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> readAll("name,email,nip\n", 10));
+        assertTrue(missing.getMessage().contains("role"));
+
+        String header = "name,email,nip,role,branch,jenis_kelamin,status_pegawai\n";
+        String row = "Budi,budi@fintara.id,12345678,MARKETING,Jakarta,LAKI_LAKI,ACTIVE\n";
+        assertThrows(IllegalArgumentException.class, () -> readAll(header + row + row, 1));
+    }
+}
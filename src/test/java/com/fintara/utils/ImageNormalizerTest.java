@@ -0,0 +1,74 @@
+package com.fintara.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageNormalizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ImageNormalizer normalizer = new ImageNormalizer(1600, 0.85f);
+
+    @Test
+    void normalize_shouldDownscaleToMaxDimensionAsJpeg() throws IOException {
+        Path source = tempDir.resolve("ktp.png");
+        ImageIO.write(new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_ARGB), "png", source.toFile());
+        Path target = tempDir.resolve("ktp.jpg");
+
+        ImageNormalizer.Result result = normalizer.normalize(source, target);
+
+        assertEquals(new ImageNormalizer.Result(1600, 1200), result);
+        BufferedImage stored = ImageIO.read(target.toFile());
+        assertEquals(1600, stored.getWidth());
+        assertEquals(1200, stored.getHeight());
+    }
+
+    @Test
+    void normalize_shouldApplyExifOrientation() throws IOException {
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "jpg", jpeg);
+        Path source = tempDir.resolve("selfie.jpg");
+        Files.write(source, withExifOrientation(jpeg.toByteArray(), 6));
+
+        ImageNormalizer.Result result = normalizer.normalize(source, tempDir.resolve("selfie-normalized.jpg"));
+
+        // Orientasi 6 = putar 90° searah jarum jam, jadi lebar & tinggi tertukar
+        assertEquals(new ImageNormalizer.Result(20, 40), result);
+    }
+
+    @Test
+    void normalize_shouldSkipFilesThatAreNotImages() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("dokumen.txt"), "bukan gambar");
+
+        assertNull(normalizer.normalize(source, tempDir.resolve("dokumen.jpg")));
+    }
+
+    // Sisipkan segmen APP1 EXIF (big-endian, satu entry orientasi) tepat setelah marker SOI
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {'M', 'M', 0, 42, 0, 0, 0, 8, 0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0, 0, 0, 0, 0};
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        int length = header.length + tiff.length + 2;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.write(header, 0, header.length);
+        out.write(tiff, 0, tiff.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.fintara.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RebuildableSnapshotTest {
+
+    @Test
+    void rebuild_shouldReplayUpdatesReceivedDuringRebuild() {
+        RebuildableSnapshot<List<String>> snapshot = new RebuildableSnapshot<>(new ArrayList<>(List.of("lama")));
+
+        List<String> fresh = snapshot.rebuild(() -> {
+            // Update dari transaksi lain yang commit saat data sedang dimuat
+            snapshot.apply(current -> current.add("baru"));
+            return new ArrayList<>(List.of("dari-db"));
+        });
+
+        assertEquals(List.of("dari-db", "baru"), fresh);
+        assertEquals(List.of("dari-db", "baru"), snapshot.read(List::copyOf));
+    }
+
+    @Test
+    void rebuild_shouldSkipWhenAnotherRebuildIsRunning() {
+        RebuildableSnapshot<List<String>> snapshot = new RebuildableSnapshot<>(new ArrayList<>());
+
+        List<String> outer = snapshot.rebuild(() -> {
+            assertNull(snapshot.rebuild(() -> fail("rebuild kedua tidak boleh memuat data")));
+            return new ArrayList<>(List.of("dari-db"));
+        });
+
+        assertEquals(List.of("dari-db"), outer);
+    }
+
+    @Test
+    void rebuild_shouldKeepCurrentValueWhenLoaderFails() {
+        RebuildableSnapshot<List<String>> snapshot = new RebuildableSnapshot<>(new ArrayList<>(List.of("lama")));
+
+        assertThrows(IllegalStateException.class, () -> snapshot.rebuild(() -> {
+            throw new IllegalStateException("database tidak tersedia");
+        }));
+        snapshot.apply(current -> current.add("baru"));
+
+        assertEquals(List.of("lama", "baru"), snapshot.read(List::copyOf));
+        // Flag rebuild dilepas, jadi rebuild berikutnya tetap berjalan
+        assertNotNull(snapshot.rebuild(ArrayList::new));
+    }
+}
@@ -0,0 +1,89 @@
+package com.fintara.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private record Row(long line, boolean valid, UUID orderId, long cents, boolean paid, long epochDay) {
+    }
+
+    private List<Row> readAll(String content) throws IOException {
+        Path file = tempDir.resolve("settlement.csv");
+        Files.writeString(file, content);
+
+        List<Row> rows = new ArrayList<>();
+        new SettlementCsvReader().read(file, row -> rows.add(new Row(
+                row.getLineNumber(),
+                row.isValid(),
+                row.isValid() ? new UUID(row.getOrderIdMsb(), row.getOrderIdLsb()) : null,
+                row.getAmountCents(),
+                row.isPaid(),
+                row.getSettlementEpochDay())));
+        return rows;
+    }
+
+    @Test
+    void read_shouldParseQuotedAmountsStatusAndSettlementDate() throws IOException {
+        UUID orderId = UUID.randomUUID();
+        String csv = "\uFEFFOrder ID,Gross Amount,Transaction Status,Settlement Time\r\n"
+                + orderId + ",\"150,000.5\",SETTLEMENT,2025-05-01 10:22:33\r\n"
+                + "\n"
+                + UUID.randomUUID() + ",25000,expire,\n";
+
+        List<Row> rows = readAll(csv);
+
+        assertEquals(2, rows.size());
+        Row first = rows.get(0);
+        assertTrue(first.valid());
+        assertEquals(orderId, first.orderId());
+        assertEquals(15_000_050L, first.cents());
+        assertTrue(first.paid());
+        assertEquals(LocalDate.of(2025, 5, 1).toEpochDay(), first.epochDay());
+
+        Row second = rows.get(1);
+        assertEquals(4, second.line());
+        assertFalse(second.paid());
+        assertEquals(-1, second.epochDay());
+    }
+
+    @Test
+    void read_shouldFlagMalformedRows() throws IOException {
+        String csv = "order_id,gross_amount,transaction_status\n"
+                + "bukan-uuid,1000,settlement\n"
+                + UUID.randomUUID() + ",12.345,settlement\n"
+                + UUID.randomUUID() + ",1000\n";
+
+        List<Row> rows = readAll(csv);
+
+        assertEquals(3, rows.size());
+        assertTrue(rows.stream().noneMatch(Row::valid));
+    }
+
+    @Test
+    void read_shouldRejectMissingRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> readAll("order_id,amount\n"));
+    }
+
+    @Test
+    void parseCents_shouldHandleFractionDigits() {
+        assertEquals(100, SettlementCsvReader.parseCents("1".getBytes(), 0, 1));
+        assertEquals(120, SettlementCsvReader.parseCents("1.2".getBytes(), 0, 3));
+        assertEquals(123, SettlementCsvReader.parseCents("1.230".getBytes(), 0, 5));
+        assertEquals(-1, SettlementCsvReader.parseCents("-1".getBytes(), 0, 2));
+        assertEquals(-1, SettlementCsvReader.parseCents("".getBytes(), 0, 0));
+    }
+}